@@ -0,0 +1,95 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import com.tonyghouse.restaurant_service.constants.FoodType;
+import com.tonyghouse.restaurant_service.constants.MenuType;
+import com.tonyghouse.restaurant_service.dto.MenuItemResponse;
+import com.tonyghouse.restaurant_service.dto.MenuWithItemsResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+Encode and decode time of a menu in the JSON and Smile cache codecs. Payload sizes
+are asserted in CacheCodecsTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CacheCodecBenchmark {
+
+    private static final CacheCodec<MenuWithItemsResponse> JSON = CacheCodecs.json(MenuWithItemsResponse.class);
+    private static final CacheCodec<MenuWithItemsResponse> SMILE = CacheCodecs.smile(MenuWithItemsResponse.class);
+
+    @Param({"20", "200"})
+    int items;
+
+    MenuWithItemsResponse menu;
+    byte[] json;
+    byte[] smile;
+
+    @Setup
+    public void menu() {
+        menu = menu(items);
+        json = JSON.encode(menu);
+        smile = SMILE.encode(menu);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return JSON.encode(menu);
+    }
+
+    @Benchmark
+    public byte[] encodeSmile() {
+        return SMILE.encode(menu);
+    }
+
+    @Benchmark
+    public MenuWithItemsResponse decodeJson() {
+        return JSON.decode(json, 0, json.length);
+    }
+
+    @Benchmark
+    public MenuWithItemsResponse decodeSmile() {
+        return SMILE.decode(smile, 0, smile.length);
+    }
+
+    // same shape as the CacheCodecsTest menu: few categories, long descriptions
+    private static MenuWithItemsResponse menu(int items) {
+        String[] categories = {"STARTER", "MAIN", "BREAD", "DESSERT", "BEVERAGE"};
+        List<MenuItemResponse> list = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            MenuItemResponse item = new MenuItemResponse();
+            item.setId(new UUID(0xA11CEL, i));
+            item.setName("Item " + i);
+            item.setDescription("House special number " + i + ", slow cooked and served with two sides");
+            item.setPrice(new BigDecimal("149.00").add(BigDecimal.valueOf(i)));
+            item.setPreparationTime(5 + i % 20);
+            item.setCategory(categories[i % categories.length]);
+            item.setFoodType(i % 2 == 0 ? FoodType.VEGETARIAN : FoodType.NON_VEGETARIAN);
+            item.setAvailable(true);
+            item.setCreatedAt(Instant.parse("2025-01-01T00:00:00Z").plusSeconds(i));
+            list.add(item);
+        }
+        MenuWithItemsResponse menu = new MenuWithItemsResponse();
+        menu.setMenuId(new UUID(0xBEEFL, items));
+        menu.setMenuType(MenuType.LUNCH);
+        menu.setValidFrom(LocalTime.of(11, 0));
+        menu.setValidTo(LocalTime.of(15, 0));
+        menu.setItems(list);
+        return menu;
+    }
+}
@@ -0,0 +1,66 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+The binary order event encoding against JSON as the publisher wrote it before
+(ISO-8601 dates). Payload sizes are asserted in OrderEventCodecTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderEventCodecBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    OrderStatusChangedEvent event;
+    byte[] json;
+    byte[] binary;
+
+    @Setup
+    public void event() throws JsonProcessingException {
+        event = new OrderStatusChangedEvent(
+                UUID.randomUUID(), OrderStatus.PREPARING, OrderStatus.READY, Instant.now());
+        json = mapper.writeValueAsBytes(event);
+        binary = OrderEventCodec.encode(event);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return OrderEventCodec.encode(event);
+    }
+
+    @Benchmark
+    public OrderStatusChangedEvent decodeJson() throws IOException {
+        return mapper.readValue(json, OrderStatusChangedEvent.class);
+    }
+
+    @Benchmark
+    public OrderStatusChangedEvent decodeBinary() {
+        return OrderEventCodec.decode(binary);
+    }
+}
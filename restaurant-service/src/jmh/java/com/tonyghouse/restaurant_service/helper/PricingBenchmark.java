@@ -0,0 +1,63 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/*
+Cart totals the way OrderPricingServiceImpl used to compute them (a BigDecimal per
+multiply and add) against the minor-unit Money path it uses now. Both produce items
+total, tax and grand total; run with -prof gc to compare allocation per op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PricingBenchmark {
+
+    private static final BigDecimal TAX_RATE = new BigDecimal("0.18");
+    private static final long TAX_RATE_BPS = Money.basisPoints(TAX_RATE);
+
+    @Param({"10", "100", "1000"})
+    int lines;
+
+    BigDecimal[] unitPrices;
+    int[] quantities;
+
+    @Setup
+    public void cart() {
+        unitPrices = new BigDecimal[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            unitPrices[i] = new BigDecimal("149.00").add(BigDecimal.valueOf(i % 50));
+            quantities[i] = 1 + i % 4;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal itemsTotal = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            itemsTotal = itemsTotal.add(unitPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        BigDecimal tax = itemsTotal.multiply(TAX_RATE);
+        return itemsTotal.add(tax).add(BigDecimal.ZERO);
+    }
+
+    @Benchmark
+    public BigDecimal minorUnits() {
+        long itemsTotal = 0L;
+        for (int i = 0; i < lines; i++) {
+            itemsTotal = Money.add(itemsTotal, Money.times(Money.toMinor(unitPrices[i]), quantities[i]));
+        }
+        long tax = Money.percentOf(itemsTotal, TAX_RATE_BPS);
+        return Money.toBigDecimal(Money.add(Money.add(itemsTotal, tax), 0L));
+    }
+}
@@ -0,0 +1,122 @@
+package com.tonyghouse.restaurant_service.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${order.events.replay.max-poll-records:2000}")
+    private int maxPollRecords;
+
+    @Value("${order.events.replay.fetch-min-bytes:1048576}")
+    private int fetchMinBytes;
+
+    @Value("${order.events.replay.fetch-max-wait-ms:200}")
+    private int fetchMaxWaitMs;
+
+    @Value("${order.analytics.prep-time.group-id:restaurant-service-prep-time}")
+    private String prepTimeGroupId;
+
+    @Value("${order.analytics.prep-time.concurrency:3}")
+    private int prepTimeConcurrency;
+
+    @Value("${order.events.live.group-prefix:restaurant-service-live}")
+    private String liveGroupPrefix;
+
+    /*
+    Consumers for event replays. They assign partitions themselves and keep offsets in
+    order_event_checkpoint, so there is no group id and nothing is committed to the broker.
+    Large fetches: a replay reads history as fast as the projections can write it.
+     */
+    @Bean
+    public ConsumerFactory<String, byte[]> replayConsumerFactory() {
+
+        Map<String, Object> props = new HashMap<>();
+
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // a checkpoint older than the topic retention restarts at the oldest record left
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    /*
+    Live consumer group for prep time analytics. Batch listener: one poll is joined with
+    orders and history in a couple of queries. A new group starts at the latest offset;
+    older events are history, not live analytics.
+    The consumer factory is not a bean, so replayConsumerFactory stays the only one.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> prepTimeListenerContainerFactory() {
+
+        Map<String, Object> props = new HashMap<>();
+
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, prepTimeGroupId);
+
+        // the container commits after each processed batch
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        factory.setConcurrency(prepTimeConcurrency);
+        return factory;
+    }
+
+    /*
+    Live consumer for this instance's in-memory views (SSE subscribers, kitchen queue).
+    Every instance must see every event, so each start gets a group of its own and
+    reads from the latest offset. Its committed offsets are never read back; the
+    broker expires them once the instance is gone.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> liveListenerContainerFactory() {
+
+        Map<String, Object> props = new HashMap<>();
+
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, liveGroupPrefix + "-" + UUID.randomUUID());
+
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // a restarted instance rebuilds its views from the database, not from old events
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        return factory;
+    }
+}
@@ -2,6 +2,8 @@ package com.tonyghouse.restaurant_service.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -18,30 +20,82 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${spring.kafka.producer.acks:all}")
+    private String acks;
+
+    @Value("${spring.kafka.producer.retries:2147483647}")
+    private int retries;
+
+    @Value("${spring.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${spring.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${spring.kafka.producer.properties.linger.ms:10}")
+    private int lingerMs;
+
+    @Value("${spring.kafka.producer.properties.enable.idempotence:true}")
+    private boolean idempotence;
+
+    @Value("${spring.kafka.producer.properties.max.in.flight.requests.per.connection:5}")
+    private int maxInFlight;
+
+    @Value("${spring.kafka.producer.properties.delivery.timeout.ms:120000}")
+    private int deliveryTimeoutMs;
+
+    @Value("${order.events.partitions:12}")
+    private int partitions;
+
+    @Value("${order.events.replicas:1}")
+    private int replicas;
+
+    @Value("${order.events.retention-ms:3024000000}")
+    private long retentionMs;
+
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ProducerFactory<String, byte[]> producerFactory() {
 
         Map<String, Object> props = new HashMap<>();
 
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        // values are pre-encoded by OrderEventPublisher, JSON or binary per order.events.encoding
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+
+        // idempotence keeps per-partition order across retries with up to 5 requests in flight
+        props.put(ProducerConfig.ACKS_CONFIG, acks);
+        props.put(ProducerConfig.RETRIES_CONFIG, retries);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlight);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+
+        // the outbox relay sends a whole batch before waiting, so a short linger fills batches
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
 
         return new DefaultKafkaProducerFactory<>(props);
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate(
-            ProducerFactory<String, String> producerFactory
+    public KafkaTemplate<String, byte[]> kafkaTemplate(
+            ProducerFactory<String, byte[]> producerFactory
     ) {
         return new KafkaTemplate<>(producerFactory);
     }
 
+    /*
+    Records are keyed by orderId: one order's events stay in one partition and in order,
+    while a busy branch is spread over all partitions instead of pinning one.
+    Retention bounds how far back an event replay can rebuild from (35 days by default).
+     */
     @Bean
     public NewTopic orderEventsTopic() {
         return TopicBuilder.name("order.events")
-                .partitions(1)
-                .replicas(1)
+                .partitions(partitions)
+                .replicas(replicas)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(retentionMs))
                 .build();
     }
 }
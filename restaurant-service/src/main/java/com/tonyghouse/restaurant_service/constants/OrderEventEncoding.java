@@ -0,0 +1,6 @@
+package com.tonyghouse.restaurant_service.constants;
+
+public enum OrderEventEncoding {
+    JSON,
+    BINARY
+}
@@ -5,6 +5,7 @@ public enum OrderStatus {
     ACCEPTED,
     PREPARING,
     READY,
+    PICKED_UP,
     DELIVERED,
     CANCELLED
 }
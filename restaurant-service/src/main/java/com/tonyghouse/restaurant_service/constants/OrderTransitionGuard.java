@@ -0,0 +1,21 @@
+package com.tonyghouse.restaurant_service.constants;
+
+import com.tonyghouse.restaurant_service.entity.Order;
+
+/*
+Checks a branch workflow can attach to a transition, referenced by name from
+branch_workflow_transition.guard_name. A guarded transition reads the order first;
+unguarded ones stay a single conditional UPDATE.
+ */
+public enum OrderTransitionGuard {
+
+    // payment was started with the payment service
+    PAYMENT_INITIATED {
+        @Override
+        public boolean allows(Order order) {
+            return order.getPaymentId() != null;
+        }
+    };
+
+    public abstract boolean allows(Order order);
+}
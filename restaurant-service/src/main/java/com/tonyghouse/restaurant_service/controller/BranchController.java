@@ -2,6 +2,8 @@ package com.tonyghouse.restaurant_service.controller;
 
 import com.tonyghouse.restaurant_service.dto.*;
 import com.tonyghouse.restaurant_service.service.BranchService;
+import com.tonyghouse.restaurant_service.service.OrderWorkflowService;
+import com.tonyghouse.restaurant_service.service.PrepTimeAnalyticsService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -27,6 +30,8 @@ import java.util.UUID;
 public class BranchController {
 
     private final BranchService branchService;
+    private final OrderWorkflowService orderWorkflowService;
+    private final PrepTimeAnalyticsService prepTimeAnalyticsService;
 
 
     @PostMapping
@@ -95,4 +100,39 @@ public class BranchController {
 
         log.warn("Branch deleted successfully. branchId={}", branchId);
     }
+
+
+    @GetMapping("/{branchId}/workflow")
+    @PreAuthorize("hasRole('ADMIN')")
+    public OrderWorkflowResponse getWorkflow(@PathVariable UUID branchId) {
+
+        log.debug("Fetching order workflow. branchId={}", branchId);
+
+        return orderWorkflowService.get(branchId);
+    }
+
+
+    @PutMapping("/{branchId}/workflow")
+    @PreAuthorize("hasRole('ADMIN')")
+    public OrderWorkflowResponse updateWorkflow(
+            @PathVariable UUID branchId,
+            @RequestBody OrderWorkflowRequest request) {
+
+        log.info("Updating order workflow. branchId={}", branchId);
+        log.debug("OrderWorkflowRequest payload={}", request);
+
+        return orderWorkflowService.update(branchId, request);
+    }
+
+
+    @GetMapping("/{branchId}/prep-times")
+    @PreAuthorize("hasRole('ADMIN')")
+    public PrepTimeStatsResponse getPrepTimes(
+            @PathVariable UUID branchId,
+            @RequestParam(defaultValue = "24") int hours) {
+
+        log.debug("Fetching prep time stats. branchId={} hours={}", branchId, hours);
+
+        return prepTimeAnalyticsService.stats(branchId, hours);
+    }
 }
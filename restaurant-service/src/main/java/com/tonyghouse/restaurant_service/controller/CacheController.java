@@ -0,0 +1,32 @@
+package com.tonyghouse.restaurant_service.controller;
+
+import com.tonyghouse.restaurant_service.dto.CacheStatsResponse;
+import com.tonyghouse.restaurant_service.service.CatalogCacheService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/caches")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final CatalogCacheService catalogCacheService;
+
+
+    // hit ratios and latencies of this instance since startup
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<CacheStatsResponse> getCacheStats() {
+
+        log.debug("Fetching catalog cache stats");
+
+        return catalogCacheService.stats();
+    }
+}
@@ -1,26 +1,46 @@
 package com.tonyghouse.restaurant_service.controller;
 
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.BulkOrderResponse;
+import com.tonyghouse.restaurant_service.dto.BulkTransitionRequest;
+import com.tonyghouse.restaurant_service.dto.BulkTransitionResponse;
 import com.tonyghouse.restaurant_service.dto.CreateOrderRequest;
+import com.tonyghouse.restaurant_service.dto.EventReplayRequest;
+import com.tonyghouse.restaurant_service.dto.EventReplayResponse;
 import com.tonyghouse.restaurant_service.dto.InitiatePaymentRequest;
+import com.tonyghouse.restaurant_service.dto.KitchenQueueResponse;
+import com.tonyghouse.restaurant_service.dto.OrderPageResponse;
 import com.tonyghouse.restaurant_service.dto.OrderResponse;
 import com.tonyghouse.restaurant_service.dto.OrderStatusHistoryResponse;
 import com.tonyghouse.restaurant_service.dto.PaymentCallbackRequest;
 import com.tonyghouse.restaurant_service.dto.PricePreviewResponse;
 import com.tonyghouse.restaurant_service.dto.RefundRequestDto;
+import com.tonyghouse.restaurant_service.service.KitchenQueueService;
+import com.tonyghouse.restaurant_service.service.OrderEventReplayService;
+import com.tonyghouse.restaurant_service.service.OrderIdempotencyService;
 import com.tonyghouse.restaurant_service.service.OrderPaymentService;
 import com.tonyghouse.restaurant_service.service.OrderService;
 import com.tonyghouse.restaurant_service.service.OrderStateService;
+import com.tonyghouse.restaurant_service.service.OrderStatusStreamService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.security.Principal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -32,6 +52,10 @@ public class OrderController {
     private final OrderService orderService;
     private final OrderStateService orderStateService;
     private final OrderPaymentService orderPaymentService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final KitchenQueueService kitchenQueueService;
+    private final OrderStatusStreamService orderStatusStreamService;
+    private final OrderEventReplayService orderEventReplayService;
 
 
     @PostMapping("/price-preview")
@@ -45,17 +69,89 @@ public class OrderController {
 
     @PostMapping
     @PreAuthorize("hasAnyRole('STAFF', 'CUSTOMER')") //Not for Admin
-    public OrderResponse create(@RequestBody CreateOrderRequest request) {
+    public OrderResponse create(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody CreateOrderRequest request,
+            Principal principal) {
 
-        log.info("Creating order. itemsCount={}",
-                request.getItems() != null ? request.getItems().size() : 0);
-        OrderResponse response = orderService.create(request);
+        log.info("Creating order. itemsCount={} idempotencyKey={}",
+                request.getItems() != null ? request.getItems().size() : 0, idempotencyKey);
+        OrderResponse response = idempotencyKey != null
+                ? orderIdempotencyService.create(request, principal.getName(), idempotencyKey)
+                : orderService.create(request);
         log.info("Order created successfully. orderId={}, totalAmount={}",
                 response.getOrderId(), response.getBreakdown() != null ? response.getBreakdown().getGrandTotal() : null);
         return response;
     }
 
 
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('STAFF')") //Aggregator feeds are pushed by staff integrations
+    public BulkOrderResponse createBulk(@RequestBody List<CreateOrderRequest> requests) {
+
+        log.info("Creating bulk orders. count={}", requests.size());
+        BulkOrderResponse response = orderService.createBulk(requests);
+        log.info("Bulk orders processed. created={}, failed={}",
+                response.getCreated(), response.getFailed());
+        return response;
+    }
+
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public OrderPageResponse list(
+            @RequestParam UUID branchId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(name = "status", required = false) Set<OrderStatus> statuses,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.debug("Listing orders. branchId={} date={} statuses={} size={}", branchId, date, statuses, size);
+        return orderService.listByBranch(branchId, date, statuses, cursor, size);
+    }
+
+
+    @PostMapping("/transitions")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public BulkTransitionResponse transitionAll(@RequestBody BulkTransitionRequest request) {
+        log.info("Bulk transition requested. targetStatus={} count={}",
+                request.getStatus(), request.getOrderIds() != null ? request.getOrderIds().size() : 0);
+        return orderStateService.transitionAll(request.getOrderIds(), request.getStatus());
+    }
+
+
+    @GetMapping(value = "/status-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public SseEmitter branchStatusStream(@RequestParam UUID branchId) {
+        log.debug("Branch status stream opened. branchId={}", branchId);
+        return orderStatusStreamService.subscribeBranch(branchId);
+    }
+
+
+    @PostMapping("/event-replays")
+    @PreAuthorize("hasRole('ADMIN')")
+    public EventReplayResponse startReplay(@RequestBody EventReplayRequest request) {
+        log.info("Event replay requested. projection={} from={} to={} fromScratch={}",
+                request.getProjection(), request.getFrom(), request.getTo(), request.isFromScratch());
+        return orderEventReplayService.start(request);
+    }
+
+
+    @GetMapping("/event-replays/{replayId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public EventReplayResponse replayStatus(@PathVariable UUID replayId) {
+        log.debug("Fetching event replay. replayId={}", replayId);
+        return orderEventReplayService.status(replayId);
+    }
+
+
+    @GetMapping("/kitchen-queue")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public KitchenQueueResponse kitchenQueue(@RequestParam UUID branchId) {
+        log.debug("Fetching kitchen queue. branchId={}", branchId);
+        return kitchenQueueService.getQueue(branchId);
+    }
+
+
     @GetMapping("/{orderId}")
     @PreAuthorize("hasAnyRole('STAFF', 'CUSTOMER')") //Not for Admin
     public OrderResponse get(@PathVariable UUID orderId) {
@@ -88,6 +184,14 @@ public class OrderController {
     }
 
 
+    @PostMapping("/{orderId}/picked-up")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public void pickedUp(@PathVariable UUID orderId) {
+        log.info("Order picked up. orderId={}", orderId);
+        orderStateService.markPickedUp(orderId);
+    }
+
+
     @PostMapping("/{orderId}/delivered")
     @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
     public void delivered(@PathVariable UUID orderId) {
@@ -104,6 +208,14 @@ public class OrderController {
     }
 
 
+    @GetMapping(value = "/{orderId}/status-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('STAFF', 'CUSTOMER', 'ADMIN')")
+    public SseEmitter statusStream(@PathVariable UUID orderId) {
+        log.debug("Order status stream opened. orderId={}", orderId);
+        return orderStatusStreamService.subscribeOrder(orderId);
+    }
+
+
     @GetMapping("/{orderId}/status-history")
     @PreAuthorize("hasAnyRole('STAFF', 'CUSTOMER', 'ADMIN')")
     public List<OrderStatusHistoryResponse> history(
@@ -0,0 +1,13 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkOrderResponse {
+
+    private int created;
+    private int failed;
+    private List<BulkOrderResult> results;
+}
@@ -0,0 +1,15 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class BulkOrderResult {
+
+    private int index;
+    private UUID orderId;
+    private String status;
+    private PriceBreakdown breakdown;
+    private String error;
+}
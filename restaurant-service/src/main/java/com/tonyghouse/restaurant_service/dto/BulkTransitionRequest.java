@@ -0,0 +1,14 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BulkTransitionRequest {
+
+    private OrderStatus status;
+    private List<UUID> orderIds;
+}
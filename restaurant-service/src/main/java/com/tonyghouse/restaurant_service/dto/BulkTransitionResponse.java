@@ -0,0 +1,14 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkTransitionResponse {
+
+    private int updated;
+    private int unchanged;
+    private int failed;
+    private List<BulkTransitionResult> results;
+}
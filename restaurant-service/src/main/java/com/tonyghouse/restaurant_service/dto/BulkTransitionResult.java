@@ -0,0 +1,15 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class BulkTransitionResult {
+
+    private UUID orderId;
+    private OrderStatus fromStatus;
+    private String outcome;
+    private String error;
+}
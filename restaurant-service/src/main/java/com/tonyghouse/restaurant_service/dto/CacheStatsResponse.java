@@ -0,0 +1,26 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import lombok.Data;
+
+@Data
+public class CacheStatsResponse {
+
+    private String region;
+    private int localEntries;
+    private int maxLocalEntries;
+    private long localHits;
+    // stale local values served while a background refresh reloads them
+    private long staleHits;
+    private long redisHits;
+    private long misses;
+    // misses that waited for a load already in flight instead of running the loader
+    private long coalesced;
+    private long refreshes;
+    // share of lookups answered without running the loader, and by the in-process tier alone
+    private double hitRatio;
+    private double localHitRatio;
+    private double avgLocalHitMicros;
+    private double avgRedisHitMicros;
+    private double avgMissMicros;
+    private double avgCoalescedMicros;
+}
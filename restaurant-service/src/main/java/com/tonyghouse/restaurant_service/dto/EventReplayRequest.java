@@ -0,0 +1,16 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class EventReplayRequest {
+
+    private String projection;
+    // event time range; open ends mean the oldest retained record and the end of the topic at start
+    private Instant from;
+    private Instant to;
+    // reset the projection and its checkpoints first, instead of resuming from them
+    private boolean fromScratch;
+}
@@ -0,0 +1,20 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+public class EventReplayResponse {
+
+    private UUID replayId;
+    private String projection;
+    private String state;
+    private int partitions;
+    private long eventsApplied;
+    private long eventsSkipped;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
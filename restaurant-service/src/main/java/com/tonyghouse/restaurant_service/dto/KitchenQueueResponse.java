@@ -0,0 +1,16 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+public class KitchenQueueResponse {
+
+    private UUID branchId;
+    // CREATED, ACCEPTED, PREPARING, READY; oldest ticket first in each bucket
+    private Map<OrderStatus, List<KitchenTicketResponse>> tickets;
+}
@@ -0,0 +1,19 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class KitchenTicketResponse {
+
+    private UUID orderId;
+    private String customerName;
+    private OrderStatus status;
+    private Instant createdAt;
+    private Instant statusChangedAt;
+    private List<OrderItemResponse> items;
+}
@@ -0,0 +1,18 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+public class OrderItemResponse {
+
+    private UUID id;
+    private String itemName;
+    private String itemType;
+    private int quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal totalPrice;
+    private String specialNotes;
+}
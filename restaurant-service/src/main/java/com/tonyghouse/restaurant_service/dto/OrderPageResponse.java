@@ -0,0 +1,13 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class OrderPageResponse {
+
+    private List<OrderSummaryResponse> orders;
+    // null on the last page
+    private String nextCursor;
+}
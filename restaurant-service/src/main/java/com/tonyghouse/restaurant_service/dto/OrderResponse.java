@@ -3,6 +3,7 @@ package com.tonyghouse.restaurant_service.dto;
 import lombok.Data;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -10,6 +11,11 @@ public class OrderResponse {
 
     private UUID orderId;
     private String status;
+    private UUID branchId;
+    private String branchName;
+    private String customerName;
+    private String customerPhone;
+    private List<OrderItemResponse> items;
     private PriceBreakdown breakdown;
     private Instant createdAt;
 }
@@ -0,0 +1,17 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+public class OrderSummaryResponse {
+
+    private UUID orderId;
+    private String status;
+    private String customerName;
+    private BigDecimal totalAmount;
+    private Instant createdAt;
+}
@@ -0,0 +1,11 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class OrderWorkflowRequest {
+
+    private List<WorkflowTransitionDto> transitions;
+}
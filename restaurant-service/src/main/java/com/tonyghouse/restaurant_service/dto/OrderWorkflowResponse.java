@@ -0,0 +1,15 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class OrderWorkflowResponse {
+
+    private UUID branchId;
+    // 0 while the branch uses the default workflow
+    private long version;
+    private List<WorkflowTransitionDto> transitions;
+}
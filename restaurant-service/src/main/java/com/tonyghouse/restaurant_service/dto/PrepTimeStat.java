@@ -0,0 +1,15 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class PrepTimeStat {
+
+    // branch id for the branch-wide stat, menu item or combo id otherwise
+    private UUID subjectId;
+    private long samples;
+    private long p50Seconds;
+    private long p95Seconds;
+}
@@ -0,0 +1,18 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class PrepTimeStatsResponse {
+
+    private UUID branchId;
+    private Instant from;
+    private Instant to;
+    private PrepTimeStat branch;
+    // slowest p95 first
+    private List<PrepTimeStat> items;
+}
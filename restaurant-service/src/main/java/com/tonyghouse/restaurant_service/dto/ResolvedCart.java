@@ -0,0 +1,27 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+
+import java.util.List;
+
+/**
+ * Catalog resolution outcome of one cart in a batch: either its lines or the
+ * error that rejected it.
+ */
+public record ResolvedCart(
+        List<ResolvedOrderLine> lines,
+        RestoRestaurantException error
+) {
+
+    public static ResolvedCart resolved(List<ResolvedOrderLine> lines) {
+        return new ResolvedCart(lines, null);
+    }
+
+    public static ResolvedCart failed(RestoRestaurantException error) {
+        return new ResolvedCart(null, error);
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+}
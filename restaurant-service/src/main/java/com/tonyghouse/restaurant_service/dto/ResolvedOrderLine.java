@@ -0,0 +1,13 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record ResolvedOrderLine(
+        UUID itemId,
+        String itemType, // ITEM or COMBO
+        String itemName,
+        BigDecimal unitPrice,
+        int quantity,
+        String specialNotes
+) {}
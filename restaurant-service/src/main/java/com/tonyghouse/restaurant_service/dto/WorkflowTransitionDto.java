@@ -0,0 +1,13 @@
+package com.tonyghouse.restaurant_service.dto;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.constants.OrderTransitionGuard;
+import lombok.Data;
+
+@Data
+public class WorkflowTransitionDto {
+
+    private OrderStatus from;
+    private OrderStatus to;
+    private OrderTransitionGuard guard;
+}
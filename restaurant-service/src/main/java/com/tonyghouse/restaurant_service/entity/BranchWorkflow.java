@@ -0,0 +1,34 @@
+package com.tonyghouse.restaurant_service.entity;
+
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// order workflow of one branch; version is bumped on every change so other instances notice
+@Entity
+@Table(name = "branch_workflow")
+@Getter
+@Setter
+public class BranchWorkflow extends BaseEntity {
+
+    @Column(nullable = false, unique = true)
+    private UUID branchId;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @OneToMany(mappedBy = "workflow", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<BranchWorkflowTransition> transitions = new ArrayList<>();
+}
@@ -0,0 +1,37 @@
+package com.tonyghouse.restaurant_service.entity;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.constants.OrderTransitionGuard;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Table(name = "branch_workflow_transition")
+@Getter
+@Setter
+public class BranchWorkflowTransition extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "workflow_id", nullable = false)
+    private BranchWorkflow workflow;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus toStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "guard_name")
+    private OrderTransitionGuard guard;
+}
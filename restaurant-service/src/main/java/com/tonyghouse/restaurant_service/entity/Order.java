@@ -38,7 +38,14 @@ public class Order extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
 
+    // the status the last transition replaced
+    @Enumerated(EnumType.STRING)
+    private OrderStatus previousStatus;
+
     private BigDecimal totalAmount;
+    private BigDecimal itemsTotal;
+    private BigDecimal taxAmount;
+    private BigDecimal deliveryCharge;
     private UUID paymentId;
 
     @Column(nullable = false)
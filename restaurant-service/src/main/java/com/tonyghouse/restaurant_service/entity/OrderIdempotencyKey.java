@@ -0,0 +1,50 @@
+package com.tonyghouse.restaurant_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/*
+Claimed before the order is built, so a concurrent request with the same key
+blocks on the unique constraint instead of pricing and inserting a second order.
+orderId and response are filled in within the same transaction.
+Keys are unique per owner (the authenticated user) and branch; requestHash is the
+SHA-256 of the request the key was first used with.
+ */
+@Entity
+@Table(
+        name = "order_idempotency_key",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uq_order_idempotency_key",
+                columnNames = {"owner", "branch_id", "idempotency_key"})
+)
+@Getter
+@Setter
+public class OrderIdempotencyKey extends BaseEntity {
+
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    @Column(nullable = false)
+    private UUID branchId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(length = 64)
+    private String requestHash;
+
+    private UUID orderId;
+
+    @Column(columnDefinition = "TEXT")
+    private String response;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
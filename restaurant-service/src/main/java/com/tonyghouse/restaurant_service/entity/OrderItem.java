@@ -9,6 +9,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 @Entity
 @Table(name = "order_item")
@@ -20,6 +21,8 @@ public class OrderItem extends BaseEntity {
     @JoinColumn(name = "order_id")
     private Order order;
 
+    // menu item or combo id; null on lines created before it was recorded
+    private UUID itemId;
     private String itemName;
     private String itemType; // ITEM or COMBO
     private int quantity;
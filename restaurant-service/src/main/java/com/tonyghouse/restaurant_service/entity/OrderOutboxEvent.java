@@ -0,0 +1,55 @@
+package com.tonyghouse.restaurant_service.entity;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/*
+Pending order.events message. The id comes from a pooled sequence so inserts are
+batched, e.g. the outbox rows of a bulk transition. Pooled blocks are handed out per
+instance, so ids do not follow commit order; send_seq does. The database assigns it
+as the row is inserted, and transitions of one order are serialized by the lock on
+its orders row, so send_seq order is the order in which that order's events must be sent.
+ */
+@Entity
+@Table(name = "order_outbox")
+@Getter
+@Setter
+public class OrderOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_id")
+    @SequenceGenerator(name = "order_outbox_id", sequenceName = "order_outbox_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(insertable = false, updatable = false, columnDefinition = "BIGINT GENERATED ALWAYS AS IDENTITY")
+    private Long sendSeq;
+
+    @Column(nullable = false)
+    private UUID orderId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus oldStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus newStatus;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
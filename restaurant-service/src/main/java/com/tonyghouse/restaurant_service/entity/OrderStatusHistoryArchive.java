@@ -0,0 +1,38 @@
+package com.tonyghouse.restaurant_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/*
+One exported month of order_status_history: the partition was written to filePath
+as gzip CSV, then detached and dropped. History reads for older orders scan these
+files.
+ */
+@Entity
+@Table(name = "order_status_history_archive")
+@Getter
+@Setter
+public class OrderStatusHistoryArchive extends BaseEntity {
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String partitionName;
+
+    @Column(nullable = false)
+    private Instant periodStart;
+
+    @Column(nullable = false)
+    private Instant periodEnd;
+
+    @Column(nullable = false, length = 512)
+    private String filePath;
+
+    private long rowCount;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+}
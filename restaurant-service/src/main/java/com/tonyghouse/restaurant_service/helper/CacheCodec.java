@@ -0,0 +1,38 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import java.util.function.Function;
+
+/*
+Turns a cached value into the bytes stored in Redis and back. The id is written next
+to every value, so a region that switches codec reads values left by the old one as
+misses instead of misparsing them. See CacheCodecs for the implementations.
+ */
+public interface CacheCodec<T> {
+
+    byte id();
+
+    byte[] encode(T value);
+
+    T decode(byte[] bytes, int offset, int length);
+
+    // a codec for a type stored as T, e.g. a schedule stored as its menus; the bytes are still T's
+    default <R> CacheCodec<R> map(Function<R, T> toStored, Function<T, R> fromStored) {
+        CacheCodec<T> stored = this;
+        return new CacheCodec<>() {
+            @Override
+            public byte id() {
+                return stored.id();
+            }
+
+            @Override
+            public byte[] encode(R value) {
+                return stored.encode(toStored.apply(value));
+            }
+
+            @Override
+            public R decode(byte[] bytes, int offset, int length) {
+                return fromStored.apply(stored.decode(bytes, offset, length));
+            }
+        };
+    }
+}
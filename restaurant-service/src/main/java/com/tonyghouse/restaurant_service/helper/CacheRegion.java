@@ -0,0 +1,35 @@
+package com.tonyghouse.restaurant_service.helper;
+
+/*
+A named group of cache entries sharing a Redis key prefix, TTLs, in-process size bound
+and codec. Redis keys are "<name>:<id>", so "menu" + "<branchId>:<type>"
+is the same key the services wrote before the two tiers existed.
+
+An entry is served as-is for freshSeconds, then served stale while it is reloaded in
+the background, and dropped after ttlSeconds.
+ */
+public record CacheRegion<T>(
+        String name,
+        long freshSeconds,
+        long ttlSeconds,
+        int maxLocalEntries,
+        CacheCodec<T> codec
+) {
+
+    public CacheRegion {
+        if (freshSeconds <= 0 || ttlSeconds < freshSeconds) {
+            throw new IllegalArgumentException("Cache region " + name + " needs 0 < freshSeconds <= ttlSeconds");
+        }
+    }
+
+    public Key<T> key(Object id) {
+        return new Key<>(this, id.toString());
+    }
+
+    public record Key<T>(CacheRegion<T> region, String id) {
+
+        public String redisKey() {
+            return region.name() + ":" + id;
+        }
+    }
+}
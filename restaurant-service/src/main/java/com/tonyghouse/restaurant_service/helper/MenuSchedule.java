@@ -0,0 +1,107 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import com.tonyghouse.restaurant_service.dto.MenuWithItemsResponse;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/*
+A branch's day of active menus, cut into slots at every window start and end.
+Slot i covers [starts[i], starts[i + 1]) in nanos of the local day and holds the
+index of the menu shown then, or NONE. Windows include their validTo, and where
+they overlap the menu listed first wins, as getActiveMenu did with findFirst.
+
+Menus without both bounds, or with validTo before validFrom, are never active:
+the old filter could not match them either.
+Immutable; the menus inside are shared between readers and must not be modified.
+ */
+public final class MenuSchedule {
+
+    private static final int NONE = -1;
+    private static final long NANOS_PER_DAY = LocalTime.MAX.toNanoOfDay() + 1;
+
+    private final List<MenuWithItemsResponse> menus;
+    private final long[] starts;
+    private final int[] slots;
+
+    private MenuSchedule(List<MenuWithItemsResponse> menus, long[] starts, int[] slots) {
+        this.menus = menus;
+        this.starts = starts;
+        this.slots = slots;
+    }
+
+    public static MenuSchedule of(List<MenuWithItemsResponse> menus) {
+        List<MenuWithItemsResponse> windows = menus.stream()
+                .filter(MenuSchedule::hasWindow)
+                .toList();
+
+        TreeSet<Long> boundaries = new TreeSet<>();
+        boundaries.add(0L);
+        for (MenuWithItemsResponse menu : windows) {
+            boundaries.add(menu.getValidFrom().toNanoOfDay());
+            long end = menu.getValidTo().toNanoOfDay() + 1;
+            if (end < NANOS_PER_DAY) {
+                boundaries.add(end);
+            }
+        }
+
+        List<Long> starts = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        for (long boundary : boundaries) {
+            int menu = firstCovering(windows, boundary);
+            // neighbours showing the same menu become one slot
+            if (!slots.isEmpty() && slots.get(slots.size() - 1) == menu) {
+                continue;
+            }
+            starts.add(boundary);
+            slots.add(menu);
+        }
+
+        return new MenuSchedule(
+                windows,
+                starts.stream().mapToLong(Long::longValue).toArray(),
+                slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * The menu shown at {@code localTime} in the caller's zone, found by binary search.
+     */
+    public Optional<MenuWithItemsResponse> activeAt(LocalTime localTime) {
+        int found = Arrays.binarySearch(starts, localTime.toNanoOfDay());
+        // not a boundary itself: the slot is the one starting before it
+        int slot = found >= 0 ? found : -found - 2;
+        int menu = slots[slot];
+        return menu == NONE ? Optional.empty() : Optional.of(menus.get(menu));
+    }
+
+    /**
+     * The menus with a usable window, in priority order.
+     */
+    public List<MenuWithItemsResponse> menus() {
+        return menus;
+    }
+
+    public int slotCount() {
+        return slots.length;
+    }
+
+    private static boolean hasWindow(MenuWithItemsResponse menu) {
+        return menu.getValidFrom() != null
+                && menu.getValidTo() != null
+                && !menu.getValidTo().isBefore(menu.getValidFrom());
+    }
+
+    private static int firstCovering(List<MenuWithItemsResponse> windows, long nanoOfDay) {
+        for (int i = 0; i < windows.size(); i++) {
+            MenuWithItemsResponse menu = windows.get(i);
+            if (menu.getValidFrom().toNanoOfDay() <= nanoOfDay && nanoOfDay <= menu.getValidTo().toNanoOfDay()) {
+                return i;
+            }
+        }
+        return NONE;
+    }
+}
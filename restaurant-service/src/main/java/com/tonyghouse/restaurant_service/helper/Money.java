@@ -0,0 +1,59 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/*
+Fixed-point money arithmetic on long minor units (1 = 0.01).
+Amounts are plain longs so pricing loops do not allocate; BigDecimal is only
+created when converting in and out at the DTO / entity boundary.
+Rounding is HALF_EVEN and happens only in toMinor and percentOf.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private static final long BASIS_POINTS = 10_000L;
+
+    public static long toMinor(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    public static long times(long minor, int quantity) {
+        return Math.multiplyExact(minor, quantity);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * Applies a rate expressed in basis points (1800 = 18%) and rounds the
+     * result half-even to whole minor units.
+     */
+    public static long percentOf(long minor, long basisPoints) {
+        long product = Math.multiplyExact(minor, basisPoints);
+        long quotient = product / BASIS_POINTS;
+        long remainder = product % BASIS_POINTS;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        long twice = Math.abs(remainder) * 2;
+        long sign = product < 0 ? -1 : 1;
+        if (twice > BASIS_POINTS || (twice == BASIS_POINTS && (quotient & 1) != 0)) {
+            return quotient + sign;
+        }
+        return quotient;
+    }
+
+    public static long basisPoints(BigDecimal rate) {
+        return rate.movePointRight(4).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    private Money() {}
+}
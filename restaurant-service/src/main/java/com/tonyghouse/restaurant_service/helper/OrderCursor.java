@@ -0,0 +1,35 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/*
+Opaque keyset cursor: position of the last order returned, (createdAt, id).
+The next page seeks strictly past it in (created_at DESC, id DESC) order.
+ */
+public record OrderCursor(Instant createdAt, UUID id) {
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new OrderCursor(
+                    Instant.parse(raw.substring(0, sep)),
+                    UUID.fromString(raw.substring(sep + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new RestoRestaurantException("Invalid cursor", e, HttpStatus.BAD_REQUEST);
+        }
+    }
+}
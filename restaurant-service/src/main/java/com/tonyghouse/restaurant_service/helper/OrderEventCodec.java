@@ -0,0 +1,123 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/*
+Binary encoding of OrderStatusChangedEvent, versioned per record.
+
+v1, 32 bytes, big endian:
+  [0]      magic 0x0E
+  [1]      schema version (1)
+  [2..17]  orderId (msb, lsb)
+  [18]     oldStatus code, 0 = none
+  [19]     newStatus code
+  [20..27] changedAt epoch seconds
+  [28..31] changedAt nanos
+
+Status codes are fixed below, never enum ordinals, so reordering OrderStatus does not
+change the wire format. Readers ignore trailing bytes: a later version may only append
+fields, and a v1 reader still decodes its prefix. SCHEMAS is the local stand-in for a
+schema registry: one content type per version, sent as the record's content-type header.
+ */
+public final class OrderEventCodec {
+
+    public static final int CURRENT_VERSION = 1;
+    public static final String JSON_CONTENT_TYPE = "application/json";
+
+    private static final byte MAGIC = 0x0E;
+    private static final int V1_LENGTH = 32;
+
+    private static final Map<Integer, String> SCHEMAS = Map.of(
+            1, "application/vnd.resto.order-status-changed.v1+binary"
+    );
+
+    private static final Map<OrderStatus, Byte> CODES = new EnumMap<>(OrderStatus.class);
+    private static final OrderStatus[] BY_CODE = new OrderStatus[8];
+
+    static {
+        code(OrderStatus.CREATED, 1);
+        code(OrderStatus.ACCEPTED, 2);
+        code(OrderStatus.PREPARING, 3);
+        code(OrderStatus.READY, 4);
+        code(OrderStatus.DELIVERED, 5);
+        code(OrderStatus.CANCELLED, 6);
+        code(OrderStatus.PICKED_UP, 7);
+    }
+
+    public static byte[] encode(OrderStatusChangedEvent event) {
+        ByteBuffer buf = ByteBuffer.allocate(V1_LENGTH);
+        buf.put(MAGIC);
+        buf.put((byte) CURRENT_VERSION);
+        buf.putLong(event.orderId().getMostSignificantBits());
+        buf.putLong(event.orderId().getLeastSignificantBits());
+        buf.put(event.oldStatus() == null ? 0 : codeOf(event.oldStatus()));
+        buf.put(codeOf(event.newStatus()));
+        buf.putLong(event.changedAt().getEpochSecond());
+        buf.putInt(event.changedAt().getNano());
+        return buf.array();
+    }
+
+    public static OrderStatusChangedEvent decode(byte[] bytes) {
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            if (buf.get() != MAGIC) {
+                throw new IllegalArgumentException("Not an order event record");
+            }
+            int version = buf.get() & 0xFF;
+            if (!SCHEMAS.containsKey(version)) {
+                throw new IllegalArgumentException("Unknown order event schema version " + version);
+            }
+            // every known version starts with the v1 layout
+            UUID orderId = new UUID(buf.getLong(), buf.getLong());
+            byte oldCode = buf.get();
+            OrderStatus newStatus = statusOf(buf.get());
+            Instant changedAt = Instant.ofEpochSecond(buf.getLong(), buf.getInt());
+            return new OrderStatusChangedEvent(
+                    orderId,
+                    oldCode == 0 ? null : statusOf(oldCode),
+                    newStatus,
+                    changedAt
+            );
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated order event record", e);
+        }
+    }
+
+    public static String contentType(int version) {
+        String contentType = SCHEMAS.get(version);
+        if (contentType == null) {
+            throw new IllegalArgumentException("Unknown order event schema version " + version);
+        }
+        return contentType;
+    }
+
+    private static void code(OrderStatus status, int code) {
+        CODES.put(status, (byte) code);
+        BY_CODE[code] = status;
+    }
+
+    private static byte codeOf(OrderStatus status) {
+        Byte code = CODES.get(status);
+        if (code == null) {
+            throw new IllegalArgumentException("No wire code for status " + status);
+        }
+        return code;
+    }
+
+    private static OrderStatus statusOf(byte code) {
+        if (code <= 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown status code " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    private OrderEventCodec() {}
+}
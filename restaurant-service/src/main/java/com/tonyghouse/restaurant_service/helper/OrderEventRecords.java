@@ -0,0 +1,35 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.publisher.OrderEventPublisher;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/*
+Reads an order.events record in whichever format its content-type header names.
+Shared by every consumer of the topic, so JSON and binary records stay readable
+for as long as both can be found on it.
+ */
+public final class OrderEventRecords {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    public static OrderStatusChangedEvent decode(ConsumerRecord<String, byte[]> record) throws IOException {
+        Header header = record.headers().lastHeader(OrderEventPublisher.CONTENT_TYPE_HEADER);
+        // records from before the header existed are JSON
+        String contentType = header == null
+                ? OrderEventCodec.JSON_CONTENT_TYPE
+                : new String(header.value(), StandardCharsets.UTF_8);
+        if (OrderEventCodec.JSON_CONTENT_TYPE.equals(contentType)) {
+            return OBJECT_MAPPER.readValue(record.value(), OrderStatusChangedEvent.class);
+        }
+        return OrderEventCodec.decode(record.value());
+    }
+
+    private OrderEventRecords() {}
+}
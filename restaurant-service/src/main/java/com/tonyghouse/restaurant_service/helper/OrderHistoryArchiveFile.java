@@ -0,0 +1,127 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusHistoryResponse;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+Export format of an archived order_status_history partition: gzip, UTF-8, one row
+per line after a version header.
+
+  order-status-history v1
+  <id>,<order_id>,<old_status or empty>,<new_status>,<changed_at ISO-8601>
+
+Rows are written in order_id order (Postgres uuid order, which is the order of the
+lowercase text form), so a lookup stops reading once it is past the order.
+ */
+public final class OrderHistoryArchiveFile {
+
+    static final String HEADER = "order-status-history v1";
+
+    public static ArchiveWriter open(Path target) throws IOException {
+        return new ArchiveWriter(target);
+    }
+
+    public static List<OrderStatusHistoryResponse> read(Path file, UUID orderId) {
+        String wanted = orderId.toString();
+        List<OrderStatusHistoryResponse> rows = new ArrayList<>();
+
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String header = in.readLine();
+            if (!HEADER.equals(header)) {
+                throw new IllegalStateException("Unknown archive format in " + file + ": " + header);
+            }
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] f = line.split(",", -1);
+                int cmp = f[1].compareTo(wanted);
+                if (cmp > 0) {
+                    break;
+                }
+                if (cmp == 0) {
+                    rows.add(new OrderStatusHistoryResponse(
+                            f[2].isEmpty() ? null : OrderStatus.valueOf(f[2]),
+                            OrderStatus.valueOf(f[3]),
+                            Instant.parse(f[4])));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read history archive " + file, e);
+        }
+        return rows;
+    }
+
+    /*
+    Writes to a temp file next to the target and moves it into place on commit(),
+    so a failed export never leaves a truncated archive behind.
+     */
+    public static final class ArchiveWriter implements Closeable {
+
+        private final Path target;
+        private final Path temp;
+        private final Writer out;
+        private long rows;
+        private boolean committed;
+
+        private ArchiveWriter(Path target) throws IOException {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            this.target = target;
+            this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.out = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8));
+            out.write(HEADER);
+            out.write('\n');
+        }
+
+        public void write(UUID id, UUID orderId, OrderStatus oldStatus, OrderStatus newStatus, Instant changedAt)
+                throws IOException {
+            out.write(id.toString());
+            out.write(',');
+            out.write(orderId.toString());
+            out.write(',');
+            out.write(oldStatus == null ? "" : oldStatus.name());
+            out.write(',');
+            out.write(newStatus.name());
+            out.write(',');
+            out.write(changedAt.toString());
+            out.write('\n');
+            rows++;
+        }
+
+        public long commit() throws IOException {
+            out.close();
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            return rows;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private OrderHistoryArchiveFile() {}
+}
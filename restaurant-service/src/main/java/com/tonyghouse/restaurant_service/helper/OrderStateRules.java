@@ -2,13 +2,13 @@ package com.tonyghouse.restaurant_service.helper;
 
 import com.tonyghouse.restaurant_service.constants.OrderStatus;
 
-import java.util.EnumMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.List;
 
 import static com.tonyghouse.restaurant_service.constants.OrderStatus.*;
 
 /*
+Default workflow, used by every branch without one of its own (see OrderWorkflowService):
+
 CREATED
   |-> ACCEPTED
   |     |-> PREPARING
@@ -20,26 +20,27 @@ CREATED
  */
 public final class OrderStateRules {
 
-    private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED;
-
-    static {
-        Map<OrderStatus, Set<OrderStatus>> map = new EnumMap<>(OrderStatus.class);
+    public static final OrderWorkflow DEFAULT = OrderWorkflow.compile(0, List.of(
+            allow(CREATED, ACCEPTED),
+            allow(CREATED, CANCELLED),
+            allow(ACCEPTED, PREPARING),
+            allow(ACCEPTED, CANCELLED),
+            allow(PREPARING, READY),
+            allow(PREPARING, CANCELLED),
+            allow(READY, DELIVERED)
+    ));
 
-        map.put(CREATED, Set.of(ACCEPTED, CANCELLED));
-        map.put(ACCEPTED, Set.of(PREPARING, CANCELLED));
-        map.put(PREPARING, Set.of(READY, CANCELLED));
-        map.put(READY, Set.of(DELIVERED));
-        map.put(DELIVERED, Set.of());
-        map.put(CANCELLED, Set.of());
+    public static boolean canTransition(OrderStatus from, OrderStatus to) {
+        return DEFAULT.canTransition(from, to);
+    }
 
-        ALLOWED = Map.copyOf(map);
+    // statuses that may move to the given one, in lifecycle order
+    public static List<OrderStatus> sourcesOf(OrderStatus to) {
+        return DEFAULT.sourcesOf(to);
     }
 
-    public static boolean canTransition(OrderStatus from, OrderStatus to) {
-        if (from == null || to == null) {
-            return false;
-        }
-        return ALLOWED.getOrDefault(from, Set.of()).contains(to);
+    private static OrderWorkflow.Transition allow(OrderStatus from, OrderStatus to) {
+        return new OrderWorkflow.Transition(from, to, null);
     }
 
 
@@ -0,0 +1,140 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.constants.OrderTransitionGuard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.tonyghouse.restaurant_service.constants.OrderStatus.*;
+
+/*
+An order workflow compiled into dense tables indexed by status ordinal:
+
+  allowed[from * N + to]  the transition exists
+  guards[from * N + to]   guard checked before it, null for none
+  sources[to]             statuses that may move to `to`, in lifecycle order
+
+Lookups are array reads and allocate nothing. Instances are immutable; a changed
+workflow is compiled again and swapped in whole.
+ */
+public final class OrderWorkflow {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final int N = STATUSES.length;
+
+    public record Transition(OrderStatus from, OrderStatus to, OrderTransitionGuard guard) {
+    }
+
+    private final long version;
+    private final List<Transition> transitions;
+    private final boolean[] allowed = new boolean[N * N];
+    private final OrderTransitionGuard[] guards = new OrderTransitionGuard[N * N];
+    private final boolean[] guardedTargets = new boolean[N];
+    private final List<List<OrderStatus>> sources;
+
+    private OrderWorkflow(long version, List<Transition> transitions) {
+        this.version = version;
+        this.transitions = List.copyOf(transitions);
+
+        for (Transition t : transitions) {
+            int cell = t.from().ordinal() * N + t.to().ordinal();
+            allowed[cell] = true;
+            guards[cell] = t.guard();
+            if (t.guard() != null) {
+                guardedTargets[t.to().ordinal()] = true;
+            }
+        }
+
+        List<List<OrderStatus>> bySource = new ArrayList<>(N);
+        for (OrderStatus to : STATUSES) {
+            List<OrderStatus> from = new ArrayList<>();
+            for (OrderStatus candidate : STATUSES) {
+                if (allowed[candidate.ordinal() * N + to.ordinal()]) {
+                    from.add(candidate);
+                }
+            }
+            bySource.add(List.copyOf(from));
+        }
+        this.sources = List.copyOf(bySource);
+    }
+
+    /*
+    Rejects definitions the rest of the service cannot live with: transitions into
+    CREATED or out of DELIVERED/CANCELLED (refunds, the kitchen queue and history
+    archival treat those as final), self loops, duplicates, and statuses an order
+    can reach but never leave.
+     */
+    public static OrderWorkflow compile(long version, List<Transition> transitions) {
+        if (transitions == null || transitions.isEmpty()) {
+            throw new IllegalArgumentException("Workflow needs at least one transition");
+        }
+        boolean[] seen = new boolean[N * N];
+        boolean[] hasExit = new boolean[N];
+        boolean[] reached = new boolean[N];
+
+        for (Transition t : transitions) {
+            if (t == null || t.from() == null || t.to() == null) {
+                throw new IllegalArgumentException("Transition needs a from and a to status");
+            }
+            if (t.from() == t.to()) {
+                throw new IllegalArgumentException("Transition " + t.from() + " → " + t.to() + " loops");
+            }
+            if (t.to() == CREATED) {
+                throw new IllegalArgumentException("No transition may lead back to CREATED");
+            }
+            if (isTerminal(t.from())) {
+                throw new IllegalArgumentException(t.from() + " is final and cannot have transitions");
+            }
+            int cell = t.from().ordinal() * N + t.to().ordinal();
+            if (seen[cell]) {
+                throw new IllegalArgumentException("Duplicate transition " + t.from() + " → " + t.to());
+            }
+            seen[cell] = true;
+            hasExit[t.from().ordinal()] = true;
+            reached[t.to().ordinal()] = true;
+        }
+
+        if (!hasExit[CREATED.ordinal()]) {
+            throw new IllegalArgumentException("Workflow has no transition out of CREATED");
+        }
+        for (OrderStatus status : STATUSES) {
+            if (reached[status.ordinal()] && !isTerminal(status) && !hasExit[status.ordinal()]) {
+                throw new IllegalArgumentException("Orders reaching " + status + " could never leave it");
+            }
+        }
+        return new OrderWorkflow(version, transitions);
+    }
+
+    public static boolean isTerminal(OrderStatus status) {
+        return status == DELIVERED || status == CANCELLED;
+    }
+
+    public boolean canTransition(OrderStatus from, OrderStatus to) {
+        if (from == null || to == null) {
+            return false;
+        }
+        return allowed[from.ordinal() * N + to.ordinal()];
+    }
+
+    public OrderTransitionGuard guard(OrderStatus from, OrderStatus to) {
+        return guards[from.ordinal() * N + to.ordinal()];
+    }
+
+    // true when any way into `to` is guarded, so the order has to be read first
+    public boolean isGuarded(OrderStatus to) {
+        return guardedTargets[to.ordinal()];
+    }
+
+    public List<OrderStatus> sourcesOf(OrderStatus to) {
+        return sources.get(to.ordinal());
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<Transition> transitions() {
+        return transitions;
+    }
+}
@@ -0,0 +1,77 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import java.time.Duration;
+
+/*
+Fixed-bucket histogram of prep times: 15 second buckets up to 30 minutes, plus one
+overflow bucket for anything longer. Bucket boundaries never change, so histograms
+from different instances and hour windows merge by adding counts, which is what lets
+prep_time_histogram be flushed additively and summed over any range when read.
+
+Percentiles are the upper bound of the bucket holding the rank, i.e. at most 15
+seconds pessimistic; anything in the overflow bucket reads as 30 minutes.
+Not thread safe.
+ */
+public final class PrepTimeHistogram {
+
+    public static final int BUCKET_SECONDS = 15;
+    public static final int OVERFLOW_BUCKET = 120;
+    public static final int BUCKETS = OVERFLOW_BUCKET + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+
+    public static int bucketOf(Duration prepTime) {
+        long seconds = Math.max(0, prepTime.getSeconds());
+        // 0-15s is bucket 0, 15-30s bucket 1, ...
+        return (int) Math.min(OVERFLOW_BUCKET, seconds / BUCKET_SECONDS);
+    }
+
+    public void add(Duration prepTime) {
+        addBucket(bucketOf(prepTime), 1);
+    }
+
+    public void addBucket(int bucket, long count) {
+        if (bucket < 0 || bucket >= BUCKETS) {
+            throw new IllegalArgumentException("Unknown prep time bucket " + bucket);
+        }
+        counts[bucket] += count;
+        total += count;
+    }
+
+    public void merge(PrepTimeHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public long count(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * Prep time in seconds at quantile {@code q} (0.5 for p50), or 0 when empty.
+     */
+    public long percentileSeconds(double q) {
+        if (q <= 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be in (0, 1]");
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < OVERFLOW_BUCKET; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (long) (i + 1) * BUCKET_SECONDS;
+            }
+        }
+        return (long) OVERFLOW_BUCKET * BUCKET_SECONDS;
+    }
+}
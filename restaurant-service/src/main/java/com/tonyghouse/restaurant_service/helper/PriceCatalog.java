@@ -0,0 +1,94 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import com.tonyghouse.restaurant_service.entity.Combo;
+import com.tonyghouse.restaurant_service.entity.MenuItem;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/*
+Immutable price snapshot of one branch.
+Never mutated after construction, changes produce a new instance (copy-on-write)
+so readers can use it without locks.
+ */
+public final class PriceCatalog {
+
+    public record Entry(String name, BigDecimal price, boolean available) {}
+
+    private static final PriceCatalog EMPTY = new PriceCatalog(Map.of(), Map.of());
+
+    private final Map<UUID, Entry> items;
+    private final Map<UUID, Entry> combos;
+
+    private PriceCatalog(Map<UUID, Entry> items, Map<UUID, Entry> combos) {
+        this.items = items;
+        this.combos = combos;
+    }
+
+    public static PriceCatalog empty() {
+        return EMPTY;
+    }
+
+    public static PriceCatalog of(Collection<MenuItem> menuItems, Collection<Combo> branchCombos) {
+        Map<UUID, Entry> items = new HashMap<>();
+        for (MenuItem mi : menuItems) {
+            items.put(mi.getId(), toEntry(mi));
+        }
+
+        Map<UUID, Entry> combos = new HashMap<>();
+        for (Combo combo : branchCombos) {
+            combos.put(combo.getId(), toEntry(combo));
+        }
+        return new PriceCatalog(Map.copyOf(items), Map.copyOf(combos));
+    }
+
+    public static Entry toEntry(MenuItem item) {
+        return new Entry(item.getName(), item.getPrice(), Boolean.TRUE.equals(item.getAvailable()));
+    }
+
+    public static Entry toEntry(Combo combo) {
+        return new Entry(combo.getName(), combo.getComboPrice(), combo.isActive());
+    }
+
+    public Entry item(UUID itemId) {
+        return items.get(itemId);
+    }
+
+    public Entry combo(UUID comboId) {
+        return combos.get(comboId);
+    }
+
+    public int itemCount() {
+        return items.size();
+    }
+
+    public int comboCount() {
+        return combos.size();
+    }
+
+    /**
+     * Returns a catalog with the given items replaced. Items that are not part of
+     * this branch are ignored, so the same call can be applied to every branch.
+     */
+    public PriceCatalog withItems(Map<UUID, Entry> changed) {
+        Map<UUID, Entry> copy = null;
+        for (Map.Entry<UUID, Entry> e : changed.entrySet()) {
+            if (items.containsKey(e.getKey())) {
+                if (copy == null) {
+                    copy = new HashMap<>(items);
+                }
+                copy.put(e.getKey(), e.getValue());
+            }
+        }
+        return copy == null ? this : new PriceCatalog(Map.copyOf(copy), combos);
+    }
+
+    public PriceCatalog withCombo(UUID comboId, Entry entry) {
+        Map<UUID, Entry> copy = new HashMap<>(combos);
+        copy.put(comboId, entry);
+        return new PriceCatalog(items, Map.copyOf(copy));
+    }
+}
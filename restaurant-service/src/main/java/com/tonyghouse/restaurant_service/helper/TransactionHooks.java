@@ -0,0 +1,26 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+Defers in-memory side effects (snapshots, indexes) until the surrounding transaction
+commits, so a rollback never leaks into them. Runs immediately outside a transaction.
+ */
+public final class TransactionHooks {
+
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private TransactionHooks() {}
+}
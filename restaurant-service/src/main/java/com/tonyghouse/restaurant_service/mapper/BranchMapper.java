@@ -4,6 +4,7 @@ import com.tonyghouse.restaurant_service.dto.BranchResponse;
 import com.tonyghouse.restaurant_service.entity.Branch;
 
 public class BranchMapper {
+
     public static BranchResponse mapToResponse(Branch branch) {
         BranchResponse response = new BranchResponse();
         response.setId(branch.getId());
@@ -1,23 +1,11 @@
 package com.tonyghouse.restaurant_service.mapper;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.tonyghouse.restaurant_service.dto.ComboResponse;
 import com.tonyghouse.restaurant_service.entity.Combo;
 import com.tonyghouse.restaurant_service.entity.MenuItem;
-import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
-import org.springframework.http.HttpStatus;
-
 
 public class ComboMapper {
 
-    private static final ObjectMapper OBJECT_MAPPER =
-            new ObjectMapper()
-                    .registerModule(new JavaTimeModule())
-                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
     public static ComboResponse toResponse(Combo combo) {
         ComboResponse r = new ComboResponse();
         r.setId(combo.getId());
@@ -34,20 +22,4 @@ public class ComboMapper {
         r.setBranchId(r.getBranchId());
         return r;
     }
-
-    public static String toJson(ComboResponse response) {
-        try {
-            return OBJECT_MAPPER.writeValueAsString(response);
-        } catch (JsonProcessingException e) {
-            throw new RestoRestaurantException("Failed to serialize ComboResponse", e, HttpStatus.INTERNAL_SERVER_ERROR);
-        }
-    }
-
-    public static ComboResponse fromJson(String json) {
-        try {
-            return OBJECT_MAPPER.readValue(json, ComboResponse.class);
-        } catch (Exception e) {
-            throw new RestoRestaurantException("Failed to deserialize ComboResponse", e, HttpStatus.INTERNAL_SERVER_ERROR);
-        }
-    }
 }
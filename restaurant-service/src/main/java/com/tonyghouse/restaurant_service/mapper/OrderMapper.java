@@ -1,16 +1,134 @@
 package com.tonyghouse.restaurant_service.mapper;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tonyghouse.restaurant_service.dto.CreateOrderRequest;
+import com.tonyghouse.restaurant_service.dto.KitchenTicketResponse;
+import com.tonyghouse.restaurant_service.dto.OrderItemResponse;
 import com.tonyghouse.restaurant_service.dto.OrderResponse;
+import com.tonyghouse.restaurant_service.dto.OrderSummaryResponse;
 import com.tonyghouse.restaurant_service.dto.PriceBreakdown;
+import com.tonyghouse.restaurant_service.dto.PricePreviewResponse;
 import com.tonyghouse.restaurant_service.entity.Order;
+import com.tonyghouse.restaurant_service.entity.OrderItem;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
 
 public class OrderMapper {
+
+    private static final ObjectMapper OBJECT_MAPPER =
+            new ObjectMapper()
+                    .registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
     public static OrderResponse toResponse(Order order, PriceBreakdown breakdown) {
         OrderResponse r = new OrderResponse();
         r.setOrderId(order.getId());
         r.setStatus(order.getStatus().name());
+        if (order.getBranch() != null) {
+            r.setBranchId(order.getBranch().getId());
+            r.setBranchName(order.getBranch().getName());
+        }
+        r.setCustomerName(order.getCustomerName());
+        r.setCustomerPhone(order.getCustomerPhone());
+        r.setItems(order.getItems().stream()
+                .map(OrderMapper::toItemResponse)
+                .toList());
         r.setBreakdown(breakdown);
         r.setCreatedAt(order.getCreatedAt());
         return r;
     }
+
+    public static OrderSummaryResponse toSummary(Order order) {
+        OrderSummaryResponse r = new OrderSummaryResponse();
+        r.setOrderId(order.getId());
+        r.setStatus(order.getStatus().name());
+        r.setCustomerName(order.getCustomerName());
+        r.setTotalAmount(order.getTotalAmount());
+        r.setCreatedAt(order.getCreatedAt());
+        return r;
+    }
+
+    public static OrderResponse toResponse(Order order) {
+        return toResponse(order, toBreakdown(order));
+    }
+
+    // breakdown from the stored columns, nothing is re-priced
+    public static PriceBreakdown toBreakdown(Order order) {
+        PriceBreakdown breakdown = new PriceBreakdown();
+        breakdown.setItemsTotal(order.getItemsTotal());
+        breakdown.setTax(order.getTaxAmount());
+        breakdown.setDeliveryCharge(order.getDeliveryCharge());
+        breakdown.setGrandTotal(order.getTotalAmount());
+        return breakdown;
+    }
+
+    public static KitchenTicketResponse toKitchenTicket(Order order, Instant statusChangedAt) {
+        KitchenTicketResponse r = new KitchenTicketResponse();
+        r.setOrderId(order.getId());
+        r.setCustomerName(order.getCustomerName());
+        r.setStatus(order.getStatus());
+        r.setCreatedAt(order.getCreatedAt());
+        r.setStatusChangedAt(statusChangedAt);
+        r.setItems(order.getItems().stream()
+                .map(OrderMapper::toItemResponse)
+                .toList());
+        return r;
+    }
+
+    public static OrderItemResponse toItemResponse(OrderItem item) {
+        OrderItemResponse r = new OrderItemResponse();
+        r.setId(item.getId());
+        r.setItemName(item.getItemName());
+        r.setItemType(item.getItemType());
+        r.setQuantity(item.getQuantity());
+        r.setUnitPrice(item.getUnitPrice());
+        r.setTotalPrice(item.getTotalPrice());
+        r.setSpecialNotes(item.getSpecialNotes());
+        return r;
+    }
+
+    public static OrderResponse fromJson(String stored) {
+        try {
+            return OBJECT_MAPPER.readValue(stored, OrderResponse.class);
+        } catch (Exception e) {
+            throw new RestoRestaurantException("Failed to deserialize OrderResponse", e, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    public static String toJson(OrderResponse response) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new RestoRestaurantException("Failed to serialize OrderResponse", e, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    public static String toJson(CreateOrderRequest request) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new RestoRestaurantException("Failed to serialize CreateOrderRequest", e, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    public static PricePreviewResponse previewFromJson(String cached) {
+        try {
+            return OBJECT_MAPPER.readValue(cached, PricePreviewResponse.class);
+        } catch (Exception e) {
+            throw new RestoRestaurantException("Failed to deserialize PricePreviewResponse from cache", e, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    public static String previewToJson(PricePreviewResponse response) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new RestoRestaurantException("Failed to serialize PricePreviewResponse for cache", e, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 }
@@ -0,0 +1,55 @@
+package com.tonyghouse.restaurant_service.mapper;
+
+import com.tonyghouse.restaurant_service.dto.OrderWorkflowResponse;
+import com.tonyghouse.restaurant_service.dto.WorkflowTransitionDto;
+import com.tonyghouse.restaurant_service.entity.BranchWorkflow;
+import com.tonyghouse.restaurant_service.entity.BranchWorkflowTransition;
+import com.tonyghouse.restaurant_service.helper.OrderWorkflow;
+
+import java.util.List;
+import java.util.UUID;
+
+public class OrderWorkflowMapper {
+
+    public static OrderWorkflowResponse toResponse(UUID branchId, OrderWorkflow workflow) {
+        OrderWorkflowResponse response = new OrderWorkflowResponse();
+        response.setBranchId(branchId);
+        response.setVersion(workflow.version());
+        response.setTransitions(workflow.transitions().stream()
+                .map(OrderWorkflowMapper::toDto)
+                .toList());
+        return response;
+    }
+
+    public static OrderWorkflow.Transition toTransition(WorkflowTransitionDto dto) {
+        return dto == null ? null : new OrderWorkflow.Transition(dto.getFrom(), dto.getTo(), dto.getGuard());
+    }
+
+    public static OrderWorkflow.Transition toTransition(BranchWorkflowTransition row) {
+        return new OrderWorkflow.Transition(row.getFromStatus(), row.getToStatus(), row.getGuard());
+    }
+
+    public static OrderWorkflow compile(BranchWorkflow workflow) {
+        List<OrderWorkflow.Transition> transitions = workflow.getTransitions().stream()
+                .map(OrderWorkflowMapper::toTransition)
+                .toList();
+        return OrderWorkflow.compile(workflow.getVersion(), transitions);
+    }
+
+    public static BranchWorkflowTransition toEntity(BranchWorkflow workflow, OrderWorkflow.Transition transition) {
+        BranchWorkflowTransition row = new BranchWorkflowTransition();
+        row.setWorkflow(workflow);
+        row.setFromStatus(transition.from());
+        row.setToStatus(transition.to());
+        row.setGuard(transition.guard());
+        return row;
+    }
+
+    private static WorkflowTransitionDto toDto(OrderWorkflow.Transition transition) {
+        WorkflowTransitionDto dto = new WorkflowTransitionDto();
+        dto.setFrom(transition.from());
+        dto.setTo(transition.to());
+        dto.setGuard(transition.guard());
+        return dto;
+    }
+}
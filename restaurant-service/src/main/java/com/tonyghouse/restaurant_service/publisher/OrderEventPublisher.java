@@ -2,39 +2,85 @@ package com.tonyghouse.restaurant_service.publisher;
 
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tonyghouse.restaurant_service.constants.OrderEventEncoding;
 import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tonyghouse.restaurant_service.helper.OrderEventCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/*
+Only called by the outbox relay. Request threads write to order_outbox instead,
+so nothing here runs inside a business transaction.
+
+Every record carries a content-type header (JSON or a versioned binary schema), so
+consumers can tell the formats apart while both are in use.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OrderEventPublisher {
 
-    private static final String TOPIC = "order.events";
+    public static final String TOPIC = "order.events";
+    public static final String CONTENT_TYPE_HEADER = "content-type";
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
     private final ObjectMapper objectMapper =
             new ObjectMapper()
                     .registerModule(new JavaTimeModule())
                     .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
-    public void publish(OrderStatusChangedEvent event) {
+    @Value("${order.events.encoding:JSON}")
+    private OrderEventEncoding encoding = OrderEventEncoding.JSON;
 
-        try {
-            String payload = objectMapper.writeValueAsString(event);
+    public CompletableFuture<SendResult<String, byte[]>> publish(OrderStatusChangedEvent event) {
 
-            kafkaTemplate.send(
+        try {
+            ProducerRecord<String, byte[]> record = new ProducerRecord<>(
                     TOPIC,
                     event.orderId().toString(),
-                    payload
+                    encode(event)
             );
-            log.info("Event published: {}", payload);
+            record.headers().add(new RecordHeader(
+                    CONTENT_TYPE_HEADER, contentType().getBytes(StandardCharsets.UTF_8)));
+
+            return kafkaTemplate.send(record).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    log.warn("Event not acked. orderId={} newStatus={}",
+                            event.orderId(), event.newStatus(), ex);
+                } else {
+                    log.debug("Event acked. orderId={} partition={} offset={}",
+                            event.orderId(),
+                            result.getRecordMetadata().partition(),
+                            result.getRecordMetadata().offset());
+                }
+            });
 
         } catch (Exception e) {
+            log.error("Event could not be sent. orderId={}", event.orderId(), e);
+            return CompletableFuture.failedFuture(e);
         }
     }
+
+    private byte[] encode(OrderStatusChangedEvent event) throws Exception {
+        if (encoding == OrderEventEncoding.BINARY) {
+            return OrderEventCodec.encode(event);
+        }
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    private String contentType() {
+        return encoding == OrderEventEncoding.BINARY
+                ? OrderEventCodec.contentType(OrderEventCodec.CURRENT_VERSION)
+                : OrderEventCodec.JSON_CONTENT_TYPE;
+    }
 }
@@ -0,0 +1,34 @@
+package com.tonyghouse.restaurant_service.publisher;
+
+import com.tonyghouse.restaurant_service.service.OrderOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+Drains order_outbox to order.events in the background. Each batch is its own
+transaction: rows are deleted only after Kafka acked them, so a crash between the
+send and the commit re-sends the batch (at-least-once).
+ */
+@Component
+@ConditionalOnProperty(name = "order.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OrderOutboxRelay {
+
+    private final OrderOutboxService outboxService;
+
+    @Scheduled(fixedDelayString = "${order.outbox.relay.interval-ms:200}")
+    public void relay() {
+        try {
+            // keep going while batches come back full, a backlog drains without waiting a tick
+            while (outboxService.relayBatch() == OrderOutboxService.BATCH_SIZE) {
+                log.debug("Outbox batch full, relaying next batch");
+            }
+        } catch (Exception e) {
+            log.error("Outbox relay failed, retrying on next tick", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.tonyghouse.restaurant_service.repo;
+
+import com.tonyghouse.restaurant_service.entity.BranchWorkflow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BranchWorkflowRepository extends JpaRepository<BranchWorkflow, UUID> {
+
+    @Query("""
+        select distinct w
+          from BranchWorkflow w
+          left join fetch w.transitions
+         where w.branchId = :branchId
+    """)
+    Optional<BranchWorkflow> findWithTransitionsByBranchId(@Param("branchId") UUID branchId);
+
+    // compare-and-set on the version: 0 rows means another update committed first
+    @Modifying
+    @Query("""
+        update BranchWorkflow w
+           set w.version = :expected + 1,
+               w.updatedAt = :updatedAt
+         where w.id = :id
+           and w.version = :expected
+    """)
+    int bumpVersion(@Param("id") UUID id,
+                    @Param("expected") long expected,
+                    @Param("updatedAt") Instant updatedAt);
+
+    // polled to pick up workflows changed on another instance
+    @Query("select w.id as id, w.branchId as branchId, w.version as version from BranchWorkflow w")
+    List<WorkflowVersion> findAllVersions();
+
+    interface WorkflowVersion {
+        UUID getId();
+
+        UUID getBranchId();
+
+        long getVersion();
+    }
+}
@@ -2,14 +2,27 @@ package com.tonyghouse.restaurant_service.repo;
 
 import com.tonyghouse.restaurant_service.entity.Combo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ComboRepository extends JpaRepository<Combo, UUID> {
 
     List<Combo> findByActiveTrueAndBranch_Id(UUID branchId);
+    List<Combo> findByBranch_Id(UUID branchId);
     boolean existsByBranch_IdAndName(UUID branchId, String name);
+
+    // combo with its items in one query; cache refreshes load it outside any transaction
+    @Query("""
+        select c
+          from Combo c
+          left join fetch c.items
+         where c.id = :comboId
+    """)
+    Optional<Combo> findWithItemsById(@Param("comboId") UUID comboId);
 }
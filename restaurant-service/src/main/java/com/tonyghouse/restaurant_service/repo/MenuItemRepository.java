@@ -14,6 +14,14 @@ import java.util.UUID;
 @Repository
 public interface MenuItemRepository extends JpaRepository<MenuItem, UUID> {
 
+    @Query("""
+        select distinct mi
+          from Menu m
+          join m.items mi
+         where m.branch.id = :branchId
+    """)
+    List<MenuItem> findAllByBranchId(@Param("branchId") UUID branchId);
+
     @Modifying
     @Query("""
         update MenuItem mi
@@ -3,7 +3,10 @@ package com.tonyghouse.restaurant_service.repo;
 import com.tonyghouse.restaurant_service.constants.MenuType;
 import com.tonyghouse.restaurant_service.entity.Menu;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -26,4 +29,23 @@ public interface MenuRepository extends JpaRepository<Menu, UUID> {
             MenuType menuType
     );
 
+    // menu schedule source: active menus with items in one query, in a stable priority order
+    @Query("""
+        select distinct m
+          from Menu m
+          left join fetch m.items
+         where m.branch.id = :branchId
+           and m.active = true
+         order by m.validFrom, m.menuType
+    """)
+    List<Menu> findActiveWithItemsByBranchId(@Param("branchId") UUID branchId);
+
+    @Query("""
+        select distinct m.branch.id
+          from Menu m
+          join m.items i
+         where i.id in :itemIds
+    """)
+    List<UUID> findBranchIdsByItemIdIn(@Param("itemIds") Collection<UUID> itemIds);
+
 }
@@ -0,0 +1,22 @@
+package com.tonyghouse.restaurant_service.repo;
+
+import com.tonyghouse.restaurant_service.entity.OrderIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface OrderIdempotencyKeyRepository
+        extends JpaRepository<OrderIdempotencyKey, UUID> {
+
+    Optional<OrderIdempotencyKey> findByOwnerAndBranchIdAndIdempotencyKey(
+            String owner, UUID branchId, String idempotencyKey);
+
+    default OrderIdempotencyKey claim(OrderIdempotencyKey claim, Instant now) {
+        claim.setCreatedAt(now);
+        return saveAndFlush(claim);
+    }
+}
@@ -0,0 +1,29 @@
+package com.tonyghouse.restaurant_service.repo;
+
+import com.tonyghouse.restaurant_service.entity.OrderOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository
+        extends JpaRepository<OrderOutboxEvent, Long> {
+
+    @Query("""
+        select e
+          from OrderOutboxEvent e
+         order by e.sendSeq asc
+    """)
+    List<OrderOutboxEvent> findPending(Pageable pageable);
+
+    /*
+    Held until the relay transaction ends, so only one instance drains the outbox
+    at a time and per-order ordering survives a multi-instance deployment.
+     */
+    @Query(value = "select pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryRelayLock(@Param("key") long key);
+}
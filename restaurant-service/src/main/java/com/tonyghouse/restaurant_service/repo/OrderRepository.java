@@ -1,11 +1,146 @@
 package com.tonyghouse.restaurant_service.repo;
 
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
 import com.tonyghouse.restaurant_service.entity.Order;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
+
+    /*
+    Compare-and-set on status against every status the transition is allowed from, in one
+    statement. Of two concurrent transitions only one matches the row; the other sees 0
+    rows updated. SET reads the row as it was, so previous_status gets the status replaced.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        update Order o
+           set o.previousStatus = o.status,
+               o.status = :to
+         where o.id = :orderId
+           and o.status in :from
+    """)
+    int transitionStatus(
+            @Param("orderId") UUID orderId,
+            @Param("from") Collection<OrderStatus> from,
+            @Param("to") OrderStatus to
+    );
+
+    @Query("select o.previousStatus from Order o where o.id = :orderId")
+    Optional<OrderStatus> findPreviousStatusById(@Param("orderId") UUID orderId);
+
+    // bulk transitions: rows stay locked until commit, taken in id order so batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        select o
+          from Order o
+         where o.id in :orderIds
+         order by o.id
+    """)
+    List<Order> lockAllById(@Param("orderIds") Collection<UUID> orderIds);
+
+    @Query("select o.createdAt from Order o where o.id = :orderId")
+    Optional<Instant> findCreatedAtById(@Param("orderId") UUID orderId);
+
+    @Query("select o.branch.id from Order o where o.id = :orderId")
+    Optional<UUID> findBranchIdById(@Param("orderId") UUID orderId);
+
+    @Query("select o.id as orderId, o.branch.id as branchId from Order o where o.id in :orderIds")
+    List<OrderBranch> findBranchIdsByIdIn(@Param("orderIds") Collection<UUID> orderIds);
+
+    // order, branch and items in one round trip for the order read model
+    @Query("""
+        select distinct o
+          from Order o
+          left join fetch o.branch
+          left join fetch o.items
+         where o.id = :orderId
+    """)
+    Optional<Order> findDetailedById(@Param("orderId") UUID orderId);
+
+    // first page of a branch listing, newest first; Pageable only limits, no count query
+    @Query("""
+        select o
+          from Order o
+         where o.branch.id = :branchId
+           and o.createdAt >= :from
+           and o.createdAt < :to
+           and o.status in :statuses
+         order by o.createdAt desc, o.id desc
+    """)
+    List<Order> findBranchPage(
+            @Param("branchId") UUID branchId,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("statuses") Collection<OrderStatus> statuses,
+            Pageable limit
+    );
+
+    // next pages seek past the last (createdAt, id) seen instead of using an OFFSET
+    @Query("""
+        select o
+          from Order o
+         where o.branch.id = :branchId
+           and o.createdAt >= :from
+           and o.createdAt < :to
+           and o.status in :statuses
+           and (o.createdAt < :afterCreatedAt
+                or (o.createdAt = :afterCreatedAt and o.id < :afterId))
+         order by o.createdAt desc, o.id desc
+    """)
+    List<Order> findBranchPageAfter(
+            @Param("branchId") UUID branchId,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("statuses") Collection<OrderStatus> statuses,
+            @Param("afterCreatedAt") Instant afterCreatedAt,
+            @Param("afterId") UUID afterId,
+            Pageable limit
+    );
+
+    // open orders with their lines, used to reconcile the kitchen queue; reads idx_orders_open_status
+    @Query("""
+        select distinct o
+          from Order o
+          left join fetch o.items
+         where o.status in :statuses
+         order by o.createdAt asc
+    """)
+    List<Order> findAllWithItemsByStatusIn(@Param("statuses") Collection<OrderStatus> statuses);
+
+    // branch and line item ids per order; orders without recorded item ids come back with a null itemId
+    @Query("""
+        select o.id as orderId, o.branch.id as branchId, i.itemId as itemId
+          from Order o
+          left join o.items i
+         where o.id in :orderIds
+    """)
+    List<OrderItemRef> findItemRefsByIdIn(@Param("orderIds") Collection<UUID> orderIds);
+
+    interface OrderBranch {
+        UUID getOrderId();
+
+        UUID getBranchId();
+    }
+
+    interface OrderItemRef {
+        UUID getOrderId();
+
+        UUID getBranchId();
+
+        UUID getItemId();
+    }
 }
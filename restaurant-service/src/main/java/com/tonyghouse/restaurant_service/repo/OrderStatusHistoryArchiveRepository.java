@@ -0,0 +1,33 @@
+package com.tonyghouse.restaurant_service.repo;
+
+import com.tonyghouse.restaurant_service.entity.OrderStatusHistoryArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface OrderStatusHistoryArchiveRepository
+        extends JpaRepository<OrderStatusHistoryArchive, UUID> {
+
+    // exported months overlapping [from, to)
+    @Query("""
+        select a
+          from OrderStatusHistoryArchive a
+         where a.periodEnd > :from
+           and a.periodStart < :to
+         order by a.periodStart asc
+    """)
+    List<OrderStatusHistoryArchive> findOverlapping(
+            @Param("from") Instant from,
+            @Param("to") Instant to
+    );
+
+    @Query("select max(a.periodEnd) from OrderStatusHistoryArchive a")
+    Optional<Instant> findLatestPeriodEnd();
+}
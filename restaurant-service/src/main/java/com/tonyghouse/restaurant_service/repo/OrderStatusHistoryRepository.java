@@ -1,8 +1,13 @@
 package com.tonyghouse.restaurant_service.repo;
 
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
 import com.tonyghouse.restaurant_service.entity.OrderStatusHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -10,4 +15,25 @@ public interface OrderStatusHistoryRepository
         extends JpaRepository<OrderStatusHistory, UUID> {
 
     List<OrderStatusHistory> findByOrderIdOrderByChangedAtAsc(UUID orderId);
+
+    // latest entry into a status per order; `since` lets the partitioned table skip old months
+    @Query("""
+        select h.order.id as orderId, max(h.changedAt) as changedAt
+          from OrderStatusHistory h
+         where h.order.id in :orderIds
+           and h.newStatus = :status
+           and h.changedAt >= :since
+         group by h.order.id
+    """)
+    List<StatusEntry> findLatestEntriesByOrderIdIn(
+            @Param("orderIds") Collection<UUID> orderIds,
+            @Param("status") OrderStatus status,
+            @Param("since") Instant since
+    );
+
+    interface StatusEntry {
+        UUID getOrderId();
+
+        Instant getChangedAt();
+    }
 }
@@ -1,5 +1,6 @@
 package com.tonyghouse.restaurant_service.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -24,6 +25,8 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // SSE streams finish on an async dispatch; the request was authorized when it opened
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/internal/**").hasRole("RESTAURANT_SERVICE")
                         .anyRequest().authenticated()
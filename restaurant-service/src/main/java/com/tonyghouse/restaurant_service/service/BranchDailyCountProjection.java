@@ -0,0 +1,88 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.repo.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Orders entering each status per branch and UTC day, in branch_daily_order_count.
+ * Counts from one batch are added to the stored ones, so partitions can be applied
+ * independently and in any interleaving.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BranchDailyCountProjection implements OrderEventProjection {
+
+    static final String NAME = "branch-daily-counts";
+
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private record Key(UUID branchId, LocalDate day, OrderStatus status) {
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void reset() {
+        int rows = jdbcTemplate.update("delete from branch_daily_order_count");
+        log.info("Branch daily counts cleared. rows={}", rows);
+    }
+
+    @Override
+    public void apply(List<OrderStatusChangedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        // events carry no branch: one lookup for the whole batch
+        Set<UUID> orderIds = new HashSet<>();
+        events.forEach(e -> orderIds.add(e.orderId()));
+        Map<UUID, UUID> branchOf = new HashMap<>();
+        orderRepository.findBranchIdsByIdIn(orderIds)
+                .forEach(o -> branchOf.put(o.getOrderId(), o.getBranchId()));
+
+        Map<Key, Long> counts = new HashMap<>();
+        int unknown = 0;
+        for (OrderStatusChangedEvent event : events) {
+            UUID branchId = branchOf.get(event.orderId());
+            if (branchId == null) {
+                unknown++;
+                continue;
+            }
+            LocalDate day = LocalDate.ofInstant(event.changedAt(), ZoneOffset.UTC);
+            counts.merge(new Key(branchId, day, event.newStatus()), 1L, Long::sum);
+        }
+        if (unknown > 0) {
+            log.warn("Events for unknown orders skipped. count={}", unknown);
+        }
+
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> rows.add(new Object[]{
+                key.branchId(), Date.valueOf(key.day()), key.status().name(), count}));
+        jdbcTemplate.batchUpdate("""
+                insert into branch_daily_order_count (branch_id, day, status, order_count)
+                values (?, ?, ?, ?)
+                on conflict (branch_id, day, status)
+                do update set order_count = branch_daily_order_count.order_count + excluded.order_count
+                """, rows);
+    }
+}
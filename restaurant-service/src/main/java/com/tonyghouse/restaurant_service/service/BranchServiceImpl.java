@@ -3,6 +3,8 @@ package com.tonyghouse.restaurant_service.service;
 import com.tonyghouse.restaurant_service.dto.*;
 import com.tonyghouse.restaurant_service.entity.Branch;
 import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.CacheCodecs;
+import com.tonyghouse.restaurant_service.helper.CacheRegion;
 import com.tonyghouse.restaurant_service.mapper.BranchMapper;
 import com.tonyghouse.restaurant_service.repo.BranchRepository;
 import lombok.RequiredArgsConstructor;
@@ -11,8 +13,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import redis.clients.jedis.Jedis;
-import redis.clients.jedis.JedisPool;
 
 import java.time.Clock;
 import java.util.UUID;
@@ -23,10 +23,11 @@ import java.util.UUID;
 public class BranchServiceImpl implements BranchService {
 
     private final BranchRepository branchRepository;
-    private final JedisPool jedisPool;
+    private final CatalogCacheService catalogCache;
     private final Clock clock;
 
-    private static final String BRANCH_CACHE_KEY = "branch:";
+    private static final CacheRegion<BranchResponse> BRANCH_CACHE = new CacheRegion<>(
+            "branch", 300, 3_600, 1_000, CacheCodecs.smile(BranchResponse.class));
 
     @Override
     public BranchResponse createBranch(CreateBranchRequest request) {
@@ -48,34 +49,15 @@ public class BranchServiceImpl implements BranchService {
     public BranchResponse getBranch(UUID branchId) {
         log.debug("Fetching branch. branchId={}", branchId);
 
+        return catalogCache.get(BRANCH_CACHE.key(branchId), () -> {
+            log.info("Cache MISS for branchId={}, loading from DB", branchId);
 
-        try (Jedis jedis = jedisPool.getResource()) {
-            log.debug("Checking Cache for branchId={}", branchId);
+            Branch branch = branchRepository.findById(branchId)
+                    .orElseThrow(() -> new RestoRestaurantException("Branch not found", HttpStatus.INTERNAL_SERVER_ERROR));
+            log.debug("Branch loaded from DB. branchId={} name={}", branchId, branch.getName());
 
-            String cachedName = jedis.get(BRANCH_CACHE_KEY + branchId);
-            if (cachedName != null) {
-                log.info("Cache HIT for branchId={}", branchId);
-                BranchResponse res = new BranchResponse();
-                res.setId(branchId);
-                res.setName(cachedName);
-                return res;
-            }
-        }
-
-        log.info("Cache MISS for branchId={}, loading from DB", branchId);
-
-        Branch branch = branchRepository.findById(branchId)
-                .orElseThrow(() -> new RestoRestaurantException("Branch not found", HttpStatus.INTERNAL_SERVER_ERROR));
-        log.debug("Branch loaded from DB. branchId={} name={}", branchId, branch.getName());
-
-
-        try (Jedis jedis = jedisPool.getResource()) {
-            jedis.setex(BRANCH_CACHE_KEY + branchId, 300, branch.getName());
-            log.debug("Branch cached in Cache for 300 seconds. branchId={}", branchId);
-
-        }
-
-        return BranchMapper.mapToResponse(branch);
+            return BranchMapper.mapToResponse(branch);
+        });
     }
 
     @Override
@@ -103,10 +85,8 @@ public class BranchServiceImpl implements BranchService {
         log.info("Branch updated successfully. branchId={}", branchId);
 
 
-        try (Jedis jedis = jedisPool.getResource()) {
-            jedis.del(BRANCH_CACHE_KEY + branchId);
-            log.debug("Cache invalidated for branchId={}", branchId);
-        }
+        catalogCache.evict(BRANCH_CACHE.key(branchId));
+        log.debug("Cache invalidated for branchId={}", branchId);
 
         return BranchMapper.mapToResponse(updated);
     }
@@ -123,10 +103,8 @@ public class BranchServiceImpl implements BranchService {
         branchRepository.deleteById(branchId);
         log.info("Branch deleted from DB. branchId={}", branchId);
 
-        try (Jedis jedis = jedisPool.getResource()) {
-            log.debug("Cache cleared for deleted branchId={}", branchId);
-            jedis.del(BRANCH_CACHE_KEY + branchId);
-        }
+        catalogCache.evict(BRANCH_CACHE.key(branchId));
+        log.debug("Cache cleared for deleted branchId={}", branchId);
     }
 
 
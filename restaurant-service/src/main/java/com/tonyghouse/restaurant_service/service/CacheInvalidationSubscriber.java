@@ -0,0 +1,95 @@
+package com.tonyghouse.restaurant_service.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPubSub;
+
+/*
+Listens on the cache and price catalog invalidation channels and drops the named
+entries from this instance's local tier and price catalogs. The subscription holds
+one pooled connection for as long as it lives. Pub/sub does not replay messages
+missed while disconnected, so both are cleared on every (re)subscribe.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationSubscriber {
+
+    private static final long RETRY_MILLIS = 2_000;
+
+    private final JedisPool jedisPool;
+    private final CatalogCacheService cacheService;
+    private final PriceCatalogService priceCatalogService;
+
+    private volatile boolean running;
+    private volatile JedisPubSub subscription;
+    private Thread listener;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listener = Thread.ofVirtual().name("cache-invalidation").start(this::listen);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        JedisPubSub current = subscription;
+        if (current != null && current.isSubscribed()) {
+            current.unsubscribe();
+        }
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Jedis jedis = jedisPool.getResource()) {
+                subscription = new JedisPubSub() {
+                    @Override
+                    public void onSubscribe(String channel, int subscribedChannels) {
+                        if (PriceCatalogService.INVALIDATION_CHANNEL.equals(channel)) {
+                            priceCatalogService.clear();
+                        } else {
+                            cacheService.clearLocal();
+                        }
+                        log.info("Subscribed to cache invalidations. channel={}", channel);
+                    }
+
+                    @Override
+                    public void onMessage(String channel, String message) {
+                        if (PriceCatalogService.INVALIDATION_CHANNEL.equals(channel)) {
+                            priceCatalogService.applyInvalidation(message);
+                        } else {
+                            cacheService.applyInvalidation(message);
+                        }
+                    }
+                };
+                // blocks until unsubscribed or the connection drops
+                jedis.subscribe(subscription,
+                        CatalogCacheService.INVALIDATION_CHANNEL, PriceCatalogService.INVALIDATION_CHANNEL);
+            } catch (Exception e) {
+                if (running) {
+                    log.warn("Cache invalidation subscription lost, retrying in {} ms", RETRY_MILLIS, e);
+                }
+            }
+            if (running) {
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.CacheStatsResponse;
+import com.tonyghouse.restaurant_service.helper.CacheRegion;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public interface CatalogCacheService {
+
+    String INVALIDATION_CHANNEL = "cache:invalidate";
+
+    <T> T get(CacheRegion.Key<T> key, Supplier<T> loader);
+
+    void evict(CacheRegion.Key<?>... keys);
+
+    void applyInvalidation(String message);
+
+    void clearLocal();
+
+    List<CacheStatsResponse> stats();
+}
@@ -0,0 +1,563 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.CacheStatsResponse;
+import com.tonyghouse.restaurant_service.helper.CacheCodec;
+import com.tonyghouse.restaurant_service.helper.CacheRegion;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.params.SetParams;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog reads in two tiers: a bounded in-process LRU of deserialized values, then
+ * Redis, then the loader. Evictions delete the Redis keys and are broadcast on
+ * {@link CatalogCacheService#INVALIDATION_CHANNEL}, so every instance drops its
+ * local copy (see {@link CacheInvalidationSubscriber}).
+ * Local values are shared between callers and must be treated as read-only.
+ *
+ * <p>Misses are single-flight: concurrent misses for one key on this instance wait
+ * for the first caller's load. With {@code catalog.cache.redis-lock.enabled} the
+ * loader also takes a short Redis lock, and other instances poll Redis for its
+ * result instead of querying the database themselves.
+ *
+ * <p>Entries are fresh for the region's {@code freshSeconds} and kept until its
+ * {@code ttlSeconds}. A stale entry is returned at once and reloaded in the
+ * background, so only a cold or evicted key makes a caller wait for the loader.
+ * Both TTLs get random jitter so keys written together do not go stale together.
+ *
+ * <p>Redis values are bytes in each region's {@link CacheCodec}, read and written with
+ * the binary Jedis commands.
+ *
+ * <p>An eviction also bumps an eviction stamp for the key. A load or refresh that
+ * started before the bump may have read the old data, so it hands its value to its
+ * own callers but does not store it locally or in Redis.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogCacheServiceImpl implements CatalogCacheService {
+
+    private final JedisPool jedisPool;
+    private final Clock clock;
+
+    private static final String UNLOCK_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+    private static final long LOCK_POLL_MILLIS = 25;
+
+    private static final byte ENVELOPE_MAGIC = (byte) 0xCE;
+    private static final int ENVELOPE_HEADER = 18;
+    private static final int EVICTION_STRIPES = 256;
+
+    private final Map<String, LocalTier> tiers = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newVirtualThreadPerTaskExecutor();
+    // keys share stripes, so an eviction may also drop an unrelated flight's write; that only costs a reload
+    private final AtomicLongArray evictions = new AtomicLongArray(EVICTION_STRIPES);
+
+    @Value("${catalog.cache.redis-lock.enabled:false}")
+    private boolean redisLockEnabled;
+
+    // longer than a catalog load takes; a crashed loader's lock lapses after this
+    @Value("${catalog.cache.redis-lock.ttl-ms:3000}")
+    private long redisLockMillis = 3_000;
+
+    // TTLs are stretched by a random 0..jitter fraction
+    @Value("${catalog.cache.ttl-jitter:0.1}")
+    private double ttlJitter = 0.1;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(CacheRegion.Key<T> key, Supplier<T> loader) {
+        long started = System.nanoTime();
+        LocalTier tier = tier(key.region());
+
+        Cached local = tier.get(key.id(), Instant.now(clock));
+        if (local != null) {
+            if (local.isStale(Instant.now(clock))) {
+                tier.staleHits.record(started);
+                refreshInBackground(key, tier, loader);
+            } else {
+                tier.localHits.record(started);
+            }
+            return (T) local.value();
+        }
+
+        long stamp = evictionStamp(key.redisKey());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key.redisKey(), flight);
+        if (running != null) {
+            T value = (T) await(running);
+            tier.coalesced.record(started);
+            return value;
+        }
+
+        // the flight leaves the map before it completes, so a caller that comes after
+        // the result (or failure) is handed out starts a new load instead of reusing it
+        Cached fetched;
+        try {
+            fetched = fetch(key, tier, loader, started, stamp, false);
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key.redisKey(), flight);
+            // waiters get the same failure, e.g. the loader's 404
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key.redisKey(), flight);
+        flight.complete(fetched == null ? null : fetched.value());
+
+        // a stale value from Redis is served now and reloaded once this flight is gone
+        if (fetched != null && fetched.isStale(Instant.now(clock))) {
+            refreshInBackground(key, tier, loader);
+        }
+        return fetched == null ? null : (T) fetched.value();
+    }
+
+    @Override
+    public void evict(CacheRegion.Key<?>... keys) {
+        if (keys.length == 0) {
+            return;
+        }
+        for (CacheRegion.Key<?> key : keys) {
+            markEvicted(key.redisKey());
+            // later misses start a flight of their own instead of joining one that read the old data
+            inFlight.remove(key.redisKey());
+            tier(key.region()).remove(key.id());
+        }
+        String[] redisKeys = Arrays.stream(keys)
+                .map(CacheRegion.Key::redisKey)
+                .toArray(String[]::new);
+        // one line per key: "<region> <id>"
+        String message = Arrays.stream(keys)
+                .map(k -> k.region().name() + " " + k.id())
+                .collect(Collectors.joining("\n"));
+
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.del(redisKeys);
+            jedis.publish(INVALIDATION_CHANNEL, message);
+        }
+        log.debug("Cache keys evicted and broadcast. keys={}", Arrays.toString(redisKeys));
+    }
+
+    @Override
+    public void applyInvalidation(String message) {
+        for (String line : message.split("\n")) {
+            int split = line.indexOf(' ');
+            if (split < 0) {
+                log.warn("Malformed cache invalidation ignored. line={}", line);
+                continue;
+            }
+            String redisKey = line.substring(0, split) + ":" + line.substring(split + 1);
+            markEvicted(redisKey);
+            inFlight.remove(redisKey);
+            LocalTier tier = tiers.get(line.substring(0, split));
+            // a region this instance never read has nothing to drop
+            if (tier != null) {
+                tier.remove(line.substring(split + 1));
+            }
+        }
+    }
+
+    @Override
+    public void clearLocal() {
+        for (int i = 0; i < EVICTION_STRIPES; i++) {
+            evictions.incrementAndGet(i);
+        }
+        tiers.values().forEach(LocalTier::clear);
+        log.info("Local catalog cache cleared. regions={}", tiers.size());
+    }
+
+    @Override
+    public List<CacheStatsResponse> stats() {
+        return tiers.values().stream()
+                .sorted(Comparator.comparing(t -> t.name))
+                .map(LocalTier::toStats)
+                .toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /*
+    Redis value, big endian:
+      [0]       magic 0xCE
+      [1]       codec id
+      [2..9]    freshUntil epoch ms
+      [10..17]  expiresAt epoch ms
+      [18..]    value in the codec
+    The Redis TTL enforces expiresAt; freshUntil travels with the value so every
+    instance agrees on when it goes stale.
+     */
+    static <T> byte[] envelope(CacheCodec<T> codec, T value, Instant freshUntil, Instant expiresAt) {
+        byte[] encoded = codec.encode(value);
+        return ByteBuffer.allocate(ENVELOPE_HEADER + encoded.length)
+                .put(ENVELOPE_MAGIC)
+                .put(codec.id())
+                .putLong(freshUntil.toEpochMilli())
+                .putLong(expiresAt.toEpochMilli())
+                .put(encoded)
+                .array();
+    }
+
+    // joins a refresh or load already running for the key, otherwise starts one
+    private <T> void refreshInBackground(CacheRegion.Key<T> key, LocalTier tier, Supplier<T> loader) {
+        long stamp = evictionStamp(key.redisKey());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key.redisKey(), flight) != null) {
+            return;
+        }
+        tier.refreshes.increment();
+        try {
+            refresher.execute(() -> {
+                try {
+                    Cached refreshed = fetch(key, tier, loader, System.nanoTime(), stamp, true);
+                    flight.complete(refreshed == null ? null : refreshed.value());
+                } catch (RuntimeException | Error e) {
+                    // the stale value keeps being served until it expires
+                    flight.completeExceptionally(e);
+                    log.warn("Background cache refresh failed. key={}", key.redisKey(), e);
+                } finally {
+                    inFlight.remove(key.redisKey(), flight);
+                }
+            });
+        } catch (RuntimeException e) {
+            // executor shut down
+            inFlight.remove(key.redisKey(), flight);
+            flight.cancel(false);
+        }
+    }
+
+    /*
+    The flight leader: Redis, then the loader. A refresh skips stale copies and only
+    accepts a value some other refresh already made fresh. stamp is the key's eviction
+    stamp from before the flight started.
+     */
+    private <T> Cached fetch(CacheRegion.Key<T> key, LocalTier tier, Supplier<T> loader,
+                            long started, long stamp, boolean refreshing) {
+        if (!refreshing) {
+            // a flight that finished between our local miss and putIfAbsent already filled it
+            Cached local = tier.get(key.id(), Instant.now(clock));
+            if (local != null) {
+                tier.localHits.record(started);
+                return local;
+            }
+        }
+
+        Cached stored = readRedis(key);
+        if (stored != null && !(refreshing && stored.isStale(Instant.now(clock)))) {
+            storeLocal(key, tier, stored, stamp);
+            if (!refreshing) {
+                tier.redisHits.record(started);
+            }
+            return stored;
+        }
+
+        String lockKey = key.redisKey() + ":lock";
+        String token = null;
+        if (redisLockEnabled) {
+            token = UUID.randomUUID().toString();
+            long deadline = System.nanoTime() + redisLockMillis * 1_000_000;
+            while (!tryLock(lockKey, token)) {
+                Cached loadedElsewhere = awaitOtherInstance(key, lockKey, deadline);
+                if (loadedElsewhere != null) {
+                    storeLocal(key, tier, loadedElsewhere, stamp);
+                    if (!refreshing) {
+                        tier.coalesced.record(started);
+                    }
+                    return loadedElsewhere;
+                }
+                if (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted()) {
+                    // the other loader is slow: load without the lock
+                    token = null;
+                    break;
+                }
+                // the holder let go without writing a value (its loader threw or found nothing): contend again
+            }
+        }
+
+        try {
+            T value = loader.get();
+            if (value == null) {
+                tier.misses.record(started);
+                return null;
+            }
+            Instant now = Instant.now(clock);
+            long freshSeconds = jittered(key.region().freshSeconds());
+            long ttlSeconds = Math.max(freshSeconds, jittered(key.region().ttlSeconds()));
+            Cached entry = new Cached(value, now.plusSeconds(freshSeconds), now.plusSeconds(ttlSeconds));
+
+            if (evictedSince(key, stamp)) {
+                log.debug("Load overlapped an eviction, value not cached. key={}", key.redisKey());
+                return entry;
+            }
+            try (Jedis jedis = jedisPool.getResource()) {
+                jedis.setex(redisKeyBytes(key), ttlSeconds, envelope(
+                        key.region().codec(), value, entry.freshUntil(), entry.expiresAt()));
+                // an eviction between the check and the write deleted the key before we set it
+                if (evictedSince(key, stamp)) {
+                    jedis.del(redisKeyBytes(key));
+                    return entry;
+                }
+            }
+            storeLocal(key, tier, entry, stamp);
+            if (!refreshing) {
+                tier.misses.record(started);
+            }
+            return entry;
+        } finally {
+            if (token != null) {
+                unlock(lockKey, token);
+            }
+        }
+    }
+
+    private <T> void storeLocal(CacheRegion.Key<T> key, LocalTier tier, Cached entry, long stamp) {
+        tier.put(key.id(), entry);
+        // checked after the put, so an eviction landing on either side of it is seen
+        if (evictedSince(key, stamp)) {
+            tier.remove(key.id());
+        }
+    }
+
+    private long evictionStamp(String redisKey) {
+        return evictions.get(Math.floorMod(redisKey.hashCode(), EVICTION_STRIPES));
+    }
+
+    private void markEvicted(String redisKey) {
+        evictions.incrementAndGet(Math.floorMod(redisKey.hashCode(), EVICTION_STRIPES));
+    }
+
+    private boolean evictedSince(CacheRegion.Key<?> key, long stamp) {
+        return evictionStamp(key.redisKey()) != stamp;
+    }
+
+    private long jittered(long seconds) {
+        double stretch = ttlJitter <= 0 ? 0 : ThreadLocalRandom.current().nextDouble(ttlJitter);
+        return seconds + Math.round(seconds * stretch);
+    }
+
+    private <T> Cached readRedis(CacheRegion.Key<T> key) {
+        byte[] stored;
+        try (Jedis jedis = jedisPool.getResource()) {
+            stored = jedis.get(redisKeyBytes(key));
+        }
+        return stored == null ? null : decode(key, stored);
+    }
+
+    private static byte[] redisKeyBytes(CacheRegion.Key<?> key) {
+        return key.redisKey().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private boolean tryLock(String lockKey, String token) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return "OK".equals(jedis.set(lockKey, token, SetParams.setParams().nx().px(redisLockMillis)));
+        }
+    }
+
+    private void unlock(String lockKey, String token) {
+        // only our own lock: after a lapse another loader may hold it
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.eval(UNLOCK_SCRIPT, List.of(lockKey), List.of(token));
+        } catch (RuntimeException e) {
+            log.warn("Cache lock release failed, it lapses on its own. key={}", lockKey, e);
+        }
+    }
+
+    /*
+    Polls for the lock holder's fresh value until the deadline. Returns null early once
+    the lock is gone without a value, so the caller does not sit out the whole TTL
+    behind a loader that failed.
+     */
+    private <T> Cached awaitOtherInstance(CacheRegion.Key<T> key, String lockKey, long deadline) {
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            try (Jedis jedis = jedisPool.getResource()) {
+                byte[] stored = jedis.get(redisKeyBytes(key));
+                Cached entry = stored == null ? null : decode(key, stored);
+                if (entry != null && !entry.isStale(Instant.now(clock))) {
+                    return entry;
+                }
+                if (!jedis.exists(lockKey)) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private LocalTier tier(CacheRegion<?> region) {
+        return tiers.computeIfAbsent(region.name(), n -> new LocalTier(n, region.maxLocalEntries()));
+    }
+
+    // an unreadable value (older format, other codec) is a miss and gets overwritten
+    private static <T> Cached decode(CacheRegion.Key<T> key, byte[] stored) {
+        try {
+            CacheCodec<T> codec = key.region().codec();
+            ByteBuffer buf = ByteBuffer.wrap(stored);
+            if (stored.length < ENVELOPE_HEADER || buf.get() != ENVELOPE_MAGIC) {
+                throw new IllegalArgumentException("Cache value without envelope");
+            }
+            byte codecId = buf.get();
+            if (codecId != codec.id()) {
+                throw new IllegalArgumentException("Cache value written by codec " + codecId);
+            }
+            Instant freshUntil = Instant.ofEpochMilli(buf.getLong());
+            Instant expiresAt = Instant.ofEpochMilli(buf.getLong());
+            T value = codec.decode(stored, ENVELOPE_HEADER, stored.length - ENVELOPE_HEADER);
+            return value == null ? null : new Cached(value, freshUntil, expiresAt);
+        } catch (RuntimeException e) {
+            log.warn("Unreadable cache value treated as miss. key={}", key.redisKey(), e);
+            return null;
+        }
+    }
+
+    private record Cached(Object value, Instant freshUntil, Instant expiresAt) {
+
+        private boolean isStale(Instant now) {
+            return !now.isBefore(freshUntil);
+        }
+    }
+
+    private static final class Outcome {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private void record(long startedNanos) {
+            count.increment();
+            nanos.add(System.nanoTime() - startedNanos);
+        }
+
+        private double avgMicros() {
+            long n = count.sum();
+            return n == 0 ? 0 : nanos.sum() / 1_000.0 / n;
+        }
+    }
+
+    private static final class LocalTier {
+
+        private final String name;
+        private final int maxEntries;
+        private final LinkedHashMap<String, Cached> entries;
+        private final Outcome localHits = new Outcome();
+        private final Outcome redisHits = new Outcome();
+        private final Outcome misses = new Outcome();
+        // served by another caller's load, on this instance or another
+        private final Outcome coalesced = new Outcome();
+        // stale local values served while a refresh runs
+        private final Outcome staleHits = new Outcome();
+        private final LongAdder refreshes = new LongAdder();
+
+        private LocalTier(String name, int maxEntries) {
+            this.name = name;
+            this.maxEntries = maxEntries;
+            // access order: the least recently read entry is dropped first
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                    return size() > LocalTier.this.maxEntries;
+                }
+            };
+        }
+
+        private synchronized Cached get(String id, Instant now) {
+            Cached entry = entries.get(id);
+            if (entry == null) {
+                return null;
+            }
+            if (!now.isBefore(entry.expiresAt())) {
+                entries.remove(id);
+                return null;
+            }
+            return entry;
+        }
+
+        private synchronized void put(String id, Cached entry) {
+            entries.put(id, entry);
+        }
+
+        private synchronized void remove(String id) {
+            entries.remove(id);
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+
+        private CacheStatsResponse toStats() {
+            long local = localHits.count.sum();
+            long stale = staleHits.count.sum();
+            long redis = redisHits.count.sum();
+            long missed = misses.count.sum();
+            long waited = coalesced.count.sum();
+            long total = local + stale + redis + waited + missed;
+
+            CacheStatsResponse stats = new CacheStatsResponse();
+            stats.setRegion(name);
+            stats.setLocalEntries(size());
+            stats.setMaxLocalEntries(maxEntries);
+            stats.setLocalHits(local);
+            stats.setStaleHits(stale);
+            stats.setRedisHits(redis);
+            stats.setMisses(missed);
+            stats.setCoalesced(waited);
+            stats.setRefreshes(refreshes.sum());
+            stats.setHitRatio(total == 0 ? 0 : (double) (total - missed) / total);
+            stats.setLocalHitRatio(total == 0 ? 0 : (double) (local + stale) / total);
+            stats.setAvgLocalHitMicros(localHits.avgMicros());
+            stats.setAvgRedisHitMicros(redisHits.avgMicros());
+            stats.setAvgMissMicros(misses.avgMicros());
+            stats.setAvgCoalescedMicros(coalesced.avgMicros());
+            return stats;
+        }
+    }
+}
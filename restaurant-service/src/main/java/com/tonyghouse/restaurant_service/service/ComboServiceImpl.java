@@ -7,6 +7,8 @@ import com.tonyghouse.restaurant_service.entity.Branch;
 import com.tonyghouse.restaurant_service.entity.Combo;
 import com.tonyghouse.restaurant_service.entity.MenuItem;
 import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.CacheCodecs;
+import com.tonyghouse.restaurant_service.helper.CacheRegion;
 import com.tonyghouse.restaurant_service.mapper.ComboMapper;
 import com.tonyghouse.restaurant_service.repo.BranchRepository;
 import com.tonyghouse.restaurant_service.repo.ComboRepository;
@@ -18,7 +20,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import redis.clients.jedis.JedisPool;
 
 import java.time.Clock;
 import java.time.Instant;
@@ -30,12 +31,14 @@ import java.util.UUID;
 @Slf4j
 public class ComboServiceImpl implements ComboService {
 
-    private static final int CACHE_TTL_SECONDS = 600; // 10 minutes
+    private static final CacheRegion<ComboResponse> COMBO_CACHE = new CacheRegion<>(
+            "combo", 600, 3_600, 2_000, CacheCodecs.smile(ComboResponse.class)); // fresh 10 minutes
 
     private final ComboRepository comboRepository;
     private final BranchRepository branchRepository;
     private final MenuItemRepository menuItemRepository;
-    private final JedisPool jedisPool;
+    private final CatalogCacheService catalogCache;
+    private final PriceCatalogService priceCatalogService;
     private final Clock clock;
 
     @Override
@@ -64,6 +67,7 @@ public class ComboServiceImpl implements ComboService {
 
         Combo saved = comboRepository.save(combo);
         log.info("Combo created successfully. comboId={}", saved.getId());
+        priceCatalogService.refreshCombo(saved);
 
         evictComboCache(saved.getId());
         log.debug("Cache evicted for comboId={}", saved.getId());
@@ -76,35 +80,18 @@ public class ComboServiceImpl implements ComboService {
     public ComboResponse getCombo(UUID comboId) {
         log.debug("Fetching combo. comboId={}", comboId);
 
-        String cacheKey = "combo:" + comboId;
+        return catalogCache.get(COMBO_CACHE.key(comboId), () -> {
+            log.info("Cache MISS for comboId={}, loading from DB", comboId);
 
-        log.debug("Checking cache for comboId={}", comboId);
-        try (var jedis = jedisPool.getResource()) {
-            String cached = jedis.get(cacheKey);
-            if (cached != null) {
-                log.info("Cache HIT for comboId={}", comboId);
-                return ComboMapper.fromJson(cached);
-            }
-        }
-        log.info("Cache MISS for comboId={}, loading from DB", comboId);
-
-        ComboResponse response = comboRepository.findById(comboId)
-                .map(ComboMapper::toResponse)
-                .orElseThrow(() ->
-                        new RestoRestaurantException("Combo not found", HttpStatus.NOT_FOUND));
+            ComboResponse response = comboRepository.findWithItemsById(comboId)
+                    .map(ComboMapper::toResponse)
+                    .orElseThrow(() ->
+                            new RestoRestaurantException("Combo not found", HttpStatus.NOT_FOUND));
 
-        log.debug("Combo loaded from DB. comboId={}", comboId);
+            log.debug("Combo loaded from DB. comboId={}", comboId);
 
-        try (var jedis = jedisPool.getResource()) {
-            jedis.setex(
-                    cacheKey,
-                    CACHE_TTL_SECONDS,
-                    ComboMapper.toJson(response)
-            );
-            log.debug("Combo cached for {} seconds. comboId={}", CACHE_TTL_SECONDS, comboId);
-        }
-
-        return response;
+            return response;
+        });
     }
 
     @Override
@@ -133,6 +120,7 @@ public class ComboServiceImpl implements ComboService {
         Combo saved = comboRepository.save(combo);
         log.info("Combo updated successfully. comboId={}", comboId);
         evictComboCache(comboId);
+        priceCatalogService.refreshCombo(saved);
 
         return ComboMapper.toResponse(saved);
     }
@@ -148,6 +136,7 @@ public class ComboServiceImpl implements ComboService {
 
         Combo saved = comboRepository.save(combo);
         log.info("Combo status updated. comboId={} active={}", comboId, active);
+        priceCatalogService.refreshCombo(saved);
 
         evictComboCache(comboId);
         return ComboMapper.toResponse(saved);
@@ -193,9 +182,7 @@ public class ComboServiceImpl implements ComboService {
     }
 
     private void evictComboCache(UUID comboId) {
-        try (var jedis = jedisPool.getResource()) {
-            jedis.del("combo:" + comboId);
-        }
+        catalogCache.evict(COMBO_CACHE.key(comboId));
         log.debug("Cache evicted for comboId={}", comboId);
 
     }
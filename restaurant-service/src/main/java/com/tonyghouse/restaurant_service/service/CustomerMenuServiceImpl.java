@@ -30,9 +30,12 @@ public class CustomerMenuServiceImpl implements CustomerMenuService {
 
     private final MenuRepository menuRepository;
     private final ComboRepository comboRepository;
+    private final MenuScheduleService menuScheduleService;
     private final Clock clock;
 
+    // answered from the cached schedule; no transaction, so a cache hit never takes a connection
     @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
     public MenuWithItemsResponse getActiveMenu(UUID branchId, String timezone) {
         log.info("Fetching active menu. branchId={} timezone={}", branchId, timezone);
 
@@ -45,20 +48,12 @@ public class CustomerMenuServiceImpl implements CustomerMenuService {
         LocalTime userLocalTime = nowUtc.atZone(userZone).toLocalTime();
         log.debug("Current user local time for branchId={} is {}", branchId, userLocalTime);
 
-
-        Menu activeMenu = menuRepository.findByBranchIdAndActiveTrue(branchId)
-                .stream()
-                .filter(menu ->
-                        !userLocalTime.isBefore(menu.getValidFrom())
-                                && !userLocalTime.isAfter(menu.getValidTo()))
-                .findFirst()
+        return menuScheduleService.forBranch(branchId)
+                .activeAt(userLocalTime)
                 .orElseThrow(() ->
                         new RestoRestaurantException(
                                 "No active menu for current time",
                                 HttpStatus.NOT_FOUND));
-
-        log.debug("Loaded active menus from DB for branchId={}", branchId);
-        return CustomerMenuMapper.toMenuResponse(activeMenu, activeMenu.getItems());
     }
 
 
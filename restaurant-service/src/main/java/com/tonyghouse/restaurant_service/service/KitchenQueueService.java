@@ -0,0 +1,22 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.KitchenQueueResponse;
+import com.tonyghouse.restaurant_service.entity.Order;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface KitchenQueueService {
+
+    KitchenQueueResponse getQueue(UUID branchId);
+
+    void orderCreated(Order order);
+
+    void statusChanged(UUID orderId, OrderStatus from, OrderStatus to, Instant changedAt);
+
+    Optional<UUID> branchOf(UUID orderId);
+
+    void rebuild();
+}
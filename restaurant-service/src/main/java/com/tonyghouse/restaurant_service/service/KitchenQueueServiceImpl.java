@@ -0,0 +1,285 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.KitchenQueueResponse;
+import com.tonyghouse.restaurant_service.dto.KitchenTicketResponse;
+import com.tonyghouse.restaurant_service.entity.Order;
+import com.tonyghouse.restaurant_service.helper.TransactionHooks;
+import com.tonyghouse.restaurant_service.mapper.OrderMapper;
+import com.tonyghouse.restaurant_service.repo.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of the open orders of every branch, bucketed by status, so kitchen
+ * screens can poll without touching the database. Orders placed on this instance are
+ * added once they commit. Transitions come from order.events through
+ * {@link LiveOrderEventListener}, whichever instance made them. The index is reconciled
+ * with the database at startup and then on a timer, which picks up orders placed on
+ * other instances and repairs anything a missed event left behind.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KitchenQueueServiceImpl implements KitchenQueueService {
+
+    static final Set<OrderStatus> OPEN_STATUSES = EnumSet.of(
+            OrderStatus.CREATED,
+            OrderStatus.ACCEPTED,
+            OrderStatus.PREPARING,
+            OrderStatus.READY
+    );
+
+    private final OrderRepository orderRepository;
+
+    private final Map<UUID, BranchQueue> queues = new ConcurrentHashMap<>();
+    // transitions only carry the order id, this finds the branch without a query
+    private final Map<UUID, UUID> branchOf = new ConcurrentHashMap<>();
+    // stamps every change applied to a ticket, so a rebuild can tell which tickets moved while it queried
+    private final AtomicLong changes = new AtomicLong();
+
+    @Override
+    public KitchenQueueResponse getQueue(UUID branchId) {
+        KitchenQueueResponse response = new KitchenQueueResponse();
+        response.setBranchId(branchId);
+
+        BranchQueue queue = queues.get(branchId);
+        response.setTickets(queue != null ? queue.snapshot() : BranchQueue.emptySnapshot());
+        return response;
+    }
+
+    @Override
+    public void orderCreated(Order order) {
+        if (order.getBranch() == null) {
+            return;
+        }
+        UUID branchId = order.getBranch().getId();
+        KitchenTicketResponse ticket = OrderMapper.toKitchenTicket(order, order.getCreatedAt());
+
+        TransactionHooks.afterCommit(() -> {
+            queues.computeIfAbsent(branchId, id -> new BranchQueue()).put(ticket, changes.incrementAndGet());
+            branchOf.put(ticket.getOrderId(), branchId);
+            log.debug("Kitchen queue add. branchId={} orderId={}", branchId, ticket.getOrderId());
+        });
+    }
+
+    @Override
+    public void statusChanged(UUID orderId, OrderStatus from, OrderStatus to, Instant changedAt) {
+        UUID branchId = branchOf.get(orderId);
+
+        // only orders this instance has never seen are read, e.g. placed elsewhere since the last rebuild
+        KitchenTicketResponse fallback = null;
+        if (branchId == null) {
+            if (!OPEN_STATUSES.contains(to)) {
+                return;
+            }
+            Order order = orderRepository.findDetailedById(orderId).orElse(null);
+            if (order == null || order.getBranch() == null) {
+                return;
+            }
+            branchId = order.getBranch().getId();
+            fallback = OrderMapper.toKitchenTicket(order, changedAt);
+        }
+
+        UUID targetBranch = branchId;
+        KitchenTicketResponse missing = fallback;
+        TransactionHooks.afterCommit(() -> {
+            queues.computeIfAbsent(targetBranch, id -> new BranchQueue())
+                    .move(orderId, to, changedAt, missing, changes.incrementAndGet());
+            if (OPEN_STATUSES.contains(to)) {
+                branchOf.put(orderId, targetBranch);
+            } else {
+                branchOf.remove(orderId);
+            }
+            log.debug("Kitchen queue move. branchId={} orderId={} {} -> {}", targetBranch, orderId, from, to);
+        });
+    }
+
+    @Override
+    public Optional<UUID> branchOf(UUID orderId) {
+        return Optional.ofNullable(branchOf.get(orderId));
+    }
+
+    /*
+    Merged into the live index ticket by ticket rather than swapped in: a ticket an event
+    touched while the query ran is newer than its row and is kept as it is. A ticket whose
+    status did not change keeps its statusChangedAt, which only events know; the database
+    row has just the creation time. The query is served by idx_orders_open_status.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${order.kitchen-queue.reconcile-interval-ms:10000}",
+            fixedDelayString = "${order.kitchen-queue.reconcile-interval-ms:10000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long since = changes.get();
+        List<Order> open = orderRepository.findAllWithItemsByStatusIn(OPEN_STATUSES);
+
+        Map<UUID, Map<UUID, KitchenTicketResponse>> rows = new HashMap<>();
+        for (Order order : open) {
+            if (order.getBranch() == null) {
+                continue;
+            }
+            rows.computeIfAbsent(order.getBranch().getId(), id -> new LinkedHashMap<>())
+                    .put(order.getId(), OrderMapper.toKitchenTicket(order, order.getCreatedAt()));
+        }
+
+        Set<UUID> branches = new HashSet<>(queues.keySet());
+        branches.addAll(rows.keySet());
+        for (UUID branchId : branches) {
+            BranchQueue queue = queues.computeIfAbsent(branchId, id -> new BranchQueue());
+            for (UUID removed : queue.reconcile(rows.getOrDefault(branchId, Map.of()), since)) {
+                branchOf.remove(removed, branchId);
+            }
+            for (UUID orderId : queue.orderIds()) {
+                branchOf.put(orderId, branchId);
+            }
+        }
+        log.debug("Kitchen queue rebuilt. branches={} openOrders={}", rows.size(), open.size());
+    }
+
+    /*
+    One branch: status -> (orderId -> ticket) in arrival order. Mutations and snapshots
+    lock the branch only, so busy branches do not block each other.
+     */
+    private static final class BranchQueue {
+
+        private final Map<OrderStatus, LinkedHashMap<UUID, KitchenTicketResponse>> buckets =
+                new EnumMap<>(OrderStatus.class);
+        // last change stamp per order; kept for orders that just left the queue until the next reconcile
+        private final Map<UUID, Long> stamps = new HashMap<>();
+
+        BranchQueue() {
+            for (OrderStatus status : OPEN_STATUSES) {
+                buckets.put(status, new LinkedHashMap<>());
+            }
+        }
+
+        synchronized void put(KitchenTicketResponse ticket, long stamp) {
+            if (OPEN_STATUSES.contains(ticket.getStatus())) {
+                buckets.get(ticket.getStatus()).put(ticket.getOrderId(), ticket);
+                stamps.put(ticket.getOrderId(), stamp);
+            }
+        }
+
+        synchronized void move(UUID orderId, OrderStatus to, Instant changedAt, KitchenTicketResponse fallback,
+                               long stamp) {
+            KitchenTicketResponse known = find(orderId);
+            // a late event: the ticket already shows a later transition
+            if (known != null && known.getStatusChangedAt() != null && changedAt.isBefore(known.getStatusChangedAt())) {
+                return;
+            }
+            KitchenTicketResponse current = remove(orderId);
+            stamps.put(orderId, stamp);
+            if (!OPEN_STATUSES.contains(to)) {
+                return;
+            }
+            KitchenTicketResponse source = current != null ? current : fallback;
+            if (source == null) {
+                return;
+            }
+            // tickets are shared with snapshots, so moves build a new one
+            KitchenTicketResponse moved = new KitchenTicketResponse();
+            moved.setOrderId(source.getOrderId());
+            moved.setCustomerName(source.getCustomerName());
+            moved.setCreatedAt(source.getCreatedAt());
+            moved.setItems(source.getItems());
+            moved.setStatus(to);
+            moved.setStatusChangedAt(changedAt);
+            buckets.get(to).put(orderId, moved);
+        }
+
+        /*
+        Applies the open rows read by a rebuild that started at stamp `since` and returns the
+        orders that left the queue. Tickets changed after `since` are newer than any row.
+         */
+        synchronized List<UUID> reconcile(Map<UUID, KitchenTicketResponse> rows, long since) {
+            for (KitchenTicketResponse row : rows.values()) {
+                Long stamp = stamps.get(row.getOrderId());
+                if (stamp != null && stamp > since) {
+                    continue;
+                }
+                KitchenTicketResponse known = find(row.getOrderId());
+                if (known == null || known.getStatus() != row.getStatus()) {
+                    remove(row.getOrderId());
+                    buckets.get(row.getStatus()).put(row.getOrderId(), row);
+                }
+                stamps.put(row.getOrderId(), since);
+            }
+
+            List<UUID> removed = new ArrayList<>();
+            Iterator<Map.Entry<UUID, Long>> it = stamps.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<UUID, Long> entry = it.next();
+                if (entry.getValue() <= since && !rows.containsKey(entry.getKey())) {
+                    remove(entry.getKey());
+                    it.remove();
+                    removed.add(entry.getKey());
+                }
+            }
+            return removed;
+        }
+
+        synchronized List<UUID> orderIds() {
+            List<UUID> ids = new ArrayList<>();
+            buckets.values().forEach(tickets -> ids.addAll(tickets.keySet()));
+            return ids;
+        }
+
+        synchronized Map<OrderStatus, List<KitchenTicketResponse>> snapshot() {
+            Map<OrderStatus, List<KitchenTicketResponse>> copy = new EnumMap<>(OrderStatus.class);
+            buckets.forEach((status, tickets) -> copy.put(status, new ArrayList<>(tickets.values())));
+            return copy;
+        }
+
+        synchronized KitchenTicketResponse find(UUID orderId) {
+            for (LinkedHashMap<UUID, KitchenTicketResponse> tickets : buckets.values()) {
+                KitchenTicketResponse ticket = tickets.get(orderId);
+                if (ticket != null) {
+                    return ticket;
+                }
+            }
+            return null;
+        }
+
+        static Map<OrderStatus, List<KitchenTicketResponse>> emptySnapshot() {
+            Map<OrderStatus, List<KitchenTicketResponse>> copy = new EnumMap<>(OrderStatus.class);
+            for (OrderStatus status : OPEN_STATUSES) {
+                copy.put(status, List.of());
+            }
+            return copy;
+        }
+
+        private KitchenTicketResponse remove(UUID orderId) {
+            for (LinkedHashMap<UUID, KitchenTicketResponse> tickets : buckets.values()) {
+                KitchenTicketResponse ticket = tickets.remove(orderId);
+                if (ticket != null) {
+                    return ticket;
+                }
+            }
+            return null;
+        }
+    }
+}
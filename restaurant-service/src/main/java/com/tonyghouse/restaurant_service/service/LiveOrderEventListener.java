@@ -0,0 +1,48 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.helper.OrderEventRecords;
+import com.tonyghouse.restaurant_service.publisher.OrderEventPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/*
+Feeds order.events into this instance's SSE subscribers and kitchen queue. Each
+instance consumes in a group of its own, so both follow transitions made on any
+instance, in the order they were made: events of one order share a partition.
+ */
+@Component
+@ConditionalOnProperty(name = "order.events.live.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class LiveOrderEventListener {
+
+    private final OrderStatusStreamService statusStreamService;
+    private final KitchenQueueService kitchenQueueService;
+
+    @KafkaListener(
+            id = "order-events-live",
+            topics = OrderEventPublisher.TOPIC,
+            containerFactory = "liveListenerContainerFactory")
+    public void onEvents(List<ConsumerRecord<String, byte[]>> records) {
+        for (ConsumerRecord<String, byte[]> record : records) {
+            OrderStatusChangedEvent event;
+            try {
+                event = OrderEventRecords.decode(record);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Unreadable order event skipped. partition={} offset={}",
+                        record.partition(), record.offset(), e);
+                continue;
+            }
+            kitchenQueueService.statusChanged(event.orderId(), event.oldStatus(), event.newStatus(), event.changedAt());
+            statusStreamService.statusChanged(event);
+        }
+    }
+}
@@ -24,6 +24,7 @@ public class MenuItemMappingServiceImpl implements MenuItemMappingService {
 
     private final MenuRepository menuRepository;
     private final MenuItemRepository menuItemRepository;
+    private final MenuScheduleService menuScheduleService;
 
 
     @Override
@@ -47,6 +48,7 @@ public class MenuItemMappingServiceImpl implements MenuItemMappingService {
         }
         menu.getItems().add(item);
         menuRepository.save(menu);
+        menuScheduleService.refreshBranch(menu.getBranch().getId());
         log.info("Item added to menu successfully. menuId={} itemId={}", menuId, itemId);
     }
 
@@ -63,6 +65,7 @@ public class MenuItemMappingServiceImpl implements MenuItemMappingService {
 
         menu.getItems().remove(item);
         menuRepository.save(menu);
+        menuScheduleService.refreshBranch(menu.getBranch().getId());
         log.info("Item removed from menu successfully. menuId={} itemId={}", menuId, itemId);
 
     }
@@ -7,6 +7,8 @@ import com.tonyghouse.restaurant_service.dto.UpdateMenuItemRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 public interface MenuItemService {
@@ -20,4 +22,8 @@ public interface MenuItemService {
     MenuItemResponse updateMenuItem(UUID itemId, UpdateMenuItemRequest request);
 
     MenuItemResponse updateMenuItemAvailability(UUID itemId, boolean available);
+
+    int bulkUpdatePrice(List<UUID> itemIds, BigDecimal price);
+
+    int bulkUpdateAvailability(List<UUID> itemIds, boolean available);
 }
@@ -13,9 +13,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -24,6 +27,8 @@ import java.util.UUID;
 public class MenuItemServiceImpl implements MenuItemService {
 
     private final MenuItemRepository repository;
+    private final PriceCatalogService priceCatalogService;
+    private final MenuScheduleService menuScheduleService;
     private final Clock clock;
 
 
@@ -86,6 +91,8 @@ public class MenuItemServiceImpl implements MenuItemService {
         entity.setFoodType(request.getFoodType());
 
         MenuItem saved = repository.save(entity);
+        priceCatalogService.refreshItems(List.of(saved));
+        menuScheduleService.refreshItems(List.of(itemId));
         log.info("Menu item updated successfully. itemId={}", itemId);
         return MenuItemMapper.toMenuItemResponse(saved);
 
@@ -101,10 +108,36 @@ public class MenuItemServiceImpl implements MenuItemService {
 
         entity.setAvailable(available);
         MenuItem saved = repository.save(entity);
+        priceCatalogService.refreshItems(List.of(saved));
+        menuScheduleService.refreshItems(List.of(itemId));
         log.info("Availability updated. itemId={} available={}", itemId, available);
         return MenuItemMapper.toMenuItemResponse(saved);
 
     }
 
+    @Override
+    @Transactional
+    public int bulkUpdatePrice(List<UUID> itemIds, BigDecimal price) {
+        log.info("Bulk updating price. itemsCount={} price={}", itemIds.size(), price);
+
+        int updated = repository.bulkUpdatePrice(itemIds, price);
+        priceCatalogService.refreshItems(repository.findAllById(itemIds));
+        menuScheduleService.refreshItems(itemIds);
+        log.info("Bulk price update complete. updated={}", updated);
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public int bulkUpdateAvailability(List<UUID> itemIds, boolean available) {
+        log.info("Bulk updating availability. itemsCount={} available={}", itemIds.size(), available);
+
+        int updated = repository.bulkUpdateAvailability(itemIds, available);
+        priceCatalogService.refreshItems(repository.findAllById(itemIds));
+        menuScheduleService.refreshItems(itemIds);
+        log.info("Bulk availability update complete. updated={}", updated);
+        return updated;
+    }
+
 
 }
@@ -0,0 +1,15 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.helper.MenuSchedule;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface MenuScheduleService {
+
+    MenuSchedule forBranch(UUID branchId);
+
+    void refreshBranch(UUID branchId);
+
+    void refreshItems(Collection<UUID> itemIds);
+}
@@ -0,0 +1,81 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.tonyghouse.restaurant_service.dto.MenuWithItemsResponse;
+import com.tonyghouse.restaurant_service.helper.CacheCodecs;
+import com.tonyghouse.restaurant_service.helper.CacheRegion;
+import com.tonyghouse.restaurant_service.helper.MenuSchedule;
+import com.tonyghouse.restaurant_service.helper.TransactionHooks;
+import com.tonyghouse.restaurant_service.mapper.CustomerMenuMapper;
+import com.tonyghouse.restaurant_service.repo.MenuRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One {@link MenuSchedule} per branch, built from a single query over the active
+ * menus and their items and kept in the catalog cache (in process and in Redis).
+ * Menu and item writes drop the affected branches once they commit; the next read
+ * builds the schedule again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MenuScheduleServiceImpl implements MenuScheduleService {
+
+    // key "menu:schedule:{branchId}"
+    private static final CacheRegion<MenuSchedule> SCHEDULE_CACHE = new CacheRegion<>(
+            "menu:schedule", 300, 3_600, 1_000,
+            // stored as its menus; the slots are cut again when a value is decoded
+            CacheCodecs.smile(new TypeReference<List<MenuWithItemsResponse>>() {})
+                    .map(MenuSchedule::menus, MenuSchedule::of));
+
+    private final MenuRepository menuRepository;
+    private final CatalogCacheService catalogCache;
+
+    @Override
+    public MenuSchedule forBranch(UUID branchId) {
+        return catalogCache.get(SCHEDULE_CACHE.key(branchId), () -> {
+            log.info("Cache MISS for menu schedule. branchId={}, building from DB", branchId);
+
+            MenuSchedule schedule = MenuSchedule.of(
+                    menuRepository.findActiveWithItemsByBranchId(branchId)
+                            .stream()
+                            .map(menu -> CustomerMenuMapper.toMenuResponse(menu, menu.getItems()))
+                            .toList());
+
+            log.debug("Menu schedule built. branchId={} menus={} slots={}",
+                    branchId, schedule.menus().size(), schedule.slotCount());
+            return schedule;
+        });
+    }
+
+    @Override
+    public void refreshBranch(UUID branchId) {
+        TransactionHooks.afterCommit(() -> {
+            catalogCache.evict(SCHEDULE_CACHE.key(branchId));
+            log.debug("Menu schedule dropped. branchId={}", branchId);
+        });
+    }
+
+    @Override
+    public void refreshItems(Collection<UUID> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        List<UUID> branchIds = menuRepository.findBranchIdsByItemIdIn(itemIds);
+        if (branchIds.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            catalogCache.evict(branchIds.stream()
+                    .map(SCHEDULE_CACHE::key)
+                    .toArray(CacheRegion.Key[]::new));
+            log.debug("Menu schedules dropped for {} changed items. branches={}", itemIds.size(), branchIds.size());
+        });
+    }
+}
@@ -1,11 +1,14 @@
 package com.tonyghouse.restaurant_service.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.tonyghouse.restaurant_service.constants.MenuType;
 import com.tonyghouse.restaurant_service.dto.CreateMenuRequest;
 import com.tonyghouse.restaurant_service.dto.MenuResponse;
 import com.tonyghouse.restaurant_service.entity.Branch;
 import com.tonyghouse.restaurant_service.entity.Menu;
 import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.CacheCodecs;
+import com.tonyghouse.restaurant_service.helper.CacheRegion;
 import com.tonyghouse.restaurant_service.mapper.MenuMapper;
 import com.tonyghouse.restaurant_service.repo.BranchRepository;
 import com.tonyghouse.restaurant_service.repo.MenuRepository;
@@ -13,8 +16,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import redis.clients.jedis.Jedis;
-import redis.clients.jedis.JedisPool;
 
 import java.time.Clock;
 import java.time.Instant;
@@ -28,11 +29,16 @@ public class MenuServiceImpl implements MenuService {
 
     private final MenuRepository menuRepository;
     private final BranchRepository branchRepository;
-    private final JedisPool jedisPool;
+    private final CatalogCacheService catalogCache;
+    private final MenuScheduleService menuScheduleService;
     private final Clock clock;
 
-    private static final String MENU_CACHE_KEY = "menu:";
-    private static final String BRANCH_MENUS_KEY = "menus:branch:";
+    // keys "menu:{branchId}:{type}" and "menus:branch:{branchId}"
+    private static final CacheRegion<MenuResponse> MENU_CACHE = new CacheRegion<>(
+            "menu", 300, 3_600, 2_000, CacheCodecs.smile(MenuResponse.class));
+    private static final CacheRegion<List<MenuResponse>> BRANCH_MENUS_CACHE = new CacheRegion<>(
+            "menus:branch", 300, 3_600, 500,
+            CacheCodecs.smile(new TypeReference<List<MenuResponse>>() {}));
 
     @Override
     public MenuResponse createMenu(UUID branchId, CreateMenuRequest request) {
@@ -65,11 +71,9 @@ public class MenuServiceImpl implements MenuService {
 
 
         // invalidate branch menu cache
-        try (Jedis jedis = jedisPool.getResource()) {
-            jedis.del(BRANCH_MENUS_KEY + branchId);
-            log.debug("Invalidated branch menus cache. branchId={}", branchId);
-
-        }
+        catalogCache.evict(BRANCH_MENUS_CACHE.key(branchId));
+        menuScheduleService.refreshBranch(branchId);
+        log.debug("Invalidated branch menus cache. branchId={}", branchId);
 
         return MenuMapper.toResponse(saved);
     }
@@ -78,69 +82,35 @@ public class MenuServiceImpl implements MenuService {
     public MenuResponse getMenuByType(UUID branchId, MenuType menuType) {
         log.debug("Fetching menu by type. branchId={} menuType={}", branchId, menuType);
 
-        String cacheKey = MENU_CACHE_KEY + branchId + ":" + menuType;
-        log.debug("Checking cache for key={}", cacheKey);
-
-        try (Jedis jedis = jedisPool.getResource()) {
-            String cached = jedis.get(cacheKey);
-            if (cached != null) {
-                log.info("Cache HIT for menu. branchId={} menuType={}", branchId, menuType);
-                return MenuMapper.fromJson(cached);
-            }
-        }
-
-        log.info("Cache MISS for menu. branchId={} menuType={}, loading from DB", branchId, menuType);
+        return catalogCache.get(MENU_CACHE.key(branchId + ":" + menuType), () -> {
+            log.info("Cache MISS for menu. branchId={} menuType={}, loading from DB", branchId, menuType);
 
-        Menu menu = menuRepository
-                .findByBranch_IdAndMenuTypeAndActiveTrue(branchId, menuType)
-                .orElseThrow(() ->
-                        new RestoRestaurantException("Menu not found", HttpStatus.NOT_FOUND));
-        log.debug("Menu loaded from DB. menuId={}", menu.getId());
-
-        MenuResponse response = MenuMapper.toResponse(menu);
-
-        try (Jedis jedis = jedisPool.getResource()) {
-            jedis.setex(cacheKey, 300, MenuMapper.toJson(response));
-            log.debug("Menu cached for 300 seconds. key={}", cacheKey);
-        }
+            Menu menu = menuRepository
+                    .findByBranch_IdAndMenuTypeAndActiveTrue(branchId, menuType)
+                    .orElseThrow(() ->
+                            new RestoRestaurantException("Menu not found", HttpStatus.NOT_FOUND));
+            log.debug("Menu loaded from DB. menuId={}", menu.getId());
 
-        log.info("Returning menu. menuId={}", menu.getId());
-
-        return response;
+            return MenuMapper.toResponse(menu);
+        });
     }
 
     @Override
     public List<MenuResponse> getMenusByBranch(UUID branchId) {
         log.debug("Fetching all menus for branchId={}", branchId);
 
-        String cacheKey = BRANCH_MENUS_KEY + branchId;
-        log.debug("Checking branch menus cache. key={}", cacheKey);
-        try (Jedis jedis = jedisPool.getResource()) {
-            String cached = jedis.get(cacheKey);
-            if (cached != null) {
-                log.info("Cache HIT for branch menus. branchId={}", branchId);
-                return MenuMapper.listFromJson(cached);
-            }
-        }
-
-        log.info("Cache MISS for branch menus. branchId={}, loading from DB", branchId);
+        return catalogCache.get(BRANCH_MENUS_CACHE.key(branchId), () -> {
+            log.info("Cache MISS for branch menus. branchId={}, loading from DB", branchId);
 
-        List<MenuResponse> menus = menuRepository.findAllByBranch_Id(branchId)
-                .stream()
-                .map(MenuMapper::toResponse)
-                .toList();
+            List<MenuResponse> menus = menuRepository.findAllByBranch_Id(branchId)
+                    .stream()
+                    .map(MenuMapper::toResponse)
+                    .toList();
 
-        log.debug("Loaded {} menus from DB for branchId={}", menus.size(), branchId);
+            log.debug("Loaded {} menus from DB for branchId={}", menus.size(), branchId);
 
-        try (Jedis jedis = jedisPool.getResource()) {
-            jedis.setex(cacheKey, 300, MenuMapper.listToJson(menus));
-            log.debug("Branch menus cached for 300 seconds. branchId={}", branchId);
-
-        }
-
-        log.debug("Returning {} menus for branchId={}", menus.size(), branchId);
-
-        return menus;
+            return menus;
+        });
     }
 
     @Override
@@ -160,13 +130,12 @@ public class MenuServiceImpl implements MenuService {
         log.info("Menu status updated successfully. menuId={} active={}", menuId, active);
 
         // invalidate caches
-        try (Jedis jedis = jedisPool.getResource()) {
-            jedis.del(
-                    MENU_CACHE_KEY + menu.getBranch().getId() + ":" + menu.getMenuType(),
-                    BRANCH_MENUS_KEY + menu.getBranch().getId()
-            );
-            log.debug("Invalidated menu + branch caches for branchId={}", menu.getBranch().getId());
-        }
+        catalogCache.evict(
+                MENU_CACHE.key(menu.getBranch().getId() + ":" + menu.getMenuType()),
+                BRANCH_MENUS_CACHE.key(menu.getBranch().getId())
+        );
+        menuScheduleService.refreshBranch(menu.getBranch().getId());
+        log.debug("Invalidated menu + branch caches for branchId={}", menu.getBranch().getId());
 
         return MenuMapper.toResponse(updated);
     }
@@ -0,0 +1,20 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.CreateOrderRequest;
+import com.tonyghouse.restaurant_service.dto.OrderItemRequest;
+import com.tonyghouse.restaurant_service.dto.ResolvedCart;
+import com.tonyghouse.restaurant_service.dto.ResolvedOrderLine;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OrderCatalogService {
+
+    List<ResolvedOrderLine> resolve(UUID branchId, List<OrderItemRequest> items);
+
+    /**
+     * Resolves many carts with one batched query per item type for the whole batch.
+     * A cart that cannot be resolved is reported in its slot instead of failing the rest.
+     */
+    List<ResolvedCart> resolveAll(List<CreateOrderRequest> requests);
+}
@@ -0,0 +1,183 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.CreateOrderRequest;
+import com.tonyghouse.restaurant_service.dto.OrderItemRequest;
+import com.tonyghouse.restaurant_service.dto.ResolvedCart;
+import com.tonyghouse.restaurant_service.dto.ResolvedOrderLine;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.PriceCatalog;
+import com.tonyghouse.restaurant_service.repo.ComboRepository;
+import com.tonyghouse.restaurant_service.repo.MenuItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Resolves the catalog entries referenced by a cart, so pricing and order persistence
+ * work off the same snapshot. Lookups are served from the branch {@link PriceCatalog};
+ * anything not in it is loaded with one batched query per item type.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderCatalogServiceImpl implements OrderCatalogService {
+
+    private static final String ITEM = "ITEM";
+    private static final String COMBO = "COMBO";
+
+    private final MenuItemRepository menuItemRepository;
+    private final ComboRepository comboRepository;
+    private final PriceCatalogService priceCatalogService;
+
+    @Override
+    public List<ResolvedOrderLine> resolve(UUID branchId, List<OrderItemRequest> items) {
+        log.debug("Resolving catalog for {} order items. branchId={}", items.size(), branchId);
+
+        PriceCatalog catalog = catalogFor(branchId);
+
+        Set<UUID> missingItemIds = new LinkedHashSet<>();
+        Set<UUID> missingComboIds = new LinkedHashSet<>();
+        collectMisses(catalog, items, missingItemIds, missingComboIds);
+
+        Map<UUID, PriceCatalog.Entry> loadedItems = loadItems(missingItemIds);
+        Map<UUID, PriceCatalog.Entry> loadedCombos = loadCombos(missingComboIds);
+        log.debug("Catalog resolved. snapshotMissItems={} snapshotMissCombos={}",
+                missingItemIds.size(), missingComboIds.size());
+
+        return toLines(catalog, items, loadedItems, loadedCombos);
+    }
+
+    @Override
+    public List<ResolvedCart> resolveAll(List<CreateOrderRequest> requests) {
+        log.debug("Resolving catalog for a batch of {} orders", requests.size());
+
+        Map<UUID, PriceCatalog> catalogs = new HashMap<>();
+        Set<UUID> missingItemIds = new LinkedHashSet<>();
+        Set<UUID> missingComboIds = new LinkedHashSet<>();
+        RestoRestaurantException[] errors = new RestoRestaurantException[requests.size()];
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateOrderRequest request = requests.get(i);
+            try {
+                if (request.getItems() == null || request.getItems().isEmpty()) {
+                    throw new RestoRestaurantException("Order has no items", HttpStatus.BAD_REQUEST);
+                }
+                PriceCatalog catalog = catalogs.computeIfAbsent(request.getBranchId(), this::catalogFor);
+                collectMisses(catalog, request.getItems(), missingItemIds, missingComboIds);
+            } catch (RestoRestaurantException e) {
+                errors[i] = e;
+            }
+        }
+
+        Map<UUID, PriceCatalog.Entry> loadedItems = loadItems(missingItemIds);
+        Map<UUID, PriceCatalog.Entry> loadedCombos = loadCombos(missingComboIds);
+        log.debug("Batch catalog resolved. orders={} snapshotMissItems={} snapshotMissCombos={}",
+                requests.size(), missingItemIds.size(), missingComboIds.size());
+
+        List<ResolvedCart> carts = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] != null) {
+                carts.add(ResolvedCart.failed(errors[i]));
+                continue;
+            }
+            CreateOrderRequest request = requests.get(i);
+            try {
+                carts.add(ResolvedCart.resolved(toLines(
+                        catalogs.get(request.getBranchId()), request.getItems(), loadedItems, loadedCombos)));
+            } catch (RestoRestaurantException e) {
+                carts.add(ResolvedCart.failed(e));
+            }
+        }
+        return carts;
+    }
+
+    private PriceCatalog catalogFor(UUID branchId) {
+        return branchId != null
+                ? priceCatalogService.forBranch(branchId)
+                : PriceCatalog.empty();
+    }
+
+    private static void collectMisses(PriceCatalog catalog, List<OrderItemRequest> items,
+                                      Set<UUID> missingItemIds, Set<UUID> missingComboIds) {
+        for (OrderItemRequest req : items) {
+            if (ITEM.equals(req.getItemType())) {
+                if (catalog.item(req.getItemId()) == null) {
+                    missingItemIds.add(req.getItemId());
+                }
+            } else if (COMBO.equals(req.getItemType())) {
+                if (catalog.combo(req.getItemId()) == null) {
+                    missingComboIds.add(req.getItemId());
+                }
+            } else {
+                log.warn("Invalid item type received: {}", req.getItemType());
+                throw new RestoRestaurantException("Invalid item type", HttpStatus.BAD_REQUEST);
+            }
+        }
+    }
+
+    private Map<UUID, PriceCatalog.Entry> loadItems(Set<UUID> ids) {
+        Map<UUID, PriceCatalog.Entry> loaded = new HashMap<>();
+        if (!ids.isEmpty()) {
+            menuItemRepository.findAllById(ids)
+                    .forEach(mi -> loaded.put(mi.getId(), PriceCatalog.toEntry(mi)));
+        }
+        return loaded;
+    }
+
+    private Map<UUID, PriceCatalog.Entry> loadCombos(Set<UUID> ids) {
+        Map<UUID, PriceCatalog.Entry> loaded = new HashMap<>();
+        if (!ids.isEmpty()) {
+            comboRepository.findAllById(ids)
+                    .forEach(c -> loaded.put(c.getId(), PriceCatalog.toEntry(c)));
+        }
+        return loaded;
+    }
+
+    private static List<ResolvedOrderLine> toLines(PriceCatalog catalog, List<OrderItemRequest> items,
+                                                   Map<UUID, PriceCatalog.Entry> loadedItems,
+                                                   Map<UUID, PriceCatalog.Entry> loadedCombos) {
+        List<ResolvedOrderLine> lines = new ArrayList<>(items.size());
+        for (OrderItemRequest req : items) {
+            if (ITEM.equals(req.getItemType())) {
+                PriceCatalog.Entry entry = catalog.item(req.getItemId());
+                if (entry == null) {
+                    entry = loadedItems.get(req.getItemId());
+                }
+                if (entry == null) {
+                    throw new RestoRestaurantException("Item not found", HttpStatus.NOT_FOUND);
+                }
+                lines.add(toLine(req, entry));
+            } else {
+                PriceCatalog.Entry entry = catalog.combo(req.getItemId());
+                if (entry == null) {
+                    entry = loadedCombos.get(req.getItemId());
+                }
+                if (entry == null) {
+                    throw new RestoRestaurantException("Combo not found", HttpStatus.NOT_FOUND);
+                }
+                lines.add(toLine(req, entry));
+            }
+        }
+        return lines;
+    }
+
+    private static ResolvedOrderLine toLine(OrderItemRequest req, PriceCatalog.Entry entry) {
+        return new ResolvedOrderLine(
+                req.getItemId(),
+                req.getItemType(),
+                entry.name(),
+                entry.price(),
+                req.getQuantity(),
+                req.getSpecialNotes()
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+
+import java.util.List;
+import java.util.Map;
+
+public interface OrderEventCheckpointService {
+
+    // next offset to read per partition, for partitions the projection has seen
+    Map<Integer, Long> load(String projection);
+
+    void reset(OrderEventProjection projection);
+
+    void applyAndCheckpoint(OrderEventProjection projection, int partition,
+                            List<OrderStatusChangedEvent> events, long nextOffset);
+}
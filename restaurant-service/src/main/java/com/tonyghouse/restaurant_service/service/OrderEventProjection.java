@@ -0,0 +1,22 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+
+import java.util.List;
+
+/**
+ * A read model built from order.events. A replay hands each projection the events of
+ * one topic partition at a time, in offset order, and calls it concurrently for
+ * different partitions. All events of one order come from the same partition, in order.
+ */
+public interface OrderEventProjection {
+
+    // stable name, used as the checkpoint key and in replay requests
+    String name();
+
+    // drops everything projected so far; runs in the transaction that clears the checkpoints
+    void reset();
+
+    // runs in the transaction that stores the partition's checkpoint
+    void apply(List<OrderStatusChangedEvent> events);
+}
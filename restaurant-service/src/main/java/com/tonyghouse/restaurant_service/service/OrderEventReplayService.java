@@ -0,0 +1,13 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.EventReplayRequest;
+import com.tonyghouse.restaurant_service.dto.EventReplayResponse;
+
+import java.util.UUID;
+
+public interface OrderEventReplayService {
+
+    EventReplayResponse start(EventReplayRequest request);
+
+    EventReplayResponse status(UUID replayId);
+}
@@ -0,0 +1,312 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.EventReplayRequest;
+import com.tonyghouse.restaurant_service.dto.EventReplayResponse;
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.OrderEventRecords;
+import com.tonyghouse.restaurant_service.publisher.OrderEventPublisher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds {@link OrderEventProjection}s by reading a range of order.events.
+ * Partitions are split over worker threads, each with its own consumer. Every polled
+ * partition batch is applied and checkpointed in one transaction, so a replay that
+ * stops can be resumed from its checkpoints.
+ */
+@Service
+@Slf4j
+public class OrderEventReplayServiceImpl implements OrderEventReplayService {
+
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final OrderEventCheckpointService checkpointService;
+    private final Clock clock;
+    private final Map<String, OrderEventProjection> projections = new HashMap<>();
+
+    private final Map<UUID, Replay> replays = new ConcurrentHashMap<>();
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${order.events.replay.parallelism:12}")
+    private int parallelism = 12;
+
+    public OrderEventReplayServiceImpl(
+            ConsumerFactory<String, byte[]> consumerFactory,
+            OrderEventCheckpointService checkpointService,
+            Clock clock,
+            List<OrderEventProjection> projections) {
+        this.consumerFactory = consumerFactory;
+        this.checkpointService = checkpointService;
+        this.clock = clock;
+        projections.forEach(p -> this.projections.put(p.name(), p));
+    }
+
+    @Override
+    public EventReplayResponse start(EventReplayRequest request) {
+        OrderEventProjection projection = projections.get(request.getProjection());
+        if (projection == null) {
+            throw new RestoRestaurantException(
+                    "Unknown projection, expected one of " + projections.keySet(), HttpStatus.BAD_REQUEST);
+        }
+        if (request.getFrom() != null && request.getTo() != null && !request.getFrom().isBefore(request.getTo())) {
+            throw new RestoRestaurantException("Replay range is empty", HttpStatus.BAD_REQUEST);
+        }
+        if (!running.add(projection.name())) {
+            throw new RestoRestaurantException(
+                    "A replay of " + projection.name() + " is already running", HttpStatus.CONFLICT);
+        }
+
+        Replay replay = new Replay(UUID.randomUUID(), projection.name(), Instant.now(clock));
+        replays.put(replay.id, replay);
+        log.info("Replay started. replayId={} projection={} from={} to={} fromScratch={}",
+                replay.id, projection.name(), request.getFrom(), request.getTo(), request.isFromScratch());
+
+        workers.submit(() -> run(replay, projection, request));
+        return replay.toResponse();
+    }
+
+    @Override
+    public EventReplayResponse status(UUID replayId) {
+        Replay replay = replays.get(replayId);
+        if (replay == null) {
+            throw new RestoRestaurantException("Replay not found", HttpStatus.NOT_FOUND);
+        }
+        return replay.toResponse();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void run(Replay replay, OrderEventProjection projection, EventReplayRequest request) {
+        try {
+            if (request.isFromScratch()) {
+                checkpointService.reset(projection);
+            }
+            Map<Integer, Long> checkpoints = checkpointService.load(projection.name());
+
+            Map<TopicPartition, Long> start;
+            Map<TopicPartition, Long> end;
+            try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+                List<TopicPartition> partitions = consumer.partitionsFor(OrderEventPublisher.TOPIC).stream()
+                        .map(p -> new TopicPartition(p.topic(), p.partition()))
+                        .toList();
+                start = startOffsets(consumer, partitions, checkpoints, request.getFrom());
+                // the end is fixed up front, so a replay finishes even while new events arrive
+                end = endOffsets(consumer, partitions, request.getTo());
+            }
+            replay.partitions = start.size();
+
+            List<Future<?>> slices = new ArrayList<>();
+            for (List<TopicPartition> slice : slices(new ArrayList<>(start.keySet()))) {
+                slices.add(workers.submit(() -> {
+                    replaySlice(replay, projection, slice, start, end);
+                    return null;
+                }));
+            }
+            for (Future<?> slice : slices) {
+                slice.get();
+            }
+
+            replay.finish(COMPLETED, null, Instant.now(clock));
+            log.info("Replay completed. replayId={} projection={} applied={} skipped={} took={}",
+                    replay.id, replay.projection, replay.applied.get(), replay.skipped.get(),
+                    Duration.between(replay.startedAt, replay.finishedAt));
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            replay.finish(FAILED, cause.getMessage(), Instant.now(clock));
+            log.error("Replay failed. replayId={} projection={}", replay.id, replay.projection, cause);
+        } finally {
+            running.remove(projection.name());
+        }
+    }
+
+    private void replaySlice(Replay replay, OrderEventProjection projection, List<TopicPartition> slice,
+                             Map<TopicPartition, Long> start, Map<TopicPartition, Long> end) {
+        Map<TopicPartition, Long> remaining = new HashMap<>();
+        for (TopicPartition partition : slice) {
+            if (start.get(partition) < end.get(partition)) {
+                remaining.put(partition, end.get(partition));
+            }
+        }
+        if (remaining.isEmpty()) {
+            return;
+        }
+
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+            consumer.assign(remaining.keySet());
+            remaining.keySet().forEach(p -> consumer.seek(p, start.get(p)));
+
+            while (!remaining.isEmpty()) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(POLL_TIMEOUT);
+                for (TopicPartition partition : records.partitions()) {
+                    Long endOffset = remaining.get(partition);
+                    if (endOffset != null) {
+                        applyBatch(replay, projection, partition, records.records(partition), endOffset);
+                    }
+                }
+                Iterator<Map.Entry<TopicPartition, Long>> it = remaining.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<TopicPartition, Long> entry = it.next();
+                    if (consumer.position(entry.getKey()) >= entry.getValue()) {
+                        consumer.pause(List.of(entry.getKey()));
+                        it.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private void applyBatch(Replay replay, OrderEventProjection projection, TopicPartition partition,
+                            List<ConsumerRecord<String, byte[]>> records, long endOffset) {
+        List<OrderStatusChangedEvent> events = new ArrayList<>(records.size());
+        long nextOffset = -1;
+        for (ConsumerRecord<String, byte[]> record : records) {
+            if (record.offset() >= endOffset) {
+                break;
+            }
+            nextOffset = record.offset() + 1;
+            try {
+                events.add(OrderEventRecords.decode(record));
+            } catch (IOException | RuntimeException e) {
+                // one unreadable record must not stop a rebuild; it is logged and counted
+                replay.skipped.incrementAndGet();
+                log.warn("Unreadable order event skipped. partition={} offset={}",
+                        partition.partition(), record.offset(), e);
+            }
+        }
+        if (nextOffset < 0) {
+            return;
+        }
+        checkpointService.applyAndCheckpoint(projection, partition.partition(), events, nextOffset);
+        replay.applied.addAndGet(events.size());
+    }
+
+    private static Map<TopicPartition, Long> startOffsets(Consumer<String, byte[]> consumer,
+                                                          List<TopicPartition> partitions,
+                                                          Map<Integer, Long> checkpoints,
+                                                          Instant from) {
+        Map<TopicPartition, Long> offsets = new HashMap<>(consumer.beginningOffsets(partitions));
+        if (from != null) {
+            offsets.putAll(offsetsAt(consumer, partitions, from));
+        }
+        // a checkpoint wins over the requested start: resuming never applies an event twice
+        for (TopicPartition partition : partitions) {
+            Long checkpoint = checkpoints.get(partition.partition());
+            if (checkpoint != null) {
+                offsets.put(partition, checkpoint);
+            }
+        }
+        return offsets;
+    }
+
+    private static Map<TopicPartition, Long> endOffsets(Consumer<String, byte[]> consumer,
+                                                        List<TopicPartition> partitions,
+                                                        Instant to) {
+        Map<TopicPartition, Long> offsets = new HashMap<>(consumer.endOffsets(partitions));
+        if (to != null) {
+            offsets.putAll(offsetsAt(consumer, partitions, to));
+        }
+        return offsets;
+    }
+
+    // first offset at or after the timestamp; partitions with nothing that late keep their default
+    private static Map<TopicPartition, Long> offsetsAt(Consumer<String, byte[]> consumer,
+                                                       List<TopicPartition> partitions,
+                                                       Instant at) {
+        Map<TopicPartition, Long> query = new HashMap<>();
+        partitions.forEach(p -> query.put(p, at.toEpochMilli()));
+
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+        consumer.offsetsForTimes(query).forEach((partition, found) ->
+                offsets.put(partition, found == null ? end.get(partition) : found.offset()));
+        return offsets;
+    }
+
+    // partitions dealt round robin to at most `parallelism` workers
+    private List<List<TopicPartition>> slices(List<TopicPartition> partitions) {
+        int workerCount = Math.max(1, Math.min(parallelism, partitions.size()));
+        List<List<TopicPartition>> slices = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            slices.add(new ArrayList<>());
+        }
+        for (int i = 0; i < partitions.size(); i++) {
+            slices.get(i % workerCount).add(partitions.get(i));
+        }
+        return slices;
+    }
+
+    private static final class Replay {
+
+        private final UUID id;
+        private final String projection;
+        private final Instant startedAt;
+        private final AtomicLong applied = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private volatile int partitions;
+        private volatile String state = RUNNING;
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private Replay(UUID id, String projection, Instant startedAt) {
+            this.id = id;
+            this.projection = projection;
+            this.startedAt = startedAt;
+        }
+
+        private void finish(String state, String error, Instant finishedAt) {
+            this.error = error;
+            this.finishedAt = finishedAt;
+            this.state = state;
+        }
+
+        private EventReplayResponse toResponse() {
+            EventReplayResponse response = new EventReplayResponse();
+            response.setReplayId(id);
+            response.setProjection(projection);
+            response.setState(state);
+            response.setPartitions(partitions);
+            response.setEventsApplied(applied.get());
+            response.setEventsSkipped(skipped.get());
+            response.setStartedAt(startedAt);
+            response.setFinishedAt(finishedAt);
+            response.setError(error);
+            return response;
+        }
+    }
+}
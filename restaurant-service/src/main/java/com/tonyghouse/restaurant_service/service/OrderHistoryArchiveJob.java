@@ -0,0 +1,61 @@
+package com.tonyghouse.restaurant_service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+/*
+Daily: create the coming months' history partitions, then archive months past the
+retention window, one month at a time so one failure does not block the rest. Only
+the instance holding the archival lock runs it.
+ */
+@Component
+@ConditionalOnProperty(name = "order.history.archival.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OrderHistoryArchiveJob {
+
+    private final OrderHistoryArchiveService archiveService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${order.history.archival.cron:0 15 3 * * *}")
+    public void run() {
+        try {
+            if (!archiveService.runExclusively(this::maintain)) {
+                log.debug("History archival skipped, another instance holds the lock");
+            }
+        } catch (Exception e) {
+            log.error("History archival failed", e);
+        }
+    }
+
+    private void maintain() {
+        try {
+            archiveService.ensurePartitions();
+        } catch (Exception e) {
+            log.error("Creating history partitions failed", e);
+        }
+
+        try {
+            for (YearMonth month : archiveService.expiredPartitions()) {
+                archive(month);
+            }
+        } catch (Exception e) {
+            log.error("Listing history partitions failed", e);
+        }
+    }
+
+    private void archive(YearMonth month) {
+        try {
+            archiveService.archivePartition(month);
+        } catch (Exception e) {
+            log.error("Archiving history partition failed. month={}", month, e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.OrderStatusHistoryResponse;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface OrderHistoryArchiveService {
+
+    // runs work unless another instance is archiving; false when it was skipped
+    boolean runExclusively(Runnable work);
+
+    void ensurePartitions();
+
+    List<YearMonth> expiredPartitions();
+
+    void archivePartition(YearMonth month);
+
+    List<OrderStatusHistoryResponse> findArchived(UUID orderId, Instant orderCreatedAt);
+
+    // end of the newest archived month; orders created after it have all their history in the table
+    Optional<Instant> archivedThrough();
+}
@@ -0,0 +1,259 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusHistoryResponse;
+import com.tonyghouse.restaurant_service.entity.OrderStatusHistoryArchive;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.OrderHistoryArchiveFile;
+import com.tonyghouse.restaurant_service.repo.OrderStatusHistoryArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly partitions of order_status_history: creates them ahead of time and moves
+ * months past the retention window out of the database into gzip files.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderHistoryArchiveServiceImpl implements OrderHistoryArchiveService {
+
+    static final int MONTHS_AHEAD = 2;
+    private static final int EXPORT_FETCH_SIZE = 1_000;
+    private static final long DETACH_LOCK_TIMEOUT_MS = 5_000;
+    static final long ARCHIVAL_LOCK_KEY = 0x68697374L; // "hist"
+    // other instances see a newly archived month this much later at most
+    private static final Duration HORIZON_REFRESH = Duration.ofMinutes(5);
+    // an order's transitions all happen within hours; a month of slack covers any straggler
+    private static final Duration ORDER_LIFETIME = Duration.ofDays(31);
+
+    private static final String PARENT = "order_status_history";
+    private static final Pattern PARTITION = Pattern.compile("order_status_history_p(\\d{6})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderStatusHistoryArchiveRepository archiveRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final Clock clock;
+
+    @Value("${order.history.retention-months:12}")
+    private int retentionMonths = 12;
+
+    // must be the same shared volume on every instance: any of them may serve an archived order
+    @Value("${order.history.archive-dir:}")
+    private String archiveDir = "";
+
+    private volatile Horizon horizon;
+
+    /*
+    A session lock on a connection held for the whole run. The export runs outside the
+    transactions that detach, so the outbox relay's transaction-scoped lock would not
+    cover it. If the instance dies, its connection closes and the lock goes with it.
+     */
+    @Override
+    public boolean runExclusively(Runnable work) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            try (Statement st = con.createStatement();
+                 ResultSet rs = st.executeQuery("select pg_try_advisory_lock(" + ARCHIVAL_LOCK_KEY + ")")) {
+                if (!rs.next() || !rs.getBoolean(1)) {
+                    return false;
+                }
+            }
+            try {
+                work.run();
+                return true;
+            } finally {
+                try (Statement st = con.createStatement()) {
+                    st.execute("select pg_advisory_unlock(" + ARCHIVAL_LOCK_KEY + ")");
+                }
+            }
+        }));
+    }
+
+    @Override
+    public void ensurePartitions() {
+        YearMonth current = YearMonth.now(clock);
+        for (int i = 0; i <= MONTHS_AHEAD; i++) {
+            YearMonth month = current.plusMonths(i);
+            // names and bounds come from YearMonth only, nothing user supplied reaches the DDL
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                    + " PARTITION OF " + PARENT
+                    + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+        log.debug("History partitions ensured. through={}", current.plusMonths(MONTHS_AHEAD));
+    }
+
+    @Override
+    public List<YearMonth> expiredPartitions() {
+        YearMonth cutoff = YearMonth.now(clock).minusMonths(retentionMonths);
+
+        List<String> partitions = jdbcTemplate.queryForList("""
+                select c.relname
+                  from pg_inherits i
+                  join pg_class c on c.oid = i.inhrelid
+                  join pg_class p on p.oid = i.inhparent
+                 where p.relname = ?
+                """, String.class, PARENT);
+
+        List<YearMonth> expired = new ArrayList<>();
+        for (String name : partitions) {
+            Matcher m = PARTITION.matcher(name);
+            if (m.matches()) {
+                YearMonth month = YearMonth.parse(m.group(1), SUFFIX);
+                if (month.isBefore(cutoff)) {
+                    expired.add(month);
+                }
+            }
+        }
+        expired.sort(Comparator.naturalOrder());
+        return expired;
+    }
+
+    /*
+    Export while the month is still attached: reading it locks only that partition, so
+    transitions and history reads carry on. The detach, the archive record and the drop
+    then run in one short transaction. DETACH takes ACCESS EXCLUSIVE on the parent, held
+    only for that metadata change. If it fails, the month stays attached and the next
+    run exports it again over the same file. Nothing writes to a month past retention,
+    so the export stays complete.
+     */
+    @Override
+    public void archivePartition(YearMonth month) {
+        String partition = partitionName(month);
+        String fileName = partition + ".csv.gz";
+        Path file = archiveRoot().resolve(fileName);
+        log.info("Archiving history partition. partition={} file={}", partition, file);
+
+        long rows = transaction(true).execute(status -> export(partition, file));
+
+        transaction(false).executeWithoutResult(status -> {
+            // fail fast rather than queue every writer of the parent behind a long reader
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '" + DETACH_LOCK_TIMEOUT_MS + "ms'");
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + partition);
+
+            OrderStatusHistoryArchive archive = new OrderStatusHistoryArchive();
+            archive.setPartitionName(partition);
+            archive.setPeriodStart(month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+            archive.setPeriodEnd(month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+            // relative to the archive root, which each instance may mount at its own path
+            archive.setFilePath(fileName);
+            archive.setRowCount(rows);
+            archive.setArchivedAt(Instant.now(clock));
+            archiveRepository.save(archive);
+
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        });
+        horizon = null;
+        log.info("History partition archived. partition={} rows={}", partition, rows);
+    }
+
+    // inside a transaction so the driver streams with a cursor instead of reading the month into memory
+    private long export(String partition, Path file) {
+        try (OrderHistoryArchiveFile.ArchiveWriter writer = OrderHistoryArchiveFile.open(file)) {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "select id, order_id, old_status, new_status, changed_at from " + partition
+                                + " order by order_id, changed_at");
+                ps.setFetchSize(EXPORT_FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                String oldStatus = rs.getString("old_status");
+                try {
+                    writer.write(
+                            rs.getObject("id", UUID.class),
+                            rs.getObject("order_id", UUID.class),
+                            oldStatus == null ? null : OrderStatus.valueOf(oldStatus),
+                            OrderStatus.valueOf(rs.getString("new_status")),
+                            rs.getTimestamp("changed_at").toInstant());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not export " + partition, e);
+        }
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderStatusHistoryResponse> findArchived(UUID orderId, Instant orderCreatedAt) {
+        List<OrderStatusHistoryArchive> archives = archiveRepository.findOverlapping(
+                orderCreatedAt, orderCreatedAt.plus(ORDER_LIFETIME));
+
+        List<OrderStatusHistoryResponse> rows = new ArrayList<>();
+        for (OrderStatusHistoryArchive archive : archives) {
+            // absolute paths are exports made before paths were stored relative to the root
+            Path file = archiveRoot().resolve(archive.getFilePath());
+            if (!Files.isReadable(file)) {
+                log.error("History archive missing. partition={} file={}", archive.getPartitionName(), file);
+                throw new RestoRestaurantException("Archived order history is unavailable", HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            rows.addAll(OrderHistoryArchiveFile.read(file, orderId));
+        }
+        log.debug("Archived history read. orderId={} files={} rows={}", orderId, archives.size(), rows.size());
+        return rows;
+    }
+
+    @Override
+    public Optional<Instant> archivedThrough() {
+        Instant now = Instant.now(clock);
+        Horizon current = horizon;
+        if (current == null || !now.isBefore(current.checkedAt().plus(HORIZON_REFRESH))) {
+            current = new Horizon(archiveRepository.findLatestPeriodEnd(), now);
+            horizon = current;
+        }
+        return current.end();
+    }
+
+    private Path archiveRoot() {
+        Path root = Path.of(archiveDir);
+        if (archiveDir.isBlank() || !root.isAbsolute()) {
+            throw new IllegalStateException(
+                    "order.history.archive-dir must be an absolute path on storage shared by all instances, got '"
+                            + archiveDir + "'");
+        }
+        return root;
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARENT + "_p" + month.format(SUFFIX);
+    }
+
+    private record Horizon(Optional<Instant> end, Instant checkedAt) {}
+}
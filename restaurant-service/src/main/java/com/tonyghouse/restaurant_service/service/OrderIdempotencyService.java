@@ -0,0 +1,13 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.CreateOrderRequest;
+import com.tonyghouse.restaurant_service.dto.OrderResponse;
+
+public interface OrderIdempotencyService {
+
+    /*
+    owner is the authenticated user; together with the request's branch it scopes
+    the key, so different users or branches never share one.
+     */
+    OrderResponse create(CreateOrderRequest request, String owner, String idempotencyKey);
+}
@@ -0,0 +1,143 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.CreateOrderRequest;
+import com.tonyghouse.restaurant_service.dto.OrderResponse;
+import com.tonyghouse.restaurant_service.entity.OrderIdempotencyKey;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.mapper.OrderMapper;
+import com.tonyghouse.restaurant_service.repo.OrderIdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Replays the stored {@link OrderResponse} for a known Idempotency-Key: Redis first,
+ * then the unique-constrained order_idempotency_key table, which alone decides when
+ * Redis is unavailable. Not transactional on
+ * purpose, the order transaction has to roll back before a lost race can be resolved.
+ *
+ * <p>A key belongs to the authenticated user and the request's branch, and replays
+ * only for the request it was first used with. The same key with a different
+ * request is rejected with 422.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderIdempotencyServiceImpl implements OrderIdempotencyService {
+
+    private static final String IDEMPOTENCY_CACHE_KEY = "order:idempotency:";
+    private static final int IDEMPOTENCY_TTL_SECONDS = 86_400;
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final OrderService orderService;
+    private final OrderIdempotencyKeyRepository idempotencyKeyRepository;
+    private final JedisPool jedisPool;
+
+    @Override
+    public OrderResponse create(CreateOrderRequest request, String owner, String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new RestoRestaurantException("Invalid Idempotency-Key", HttpStatus.BAD_REQUEST);
+        }
+        if (request.getBranchId() == null) {
+            throw new RestoRestaurantException("branchId is required", HttpStatus.BAD_REQUEST);
+        }
+        UUID branchId = request.getBranchId();
+        String requestHash = fingerprint(request);
+
+        // the request hash is part of the cache key: only the same request replays from Redis,
+        // another payload under the key falls through to the table and is rejected there
+        String cacheKey = IDEMPOTENCY_CACHE_KEY + owner + ":" + branchId + ":" + idempotencyKey + ":" + requestHash;
+        String cached = readCache(cacheKey, idempotencyKey);
+        if (cached != null) {
+            log.info("Idempotent order replayed from cache. idempotencyKey={}", idempotencyKey);
+            return OrderMapper.fromJson(cached);
+        }
+
+        Optional<OrderIdempotencyKey> stored =
+                idempotencyKeyRepository.findByOwnerAndBranchIdAndIdempotencyKey(owner, branchId, idempotencyKey);
+        if (stored.isPresent()) {
+            log.info("Idempotent order replayed from DB. idempotencyKey={}", idempotencyKey);
+            return replay(cacheKey, stored.get(), requestHash);
+        }
+
+        OrderIdempotencyKey claim = new OrderIdempotencyKey();
+        claim.setOwner(owner);
+        claim.setBranchId(branchId);
+        claim.setIdempotencyKey(idempotencyKey);
+        claim.setRequestHash(requestHash);
+
+        OrderResponse response;
+        try {
+            response = orderService.create(request, claim);
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent request with the same key committed first
+            log.info("Concurrent duplicate order collapsed. idempotencyKey={}", idempotencyKey);
+            OrderIdempotencyKey winner = idempotencyKeyRepository
+                    .findByOwnerAndBranchIdAndIdempotencyKey(owner, branchId, idempotencyKey)
+                    .orElseThrow(() -> new RestoRestaurantException(
+                            "Order with this Idempotency-Key is still in progress", HttpStatus.CONFLICT));
+            return replay(cacheKey, winner, requestHash);
+        }
+
+        writeCache(cacheKey, OrderMapper.toJson(response), idempotencyKey);
+        return response;
+    }
+
+    private OrderResponse replay(String cacheKey, OrderIdempotencyKey stored, String requestHash) {
+        if (!requestHash.equals(stored.getRequestHash())) {
+            log.warn("Idempotency-Key reused with a different request. idempotencyKey={} orderId={}",
+                    stored.getIdempotencyKey(), stored.getOrderId());
+            throw new RestoRestaurantException(
+                    "Idempotency-Key was already used for a different order", HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+        if (stored.getResponse() == null) {
+            throw new RestoRestaurantException(
+                    "Order with this Idempotency-Key is still in progress", HttpStatus.CONFLICT);
+        }
+        writeCache(cacheKey, stored.getResponse(), stored.getIdempotencyKey());
+        return OrderMapper.fromJson(stored.getResponse());
+    }
+
+    // Redis is only a fast path in front of the table: when it is down, every lookup goes to the DB
+    private String readCache(String cacheKey, String idempotencyKey) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.get(cacheKey);
+        } catch (JedisException e) {
+            log.warn("Idempotency cache read failed, checking the DB. idempotencyKey={}", idempotencyKey, e);
+            return null;
+        }
+    }
+
+    private void writeCache(String cacheKey, String response, String idempotencyKey) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.setex(cacheKey, IDEMPOTENCY_TTL_SECONDS, response);
+            log.debug("Idempotent order response cached. idempotencyKey={}", idempotencyKey);
+        } catch (JedisException e) {
+            log.warn("Idempotency cache write failed, the DB still has the response. idempotencyKey={}",
+                    idempotencyKey, e);
+        }
+    }
+
+    // SHA-256 of the request as JSON; field order is fixed by the DTO, item order is kept
+    static String fingerprint(CreateOrderRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(
+                    digest.digest(OrderMapper.toJson(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+
+public interface OrderOutboxService {
+
+    int BATCH_SIZE = 100;
+
+    void enqueue(OrderStatusChangedEvent event);
+
+    /*
+    Sends the oldest pending events and returns how many Kafka acked.
+     */
+    int relayBatch();
+}
@@ -0,0 +1,120 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.entity.OrderOutboxEvent;
+import com.tonyghouse.restaurant_service.publisher.OrderEventPublisher;
+import com.tonyghouse.restaurant_service.repo.OrderOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderOutboxServiceImpl implements OrderOutboxService {
+
+    static final long RELAY_LOCK_KEY = 0x6F7574626F78L; // "outbox"
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderEventPublisher orderEventPublisher;
+    private final Clock clock;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OrderStatusChangedEvent event) {
+        OrderOutboxEvent row = new OrderOutboxEvent();
+        row.setOrderId(event.orderId());
+        row.setOldStatus(event.oldStatus());
+        row.setNewStatus(event.newStatus());
+        row.setChangedAt(event.changedAt());
+        row.setCreatedAt(Instant.now(clock));
+
+        outboxRepository.save(row);
+        log.debug("Outbox event enqueued. orderId={} newStatus={}", event.orderId(), event.newStatus());
+    }
+
+    @Override
+    @Transactional
+    public int relayBatch() {
+        if (!outboxRepository.tryRelayLock(RELAY_LOCK_KEY)) {
+            log.debug("Outbox relay skipped, another instance holds the lock");
+            return 0;
+        }
+
+        List<OrderOutboxEvent> pending = outboxRepository.findPending(PageRequest.of(0, OrderOutboxService.BATCH_SIZE));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        // an order's events go out one after another, each sent only once the previous one
+        // is acked, so a failed send never leaves a later status on the topic ahead of it.
+        // Different orders are relayed side by side.
+        Map<UUID, List<OrderOutboxEvent>> byOrder = new LinkedHashMap<>();
+        for (OrderOutboxEvent row : pending) {
+            byOrder.computeIfAbsent(row.getOrderId(), id -> new ArrayList<>()).add(row);
+        }
+        Map<UUID, CompletableFuture<Integer>> relays = new LinkedHashMap<>();
+        byOrder.forEach((orderId, rows) -> relays.put(orderId, relayInSequence(rows, 0)));
+
+        List<Long> delivered = new ArrayList<>(pending.size());
+        int blocked = 0;
+        for (Map.Entry<UUID, List<OrderOutboxEvent>> order : byOrder.entrySet()) {
+            List<OrderOutboxEvent> rows = order.getValue();
+            int acked = relays.get(order.getKey()).join();
+            for (int i = 0; i < acked; i++) {
+                delivered.add(rows.get(i).getId());
+            }
+            if (acked < rows.size()) {
+                blocked++;
+            }
+        }
+
+        outboxRepository.deleteAllByIdInBatch(delivered);
+        log.info("Outbox batch relayed. pending={} delivered={} blockedOrders={}",
+                pending.size(), delivered.size(), blocked);
+        return delivered.size();
+    }
+
+    // completes with the number of rows acked before the first failure; never completes exceptionally
+    private CompletableFuture<Integer> relayInSequence(List<OrderOutboxEvent> rows, int next) {
+        if (next == rows.size()) {
+            return CompletableFuture.completedFuture(next);
+        }
+        OrderOutboxEvent row = rows.get(next);
+        return orderEventPublisher.publish(toEvent(row))
+                .orTimeout(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .handle((ack, e) -> {
+                    if (e != null) {
+                        log.warn("Outbox send failed, will retry. outboxId={} orderId={}",
+                                row.getId(), row.getOrderId(), e);
+                    }
+                    return e == null;
+                })
+                .thenCompose(acked -> acked
+                        ? relayInSequence(rows, next + 1)
+                        : CompletableFuture.completedFuture(next));
+    }
+
+    private static OrderStatusChangedEvent toEvent(OrderOutboxEvent row) {
+        return new OrderStatusChangedEvent(
+                row.getOrderId(),
+                row.getOldStatus(),
+                row.getNewStatus(),
+                row.getChangedAt()
+        );
+    }
+}
@@ -2,13 +2,17 @@ package com.tonyghouse.restaurant_service.service;
 
 import com.tonyghouse.restaurant_service.dto.OrderItemRequest;
 import com.tonyghouse.restaurant_service.dto.PriceBreakdown;
+import com.tonyghouse.restaurant_service.dto.ResolvedOrderLine;
 import com.tonyghouse.restaurant_service.entity.Order;
 
 import java.util.List;
+import java.util.UUID;
 
 public interface OrderPricingService {
 
-    PriceBreakdown calculate(List<OrderItemRequest> items);
+    PriceBreakdown calculate(UUID branchId, List<OrderItemRequest> items);
+
+    PriceBreakdown calculateResolved(List<ResolvedOrderLine> lines);
 
     PriceBreakdown recalculateFromOrder(Order order);
 
@@ -2,78 +2,51 @@ package com.tonyghouse.restaurant_service.service;
 
 import com.tonyghouse.restaurant_service.dto.OrderItemRequest;
 import com.tonyghouse.restaurant_service.dto.PriceBreakdown;
+import com.tonyghouse.restaurant_service.dto.ResolvedOrderLine;
 import com.tonyghouse.restaurant_service.entity.Order;
+import com.tonyghouse.restaurant_service.entity.OrderItem;
 import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
-import com.tonyghouse.restaurant_service.repo.ComboRepository;
-import com.tonyghouse.restaurant_service.repo.MenuItemRepository;
+import com.tonyghouse.restaurant_service.helper.Money;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 @Slf4j
 public class OrderPricingServiceImpl implements OrderPricingService {
 
     private static final BigDecimal TAX_RATE = new BigDecimal("0.18");
+    private static final long TAX_RATE_BPS = Money.basisPoints(TAX_RATE);
 
-    private final MenuItemRepository menuItemRepository;
-    private final ComboRepository comboRepository;
+    private final OrderCatalogService catalogService;
 
-    public OrderPricingServiceImpl(
-            MenuItemRepository menuItemRepository,
-            ComboRepository comboRepository) {
-        this.menuItemRepository = menuItemRepository;
-        this.comboRepository = comboRepository;
+    public OrderPricingServiceImpl(OrderCatalogService catalogService) {
+        this.catalogService = catalogService;
     }
 
     @Override
-    public PriceBreakdown calculate(List<OrderItemRequest> items) {
-        log.info("Calculating price for {} order items", items.size());
+    public PriceBreakdown calculate(UUID branchId, List<OrderItemRequest> items) {
+        log.info("Calculating price for {} order items. branchId={}", items.size(), branchId);
+        return calculateResolved(catalogService.resolve(branchId, items));
+    }
 
-        BigDecimal itemsTotal = BigDecimal.ZERO;
+    @Override
+    public PriceBreakdown calculateResolved(List<ResolvedOrderLine> lines) {
+        long itemsTotal = 0L;
 
-        for (OrderItemRequest req : items) {
+        for (ResolvedOrderLine line : lines) {
             log.debug("Processing item. type={} id={} qty={}",
-                    req.getItemType(), req.getItemId(), req.getQuantity());
-
-            BigDecimal unitPrice;
-
-            if ("ITEM".equals(req.getItemType())) {
-                unitPrice = menuItemRepository.findById(req.getItemId())
-                        .orElseThrow(() -> new RestoRestaurantException("Item not found", HttpStatus.NOT_FOUND))
-                        .getPrice();
-
-            } else if ("COMBO".equals(req.getItemType())) {
-                unitPrice = comboRepository.findById(req.getItemId())
-                        .orElseThrow(() -> new RestoRestaurantException("Combo not found", HttpStatus.NOT_FOUND))
-                        .getComboPrice();
-            } else {
-                log.warn("Invalid item type received: {}", req.getItemType());
-                throw new RestoRestaurantException("Invalid item type",HttpStatus.BAD_REQUEST);
-            }
+                    line.itemType(), line.itemId(), line.quantity());
 
-            itemsTotal = itemsTotal.add(
-                    unitPrice.multiply(BigDecimal.valueOf(req.getQuantity()))
-            );
+            itemsTotal = Money.add(itemsTotal,
+                    Money.times(Money.toMinor(line.unitPrice()), line.quantity()));
         }
 
-        BigDecimal tax = itemsTotal.multiply(TAX_RATE);
-        BigDecimal delivery = BigDecimal.ZERO; // hook for later
-        BigDecimal grandTotal = itemsTotal.add(tax).add(delivery);
-
-        PriceBreakdown breakdown = new PriceBreakdown();
-        breakdown.setItemsTotal(itemsTotal);
-        breakdown.setTax(tax);
-        breakdown.setDeliveryCharge(delivery);
-        breakdown.setGrandTotal(grandTotal);
-
-        log.info("Price calculated. itemsTotal={} tax={} delivery={} grandTotal={}",
-                itemsTotal, tax, delivery, grandTotal);
-
-        return breakdown;
+        return toBreakdown(itemsTotal, "Price calculated");
     }
 
     @Override
@@ -88,9 +61,9 @@ public class OrderPricingServiceImpl implements OrderPricingService {
             );
         }
 
-        final BigDecimal[] itemsTotal = {BigDecimal.ZERO};
+        long itemsTotal = 0L;
 
-        order.getItems().forEach(item -> {
+        for (OrderItem item : order.getItems()) {
             log.debug("Recalculating item. unitPrice={} qty={}", item.getUnitPrice(), item.getQuantity());
 
             if (item.getUnitPrice() == null || item.getQuantity() <= 0) {
@@ -101,23 +74,27 @@ public class OrderPricingServiceImpl implements OrderPricingService {
                 );
             }
 
-            BigDecimal lineTotal = item.getUnitPrice()
-                    .multiply(BigDecimal.valueOf(item.getQuantity()));
+            itemsTotal = Money.add(itemsTotal,
+                    Money.times(Money.toMinor(item.getUnitPrice()), item.getQuantity()));
+        }
 
-            itemsTotal[0] = itemsTotal[0].add(lineTotal);
-        });
+        return toBreakdown(itemsTotal, "Recalculation complete");
+    }
 
-        BigDecimal tax = itemsTotal[0].multiply(TAX_RATE);
-        BigDecimal delivery = BigDecimal.ZERO; // future extension
-        BigDecimal grandTotal = itemsTotal[0].add(tax).add(delivery);
+    // all amounts are minor units until here, tax is rounded once half-even to 2 decimals
+    private PriceBreakdown toBreakdown(long itemsTotal, String logPrefix) {
+        long tax = Money.percentOf(itemsTotal, TAX_RATE_BPS);
+        long delivery = 0L; // hook for later
+        long grandTotal = Money.add(Money.add(itemsTotal, tax), delivery);
 
         PriceBreakdown breakdown = new PriceBreakdown();
-        breakdown.setItemsTotal(itemsTotal[0]);
-        breakdown.setTax(tax);
-        breakdown.setDeliveryCharge(delivery);
-        breakdown.setGrandTotal(grandTotal);
-        log.info("Recalculation complete. itemsTotal={} tax={} delivery={} grandTotal={}",
-                itemsTotal[0], tax, delivery, grandTotal);
+        breakdown.setItemsTotal(Money.toBigDecimal(itemsTotal));
+        breakdown.setTax(Money.toBigDecimal(tax));
+        breakdown.setDeliveryCharge(Money.toBigDecimal(delivery));
+        breakdown.setGrandTotal(Money.toBigDecimal(grandTotal));
+
+        log.info("{}. itemsTotal={} tax={} delivery={} grandTotal={}", logPrefix,
+                breakdown.getItemsTotal(), breakdown.getTax(), breakdown.getDeliveryCharge(), breakdown.getGrandTotal());
         return breakdown;
     }
 
@@ -1,16 +1,42 @@
 package com.tonyghouse.restaurant_service.service;
 
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.BulkOrderResponse;
 import com.tonyghouse.restaurant_service.dto.CreateOrderRequest;
+import com.tonyghouse.restaurant_service.dto.OrderPageResponse;
 import com.tonyghouse.restaurant_service.dto.OrderResponse;
 import com.tonyghouse.restaurant_service.dto.PricePreviewResponse;
+import com.tonyghouse.restaurant_service.entity.OrderIdempotencyKey;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public interface OrderService {
 
     OrderResponse create(CreateOrderRequest request);
 
+    /**
+     * Creates the order and records its response on the given unsaved key claim in the
+     * same transaction. Fails with DataIntegrityViolationException if the key is taken.
+     */
+    OrderResponse create(CreateOrderRequest request, OrderIdempotencyKey claim);
+
+    /**
+     * Creates a batch of orders in one transaction. Orders that fail validation are
+     * reported per index and do not prevent the others from being created.
+     */
+    BulkOrderResponse createBulk(List<CreateOrderRequest> requests);
+
     OrderResponse get(UUID orderId);
 
+    /**
+     * Lists one day of a branch's orders, newest first, using keyset pagination.
+     * Pass the previous page's nextCursor to continue; an empty status set means all statuses.
+     */
+    OrderPageResponse listByBranch(UUID branchId, LocalDate date, Set<OrderStatus> statuses,
+                                   String cursor, int size);
+
     PricePreviewResponse preview(CreateOrderRequest request);
 }
@@ -2,25 +2,28 @@ package com.tonyghouse.restaurant_service.service;
 
 import com.tonyghouse.restaurant_service.constants.OrderStatus;
 import com.tonyghouse.restaurant_service.dto.BranchResponse;
+import com.tonyghouse.restaurant_service.dto.BulkOrderResponse;
+import com.tonyghouse.restaurant_service.dto.BulkOrderResult;
 import com.tonyghouse.restaurant_service.dto.CreateOrderRequest;
-import com.tonyghouse.restaurant_service.dto.OrderItemRequest;
+import com.tonyghouse.restaurant_service.dto.OrderPageResponse;
 import com.tonyghouse.restaurant_service.dto.OrderResponse;
 import com.tonyghouse.restaurant_service.dto.PriceBreakdown;
 import com.tonyghouse.restaurant_service.dto.PricePreviewResponse;
+import com.tonyghouse.restaurant_service.dto.ResolvedCart;
+import com.tonyghouse.restaurant_service.dto.ResolvedOrderLine;
 import com.tonyghouse.restaurant_service.entity.Branch;
-import com.tonyghouse.restaurant_service.entity.Combo;
-import com.tonyghouse.restaurant_service.entity.MenuItem;
 import com.tonyghouse.restaurant_service.entity.Order;
+import com.tonyghouse.restaurant_service.entity.OrderIdempotencyKey;
 import com.tonyghouse.restaurant_service.entity.OrderItem;
 import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.OrderCursor;
 import com.tonyghouse.restaurant_service.mapper.OrderMapper;
 import com.tonyghouse.restaurant_service.repo.BranchRepository;
-import com.tonyghouse.restaurant_service.repo.ComboRepository;
-import com.tonyghouse.restaurant_service.repo.MenuItemRepository;
-import com.tonyghouse.restaurant_service.repo.OrderItemRepository;
+import com.tonyghouse.restaurant_service.repo.OrderIdempotencyKeyRepository;
 import com.tonyghouse.restaurant_service.repo.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +31,16 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -36,12 +49,16 @@ import java.util.UUID;
 @Slf4j
 public class OrderServiceImpl implements OrderService {
 
+    private static final int MAX_BULK_ORDERS = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
+    private final OrderIdempotencyKeyRepository idempotencyKeyRepository;
     private final OrderPricingService pricingService;
-    private final MenuItemRepository menuItemRepository;
-    private final ComboRepository comboRepository;
+    private final OrderCatalogService catalogService;
     private final BranchRepository branchRepository;
+    private final PricePreviewCacheService previewCacheService;
+    private final KitchenQueueService kitchenQueueService;
     private final Clock clock;
 
     @Override
@@ -49,49 +66,145 @@ public class OrderServiceImpl implements OrderService {
         log.info("Creating order. branchId={} customerName={} itemsCount={}",
                 request.getBranchId(), request.getCustomerName(), request.getItems()!=null ? request.getItems().size() : null);
 
+        List<ResolvedOrderLine> lines =
+                catalogService.resolve(request.getBranchId(), request.getItems());
+
         PriceBreakdown breakdown =
-                pricingService.calculate(request.getItems());
+                pricingService.calculateResolved(lines);
         log.debug("Price breakdown calculated. grandTotal={} tax={} itemsTotal={}",
                 breakdown.getGrandTotal(), breakdown.getTax(), breakdown.getItemsTotal());
 
 
-        Order order = new Order();
         UUID branchId = request.getBranchId();
         Branch branch = branchRepository.findById(branchId)
                 .orElseThrow(() -> new RestoRestaurantException("Branch not found", HttpStatus.NOT_FOUND));
         log.debug("Branch found. branchId={}", branchId);
 
+        Order order = buildOrder(request, branch, lines, breakdown, Instant.now(clock));
+
+        // items are cascaded from Order and flushed as one JDBC batch
+        order = orderRepository.save(order);
+        log.info("Order created. orderId={} totalAmount={}", order.getId(), order.getTotalAmount());
+        kitchenQueueService.orderCreated(order);
+
+        log.info("Order creation complete. orderId={} itemsCount={} grandTotal={}",
+                order.getId(), request.getItems().size(), breakdown.getGrandTotal());
+        return OrderMapper.toResponse(order, breakdown);
+    }
+
+    @Override
+    public OrderResponse create(CreateOrderRequest request, OrderIdempotencyKey unclaimed) {
+        // flushed first: a concurrent duplicate waits on the unique index here and
+        // fails once this transaction commits, before doing any pricing work
+        OrderIdempotencyKey claim = idempotencyKeyRepository.claim(unclaimed, Instant.now(clock));
+        log.debug("Idempotency key claimed. idempotencyKey={}", claim.getIdempotencyKey());
+
+        OrderResponse response = create(request);
+
+        claim.setOrderId(response.getOrderId());
+        claim.setResponse(OrderMapper.toJson(response));
+        return response;
+    }
 
+    @Override
+    public BulkOrderResponse createBulk(List<CreateOrderRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new RestoRestaurantException("No orders to create", HttpStatus.BAD_REQUEST);
+        }
+        if (requests.size() > MAX_BULK_ORDERS) {
+            throw new RestoRestaurantException(
+                    "Too many orders in one batch, max " + MAX_BULK_ORDERS, HttpStatus.BAD_REQUEST);
+        }
+        log.info("Creating bulk orders. count={}", requests.size());
+
+        List<ResolvedCart> carts = catalogService.resolveAll(requests);
+
+        Set<UUID> branchIds = new HashSet<>();
+        for (CreateOrderRequest request : requests) {
+            if (request.getBranchId() != null) {
+                branchIds.add(request.getBranchId());
+            }
+        }
+        Map<UUID, Branch> branches = new HashMap<>();
+        branchRepository.findAllById(branchIds).forEach(b -> branches.put(b.getId(), b));
+
+        Instant now = Instant.now(clock);
+        List<Order> orders = new ArrayList<>(requests.size());
+        List<BulkOrderResult> results = new ArrayList<>(requests.size());
+        Map<BulkOrderResult, Order> created = new IdentityHashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateOrderRequest request = requests.get(i);
+            ResolvedCart cart = carts.get(i);
+
+            BulkOrderResult result = new BulkOrderResult();
+            result.setIndex(i);
+            results.add(result);
+
+            if (cart.isFailed()) {
+                fail(result, cart.error().getMessage());
+                continue;
+            }
+            Branch branch = branches.get(request.getBranchId());
+            if (branch == null) {
+                fail(result, "Branch not found");
+                continue;
+            }
+
+            PriceBreakdown breakdown = pricingService.calculateResolved(cart.lines());
+            Order order = buildOrder(request, branch, cart.lines(), breakdown, now);
+            orders.add(order);
+            created.put(result, order);
+
+            result.setStatus(OrderStatus.CREATED.name());
+            result.setBreakdown(breakdown);
+        }
+
+        // one saveAll: orders and their cascaded items go out as JDBC batches
+        orderRepository.saveAll(orders);
+        created.forEach((result, order) -> result.setOrderId(order.getId()));
+        orders.forEach(kitchenQueueService::orderCreated);
+
+        BulkOrderResponse response = new BulkOrderResponse();
+        response.setCreated(orders.size());
+        response.setFailed(requests.size() - orders.size());
+        response.setResults(results);
+
+        log.info("Bulk orders created. requested={} created={} failed={}",
+                requests.size(), response.getCreated(), response.getFailed());
+        return response;
+    }
+
+    private static void fail(BulkOrderResult result, String error) {
+        log.warn("Bulk order rejected. index={} error={}", result.getIndex(), error);
+        result.setStatus("FAILED");
+        result.setError(error);
+    }
+
+    private Order buildOrder(CreateOrderRequest request, Branch branch, List<ResolvedOrderLine> lines,
+                             PriceBreakdown breakdown, Instant createdAt) {
+        Order order = new Order();
         order.setBranch(branch);
         order.setCustomerName(request.getCustomerName());
         order.setCustomerPhone(request.getCustomerPhone());
         order.setStatus(OrderStatus.CREATED);
         order.setTotalAmount(breakdown.getGrandTotal());
-        order.setCreatedAt(Instant.now(clock));
-
-        order = orderRepository.save(order);
-        log.info("Order created. orderId={} totalAmount={}", order.getId(), order.getTotalAmount());
+        order.setItemsTotal(breakdown.getItemsTotal());
+        order.setTaxAmount(breakdown.getTax());
+        order.setDeliveryCharge(breakdown.getDeliveryCharge());
+        order.setCreatedAt(createdAt);
 
-
-        for (OrderItemRequest req : request.getItems()) {
+        for (ResolvedOrderLine line : lines) {
             log.debug("Processing order item. type={} id={} qty={}",
-                    req.getItemType(), req.getItemId(), req.getQuantity());
+                    line.itemType(), line.itemId(), line.quantity());
             OrderItem item = new OrderItem();
             item.setOrder(order);
-            item.setItemType(req.getItemType());
-            item.setQuantity(req.getQuantity());
-            item.setSpecialNotes(req.getSpecialNotes());
-
-            if ("ITEM".equals(req.getItemType())) {
-                MenuItem mi = menuItemRepository.findById(req.getItemId()).orElseThrow();
-                item.setItemName(mi.getName());
-                item.setUnitPrice(mi.getPrice());
-
-            } else {
-                Combo combo = comboRepository.findById(req.getItemId()).orElseThrow();
-                item.setItemName(combo.getName());
-                item.setUnitPrice(combo.getComboPrice());
-            }
+            item.setItemId(line.itemId());
+            item.setItemType(line.itemType());
+            item.setQuantity(line.quantity());
+            item.setSpecialNotes(line.specialNotes());
+            item.setItemName(line.itemName());
+            item.setUnitPrice(line.unitPrice());
 
             item.setTotalPrice(
                     item.getUnitPrice()
@@ -100,34 +213,81 @@ public class OrderServiceImpl implements OrderService {
             log.debug("Order item total calculated. itemName={} lineTotal={}",
                     item.getItemName(), item.getTotalPrice());
 
-            orderItemRepository.save(item);
+            order.getItems().add(item);
         }
-
-        log.info("Order creation complete. orderId={} itemsCount={} grandTotal={}",
-                order.getId(), request.getItems().size(), breakdown.getGrandTotal());
-        return OrderMapper.toResponse(order, breakdown);
+        return order;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderResponse get(UUID orderId) {
         log.debug("Fetching order. orderId={}", orderId);
 
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findDetailedById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found"));
-        log.debug("Order found. orderId={} totalAmount={}", orderId, order.getTotalAmount());
-        PriceBreakdown breakdown = new PriceBreakdown();
-        breakdown.setGrandTotal(order.getTotalAmount());
-        return OrderMapper.toResponse(order, breakdown);
+        log.debug("Order found. orderId={} totalAmount={} itemsCount={}",
+                orderId, order.getTotalAmount(), order.getItems().size());
+        return OrderMapper.toResponse(order);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPageResponse listByBranch(UUID branchId, LocalDate date, Set<OrderStatus> statuses,
+                                          String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RestoRestaurantException(
+                    "Page size must be between 1 and " + MAX_PAGE_SIZE, HttpStatus.BAD_REQUEST);
+        }
+        LocalDate day = date != null ? date : LocalDate.now(clock);
+        Instant from = day.atStartOfDay(clock.getZone()).toInstant();
+        Instant to = day.plusDays(1).atStartOfDay(clock.getZone()).toInstant();
+        Set<OrderStatus> filter = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(OrderStatus.class)
+                : statuses;
+        log.debug("Listing orders. branchId={} day={} statuses={} cursor={} size={}",
+                branchId, day, filter, cursor, size);
+
+        // one extra row tells whether another page exists, without a count query
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Order> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderRepository.findBranchPage(branchId, from, to, filter, limit);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            rows = orderRepository.findBranchPageAfter(
+                    branchId, from, to, filter, after.createdAt(), after.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<Order> page = hasMore ? rows.subList(0, size) : rows;
+
+        OrderPageResponse response = new OrderPageResponse();
+        response.setOrders(page.stream().map(OrderMapper::toSummary).toList());
+        if (hasMore) {
+            Order last = page.get(page.size() - 1);
+            response.setNextCursor(new OrderCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+        log.debug("Orders listed. branchId={} returned={} hasMore={}", branchId, page.size(), hasMore);
+        return response;
     }
 
     @Override
     public PricePreviewResponse preview(CreateOrderRequest request) {
         log.debug("Previewing order price. branchId={} itemsCount={}",
                 request.getBranchId(), request.getItems()!=null ? request.getItems().size() : 0);
+
+        Optional<PricePreviewResponse> cached = previewCacheService.get(request);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        // read before pricing, so a price change that lands meanwhile keeps this preview out of the cache
+        long stamp = previewCacheService.stamp(request);
         PricePreviewResponse response = new PricePreviewResponse();
         response.setBreakdown(
-                pricingService.calculate(request.getItems())
+                pricingService.calculate(request.getBranchId(), request.getItems())
         );
+        previewCacheService.put(request, response, stamp);
         return response;
     }
 
@@ -1,5 +1,7 @@
 package com.tonyghouse.restaurant_service.service;
 
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.BulkTransitionResponse;
 import com.tonyghouse.restaurant_service.dto.OrderStatusHistoryResponse;
 
 import java.util.List;
@@ -13,9 +15,13 @@ public interface OrderStateService {
 
     void markReady(UUID orderId);
 
+    void markPickedUp(UUID orderId);
+
     void markDelivered(UUID orderId);
 
     void cancel(UUID orderId);
 
+    BulkTransitionResponse transitionAll(List<UUID> orderIds, OrderStatus target);
+
     List<OrderStatusHistoryResponse> history(UUID orderId);
 }
@@ -1,13 +1,15 @@
 package com.tonyghouse.restaurant_service.service;
 
 import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.constants.OrderTransitionGuard;
+import com.tonyghouse.restaurant_service.dto.BulkTransitionResponse;
+import com.tonyghouse.restaurant_service.dto.BulkTransitionResult;
 import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
 import com.tonyghouse.restaurant_service.dto.OrderStatusHistoryResponse;
 import com.tonyghouse.restaurant_service.entity.Order;
 import com.tonyghouse.restaurant_service.entity.OrderStatusHistory;
 import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
-import com.tonyghouse.restaurant_service.helper.OrderStateRules;
-import com.tonyghouse.restaurant_service.publisher.OrderEventPublisher;
+import com.tonyghouse.restaurant_service.helper.OrderWorkflow;
 import com.tonyghouse.restaurant_service.repo.OrderRepository;
 import com.tonyghouse.restaurant_service.repo.OrderStatusHistoryRepository;
 import lombok.RequiredArgsConstructor;
@@ -18,7 +20,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -27,10 +35,17 @@ import java.util.UUID;
 @Slf4j
 public class OrderStateServiceImpl implements OrderStateService {
 
+    static final int MAX_BULK_TRANSITIONS = 200;
+    static final String UPDATED = "UPDATED";
+    static final String UNCHANGED = "UNCHANGED";
+    static final String FAILED = "FAILED";
+
     private final OrderRepository orderRepository;
     private final OrderStatusHistoryRepository historyRepository;
     private final Clock clock;
-    private final OrderEventPublisher orderEventPublisher;
+    private final OrderOutboxService outboxService;
+    private final OrderHistoryArchiveService archiveService;
+    private final OrderWorkflowService workflowService;
 
 
     @Override
@@ -51,6 +66,12 @@ public class OrderStateServiceImpl implements OrderStateService {
         transition(orderId, OrderStatus.READY);
     }
 
+    @Override
+    public void markPickedUp(UUID orderId) {
+        log.info("Picked up requested. orderId={}", orderId);
+        transition(orderId, OrderStatus.PICKED_UP);
+    }
+
     @Override
     public void markDelivered(UUID orderId) {
         log.info("Delivered requested. orderId={}", orderId);
@@ -63,33 +84,115 @@ public class OrderStateServiceImpl implements OrderStateService {
         transition(orderId, OrderStatus.CANCELLED);
     }
 
-    private void transition(UUID orderId, OrderStatus target) {
-        log.debug("Transition started. orderId={} targetStatus={}", orderId, target);
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RestoRestaurantException("Order not found", HttpStatus.NOT_FOUND));
+    @Override
+    public BulkTransitionResponse transitionAll(List<UUID> orderIds, OrderStatus target) {
+        if (target == null) {
+            throw new RestoRestaurantException("Target status is required", HttpStatus.BAD_REQUEST);
+        }
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new RestoRestaurantException("No orders to transition", HttpStatus.BAD_REQUEST);
+        }
+        if (orderIds.size() > MAX_BULK_TRANSITIONS) {
+            throw new RestoRestaurantException(
+                    "Too many orders in one batch, max " + MAX_BULK_TRANSITIONS, HttpStatus.BAD_REQUEST);
+        }
+        log.info("Bulk transition started. count={} targetStatus={}", orderIds.size(), target);
 
-        OrderStatus current = order.getStatus();
+        // one locking read; single transitions racing with this batch wait for it and then see 0 rows
+        Map<UUID, Order> orders = new HashMap<>();
+        orderRepository.lockAllById(new LinkedHashSet<>(orderIds))
+                .forEach(o -> orders.put(o.getId(), o));
 
-        // idempotency
-        if (current == target) {
-            log.info("Transition skipped (idempotent). orderId={} status={}", orderId, current);
-            return;
-        }
+        Instant now = Instant.now(clock);
+        List<BulkTransitionResult> results = new ArrayList<>(orderIds.size());
+        List<OrderStatusHistory> histories = new ArrayList<>();
+        int updated = 0;
+        int unchanged = 0;
 
-        if (!OrderStateRules.canTransition(current, target)) {
-            log.warn("Invalid transition attempted. orderId={} from={} to={}",
-                    orderId, current, target);
-            throw new RestoRestaurantException(
-                    "Invalid transition: " + current + " → " + target, HttpStatus.BAD_REQUEST);
+        for (UUID orderId : orderIds) {
+            BulkTransitionResult result = new BulkTransitionResult();
+            result.setOrderId(orderId);
+            results.add(result);
+
+            Order order = orders.get(orderId);
+            if (order == null) {
+                fail(result, "Order not found");
+                continue;
+            }
+            OrderStatus current = order.getStatus();
+            result.setFromStatus(current);
+
+            // already there (or listed twice) is a no-op, like a repeated click
+            if (current == target) {
+                result.setOutcome(UNCHANGED);
+                unchanged++;
+                continue;
+            }
+            OrderWorkflow workflow = workflowService.forBranch(order.getBranch().getId());
+            if (!workflow.canTransition(current, target)) {
+                fail(result, "Invalid transition: " + current + " → " + target);
+                continue;
+            }
+            OrderTransitionGuard guard = workflow.guard(current, target);
+            if (guard != null && !guard.allows(order)) {
+                fail(result, guardMessage(current, target, guard));
+                continue;
+            }
+
+            // managed entity: the status UPDATEs are flushed as one JDBC batch
+            order.setPreviousStatus(current);
+            order.setStatus(target);
+
+            OrderStatusHistory history = new OrderStatusHistory();
+            history.setOrder(order);
+            history.setOldStatus(current);
+            history.setNewStatus(target);
+            history.setChangedAt(now);
+            histories.add(history);
+
+            OrderStatusChangedEvent event = new OrderStatusChangedEvent(orderId, current, target, now);
+            outboxService.enqueue(event);
+
+            result.setOutcome(UPDATED);
+            updated++;
         }
 
-        order.setStatus(target);
-        orderRepository.save(order);
-        log.debug("Order saved with new status. orderId={}", orderId);
+        historyRepository.saveAll(histories);
+
+        BulkTransitionResponse response = new BulkTransitionResponse();
+        response.setUpdated(updated);
+        response.setUnchanged(unchanged);
+        response.setFailed(orderIds.size() - updated - unchanged);
+        response.setResults(results);
+
+        log.info("Bulk transition complete. targetStatus={} updated={} unchanged={} failed={}",
+                target, updated, unchanged, response.getFailed());
+        return response;
+    }
+
+    private static void fail(BulkTransitionResult result, String error) {
+        result.setOutcome(FAILED);
+        result.setError(error);
+    }
+
+    private static String guardMessage(OrderStatus from, OrderStatus to, OrderTransitionGuard guard) {
+        return "Transition " + from + " → " + to + " requires " + guard;
+    }
+
+    private void transition(UUID orderId, OrderStatus target) {
+        log.debug("Transition started. orderId={} targetStatus={}", orderId, target);
+
+        OrderWorkflow workflow = workflowService.forOrder(orderId);
+        OrderStatus current = compareAndSet(orderId, workflow, target);
+        if (current == null) {
+            rejectTransition(orderId, target);
+            return;
+        }
+        log.debug("Order status updated. orderId={} from={} to={}", orderId, current, target);
 
 
         OrderStatusHistory history = new OrderStatusHistory();
-        history.setOrder(order);
+        history.setOrder(orderRepository.getReferenceById(orderId));
         history.setOldStatus(current);
         history.setNewStatus(target);
         history.setChangedAt(Instant.now(clock));
@@ -97,20 +200,74 @@ public class OrderStateServiceImpl implements OrderStateService {
         historyRepository.save(history);
         log.debug("Status history recorded. orderId={} old={} new={} at={}",
                 orderId, current, target, history.getChangedAt());
-        orderEventPublisher.publish(
-                new OrderStatusChangedEvent(
-                        order.getId(),
-                        current,
-                        target,
-                        history.getChangedAt()
-                )
+        OrderStatusChangedEvent event = new OrderStatusChangedEvent(
+                orderId,
+                current,
+                target,
+                history.getChangedAt()
         );
+        // same transaction as the history row; the relay sends it to Kafka after commit
+        outboxService.enqueue(event);
+    }
+
+    /*
+    One conditional UPDATE from any source status the branch workflow allows, returning
+    the status the order moved from, or null if it matched none. With a single source
+    that is the status; with several (e.g. CANCELLED) the replaced status is read back,
+    and only once the update has succeeded.
+     */
+    private OrderStatus compareAndSet(UUID orderId, OrderWorkflow workflow, OrderStatus target) {
+        if (workflow.isGuarded(target)) {
+            return guardedCompareAndSet(orderId, workflow, target);
+        }
+        List<OrderStatus> sources = workflow.sourcesOf(target);
+        if (sources.isEmpty() || orderRepository.transitionStatus(orderId, sources, target) == 0) {
+            return null;
+        }
+        return sources.size() == 1
+                ? sources.get(0)
+                : orderRepository.findPreviousStatusById(orderId).orElseThrow();
+    }
+
+    // a guard needs the order, so read it, check, then update from the status that was read
+    private OrderStatus guardedCompareAndSet(UUID orderId, OrderWorkflow workflow, OrderStatus target) {
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null || !workflow.canTransition(order.getStatus(), target)) {
+            return null;
+        }
+        OrderStatus from = order.getStatus();
+        OrderTransitionGuard guard = workflow.guard(from, target);
+        if (guard != null && !guard.allows(order)) {
+            log.warn("Transition blocked by guard. orderId={} from={} to={} guard={}",
+                    orderId, from, target, guard);
+            throw new RestoRestaurantException(guardMessage(from, target, guard), HttpStatus.BAD_REQUEST);
+        }
+        return orderRepository.transitionStatus(orderId, List.of(from), target) == 1 ? from : null;
+    }
+
+    // nothing was updated: work out why, only on this cold path is the order read
+    private void rejectTransition(UUID orderId, OrderStatus target) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RestoRestaurantException("Order not found", HttpStatus.NOT_FOUND));
+
+        OrderStatus current = order.getStatus();
+
+        // idempotency
+        if (current == target) {
+            log.info("Transition skipped (idempotent). orderId={} status={}", orderId, current);
+            return;
+        }
+
+        log.warn("Invalid transition attempted. orderId={} from={} to={}",
+                orderId, current, target);
+        throw new RestoRestaurantException(
+                "Invalid transition: " + current + " → " + target, HttpStatus.BAD_REQUEST);
     }
 
     @Override
     public List<OrderStatusHistoryResponse> history(UUID orderId) {
         log.debug("Fetching order status history. orderId={}", orderId);
-        return historyRepository
+        List<OrderStatusHistoryResponse> recent = historyRepository
                 .findByOrderIdOrderByChangedAtAsc(orderId)
                 .stream()
                 .map(h -> new OrderStatusHistoryResponse(
@@ -118,5 +275,30 @@ public class OrderStateServiceImpl implements OrderStateService {
                         h.getNewStatus(),
                         h.getChangedAt()))
                 .toList();
+
+        // every order leaves CREATED first: if that row is here, nothing was archived
+        if (!recent.isEmpty() && recent.get(0).getOldStatus() == OrderStatus.CREATED) {
+            return recent;
+        }
+
+        // nothing archived yet, or the order is newer than every archived month
+        Optional<Instant> archivedThrough = archiveService.archivedThrough();
+        if (archivedThrough.isEmpty()) {
+            return recent;
+        }
+        Optional<Instant> createdAt = orderRepository.findCreatedAtById(orderId);
+        if (createdAt.isEmpty() || !createdAt.get().isBefore(archivedThrough.get())) {
+            return recent;
+        }
+        List<OrderStatusHistoryResponse> archived = archiveService.findArchived(orderId, createdAt.get());
+        if (archived.isEmpty()) {
+            return recent;
+        }
+        log.debug("Order history read from archive. orderId={} archivedRows={}", orderId, archived.size());
+
+        List<OrderStatusHistoryResponse> merged = new ArrayList<>(archived);
+        merged.addAll(recent);
+        merged.sort(Comparator.comparing(OrderStatusHistoryResponse::getChangedAt));
+        return merged;
     }
 }
@@ -0,0 +1,18 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+public interface OrderStatusStreamService {
+
+    SseEmitter subscribeOrder(UUID orderId);
+
+    SseEmitter subscribeBranch(UUID branchId);
+
+    /*
+    Called for every event read from order.events, i.e. after the transition committed.
+     */
+    void statusChanged(OrderStatusChangedEvent event);
+}
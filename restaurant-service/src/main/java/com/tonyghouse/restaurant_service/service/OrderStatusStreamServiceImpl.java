@@ -0,0 +1,185 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.entity.Order;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.repo.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes status changes to SSE subscribers of an order or a whole branch, replacing
+ * history polling. Fed from order.events by {@link LiveOrderEventListener}, so a
+ * subscriber hears about transitions made on any instance. An idle subscription is a
+ * parked async request, not a thread; sends run on virtual threads so a slow client
+ * never holds up the consumer. Each subscriber has its own send queue, drained by one
+ * thread at a time, so a client sees its events in the order they were pushed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderStatusStreamServiceImpl implements OrderStatusStreamService {
+
+    static final long TIMEOUT_MS = 30 * 60 * 1000L;
+    static final String STATUS_EVENT = "status";
+
+    private final OrderRepository orderRepository;
+    private final KitchenQueueService kitchenQueueService;
+
+    private final Map<UUID, Set<Subscriber>> orderSubscribers = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Subscriber>> branchSubscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Override
+    public SseEmitter subscribeOrder(UUID orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RestoRestaurantException("Order not found", HttpStatus.NOT_FOUND));
+
+        Subscriber subscriber = new Subscriber(new SseEmitter(TIMEOUT_MS), senders);
+        // current status first, so a client that reconnects has not missed anything; it is queued
+        // before the subscriber is registered, so no pushed change can be sent ahead of it
+        subscriber.send(statusEvent(new OrderStatusChangedEvent(orderId, null, order.getStatus(), null)));
+        register(orderSubscribers, orderId, subscriber);
+        log.debug("Order stream subscribed. orderId={}", orderId);
+        return subscriber.emitter();
+    }
+
+    @Override
+    public SseEmitter subscribeBranch(UUID branchId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(TIMEOUT_MS), senders);
+        register(branchSubscribers, branchId, subscriber);
+        log.debug("Branch stream subscribed. branchId={}", branchId);
+        return subscriber.emitter();
+    }
+
+    @Override
+    public void statusChanged(OrderStatusChangedEvent event) {
+        Set<Subscriber> forOrder = orderSubscribers.get(event.orderId());
+        // the branch is only looked up while a kitchen screen is listening
+        UUID branchId = branchSubscribers.isEmpty() ? null : branchOf(event.orderId());
+
+        push(forOrder, event);
+        if (branchId != null) {
+            push(branchSubscribers.get(branchId), event);
+        }
+    }
+
+    // a comment line every 25s keeps idle connections open through proxies and load balancers
+    @Scheduled(fixedDelay = 25_000)
+    public void heartbeat() {
+        orderSubscribers.values().forEach(this::ping);
+        branchSubscribers.values().forEach(this::ping);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private UUID branchOf(UUID orderId) {
+        return kitchenQueueService.branchOf(orderId)
+                .or(() -> orderRepository.findBranchIdById(orderId))
+                .orElse(null);
+    }
+
+    private static void register(Map<UUID, Set<Subscriber>> subscribers, UUID key, Subscriber subscriber) {
+        SseEmitter emitter = subscriber.emitter();
+        Runnable remove = () -> subscribers.computeIfPresent(key, (k, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+    }
+
+    private static void push(Set<Subscriber> subscribers, OrderStatusChangedEvent event) {
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.send(statusEvent(event));
+        }
+    }
+
+    private void ping(Set<Subscriber> subscribers) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.send(SseEmitter.event().comment("keepalive"));
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder statusEvent(OrderStatusChangedEvent event) {
+        return SseEmitter.event().name(STATUS_EVENT).data(event);
+    }
+
+    /*
+     * One client's connection and its pending sends. Sends are queued and drained by at most
+     * one virtual thread at a time, so two changes of an order pushed in one poll cannot
+     * overtake each other, and a slow client only delays its own queue.
+     */
+    static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Executor senders;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Executor senders) {
+            this.emitter = emitter;
+            this.senders = senders;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        void send(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            pending.add(event);
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder next;
+                while (!closed && (next = pending.poll()) != null) {
+                    try {
+                        emitter.send(next);
+                    } catch (IOException | IllegalStateException e) {
+                        // client went away; completing triggers the removal callback
+                        closed = true;
+                        emitter.completeWithError(e);
+                    }
+                }
+                if (closed) {
+                    pending.clear();
+                }
+                draining.set(false);
+                // an event queued after the last poll but before the flag was cleared is still ours to send
+            } while (!closed && !pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.OrderWorkflowRequest;
+import com.tonyghouse.restaurant_service.dto.OrderWorkflowResponse;
+import com.tonyghouse.restaurant_service.helper.OrderWorkflow;
+
+import java.util.UUID;
+
+public interface OrderWorkflowService {
+
+    OrderWorkflow forBranch(UUID branchId);
+
+    // workflow of the order's branch, the default one if the order is unknown
+    OrderWorkflow forOrder(UUID orderId);
+
+    OrderWorkflowResponse get(UUID branchId);
+
+    OrderWorkflowResponse update(UUID branchId, OrderWorkflowRequest request);
+
+    void reloadChanged();
+}
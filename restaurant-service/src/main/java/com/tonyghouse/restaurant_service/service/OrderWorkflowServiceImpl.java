@@ -0,0 +1,211 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.OrderWorkflowRequest;
+import com.tonyghouse.restaurant_service.dto.OrderWorkflowResponse;
+import com.tonyghouse.restaurant_service.entity.BranchWorkflow;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.OrderStateRules;
+import com.tonyghouse.restaurant_service.helper.OrderWorkflow;
+import com.tonyghouse.restaurant_service.helper.TransactionHooks;
+import com.tonyghouse.restaurant_service.mapper.OrderWorkflowMapper;
+import com.tonyghouse.restaurant_service.repo.BranchRepository;
+import com.tonyghouse.restaurant_service.repo.BranchWorkflowRepository;
+import com.tonyghouse.restaurant_service.repo.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the compiled {@link OrderWorkflow} of every branch seen so far in memory.
+ * An update swaps the branch's entry after commit; other instances pick the change up
+ * from the row id and version column on their next poll.
+ *
+ * <p>Updates are optimistic: the version is bumped with a compare-and-set, so of two
+ * concurrent updates of one branch the second fails with 409 instead of overwriting
+ * the first.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderWorkflowServiceImpl implements OrderWorkflowService {
+
+    private final BranchWorkflowRepository workflowRepository;
+    private final BranchRepository branchRepository;
+    private final OrderRepository orderRepository;
+    private final KitchenQueueService kitchenQueueService;
+    private final Clock clock;
+
+    private final Map<UUID, Cached> workflows = new ConcurrentHashMap<>();
+
+    @Override
+    public OrderWorkflow forBranch(UUID branchId) {
+        if (branchId == null) {
+            return OrderStateRules.DEFAULT;
+        }
+        Cached cached = workflows.get(branchId);
+        if (cached != null) {
+            return cached.workflow();
+        }
+        // queried outside the map, so no bin stays locked for a round trip; a workflow put
+        // meanwhile, e.g. by an update committed on this instance, is newer and is kept
+        Cached loaded = load(branchId);
+        Cached raced = workflows.putIfAbsent(branchId, loaded);
+        return (raced != null ? raced : loaded).workflow();
+    }
+
+    @Override
+    public OrderWorkflow forOrder(UUID orderId) {
+        // open orders are indexed by the kitchen queue, so this is usually a map read
+        return kitchenQueueService.branchOf(orderId)
+                .or(() -> orderRepository.findBranchIdById(orderId))
+                .map(this::forBranch)
+                .orElse(OrderStateRules.DEFAULT);
+    }
+
+    @Override
+    public OrderWorkflowResponse get(UUID branchId) {
+        requireBranch(branchId);
+        return OrderWorkflowMapper.toResponse(branchId, forBranch(branchId));
+    }
+
+    @Override
+    @Transactional
+    public OrderWorkflowResponse update(UUID branchId, OrderWorkflowRequest request) {
+        requireBranch(branchId);
+        List<OrderWorkflow.Transition> transitions = request == null || request.getTransitions() == null
+                ? List.of()
+                : request.getTransitions().stream().map(OrderWorkflowMapper::toTransition).toList();
+
+        Optional<BranchWorkflow> existing = workflowRepository.findWithTransitionsByBranchId(branchId);
+        long version = existing.map(BranchWorkflow::getVersion).orElse(0L) + 1;
+
+        // compiled before anything is written: an invalid definition never reaches the table
+        OrderWorkflow compiled;
+        try {
+            compiled = OrderWorkflow.compile(version, transitions);
+        } catch (IllegalArgumentException e) {
+            log.warn("Workflow rejected. branchId={} reason={}", branchId, e.getMessage());
+            throw new RestoRestaurantException(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        Instant now = Instant.now(clock);
+        BranchWorkflow workflow = existing.isPresent()
+                ? bumpVersion(existing.get(), now)
+                : create(branchId, now);
+        if (!workflow.getTransitions().isEmpty()) {
+            // Hibernate inserts before it deletes; flush the removals first or the unique key trips
+            workflow.getTransitions().clear();
+            workflowRepository.saveAndFlush(workflow);
+        }
+        for (OrderWorkflow.Transition transition : compiled.transitions()) {
+            workflow.getTransitions().add(OrderWorkflowMapper.toEntity(workflow, transition));
+        }
+        workflowRepository.save(workflow);
+
+        UUID workflowId = workflow.getId();
+        TransactionHooks.afterCommit(() -> workflows.put(branchId, new Cached(compiled, workflowId)));
+        log.info("Workflow updated. branchId={} version={} transitions={}",
+                branchId, version, compiled.transitions().size());
+        return OrderWorkflowMapper.toResponse(branchId, compiled);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${order.workflow.reload-interval-ms:30000}")
+    public void reloadChanged() {
+        if (workflows.isEmpty()) {
+            return;
+        }
+        Map<UUID, BranchWorkflowRepository.WorkflowVersion> stored = new HashMap<>();
+        workflowRepository.findAllVersions()
+                .forEach(v -> stored.put(v.getBranchId(), v));
+
+        int reloaded = 0;
+        for (Map.Entry<UUID, Cached> entry : workflows.entrySet()) {
+            if (!entry.getValue().matches(stored.get(entry.getKey()))) {
+                // replace, not put: an update committed here meanwhile is newer than this load
+                workflows.replace(entry.getKey(), entry.getValue(), load(entry.getKey()));
+                reloaded++;
+            }
+        }
+        if (reloaded > 0) {
+            log.info("Workflows reloaded. count={}", reloaded);
+        }
+    }
+
+    private BranchWorkflow bumpVersion(BranchWorkflow workflow, Instant now) {
+        long expected = workflow.getVersion();
+        if (workflowRepository.bumpVersion(workflow.getId(), expected, now) == 0) {
+            log.warn("Concurrent workflow update rejected. branchId={} version={}", workflow.getBranchId(), expected);
+            throw new RestoRestaurantException(
+                    "Workflow was changed by another request, reload and retry", HttpStatus.CONFLICT);
+        }
+        // the bulk update bypassed the persistence context; keep the entity in line with the row
+        workflow.setVersion(expected + 1);
+        workflow.setUpdatedAt(now);
+        return workflow;
+    }
+
+    private BranchWorkflow create(UUID branchId, Instant now) {
+        BranchWorkflow created = new BranchWorkflow();
+        created.setBranchId(branchId);
+        created.setVersion(1);
+        created.setUpdatedAt(now);
+        try {
+            // flushed here so a concurrent first creation trips the unique key inside this call
+            return workflowRepository.saveAndFlush(created);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Concurrent workflow creation rejected. branchId={}", branchId);
+            throw new RestoRestaurantException(
+                    "Workflow was changed by another request, reload and retry", HttpStatus.CONFLICT);
+        }
+    }
+
+    private Cached load(UUID branchId) {
+        return workflowRepository.findWithTransitionsByBranchId(branchId)
+                .map(workflow -> {
+                    try {
+                        return new Cached(OrderWorkflowMapper.compile(workflow), workflow.getId());
+                    } catch (IllegalArgumentException e) {
+                        // only reachable if the table was edited by hand
+                        log.error("Stored workflow is invalid, using the default. branchId={} reason={}",
+                                branchId, e.getMessage());
+                        return new Cached(OrderStateRules.DEFAULT, workflow.getId());
+                    }
+                })
+                .orElse(new Cached(OrderStateRules.DEFAULT, null));
+    }
+
+    private void requireBranch(UUID branchId) {
+        if (!branchRepository.existsById(branchId)) {
+            throw new RestoRestaurantException("Branch not found", HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /*
+    A compiled workflow and the row it came from (null for the default). The row id is
+    compared along with the version: a workflow deleted with its branch and created
+    again starts over at version 1.
+     */
+    private record Cached(OrderWorkflow workflow, UUID workflowId) {
+
+        boolean matches(BranchWorkflowRepository.WorkflowVersion stored) {
+            if (stored == null) {
+                return workflowId == null;
+            }
+            return stored.getId().equals(workflowId) && stored.getVersion() == workflow.version();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.helper.OrderEventRecords;
+import com.tonyghouse.restaurant_service.publisher.OrderEventPublisher;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+Feeds order.events into the prep time analytics and flushes them on a timer.
+Offsets are committed per batch while samples wait in memory for the next flush, so
+a crash loses at most one flush interval of samples; a clean shutdown flushes first.
+ */
+@Component
+@ConditionalOnProperty(name = "order.analytics.prep-time.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PrepTimeAnalyticsListener {
+
+    private final PrepTimeAnalyticsService analyticsService;
+
+    @KafkaListener(
+            id = "prep-time-analytics",
+            topics = OrderEventPublisher.TOPIC,
+            containerFactory = "prepTimeListenerContainerFactory")
+    public void onEvents(List<ConsumerRecord<String, byte[]>> records) {
+        List<OrderStatusChangedEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            try {
+                events.add(OrderEventRecords.decode(record));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Unreadable order event skipped. partition={} offset={}",
+                        record.partition(), record.offset(), e);
+            }
+        }
+        analyticsService.record(events);
+    }
+
+    @Scheduled(fixedDelayString = "${order.analytics.prep-time.flush-interval-ms:60000}")
+    public void flush() {
+        try {
+            analyticsService.flush();
+        } catch (Exception e) {
+            log.error("Prep time flush failed, retrying on next tick", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,16 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.dto.PrepTimeStatsResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface PrepTimeAnalyticsService {
+
+    void record(List<OrderStatusChangedEvent> events);
+
+    void flush();
+
+    PrepTimeStatsResponse stats(UUID branchId, int hours);
+}
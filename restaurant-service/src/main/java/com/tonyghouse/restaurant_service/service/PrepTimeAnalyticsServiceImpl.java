@@ -0,0 +1,253 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.dto.PrepTimeStat;
+import com.tonyghouse.restaurant_service.dto.PrepTimeStatsResponse;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.PrepTimeHistogram;
+import com.tonyghouse.restaurant_service.repo.OrderRepository;
+import com.tonyghouse.restaurant_service.repo.OrderStatusHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Actual prep time per order, ACCEPTED to READY, joined with the order's branch and
+ * line items. Samples go into hourly {@link PrepTimeHistogram}s per branch and per
+ * item, held in memory until {@link #flush()} adds them to prep_time_histogram.
+ * Dine-in orders that skip READY count from ACCEPTED to DELIVERED.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrepTimeAnalyticsServiceImpl implements PrepTimeAnalyticsService {
+
+    static final String SCOPE_BRANCH = "BRANCH";
+    static final String SCOPE_ITEM = "ITEM";
+
+    private static final int MAX_STATS_HOURS = 24 * 31;
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusHistoryRepository historyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    // ACCEPTED seen on this instance and not yet READY; order events are keyed by order id,
+    // so both ends of an order normally arrive on the same partition and instance
+    private final Map<UUID, Instant> acceptedAt = new ConcurrentHashMap<>();
+
+    // guarded by this
+    private Map<Key, PrepTimeHistogram> pending = new HashMap<>();
+
+    @Value("${order.analytics.prep-time.max-open-hours:6}")
+    private long maxOpenHours = 6;
+
+    record Key(Instant windowStart, UUID branchId, String scope, UUID subjectId) {
+    }
+
+    record BucketRow(String scope, UUID subjectId, int bucket, long count) {
+    }
+
+    private record Completion(UUID orderId, Instant readyAt) {
+    }
+
+    @Override
+    public void record(List<OrderStatusChangedEvent> events) {
+        List<Completion> completions = new ArrayList<>();
+        for (OrderStatusChangedEvent event : events) {
+            if (event.newStatus() == OrderStatus.ACCEPTED) {
+                acceptedAt.put(event.orderId(), event.changedAt());
+            } else if (event.newStatus() == OrderStatus.CANCELLED) {
+                acceptedAt.remove(event.orderId());
+            } else if (endsPreparation(event)) {
+                completions.add(new Completion(event.orderId(), event.changedAt()));
+            }
+        }
+        if (completions.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Instant> started = new HashMap<>();
+        Set<UUID> missing = new HashSet<>();
+        Instant earliestReady = null;
+        for (Completion completion : completions) {
+            Instant accepted = acceptedAt.remove(completion.orderId());
+            if (accepted != null) {
+                started.put(completion.orderId(), accepted);
+            } else {
+                missing.add(completion.orderId());
+            }
+            if (earliestReady == null || completion.readyAt().isBefore(earliestReady)) {
+                earliestReady = completion.readyAt();
+            }
+        }
+        if (!missing.isEmpty()) {
+            // accepted before this instance owned the partition, or before a restart
+            historyRepository.findLatestEntriesByOrderIdIn(
+                            missing, OrderStatus.ACCEPTED, earliestReady.minus(maxOpenHours, ChronoUnit.HOURS))
+                    .forEach(h -> started.putIfAbsent(h.getOrderId(), h.getChangedAt()));
+        }
+
+        Map<UUID, UUID> branchOf = new HashMap<>();
+        Map<UUID, Set<UUID>> itemsOf = new HashMap<>();
+        orderRepository.findItemRefsByIdIn(started.keySet()).forEach(ref -> {
+            branchOf.put(ref.getOrderId(), ref.getBranchId());
+            Set<UUID> items = itemsOf.computeIfAbsent(ref.getOrderId(), id -> new HashSet<>());
+            if (ref.getItemId() != null) {
+                items.add(ref.getItemId());
+            }
+        });
+
+        int skipped = 0;
+        synchronized (this) {
+            for (Completion completion : completions) {
+                Instant accepted = started.get(completion.orderId());
+                UUID branchId = branchOf.get(completion.orderId());
+                if (accepted == null || branchId == null) {
+                    skipped++;
+                    continue;
+                }
+                Duration prepTime = Duration.between(accepted, completion.readyAt());
+                Instant window = completion.readyAt().truncatedTo(ChronoUnit.HOURS);
+
+                histogram(new Key(window, branchId, SCOPE_BRANCH, branchId)).add(prepTime);
+                // every item on the order waited as long as the order did
+                for (UUID itemId : itemsOf.get(completion.orderId())) {
+                    histogram(new Key(window, branchId, SCOPE_ITEM, itemId)).add(prepTime);
+                }
+            }
+        }
+        if (skipped > 0) {
+            log.debug("Prep time samples skipped, no accept time or branch. count={}", skipped);
+        }
+    }
+
+    @Override
+    public void flush() {
+        Map<Key, PrepTimeHistogram> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new HashMap<>();
+        }
+        evictStaleAccepts();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        batch.forEach((key, histogram) -> {
+            for (int bucket = 0; bucket < PrepTimeHistogram.BUCKETS; bucket++) {
+                long count = histogram.count(bucket);
+                if (count > 0) {
+                    rows.add(new Object[]{Timestamp.from(key.windowStart()), key.branchId(),
+                            key.scope(), key.subjectId(), bucket, count});
+                }
+            }
+        });
+
+        try {
+            jdbcTemplate.batchUpdate("""
+                    insert into prep_time_histogram (window_start, branch_id, scope, subject_id, bucket, sample_count)
+                    values (?, ?, ?, ?, ?, ?)
+                    on conflict (window_start, branch_id, scope, subject_id, bucket)
+                    do update set sample_count = prep_time_histogram.sample_count + excluded.sample_count
+                    """, rows);
+            log.debug("Prep time histograms flushed. histograms={} rows={}", batch.size(), rows.size());
+        } catch (RuntimeException e) {
+            // put the samples back so the next flush retries them
+            synchronized (this) {
+                batch.forEach((key, histogram) -> histogram(key).merge(histogram));
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public PrepTimeStatsResponse stats(UUID branchId, int hours) {
+        if (hours < 1 || hours > MAX_STATS_HOURS) {
+            throw new RestoRestaurantException(
+                    "hours must be between 1 and " + MAX_STATS_HOURS, HttpStatus.BAD_REQUEST);
+        }
+        Instant to = Instant.now(clock);
+        Instant from = to.truncatedTo(ChronoUnit.HOURS).minus(hours - 1, ChronoUnit.HOURS);
+
+        List<BucketRow> rows = jdbcTemplate.query("""
+                select scope, subject_id, bucket, sum(sample_count) as sample_count
+                  from prep_time_histogram
+                 where branch_id = ?
+                   and window_start >= ?
+                 group by scope, subject_id, bucket
+                """,
+                (rs, i) -> new BucketRow(
+                        rs.getString("scope"),
+                        rs.getObject("subject_id", UUID.class),
+                        rs.getInt("bucket"),
+                        rs.getLong("sample_count")),
+                branchId, Timestamp.from(from));
+
+        PrepTimeHistogram branch = new PrepTimeHistogram();
+        Map<UUID, PrepTimeHistogram> items = new LinkedHashMap<>();
+        for (BucketRow row : rows) {
+            PrepTimeHistogram histogram = SCOPE_BRANCH.equals(row.scope())
+                    ? branch
+                    : items.computeIfAbsent(row.subjectId(), id -> new PrepTimeHistogram());
+            histogram.addBucket(row.bucket(), row.count());
+        }
+
+        PrepTimeStatsResponse response = new PrepTimeStatsResponse();
+        response.setBranchId(branchId);
+        response.setFrom(from);
+        response.setTo(to);
+        response.setBranch(toStat(branchId, branch));
+        response.setItems(items.entrySet().stream()
+                .map(e -> toStat(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingLong(PrepTimeStat::getP95Seconds).reversed())
+                .toList());
+        return response;
+    }
+
+    private static boolean endsPreparation(OrderStatusChangedEvent event) {
+        return event.newStatus() == OrderStatus.READY
+                || (event.newStatus() == OrderStatus.DELIVERED && event.oldStatus() == OrderStatus.PREPARING);
+    }
+
+    // caller holds the lock
+    private PrepTimeHistogram histogram(Key key) {
+        return pending.computeIfAbsent(key, k -> new PrepTimeHistogram());
+    }
+
+    // orders that never reached READY here: cancelled elsewhere, or moved to another instance
+    private void evictStaleAccepts() {
+        Instant cutoff = Instant.now(clock).minus(maxOpenHours, ChronoUnit.HOURS);
+        acceptedAt.values().removeIf(accepted -> accepted.isBefore(cutoff));
+    }
+
+    private static PrepTimeStat toStat(UUID subjectId, PrepTimeHistogram histogram) {
+        PrepTimeStat stat = new PrepTimeStat();
+        stat.setSubjectId(subjectId);
+        stat.setSamples(histogram.count());
+        stat.setP50Seconds(histogram.percentileSeconds(0.5));
+        stat.setP95Seconds(histogram.percentileSeconds(0.95));
+        return stat;
+    }
+}
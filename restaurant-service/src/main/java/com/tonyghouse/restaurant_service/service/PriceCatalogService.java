@@ -0,0 +1,28 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.entity.Combo;
+import com.tonyghouse.restaurant_service.entity.MenuItem;
+import com.tonyghouse.restaurant_service.helper.PriceCatalog;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface PriceCatalogService {
+
+    String INVALIDATION_CHANNEL = "price-catalog:invalidate";
+
+    PriceCatalog forBranch(UUID branchId);
+
+    void refreshItems(Collection<MenuItem> items);
+
+    void refreshCombo(Combo combo);
+
+    /*
+    Drops the snapshots named by a broadcast from another instance, and the cached price
+    previews of the changed entries: one "item <menuItemId>", "branch <branchId>" or
+    "combo <comboId>" per line.
+     */
+    void applyInvalidation(String message);
+
+    void clear();
+}
@@ -0,0 +1,237 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.entity.Combo;
+import com.tonyghouse.restaurant_service.entity.MenuItem;
+import com.tonyghouse.restaurant_service.helper.PriceCatalog;
+import com.tonyghouse.restaurant_service.helper.TransactionHooks;
+import com.tonyghouse.restaurant_service.repo.ComboRepository;
+import com.tonyghouse.restaurant_service.repo.MenuItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps one immutable {@link PriceCatalog} per branch in memory.
+ * Readers get the current snapshot with a plain map read; writers swap in a new
+ * snapshot once their transaction has committed, and drop the cached price previews
+ * that referenced the changed entries.
+ *
+ * <p>Other instances learn about the change on {@link PriceCatalogService#INVALIDATION_CHANNEL}
+ * and drop the affected branches (see {@link CacheInvalidationSubscriber}). A snapshot
+ * is also rebuilt once it is older than {@code price-catalog.max-age-ms}, which bounds
+ * how long a lost broadcast can leave an instance on old prices.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceCatalogServiceImpl implements PriceCatalogService {
+
+    private static final String ITEM = "item";
+    private static final String BRANCH = "branch";
+    private static final String COMBO = "combo";
+    static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final MenuItemRepository menuItemRepository;
+    private final ComboRepository comboRepository;
+    private final PricePreviewCacheService previewCacheService;
+    private final JedisPool jedisPool;
+    private final Clock clock;
+
+    private final Map<UUID, Snapshot> catalogs = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<Snapshot>> loading = new ConcurrentHashMap<>();
+    // bumped by every refresh and invalidation, so a load that overlapped one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${price-catalog.max-age-ms:300000}")
+    private long maxAgeMillis = 300_000;
+
+    @Override
+    public PriceCatalog forBranch(UUID branchId) {
+        Snapshot current = catalogs.get(branchId);
+        if (current != null && !current.isOlderThan(maxAgeMillis, Instant.now(clock))) {
+            return current.catalog();
+        }
+
+        // one load per branch at a time; concurrent callers wait for it
+        CompletableFuture<Snapshot> flight = new CompletableFuture<>();
+        CompletableFuture<Snapshot> running = loading.putIfAbsent(branchId, flight);
+        if (running != null) {
+            return await(running).catalog();
+        }
+        // out of the map before it completes, so a later caller never picks up a finished flight
+        Snapshot loaded;
+        try {
+            loaded = loadAndStore(branchId);
+        } catch (RuntimeException | Error e) {
+            loading.remove(branchId, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        loading.remove(branchId, flight);
+        flight.complete(loaded);
+        return loaded.catalog();
+    }
+
+    @Override
+    public void applyInvalidation(String message) {
+        generation.incrementAndGet();
+        List<UUID> priced = new ArrayList<>();
+        for (String line : message.split("\n")) {
+            int split = line.indexOf(' ');
+            if (split < 0) {
+                log.warn("Malformed price catalog invalidation ignored. line={}", line);
+                continue;
+            }
+            UUID id = UUID.fromString(line.substring(split + 1));
+            switch (line.substring(0, split)) {
+                case ITEM -> {
+                    catalogs.values().removeIf(snapshot -> snapshot.catalog().item(id) != null);
+                    priced.add(id);
+                }
+                case BRANCH -> catalogs.remove(id);
+                case COMBO -> priced.add(id);
+                default -> log.warn("Unknown price catalog invalidation ignored. line={}", line);
+            }
+        }
+        // a preview priced here from the old snapshot before this message arrived may have
+        // been cached after the sender's eviction; with the snapshot gone it is dropped again
+        previewCacheService.evict(priced);
+    }
+
+    @Override
+    public void clear() {
+        generation.incrementAndGet();
+        catalogs.clear();
+        log.info("Price catalogs cleared");
+    }
+
+    @Override
+    public void refreshItems(Collection<MenuItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Map<UUID, PriceCatalog.Entry> changed = new HashMap<>();
+        for (MenuItem item : items) {
+            changed.put(item.getId(), PriceCatalog.toEntry(item));
+        }
+
+        TransactionHooks.afterCommit(() -> {
+            generation.incrementAndGet();
+            for (UUID branchId : catalogs.keySet()) {
+                catalogs.computeIfPresent(branchId,
+                        (id, snapshot) -> snapshot.with(snapshot.catalog().withItems(changed)));
+            }
+            previewCacheService.evict(changed.keySet());
+            broadcast(changed.keySet().stream()
+                    .map(itemId -> ITEM + " " + itemId)
+                    .collect(Collectors.joining("\n")));
+            log.debug("Price catalog refreshed for {} menu items", changed.size());
+        });
+    }
+
+    @Override
+    public void refreshCombo(Combo combo) {
+        if (combo.getBranch() == null) {
+            log.warn("Combo without branch, skipping price catalog refresh. comboId={}", combo.getId());
+            return;
+        }
+        UUID branchId = combo.getBranch().getId();
+        UUID comboId = combo.getId();
+        PriceCatalog.Entry entry = PriceCatalog.toEntry(combo);
+
+        TransactionHooks.afterCommit(() -> {
+            generation.incrementAndGet();
+            catalogs.computeIfPresent(branchId,
+                    (id, snapshot) -> snapshot.with(snapshot.catalog().withCombo(comboId, entry)));
+            previewCacheService.evict(List.of(comboId));
+            broadcast(BRANCH + " " + branchId + "\n" + COMBO + " " + comboId);
+            log.debug("Price catalog refreshed for combo. branchId={} comboId={}", branchId, comboId);
+        });
+    }
+
+    /*
+    The query runs outside any map operation. If a refresh or invalidation lands while
+    it runs, the snapshot may predate it, so it is read again instead of being stored.
+    The generation is shared by all branches, so during a burst of price edits elsewhere
+    the load gives up after a few attempts: the last snapshot answers this call uncached
+    and the next call loads again.
+     */
+    private Snapshot loadAndStore(UUID branchId) {
+        for (int attempt = 1; ; attempt++) {
+            long seen = generation.get();
+            Snapshot loaded = new Snapshot(load(branchId), Instant.now(clock));
+            Snapshot stored = catalogs.compute(branchId,
+                    (id, current) -> generation.get() == seen ? loaded : current);
+            if (stored == loaded) {
+                return loaded;
+            }
+            if (attempt == MAX_LOAD_ATTEMPTS) {
+                log.info("Price catalog not cached, prices changed during every load. branchId={} attempts={}",
+                        branchId, attempt);
+                return loaded;
+            }
+        }
+    }
+
+    // the loader's own exception, e.g. a RestoRestaurantException with its status, not a CompletionException
+    private static Snapshot await(CompletableFuture<Snapshot> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    // the local snapshot is already patched; a failed broadcast is covered by the max age
+    private void broadcast(String message) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.publish(INVALIDATION_CHANNEL, message);
+        } catch (RuntimeException e) {
+            log.warn("Price catalog invalidation not broadcast. message={}", message, e);
+        }
+    }
+
+    private PriceCatalog load(UUID branchId) {
+        List<MenuItem> items = menuItemRepository.findAllByBranchId(branchId);
+        List<Combo> combos = comboRepository.findByBranch_Id(branchId);
+
+        PriceCatalog catalog = PriceCatalog.of(items, combos);
+        log.info("Price catalog built. branchId={} items={} combos={}",
+                branchId, catalog.itemCount(), catalog.comboCount());
+        return catalog;
+    }
+
+    private record Snapshot(PriceCatalog catalog, Instant loadedAt) {
+
+        Snapshot with(PriceCatalog patched) {
+            return new Snapshot(patched, loadedAt);
+        }
+
+        boolean isOlderThan(long maxAgeMillis, Instant now) {
+            return loadedAt.plusMillis(maxAgeMillis).isBefore(now);
+        }
+    }
+}
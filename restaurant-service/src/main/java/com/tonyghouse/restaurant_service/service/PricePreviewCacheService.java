@@ -0,0 +1,26 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.CreateOrderRequest;
+import com.tonyghouse.restaurant_service.dto.PricePreviewResponse;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface PricePreviewCacheService {
+
+    Optional<PricePreviewResponse> get(CreateOrderRequest request);
+
+    /**
+     * Change stamp of the cart's items, read before the preview is priced. {@link #put} drops
+     * the preview if any of them has been evicted since, so an old price is never cached.
+     */
+    long stamp(CreateOrderRequest request);
+
+    void put(CreateOrderRequest request, PricePreviewResponse response, long stamp);
+
+    /**
+     * Drops every cached preview whose cart references one of the given menu item or combo ids.
+     */
+    void evict(Collection<UUID> itemIds);
+}
@@ -0,0 +1,186 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.CreateOrderRequest;
+import com.tonyghouse.restaurant_service.dto.OrderItemRequest;
+import com.tonyghouse.restaurant_service.dto.PricePreviewResponse;
+import com.tonyghouse.restaurant_service.mapper.OrderMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Caches price previews in Redis under a fingerprint of the cart. Every referenced
+ * item id keeps a reverse index set of the preview keys built from it, so a price
+ * change can drop exactly the previews that used the old price.
+ *
+ * <p>Every item id also has a generation counter, bumped by each eviction. A preview
+ * is written by a script that first checks the counters still add up to the stamp read
+ * before pricing, so a preview priced before a change cannot land after its eviction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PricePreviewCacheServiceImpl implements PricePreviewCacheService {
+
+    private static final String PREVIEW_CACHE_KEY = "preview:";
+    private static final String PREVIEW_INDEX_KEY = "preview:idx:";
+    private static final String PREVIEW_GENERATION_KEY = "preview:gen:";
+    private static final int PREVIEW_TTL_SECONDS = 60;
+
+    // KEYS: n generation keys, the preview key, n index keys; ARGV: stamp, ttl, json, n, index ttl
+    private static final String PUT_SCRIPT = """
+            local n = tonumber(ARGV[4])
+            local seen = 0
+            for i = 1, n do
+                seen = seen + tonumber(redis.call('GET', KEYS[i]) or '0')
+            end
+            if seen ~= tonumber(ARGV[1]) then
+                return 0
+            end
+            redis.call('SETEX', KEYS[n + 1], ARGV[2], ARGV[3])
+            for i = n + 2, #KEYS do
+                redis.call('SADD', KEYS[i], KEYS[n + 1])
+                redis.call('EXPIRE', KEYS[i], ARGV[5])
+            end
+            return 1
+            """;
+
+    private final JedisPool jedisPool;
+
+    @Override
+    public Optional<PricePreviewResponse> get(CreateOrderRequest request) {
+        if (!cacheable(request)) {
+            return Optional.empty();
+        }
+        String cacheKey = PREVIEW_CACHE_KEY + fingerprint(request);
+        try (Jedis jedis = jedisPool.getResource()) {
+            String cached = jedis.get(cacheKey);
+            if (cached != null) {
+                log.debug("Cache HIT for price preview. key={}", cacheKey);
+                return Optional.of(OrderMapper.previewFromJson(cached));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public long stamp(CreateOrderRequest request) {
+        if (!cacheable(request)) {
+            return 0;
+        }
+        String[] generationKeys = itemIds(request).stream()
+                .map(itemId -> PREVIEW_GENERATION_KEY + itemId)
+                .toArray(String[]::new);
+        try (Jedis jedis = jedisPool.getResource()) {
+            long stamp = 0;
+            for (String generation : jedis.mget(generationKeys)) {
+                if (generation != null) {
+                    stamp += Long.parseLong(generation);
+                }
+            }
+            return stamp;
+        }
+    }
+
+    @Override
+    public void put(CreateOrderRequest request, PricePreviewResponse response, long stamp) {
+        if (!cacheable(request)) {
+            return;
+        }
+        String cacheKey = PREVIEW_CACHE_KEY + fingerprint(request);
+        List<UUID> itemIds = itemIds(request);
+
+        List<String> keys = new ArrayList<>(itemIds.size() * 2 + 1);
+        itemIds.forEach(itemId -> keys.add(PREVIEW_GENERATION_KEY + itemId));
+        keys.add(cacheKey);
+        itemIds.forEach(itemId -> keys.add(PREVIEW_INDEX_KEY + itemId));
+
+        try (Jedis jedis = jedisPool.getResource()) {
+            // index outlives the preview by a TTL so it never misses a live entry
+            Object stored = jedis.eval(PUT_SCRIPT, keys, List.of(
+                    Long.toString(stamp),
+                    Integer.toString(PREVIEW_TTL_SECONDS),
+                    OrderMapper.previewToJson(response),
+                    Integer.toString(itemIds.size()),
+                    Integer.toString(PREVIEW_TTL_SECONDS * 2)));
+            if (Long.valueOf(1L).equals(stored)) {
+                log.debug("Price preview cached for {} seconds. key={}", PREVIEW_TTL_SECONDS, cacheKey);
+            } else {
+                log.debug("Price preview not cached, a price changed while pricing. key={}", cacheKey);
+            }
+        }
+    }
+
+    @Override
+    public void evict(Collection<UUID> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            int evicted = 0;
+            for (UUID itemId : itemIds) {
+                // bumped before the index is read: a preview stamped earlier is refused from here on
+                jedis.incr(PREVIEW_GENERATION_KEY + itemId);
+                String indexKey = PREVIEW_INDEX_KEY + itemId;
+                Set<String> previewKeys = jedis.smembers(indexKey);
+                if (!previewKeys.isEmpty()) {
+                    jedis.del(previewKeys.toArray(String[]::new));
+                    evicted += previewKeys.size();
+                }
+                jedis.del(indexKey);
+            }
+            log.debug("Invalidated {} price previews for {} changed items", evicted, itemIds.size());
+        }
+    }
+
+    private static List<UUID> itemIds(CreateOrderRequest request) {
+        Set<UUID> itemIds = new LinkedHashSet<>();
+        for (OrderItemRequest item : request.getItems()) {
+            itemIds.add(item.getItemId());
+        }
+        return new ArrayList<>(itemIds);
+    }
+
+    private static boolean cacheable(CreateOrderRequest request) {
+        return request.getBranchId() != null
+                && request.getItems() != null
+                && !request.getItems().isEmpty();
+    }
+
+    /*
+    SHA-256 over branchId and the (itemType, itemId, quantity) tuples sorted and with
+    repeated lines merged, so carts that price the same share one entry.
+     */
+    static String fingerprint(CreateOrderRequest request) {
+        Map<String, Integer> quantities = new TreeMap<>();
+        for (OrderItemRequest item : request.getItems()) {
+            quantities.merge(item.getItemType() + ":" + item.getItemId(), item.getQuantity(), Integer::sum);
+        }
+
+        StringBuilder canonical = new StringBuilder(request.getBranchId().toString());
+        quantities.forEach((line, qty) -> canonical.append('|').append(line).append(':').append(qty));
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- the kitchen queue reconcile reads the open orders every few seconds on every instance;
+-- only open rows are indexed, so the index stays small as delivered and cancelled orders pile up
+CREATE INDEX idx_orders_open_status ON orders(status, created_at)
+    WHERE status IN ('CREATED', 'ACCEPTED', 'PREPARING', 'READY');
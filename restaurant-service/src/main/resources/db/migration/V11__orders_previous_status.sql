@@ -0,0 +1,16 @@
+-- the status a transition replaced, set by the same UPDATE that changes status: a transition
+-- allowed from several statuses is one conditional statement and can still tell where it came from
+ALTER TABLE orders ADD COLUMN previous_status VARCHAR(20);
+
+ALTER TABLE orders ADD CONSTRAINT chk_order_previous_status
+    CHECK (
+        previous_status IS NULL OR previous_status IN (
+            'CREATED',
+            'ACCEPTED',
+            'PREPARING',
+            'READY',
+            'PICKED_UP',
+            'DELIVERED',
+            'CANCELLED'
+        )
+    );
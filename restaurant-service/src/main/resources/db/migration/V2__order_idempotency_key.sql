@@ -0,0 +1,17 @@
+-- keys are scoped to the caller and branch; request_hash rejects a reused key with another payload
+CREATE TABLE order_idempotency_key (
+    id                  UUID PRIMARY KEY,
+    owner               VARCHAR(100) NOT NULL,
+    branch_id           UUID NOT NULL,
+    idempotency_key     VARCHAR(100) NOT NULL,
+    request_hash        VARCHAR(64),
+    order_id            UUID,
+    response            TEXT,
+    created_at          TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uq_order_idempotency_key
+        UNIQUE (owner, branch_id, idempotency_key),
+
+    CONSTRAINT fk_order_idempotency_order
+        FOREIGN KEY (order_id) REFERENCES orders(id)
+);
@@ -0,0 +1,16 @@
+ALTER TABLE orders ADD COLUMN items_total NUMERIC(12,2);
+ALTER TABLE orders ADD COLUMN tax_amount NUMERIC(12,2);
+ALTER TABLE orders ADD COLUMN delivery_charge NUMERIC(12,2);
+
+-- backfill existing orders from their lines, delivery was never charged
+UPDATE orders o
+SET items_total = COALESCE(
+        (SELECT SUM(oi.total_price) FROM order_item oi WHERE oi.order_id = o.id), 0),
+    delivery_charge = 0;
+
+UPDATE orders
+SET tax_amount = total_amount - items_total;
+
+ALTER TABLE orders ALTER COLUMN items_total SET NOT NULL;
+ALTER TABLE orders ALTER COLUMN tax_amount SET NOT NULL;
+ALTER TABLE orders ALTER COLUMN delivery_charge SET NOT NULL;
@@ -0,0 +1,2 @@
+-- keyset pagination of a branch's orders, newest first: (branch_id, created_at, id)
+CREATE INDEX idx_orders_branch_created_id ON orders(branch_id, created_at DESC, id DESC);
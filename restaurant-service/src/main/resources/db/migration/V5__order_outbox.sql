@@ -0,0 +1,17 @@
+-- status events written in the same transaction as order_status_history and
+-- drained to Kafka in send_seq order by the outbox relay; a row is deleted once Kafka acks it.
+-- ids are handed out 50 at a time so Hibernate can batch the inserts; send_seq is assigned
+-- by the database at insert time and, unlike the pooled ids, follows commit order per order
+CREATE SEQUENCE order_outbox_id_seq INCREMENT BY 50;
+
+CREATE TABLE order_outbox (
+    id              BIGINT PRIMARY KEY,
+    send_seq        BIGINT GENERATED ALWAYS AS IDENTITY,
+    order_id        UUID NOT NULL,
+    old_status      VARCHAR(20),
+    new_status      VARCHAR(20) NOT NULL,
+    changed_at      TIMESTAMP NOT NULL,
+    created_at      TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_order_outbox_send_seq ON order_outbox(send_seq);
@@ -0,0 +1,90 @@
+-- order_status_history becomes range partitioned by month on changed_at.
+-- Old months are detached, exported and dropped by the archival job
+-- (see order_status_history_archive); history reads fall back to the exports.
+
+ALTER TABLE order_status_history RENAME TO order_status_history_legacy;
+ALTER INDEX idx_order_status_order_id RENAME TO idx_order_status_legacy_order_id;
+ALTER INDEX idx_order_status_order_time RENAME TO idx_order_status_legacy_order_time;
+
+CREATE TABLE order_status_history (
+    id              UUID NOT NULL,
+    order_id        UUID NOT NULL,
+    old_status      VARCHAR(20),
+    new_status      VARCHAR(20) NOT NULL,
+    changed_at      TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    -- the partition key has to be part of the primary key
+    CONSTRAINT pk_order_status_history
+        PRIMARY KEY (id, changed_at),
+
+    CONSTRAINT fk_order_status_history_order
+        FOREIGN KEY (order_id) REFERENCES orders(id),
+
+    CONSTRAINT chk_history_old_status
+        CHECK (
+            old_status IS NULL OR old_status IN (
+                'CREATED',
+                'ACCEPTED',
+                'PREPARING',
+                'READY',
+                'DELIVERED',
+                'CANCELLED'
+            )
+        ),
+
+    CONSTRAINT chk_history_new_status
+        CHECK (
+            new_status IN (
+                'CREATED',
+                'ACCEPTED',
+                'PREPARING',
+                'READY',
+                'DELIVERED',
+                'CANCELLED'
+            )
+        )
+) PARTITION BY RANGE (changed_at);
+
+-- created on the parent, so every partition gets its own small index
+CREATE INDEX idx_order_status_order_time ON order_status_history(order_id, changed_at);
+
+-- monthly partitions from the oldest row up to two months ahead; the job keeps creating them
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE(
+            (SELECT min(changed_at) FROM order_status_history_legacy), now()))::date;
+    last_month  DATE := (date_trunc('month', now()) + INTERVAL '2 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE order_status_history_p%s PARTITION OF order_status_history FOR VALUES FROM (%L) TO (%L)',
+            to_char(month_start, 'YYYYMM'),
+            month_start,
+            (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- catches rows outside the prepared months (e.g. the job has not run); kept empty in normal operation
+CREATE TABLE order_status_history_default PARTITION OF order_status_history DEFAULT;
+
+INSERT INTO order_status_history (id, order_id, old_status, new_status, changed_at)
+SELECT id, order_id, old_status, new_status, changed_at
+  FROM order_status_history_legacy;
+
+DROP TABLE order_status_history_legacy;
+
+CREATE TABLE order_status_history_archive (
+    id              UUID PRIMARY KEY,
+    partition_name  VARCHAR(64) NOT NULL,
+    period_start    TIMESTAMP NOT NULL,
+    period_end      TIMESTAMP NOT NULL,
+    file_path       VARCHAR(512) NOT NULL,
+    row_count       BIGINT NOT NULL,
+    archived_at     TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uq_order_status_history_archive_partition
+        UNIQUE (partition_name)
+);
+
+CREATE INDEX idx_order_status_history_archive_period ON order_status_history_archive(period_end);
@@ -0,0 +1,66 @@
+-- cloud kitchens hand orders to a courier between READY and DELIVERED
+ALTER TABLE orders DROP CONSTRAINT chk_order_status;
+ALTER TABLE orders ADD CONSTRAINT chk_order_status
+    CHECK (status IN (
+        'CREATED',
+        'ACCEPTED',
+        'PREPARING',
+        'READY',
+        'PICKED_UP',
+        'DELIVERED',
+        'CANCELLED'
+    ));
+
+-- dropped and added on the partitioned parent, so every partition follows
+ALTER TABLE order_status_history DROP CONSTRAINT chk_history_old_status;
+ALTER TABLE order_status_history DROP CONSTRAINT chk_history_new_status;
+ALTER TABLE order_status_history ADD CONSTRAINT chk_history_old_status
+    CHECK (
+        old_status IS NULL OR old_status IN (
+            'CREATED',
+            'ACCEPTED',
+            'PREPARING',
+            'READY',
+            'PICKED_UP',
+            'DELIVERED',
+            'CANCELLED'
+        )
+    );
+ALTER TABLE order_status_history ADD CONSTRAINT chk_history_new_status
+    CHECK (
+        new_status IN (
+            'CREATED',
+            'ACCEPTED',
+            'PREPARING',
+            'READY',
+            'PICKED_UP',
+            'DELIVERED',
+            'CANCELLED'
+        )
+    );
+
+-- per-branch order workflows; branches without a row use the built-in default
+CREATE TABLE branch_workflow (
+    id              UUID PRIMARY KEY,
+    branch_id       UUID NOT NULL,
+    version         BIGINT NOT NULL,
+    updated_at      TIMESTAMP NOT NULL,
+
+    CONSTRAINT uq_branch_workflow_branch UNIQUE (branch_id),
+
+    CONSTRAINT fk_branch_workflow_branch
+        FOREIGN KEY (branch_id) REFERENCES branch(id) ON DELETE CASCADE
+);
+
+CREATE TABLE branch_workflow_transition (
+    id              UUID PRIMARY KEY,
+    workflow_id     UUID NOT NULL,
+    from_status     VARCHAR(20) NOT NULL,
+    to_status       VARCHAR(20) NOT NULL,
+    guard_name      VARCHAR(40),
+
+    CONSTRAINT uq_branch_workflow_transition UNIQUE (workflow_id, from_status, to_status),
+
+    CONSTRAINT fk_branch_workflow_transition_workflow
+        FOREIGN KEY (workflow_id) REFERENCES branch_workflow(id) ON DELETE CASCADE
+);
@@ -0,0 +1,21 @@
+-- read model rebuilt from order.events: orders entering each status, per branch and UTC day
+CREATE TABLE branch_daily_order_count (
+    branch_id       UUID NOT NULL,
+    day             DATE NOT NULL,
+    status          VARCHAR(20) NOT NULL,
+    order_count     BIGINT NOT NULL,
+
+    CONSTRAINT pk_branch_daily_order_count
+        PRIMARY KEY (branch_id, day, status)
+);
+
+-- next order.events offset to read, per projection and topic partition
+CREATE TABLE order_event_checkpoint (
+    projection          VARCHAR(60) NOT NULL,
+    source_partition    INTEGER NOT NULL,
+    next_offset         BIGINT NOT NULL,
+    updated_at          TIMESTAMP NOT NULL,
+
+    CONSTRAINT pk_order_event_checkpoint
+        PRIMARY KEY (projection, source_partition)
+);
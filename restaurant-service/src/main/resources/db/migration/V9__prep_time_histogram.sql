@@ -0,0 +1,21 @@
+-- menu item or combo an order line was resolved from; null on lines created before this column
+ALTER TABLE order_item ADD COLUMN item_id UUID;
+
+-- actual prep time (ACCEPTED -> READY) histograms per hour window, for a branch and per item
+CREATE TABLE prep_time_histogram (
+    window_start    TIMESTAMP NOT NULL,
+    branch_id       UUID NOT NULL,
+    scope           VARCHAR(10) NOT NULL,
+    subject_id      UUID NOT NULL,
+    bucket          SMALLINT NOT NULL,
+    sample_count    BIGINT NOT NULL,
+
+    CONSTRAINT pk_prep_time_histogram
+        PRIMARY KEY (window_start, branch_id, scope, subject_id, bucket),
+
+    CONSTRAINT chk_prep_time_histogram_scope
+        CHECK (scope IN ('BRANCH', 'ITEM'))
+);
+
+CREATE INDEX idx_prep_time_histogram_branch_window
+    ON prep_time_histogram (branch_id, window_start);
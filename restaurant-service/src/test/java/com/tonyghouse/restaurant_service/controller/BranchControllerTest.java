@@ -1,10 +1,18 @@
 package com.tonyghouse.restaurant_service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
 import com.tonyghouse.restaurant_service.dto.BranchResponse;
 import com.tonyghouse.restaurant_service.dto.CreateBranchRequest;
+import com.tonyghouse.restaurant_service.dto.OrderWorkflowRequest;
+import com.tonyghouse.restaurant_service.dto.OrderWorkflowResponse;
+import com.tonyghouse.restaurant_service.dto.PrepTimeStat;
+import com.tonyghouse.restaurant_service.dto.PrepTimeStatsResponse;
 import com.tonyghouse.restaurant_service.dto.UpdateBranchRequest;
+import com.tonyghouse.restaurant_service.dto.WorkflowTransitionDto;
 import com.tonyghouse.restaurant_service.service.BranchService;
+import com.tonyghouse.restaurant_service.service.OrderWorkflowService;
+import com.tonyghouse.restaurant_service.service.PrepTimeAnalyticsService;
 
 import java.time.Clock;
 import java.util.Arrays;
@@ -46,6 +54,12 @@ class BranchControllerTest {
     @MockBean
     private BranchService branchService;
 
+    @MockBean
+    private OrderWorkflowService orderWorkflowService;
+
+    @MockBean
+    private PrepTimeAnalyticsService prepTimeAnalyticsService;
+
     @TestConfiguration
     @EnableMethodSecurity
     static class TestSecurityConfig {
@@ -163,4 +177,67 @@ class BranchControllerTest {
         mockMvc.perform(get("/api/branches/{branchId}", branchId))
                 .andExpect(status().isUnauthorized());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldUpdateWorkflow() throws Exception {
+
+        UUID branchId = UUID.randomUUID();
+        WorkflowTransitionDto transition = new WorkflowTransitionDto();
+        transition.setFrom(OrderStatus.READY);
+        transition.setTo(OrderStatus.PICKED_UP);
+        OrderWorkflowRequest request = new OrderWorkflowRequest();
+        request.setTransitions(List.of(transition));
+
+        OrderWorkflowResponse response = new OrderWorkflowResponse();
+        response.setBranchId(branchId);
+        response.setVersion(3);
+
+        Mockito.when(orderWorkflowService.update(eq(branchId), any()))
+                .thenReturn(response);
+
+        mockMvc.perform(put("/api/branches/{branchId}/workflow", branchId)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    @Test
+    @WithMockUser(roles = "STAFF")
+    void shouldRejectWorkflowUpdateForStaff() throws Exception {
+
+        mockMvc.perform(put("/api/branches/{branchId}/workflow", UUID.randomUUID())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isForbidden());
+
+        Mockito.verifyNoInteractions(orderWorkflowService);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldGetPrepTimes() throws Exception {
+
+        UUID branchId = UUID.randomUUID();
+        PrepTimeStat stat = new PrepTimeStat();
+        stat.setSubjectId(branchId);
+        stat.setSamples(40);
+        stat.setP50Seconds(600);
+        stat.setP95Seconds(1020);
+        PrepTimeStatsResponse response = new PrepTimeStatsResponse();
+        response.setBranchId(branchId);
+        response.setBranch(stat);
+        response.setItems(List.of());
+
+        Mockito.when(prepTimeAnalyticsService.stats(branchId, 6))
+                .thenReturn(response);
+
+        mockMvc.perform(get("/api/branches/{branchId}/prep-times", branchId)
+                        .param("hours", "6"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.branch.p95Seconds").value(1020));
+    }
+}
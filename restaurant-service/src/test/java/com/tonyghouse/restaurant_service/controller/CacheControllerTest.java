@@ -0,0 +1,68 @@
+package com.tonyghouse.restaurant_service.controller;
+
+import com.tonyghouse.restaurant_service.dto.CacheStatsResponse;
+import com.tonyghouse.restaurant_service.service.CatalogCacheService;
+
+import java.time.Clock;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CacheController.class)
+@Import(CacheControllerTest.TestSecurityConfig.class)
+class CacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CatalogCacheService catalogCacheService;
+
+    @TestConfiguration
+    @EnableMethodSecurity
+    static class TestSecurityConfig {
+        @Bean
+        public Clock clock() {
+            return Clock.systemDefaultZone();
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldReturnCacheStats() throws Exception {
+
+        CacheStatsResponse stats = new CacheStatsResponse();
+        stats.setRegion("menu");
+        stats.setHitRatio(0.98);
+
+        Mockito.when(catalogCacheService.stats()).thenReturn(List.of(stats));
+
+        mockMvc.perform(get("/api/caches"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].region").value("menu"))
+                .andExpect(jsonPath("$[0].hitRatio").value(0.98));
+    }
+
+    @Test
+    @WithMockUser(roles = "STAFF")
+    void shouldRejectCacheStatsForStaff() throws Exception {
+
+        mockMvc.perform(get("/api/caches"))
+                .andExpect(status().isForbidden());
+
+        Mockito.verifyNoInteractions(catalogCacheService);
+    }
+}
@@ -3,13 +3,18 @@ package com.tonyghouse.restaurant_service.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tonyghouse.restaurant_service.constants.OrderStatus;
 import com.tonyghouse.restaurant_service.dto.*;
+import com.tonyghouse.restaurant_service.service.KitchenQueueService;
+import com.tonyghouse.restaurant_service.service.OrderEventReplayService;
+import com.tonyghouse.restaurant_service.service.OrderIdempotencyService;
 import com.tonyghouse.restaurant_service.service.OrderPaymentService;
 import com.tonyghouse.restaurant_service.service.OrderService;
 import com.tonyghouse.restaurant_service.service.OrderStateService;
+import com.tonyghouse.restaurant_service.service.OrderStatusStreamService;
 
 import java.time.Clock;
 import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
@@ -24,6 +29,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -49,6 +55,18 @@ class OrderControllerTest {
     @MockBean
     private OrderPaymentService orderPaymentService;
 
+    @MockBean
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @MockBean
+    private KitchenQueueService kitchenQueueService;
+
+    @MockBean
+    private OrderStatusStreamService orderStatusStreamService;
+
+    @MockBean
+    private OrderEventReplayService orderEventReplayService;
+
     private final UUID ORDER_ID = UUID.randomUUID();
 
     @TestConfiguration
@@ -93,6 +111,155 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.orderId").value(ORDER_ID.toString()));
     }
 
+    @Test
+    @WithMockUser(username = "customer-1", roles = "CUSTOMER")
+    void shouldCreateOrderIdempotently() throws Exception {
+
+        OrderResponse resp = new OrderResponse();
+        resp.setOrderId(ORDER_ID);
+
+        Mockito.when(orderIdempotencyService.create(any(), eq("customer-1"), eq("retry-123"))).thenReturn(resp);
+
+        mockMvc.perform(post("/api/orders")
+                        .with(csrf())
+                        .header("Idempotency-Key", "retry-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderId").value(ORDER_ID.toString()));
+
+        Mockito.verify(orderService, Mockito.never()).create(any());
+    }
+
+    @Test
+    @WithMockUser(roles = "STAFF")
+    void shouldCreateBulkOrders() throws Exception {
+
+        BulkOrderResponse resp = new BulkOrderResponse();
+        resp.setCreated(2);
+        resp.setFailed(1);
+
+        Mockito.when(orderService.createBulk(anyList())).thenReturn(resp);
+
+        mockMvc.perform(post("/api/orders/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{},{},{}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "CUSTOMER")
+    void shouldRejectBulkOrdersForCustomer() throws Exception {
+        mockMvc.perform(post("/api/orders/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "STAFF")
+    void shouldListBranchOrders() throws Exception {
+
+        UUID branchId = UUID.randomUUID();
+        OrderPageResponse resp = new OrderPageResponse();
+        resp.setOrders(List.of());
+        resp.setNextCursor("abc");
+
+        Mockito.when(orderService.listByBranch(eq(branchId), any(), any(), eq("prev"), eq(20)))
+                .thenReturn(resp);
+
+        mockMvc.perform(get("/api/orders")
+                        .param("branchId", branchId.toString())
+                        .param("status", "CREATED", "ACCEPTED")
+                        .param("cursor", "prev")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("abc"));
+
+        Mockito.verify(orderService).listByBranch(eq(branchId), any(),
+                eq(Set.of(OrderStatus.CREATED, OrderStatus.ACCEPTED)), eq("prev"), eq(20));
+    }
+
+    @Test
+    @WithMockUser(roles = "STAFF")
+    void shouldTransitionOrdersInBulk() throws Exception {
+
+        UUID other = UUID.randomUUID();
+        BulkTransitionResponse resp = new BulkTransitionResponse();
+        resp.setUpdated(2);
+        resp.setResults(List.of());
+
+        Mockito.when(orderStateService.transitionAll(List.of(ORDER_ID, other), OrderStatus.READY))
+                .thenReturn(resp);
+
+        mockMvc.perform(post("/api/orders/transitions")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"READY\",\"orderIds\":[\"" + ORDER_ID + "\",\"" + other + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(2));
+    }
+
+    @Test
+    @WithMockUser(roles = "CUSTOMER")
+    void shouldForbidBulkTransitionForCustomer() throws Exception {
+        mockMvc.perform(post("/api/orders/transitions")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "CUSTOMER")
+    void shouldOpenOrderStatusStream() throws Exception {
+
+        Mockito.when(orderStatusStreamService.subscribeOrder(ORDER_ID)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/orders/{id}/status-stream", ORDER_ID)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        Mockito.verify(orderStatusStreamService).subscribeOrder(ORDER_ID);
+    }
+
+    @Test
+    @WithMockUser(roles = "CUSTOMER")
+    void shouldForbidBranchStatusStreamForCustomer() throws Exception {
+        mockMvc.perform(get("/api/orders/status-stream")
+                        .param("branchId", UUID.randomUUID().toString())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "STAFF")
+    void shouldGetKitchenQueue() throws Exception {
+
+        UUID branchId = UUID.randomUUID();
+        KitchenQueueResponse resp = new KitchenQueueResponse();
+        resp.setBranchId(branchId);
+
+        Mockito.when(kitchenQueueService.getQueue(branchId)).thenReturn(resp);
+
+        mockMvc.perform(get("/api/orders/kitchen-queue")
+                        .param("branchId", branchId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.branchId").value(branchId.toString()));
+    }
+
+    @Test
+    @WithMockUser(roles = "CUSTOMER")
+    void shouldForbidKitchenQueueForCustomer() throws Exception {
+        mockMvc.perform(get("/api/orders/kitchen-queue")
+                        .param("branchId", UUID.randomUUID().toString()))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(roles = "CUSTOMER")
     void shouldGetOrder() throws Exception {
@@ -133,6 +300,45 @@ class OrderControllerTest {
         Mockito.verify(orderStateService).markReady(ORDER_ID);
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldStartEventReplay() throws Exception {
+        EventReplayResponse response = new EventReplayResponse();
+        response.setReplayId(UUID.randomUUID());
+        response.setState("RUNNING");
+        Mockito.when(orderEventReplayService.start(Mockito.any())).thenReturn(response);
+
+        mockMvc.perform(post("/api/orders/event-replays")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"projection\":\"branch-daily-counts\",\"fromScratch\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+
+        Mockito.verify(orderEventReplayService).start(argThat(EventReplayRequest::isFromScratch));
+    }
+
+    @Test
+    @WithMockUser(roles = "STAFF")
+    void shouldNotStartEventReplayForStaff() throws Exception {
+        mockMvc.perform(post("/api/orders/event-replays")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isForbidden());
+
+        Mockito.verifyNoInteractions(orderEventReplayService);
+    }
+
+    @Test
+    @WithMockUser(roles = "STAFF")
+    void shouldMarkPickedUp() throws Exception {
+        mockMvc.perform(post("/api/orders/{id}/picked-up", ORDER_ID).with(csrf()))
+                .andExpect(status().isOk());
+
+        Mockito.verify(orderStateService).markPickedUp(ORDER_ID);
+    }
+
     @Test
     @WithMockUser(roles = "STAFF")
     void shouldDeliver() throws Exception {
@@ -0,0 +1,115 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.tonyghouse.restaurant_service.constants.FoodType;
+import com.tonyghouse.restaurant_service.constants.MenuType;
+import com.tonyghouse.restaurant_service.dto.MenuItemResponse;
+import com.tonyghouse.restaurant_service.dto.MenuResponse;
+import com.tonyghouse.restaurant_service.dto.MenuWithItemsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheCodecsTest {
+
+    private static final CacheCodec<MenuWithItemsResponse> JSON = CacheCodecs.json(MenuWithItemsResponse.class);
+    private static final CacheCodec<MenuWithItemsResponse> SMILE = CacheCodecs.smile(MenuWithItemsResponse.class);
+
+    @Test
+    void shouldRoundTripMenuInBothFormats() {
+        MenuWithItemsResponse menu = menu(200);
+
+        assertThat(decode(JSON, JSON.encode(menu))).isEqualTo(menu);
+        assertThat(decode(SMILE, SMILE.encode(menu))).isEqualTo(menu);
+    }
+
+    @Test
+    void shouldBeSmallerThanJsonFor200ItemMenu() {
+        MenuWithItemsResponse menu = menu(200);
+        byte[] json = JSON.encode(menu);
+        byte[] smile = SMILE.encode(menu);
+
+        // field names and repeated short values are written once in Smile
+        assertThat(smile.length).isLessThan(json.length * 3 / 4);
+    }
+
+    @Test
+    void shouldKeepJsonReadable() {
+        MenuResponse menu = new MenuResponse();
+        menu.setMenuType(MenuType.LUNCH);
+        menu.setCreatedAt(Instant.parse("2025-01-01T00:00:00Z"));
+
+        String json = new String(CacheCodecs.json(MenuResponse.class).encode(menu), StandardCharsets.UTF_8);
+
+        assertThat(json).contains("\"menuType\":\"LUNCH\"", "\"createdAt\":\"2025-01-01T00:00:00Z\"");
+    }
+
+    @Test
+    void shouldDecodeFromOffset() {
+        CacheCodec<List<String>> codec = CacheCodecs.smile(new TypeReference<List<String>>() {});
+        byte[] payload = codec.encode(List.of("a", "b"));
+        byte[] framed = new byte[payload.length + 3];
+        System.arraycopy(payload, 0, framed, 3, payload.length);
+
+        assertThat(codec.decode(framed, 3, payload.length)).containsExactly("a", "b");
+    }
+
+    @Test
+    void shouldMapStoredTypeAndKeepId() {
+        CacheCodec<MenuSchedule> codec = CacheCodecs.smile(new TypeReference<List<MenuWithItemsResponse>>() {})
+                .map(MenuSchedule::menus, MenuSchedule::of);
+        MenuSchedule schedule = MenuSchedule.of(List.of(menu(3)));
+
+        MenuSchedule decoded = decode(codec, codec.encode(schedule));
+
+        assertThat(codec.id()).isEqualTo(CacheCodecs.SMILE_ID);
+        assertThat(decoded.activeAt(LocalTime.of(12, 0))).contains(menu(3));
+    }
+
+    @Test
+    void shouldRejectOtherFormat() {
+        byte[] json = JSON.encode(menu(1));
+
+        assertThatThrownBy(() -> decode(SMILE, json)).isInstanceOf(UncheckedIOException.class);
+    }
+
+    private static <T> T decode(CacheCodec<T> codec, byte[] bytes) {
+        return codec.decode(bytes, 0, bytes.length);
+    }
+
+    // a lunch menu with items that look like a real branch's: few categories, long descriptions
+    private static MenuWithItemsResponse menu(int items) {
+        String[] categories = {"STARTER", "MAIN", "BREAD", "DESSERT", "BEVERAGE"};
+        List<MenuItemResponse> list = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            MenuItemResponse item = new MenuItemResponse();
+            item.setId(new UUID(0xA11CEL, i));
+            item.setName("Item " + i);
+            item.setDescription("House special number " + i + ", slow cooked and served with two sides");
+            item.setPrice(new BigDecimal("149.00").add(BigDecimal.valueOf(i)));
+            item.setPreparationTime(5 + i % 20);
+            item.setCategory(categories[i % categories.length]);
+            item.setFoodType(i % 2 == 0 ? FoodType.VEGETARIAN : FoodType.NON_VEGETARIAN);
+            item.setAvailable(true);
+            item.setCreatedAt(Instant.parse("2025-01-01T00:00:00Z").plusSeconds(i));
+            list.add(item);
+        }
+        MenuWithItemsResponse menu = new MenuWithItemsResponse();
+        menu.setMenuId(new UUID(0xBEEFL, items));
+        menu.setMenuType(MenuType.LUNCH);
+        menu.setValidFrom(LocalTime.of(11, 0));
+        menu.setValidTo(LocalTime.of(15, 0));
+        menu.setItems(list);
+        return menu;
+    }
+}
@@ -0,0 +1,87 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import com.tonyghouse.restaurant_service.constants.MenuType;
+import com.tonyghouse.restaurant_service.dto.MenuWithItemsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuScheduleTest {
+
+    final MenuWithItemsResponse breakfast = menu(MenuType.BREAKFAST, LocalTime.of(7, 0), LocalTime.of(11, 0));
+    final MenuWithItemsResponse lunch = menu(MenuType.LUNCH, LocalTime.of(11, 0), LocalTime.of(15, 0));
+    final MenuWithItemsResponse dinner = menu(MenuType.DINNER, LocalTime.of(18, 0), LocalTime.of(23, 0));
+
+    @Test
+    void shouldFindMenuForTimeInsideWindow() {
+        MenuSchedule schedule = MenuSchedule.of(List.of(breakfast, lunch, dinner));
+
+        assertThat(schedule.activeAt(LocalTime.of(8, 30))).contains(breakfast);
+        assertThat(schedule.activeAt(LocalTime.of(12, 0))).contains(lunch);
+        assertThat(schedule.activeAt(LocalTime.of(20, 0))).contains(dinner);
+    }
+
+    @Test
+    void shouldIncludeBothWindowEnds() {
+        MenuSchedule schedule = MenuSchedule.of(List.of(breakfast, lunch, dinner));
+
+        assertThat(schedule.activeAt(LocalTime.of(7, 0))).contains(breakfast);
+        assertThat(schedule.activeAt(LocalTime.of(23, 0))).contains(dinner);
+        assertThat(schedule.activeAt(LocalTime.of(23, 0, 0, 1))).isEmpty();
+        assertThat(schedule.activeAt(LocalTime.of(6, 59, 59))).isEmpty();
+    }
+
+    @Test
+    void shouldPreferFirstListedMenuWhereWindowsOverlap() {
+        // breakfast ends at 11:00 and lunch starts at 11:00
+        assertThat(MenuSchedule.of(List.of(breakfast, lunch)).activeAt(LocalTime.of(11, 0))).contains(breakfast);
+        assertThat(MenuSchedule.of(List.of(lunch, breakfast)).activeAt(LocalTime.of(11, 0))).contains(lunch);
+        assertThat(MenuSchedule.of(List.of(breakfast, lunch)).activeAt(LocalTime.of(11, 0, 0, 1))).contains(lunch);
+    }
+
+    @Test
+    void shouldLeaveGapsBetweenWindowsEmpty() {
+        MenuSchedule schedule = MenuSchedule.of(List.of(breakfast, lunch, dinner));
+
+        assertThat(schedule.activeAt(LocalTime.of(16, 0))).isEmpty();
+        assertThat(schedule.activeAt(LocalTime.MIDNIGHT)).isEmpty();
+        assertThat(schedule.activeAt(LocalTime.MAX)).isEmpty();
+        // empty, breakfast, lunch, gap, dinner, empty
+        assertThat(schedule.slotCount()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldCoverWholeDay() {
+        MenuWithItemsResponse allDay = menu(MenuType.LUNCH, LocalTime.MIDNIGHT, LocalTime.MAX);
+
+        MenuSchedule schedule = MenuSchedule.of(List.of(allDay));
+
+        assertThat(schedule.activeAt(LocalTime.MIDNIGHT)).contains(allDay);
+        assertThat(schedule.activeAt(LocalTime.MAX)).contains(allDay);
+        assertThat(schedule.slotCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSkipMenusWithoutUsableWindow() {
+        MenuWithItemsResponse overnight = menu(MenuType.DINNER, LocalTime.of(22, 0), LocalTime.of(2, 0));
+        MenuWithItemsResponse open = menu(MenuType.LUNCH, null, LocalTime.of(15, 0));
+
+        MenuSchedule schedule = MenuSchedule.of(List.of(overnight, open));
+
+        assertThat(schedule.menus()).isEmpty();
+        assertThat(schedule.activeAt(LocalTime.of(23, 0))).isEmpty();
+        assertThat(schedule.activeAt(LocalTime.of(12, 0))).isEmpty();
+    }
+
+    private static MenuWithItemsResponse menu(MenuType type, LocalTime from, LocalTime to) {
+        MenuWithItemsResponse menu = new MenuWithItemsResponse();
+        menu.setMenuType(type);
+        menu.setValidFrom(from);
+        menu.setValidTo(to);
+        menu.setItems(List.of());
+        return menu;
+    }
+}
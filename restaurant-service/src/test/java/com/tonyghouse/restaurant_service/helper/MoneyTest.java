@@ -0,0 +1,45 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void shouldConvertToMinorUnitsHalfEven() {
+        assertThat(Money.toMinor(new BigDecimal("100"))).isEqualTo(10_000L);
+        assertThat(Money.toMinor(new BigDecimal("10.125"))).isEqualTo(1_012L);
+        assertThat(Money.toMinor(new BigDecimal("10.135"))).isEqualTo(1_014L);
+    }
+
+    @Test
+    void shouldConvertBackAtTwoDecimals() {
+        assertThat(Money.toBigDecimal(47_200L)).isEqualTo(new BigDecimal("472.00"));
+        assertThat(Money.toBigDecimal(0L)).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void shouldRoundPercentHalfEven() {
+        // 18% of 0.25 = 0.045 -> 0.04, of 0.75 = 0.135 -> 0.14
+        assertThat(Money.percentOf(25L, 1_800L)).isEqualTo(4L);
+        assertThat(Money.percentOf(75L, 1_800L)).isEqualTo(14L);
+        // 18% of 300.22 = 54.0396 -> 54.04
+        assertThat(Money.percentOf(30_022L, 1_800L)).isEqualTo(5_404L);
+        assertThat(Money.percentOf(-75L, 1_800L)).isEqualTo(-14L);
+    }
+
+    @Test
+    void shouldConvertRateToBasisPoints() {
+        assertThat(Money.basisPoints(new BigDecimal("0.18"))).isEqualTo(1_800L);
+    }
+
+    @Test
+    void shouldFailOnOverflow() {
+        assertThatThrownBy(() -> Money.times(Long.MAX_VALUE, 2))
+                .isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,97 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderEventCodecTest {
+
+    // v1 record as first shipped; must keep decoding after any schema change
+    private static final String V1_FIXTURE =
+            "0e0100000000000000010000000000000002010200000000677485801dcd6500";
+
+    private static final OrderStatusChangedEvent V1_EVENT = new OrderStatusChangedEvent(
+            new UUID(1L, 2L),
+            OrderStatus.CREATED,
+            OrderStatus.ACCEPTED,
+            Instant.parse("2025-01-01T00:00:00.500Z")
+    );
+
+    @Test
+    void shouldRoundTrip() {
+        OrderStatusChangedEvent event = new OrderStatusChangedEvent(
+                UUID.randomUUID(), OrderStatus.READY, OrderStatus.DELIVERED, Instant.now());
+
+        assertThat(OrderEventCodec.decode(OrderEventCodec.encode(event))).isEqualTo(event);
+    }
+
+    @Test
+    void shouldRoundTripWithoutOldStatus() {
+        OrderStatusChangedEvent event = new OrderStatusChangedEvent(
+                UUID.randomUUID(), null, OrderStatus.CREATED, Instant.now());
+
+        assertThat(OrderEventCodec.decode(OrderEventCodec.encode(event)).oldStatus()).isNull();
+    }
+
+    @Test
+    void shouldKeepV1WireFormat() {
+        assertThat(HexFormat.of().formatHex(OrderEventCodec.encode(V1_EVENT))).isEqualTo(V1_FIXTURE);
+        assertThat(OrderEventCodec.decode(HexFormat.of().parseHex(V1_FIXTURE))).isEqualTo(V1_EVENT);
+    }
+
+    @Test
+    void shouldIgnoreAppendedFields() {
+        byte[] v1 = HexFormat.of().parseHex(V1_FIXTURE);
+        byte[] extended = Arrays.copyOf(v1, v1.length + 8);
+
+        assertThat(OrderEventCodec.decode(extended)).isEqualTo(V1_EVENT);
+    }
+
+    @Test
+    void shouldEncodeEveryStatus() {
+        for (OrderStatus status : OrderStatus.values()) {
+            OrderStatusChangedEvent event = new OrderStatusChangedEvent(
+                    UUID.randomUUID(), status, status, Instant.EPOCH);
+
+            assertThat(OrderEventCodec.decode(OrderEventCodec.encode(event))).isEqualTo(event);
+        }
+    }
+
+    @Test
+    void shouldRejectUnknownVersionAndTruncatedRecords() {
+        byte[] unknown = HexFormat.of().parseHex(V1_FIXTURE);
+        unknown[1] = 9;
+
+        assertThatThrownBy(() -> OrderEventCodec.decode(unknown))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version 9");
+        assertThatThrownBy(() -> OrderEventCodec.decode(Arrays.copyOf(unknown, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldBeSmallerThanJson() throws Exception {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        OrderStatusChangedEvent event = new OrderStatusChangedEvent(
+                UUID.randomUUID(), OrderStatus.PREPARING, OrderStatus.READY, Instant.now());
+
+        byte[] json = mapper.writeValueAsBytes(event);
+        byte[] binary = OrderEventCodec.encode(event);
+
+        assertThat(binary.length).isEqualTo(32);
+        assertThat(binary.length * 3).isLessThan(json.length);
+    }
+}
@@ -0,0 +1,56 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusHistoryResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderHistoryArchiveFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldReadBackRowsOfOneOrder() throws Exception {
+        UUID first = UUID.fromString("10000000-0000-0000-0000-000000000000");
+        UUID second = UUID.fromString("f0000000-0000-0000-0000-000000000000");
+        Instant at = Instant.parse("2024-01-10T12:00:00Z");
+        Path file = dir.resolve("order_status_history_p202401.csv.gz");
+
+        try (OrderHistoryArchiveFile.ArchiveWriter writer = OrderHistoryArchiveFile.open(file)) {
+            writer.write(UUID.randomUUID(), first, OrderStatus.CREATED, OrderStatus.ACCEPTED, at);
+            writer.write(UUID.randomUUID(), first, OrderStatus.ACCEPTED, OrderStatus.PREPARING, at.plusSeconds(60));
+            writer.write(UUID.randomUUID(), second, null, OrderStatus.CANCELLED, at);
+            assertThat(writer.commit()).isEqualTo(3);
+        }
+
+        List<OrderStatusHistoryResponse> rows = OrderHistoryArchiveFile.read(file, first);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(1).getNewStatus()).isEqualTo(OrderStatus.PREPARING);
+        assertThat(rows.get(1).getChangedAt()).isEqualTo(at.plusSeconds(60));
+        assertThat(OrderHistoryArchiveFile.read(file, second).get(0).getOldStatus()).isNull();
+        assertThat(OrderHistoryArchiveFile.read(file, UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void shouldLeaveNothingBehindWithoutCommit() throws Exception {
+        Path file = dir.resolve("order_status_history_p202402.csv.gz");
+
+        try (OrderHistoryArchiveFile.ArchiveWriter writer = OrderHistoryArchiveFile.open(file)) {
+            writer.write(UUID.randomUUID(), UUID.randomUUID(), null, OrderStatus.CREATED, Instant.EPOCH);
+        }
+
+        try (var files = Files.list(dir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+}
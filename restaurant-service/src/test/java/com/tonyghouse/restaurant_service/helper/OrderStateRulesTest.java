@@ -34,6 +34,13 @@ class OrderStateRulesTest {
         assertThat(OrderStateRules.canTransition(READY, DELIVERED)).isTrue();
     }
 
+    @Test
+    void shouldListSourcesInLifecycleOrder() {
+        assertThat(OrderStateRules.sourcesOf(ACCEPTED)).containsExactly(CREATED);
+        assertThat(OrderStateRules.sourcesOf(CANCELLED)).containsExactly(CREATED, ACCEPTED, PREPARING);
+        assertThat(OrderStateRules.sourcesOf(CREATED)).isEmpty();
+    }
+
     // INVALID TRANSITIONS (false)
     @Test
     void shouldRejectInvalidTransitions() {
@@ -0,0 +1,81 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.constants.OrderTransitionGuard;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.tonyghouse.restaurant_service.constants.OrderStatus.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderWorkflowTest {
+
+    private static final List<OrderWorkflow.Transition> CLOUD_KITCHEN = List.of(
+            allow(CREATED, ACCEPTED),
+            allow(CREATED, CANCELLED),
+            allow(ACCEPTED, PREPARING),
+            allow(PREPARING, READY),
+            allow(READY, PICKED_UP),
+            new OrderWorkflow.Transition(PICKED_UP, DELIVERED, OrderTransitionGuard.PAYMENT_INITIATED)
+    );
+
+    @Test
+    void shouldCompileTransitionsIntoLookups() {
+        OrderWorkflow workflow = OrderWorkflow.compile(4, CLOUD_KITCHEN);
+
+        assertThat(workflow.version()).isEqualTo(4);
+        assertThat(workflow.canTransition(READY, PICKED_UP)).isTrue();
+        assertThat(workflow.canTransition(READY, DELIVERED)).isFalse();
+        assertThat(workflow.canTransition(ACCEPTED, CANCELLED)).isFalse();
+        assertThat(workflow.canTransition(null, ACCEPTED)).isFalse();
+        assertThat(workflow.sourcesOf(CANCELLED)).containsExactly(CREATED);
+        assertThat(workflow.sourcesOf(CREATED)).isEmpty();
+    }
+
+    @Test
+    void shouldExposeGuards() {
+        OrderWorkflow workflow = OrderWorkflow.compile(1, CLOUD_KITCHEN);
+
+        assertThat(workflow.guard(PICKED_UP, DELIVERED)).isEqualTo(OrderTransitionGuard.PAYMENT_INITIATED);
+        assertThat(workflow.guard(READY, PICKED_UP)).isNull();
+        assertThat(workflow.isGuarded(DELIVERED)).isTrue();
+        assertThat(workflow.isGuarded(PICKED_UP)).isFalse();
+    }
+
+    @Test
+    void shouldRejectTransitionsOutOfFinalStatuses() {
+        assertThatThrownBy(() -> OrderWorkflow.compile(1, List.of(
+                allow(CREATED, DELIVERED),
+                allow(DELIVERED, CANCELLED))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("DELIVERED is final");
+    }
+
+    @Test
+    void shouldRejectDeadEnds() {
+        assertThatThrownBy(() -> OrderWorkflow.compile(1, List.of(
+                allow(CREATED, ACCEPTED),
+                allow(CREATED, CANCELLED))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ACCEPTED could never leave");
+    }
+
+    @Test
+    void shouldRejectMalformedDefinitions() {
+        assertThatThrownBy(() -> OrderWorkflow.compile(1, List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderWorkflow.compile(1, List.of(allow(CREATED, CREATED))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderWorkflow.compile(1, List.of(
+                allow(CREATED, CANCELLED), allow(CREATED, CANCELLED))))
+                .hasMessageContaining("Duplicate");
+        assertThatThrownBy(() -> OrderWorkflow.compile(1, List.of(allow(ACCEPTED, CANCELLED))))
+                .hasMessageContaining("out of CREATED");
+    }
+
+    private static OrderWorkflow.Transition allow(OrderStatus from, OrderStatus to) {
+        return new OrderWorkflow.Transition(from, to, null);
+    }
+}
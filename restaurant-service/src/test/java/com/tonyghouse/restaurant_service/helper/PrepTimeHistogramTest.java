@@ -0,0 +1,61 @@
+package com.tonyghouse.restaurant_service.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrepTimeHistogramTest {
+
+    @Test
+    void shouldBucketByFifteenSecondsWithOverflow() {
+        assertThat(PrepTimeHistogram.bucketOf(Duration.ofSeconds(14))).isZero();
+        assertThat(PrepTimeHistogram.bucketOf(Duration.ofSeconds(15))).isEqualTo(1);
+        assertThat(PrepTimeHistogram.bucketOf(Duration.ofMinutes(10))).isEqualTo(40);
+        assertThat(PrepTimeHistogram.bucketOf(Duration.ofHours(2))).isEqualTo(PrepTimeHistogram.OVERFLOW_BUCKET);
+        // clock skew between ACCEPTED and READY must not produce a negative bucket
+        assertThat(PrepTimeHistogram.bucketOf(Duration.ofSeconds(-5))).isZero();
+    }
+
+    @Test
+    void shouldReadPercentilesAsBucketUpperBound() {
+        PrepTimeHistogram histogram = new PrepTimeHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.add(Duration.ofSeconds(i * 10L));
+        }
+
+        assertThat(histogram.count()).isEqualTo(100);
+        // p50 is the 50th sample, 500s, in bucket 33 (495-510s)
+        assertThat(histogram.percentileSeconds(0.5)).isEqualTo(510);
+        assertThat(histogram.percentileSeconds(0.95)).isEqualTo(960);
+        assertThat(histogram.percentileSeconds(1.0)).isEqualTo(1005);
+    }
+
+    @Test
+    void shouldMergeByAddingCounts() {
+        PrepTimeHistogram a = new PrepTimeHistogram();
+        PrepTimeHistogram b = new PrepTimeHistogram();
+        a.add(Duration.ofMinutes(5));
+        b.add(Duration.ofMinutes(5));
+        b.add(Duration.ofMinutes(40));
+
+        a.merge(b);
+
+        assertThat(a.count()).isEqualTo(3);
+        assertThat(a.count(20)).isEqualTo(2);
+        assertThat(a.percentileSeconds(0.95)).isEqualTo(1800);
+    }
+
+    @Test
+    void shouldReturnZeroWhenEmpty() {
+        assertThat(new PrepTimeHistogram().percentileSeconds(0.95)).isZero();
+    }
+
+    @Test
+    void shouldRejectUnknownBucket() {
+        assertThatThrownBy(() -> new PrepTimeHistogram().addBucket(PrepTimeHistogram.BUCKETS, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
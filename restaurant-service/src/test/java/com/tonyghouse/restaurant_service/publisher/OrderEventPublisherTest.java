@@ -3,27 +3,36 @@ package com.tonyghouse.restaurant_service.publisher;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tonyghouse.restaurant_service.constants.OrderEventEncoding;
 import com.tonyghouse.restaurant_service.constants.OrderStatus;
 import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.helper.OrderEventCodec;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 class OrderEventPublisherTest {
 
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
     private OrderEventPublisher publisher;
 
     @BeforeEach
     void setup() {
         kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(new CompletableFuture<>());
         publisher = new OrderEventPublisher(kafkaTemplate);
     }
 
@@ -41,35 +50,46 @@ class OrderEventPublisherTest {
 
         publisher.publish(event);
 
-        ArgumentCaptor<String> topicCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> payloadCaptor = ArgumentCaptor.forClass(String.class);
+        ProducerRecord<String, byte[]> record = captureRecord();
 
-        verify(kafkaTemplate).send(
-                topicCaptor.capture(),
-                keyCaptor.capture(),
-                payloadCaptor.capture()
-        );
-
-        assertThat(topicCaptor.getValue()).isEqualTo("order.events");
-        assertThat(keyCaptor.getValue()).isEqualTo(orderId.toString());
+        assertThat(record.topic()).isEqualTo("order.events");
+        assertThat(record.key()).isEqualTo(orderId.toString());
+        assertThat(header(record)).isEqualTo("application/json");
 
         // verify JSON correctness - use same ObjectMapper config as production code
         ObjectMapper mapper = new ObjectMapper()
                 .registerModule(new JavaTimeModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        String expectedPayload = mapper.writeValueAsString(event);
+        String payload = new String(record.value(), StandardCharsets.UTF_8);
 
-        assertThat(payloadCaptor.getValue()).contains(orderId.toString());
-        assertThat(payloadCaptor.getValue()).contains("CREATED");
+        assertThat(mapper.readValue(payload, OrderStatusChangedEvent.class)).isEqualTo(event);
+        assertThat(payload).contains(orderId.toString());
+        assertThat(payload).contains("CREATED");
+    }
+
+    @Test
+    void shouldPublishBinaryWithVersionedContentType() {
+        ReflectionTestUtils.setField(publisher, "encoding", OrderEventEncoding.BINARY);
+        OrderStatusChangedEvent event = new OrderStatusChangedEvent(
+                UUID.randomUUID(),
+                OrderStatus.CREATED,
+                OrderStatus.ACCEPTED,
+                Instant.parse("2025-01-01T00:00:00Z")
+        );
+
+        publisher.publish(event);
+
+        ProducerRecord<String, byte[]> record = captureRecord();
+        assertThat(header(record)).isEqualTo("application/vnd.resto.order-status-changed.v1+binary");
+        assertThat(OrderEventCodec.decode(record.value())).isEqualTo(event);
     }
 
     @Test
     void shouldNotThrowIfSerializationFails() {
-        KafkaTemplate<String, String> template = mock(KafkaTemplate.class);
+        KafkaTemplate<String, byte[]> template = mock(KafkaTemplate.class);
 
         doThrow(new RuntimeException("Kafka error"))
-                .when(template).send(anyString(), anyString(), anyString());
+                .when(template).send(any(ProducerRecord.class));
 
         OrderEventPublisher publisher = new OrderEventPublisher(template);
 
@@ -81,8 +101,38 @@ class OrderEventPublisherTest {
                 Instant.now()
         );
 
-        publisher.publish(event);
+        CompletableFuture<?> result = publisher.publish(event);
+
+        verify(template).send(any(ProducerRecord.class));
+        assertThat(result).isCompletedExceptionally();
+    }
+
+    @Test
+    void shouldFailFutureWhenBrokerRejects() {
+        CompletableFuture<SendResult<String, byte[]>> send = new CompletableFuture<>();
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(send);
+
+        CompletableFuture<?> result = publisher.publish(new OrderStatusChangedEvent(
+                UUID.randomUUID(),
+                OrderStatus.CREATED,
+                OrderStatus.ACCEPTED,
+                Instant.now()
+        ));
+        send.completeExceptionally(new RuntimeException("not leader"));
+
+        assertThat(result).isCompletedExceptionally();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProducerRecord<String, byte[]> captureRecord() {
+        ArgumentCaptor<ProducerRecord<String, byte[]>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(captor.capture());
+        return captor.getValue();
+    }
 
-        verify(template).send(anyString(), anyString(), anyString());
+    private static String header(ProducerRecord<String, byte[]> record) {
+        return new String(
+                record.headers().lastHeader(OrderEventPublisher.CONTENT_TYPE_HEADER).value(),
+                StandardCharsets.UTF_8);
     }
-}
\ No newline at end of file
+}
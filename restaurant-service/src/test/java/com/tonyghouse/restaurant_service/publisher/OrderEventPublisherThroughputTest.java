@@ -0,0 +1,81 @@
+package com.tonyghouse.restaurant_service.publisher;
+
+import com.tonyghouse.restaurant_service.config.KafkaProducerConfig;
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pushes a burst of status events through the production producer settings against an
+ * embedded broker. All sends are issued before any ack is awaited, the way the outbox
+ * relay uses the publisher.
+ */
+@SpringJUnitConfig(KafkaProducerConfig.class)
+@EmbeddedKafka(
+        partitions = 12,
+        topics = "order.events",
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers"
+)
+class OrderEventPublisherThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventPublisherThroughputTest.class);
+
+    private static final int EVENTS = 5_000;
+    private static final int ORDERS = 500;
+
+    @Autowired
+    KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Test
+    void shouldAckBurstSpreadAcrossPartitions() throws Exception {
+        OrderEventPublisher publisher = new OrderEventPublisher(kafkaTemplate);
+
+        List<UUID> orderIds = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            orderIds.add(UUID.randomUUID());
+        }
+
+        Set<Integer> partitions = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(EVENTS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            sends.add(publisher.publish(new OrderStatusChangedEvent(
+                    orderIds.get(i % ORDERS),
+                    OrderStatus.CREATED,
+                    OrderStatus.ACCEPTED,
+                    Instant.now()
+            )).whenComplete((result, ex) -> {
+                if (result != null) {
+                    partitions.add(result.getRecordMetadata().partition());
+                }
+            }));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        log.info("order.events: {} events acked in {} ms ({} events/s)",
+                EVENTS, elapsedMs, EVENTS * 1000L / Math.max(elapsedMs, 1));
+
+        assertThat(sends).allMatch(f -> f.isDone() && !f.isCompletedExceptionally());
+        assertThat(partitions).hasSizeGreaterThan(1);
+    }
+}
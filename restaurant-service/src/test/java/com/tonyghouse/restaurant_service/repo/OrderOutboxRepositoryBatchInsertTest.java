@@ -0,0 +1,78 @@
+package com.tonyghouse.restaurant_service.repo;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.entity.OrderOutboxEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Outbox rows of a bulk transition are inserted in batches: ids come from a pooled
+ * sequence, not IDENTITY, which would force one INSERT per row.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class OrderOutboxRepositoryBatchInsertTest {
+
+    private static final int ROWS = 200;
+
+    @Autowired
+    OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void saveRows_insertsInBatchesAndKeepsInsertOrder() {
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            OrderOutboxEvent row = new OrderOutboxEvent();
+            row.setOrderId(UUID.randomUUID());
+            row.setOldStatus(OrderStatus.CREATED);
+            row.setNewStatus(OrderStatus.ACCEPTED);
+            row.setChangedAt(Instant.parse("2025-01-01T00:00:00Z"));
+            row.setCreatedAt(Instant.parse("2025-01-01T00:00:00Z"));
+            outboxRepository.save(row);
+            orderIds.add(row.getOrderId());
+        }
+        entityManager.flush();
+
+        // 4 sequence calls and 4 batched INSERTs, instead of 200 single-row INSERTs
+        long prepared = statistics.getPrepareStatementCount();
+        assertTrue(prepared <= 2L * ROWS / 50 + 1,
+                "expected batched inserts, but " + prepared + " statements were prepared for " + ROWS + " rows");
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+
+        entityManager.clear();
+        List<OrderOutboxEvent> pending = outboxRepository.findPending(PageRequest.of(0, ROWS));
+        assertEquals(orderIds, pending.stream().map(OrderOutboxEvent::getOrderId).toList());
+    }
+}
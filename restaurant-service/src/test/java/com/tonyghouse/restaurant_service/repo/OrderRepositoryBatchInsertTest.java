@@ -0,0 +1,89 @@
+package com.tonyghouse.restaurant_service.repo;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.entity.Branch;
+import com.tonyghouse.restaurant_service.entity.Order;
+import com.tonyghouse.restaurant_service.entity.OrderItem;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures JDBC statements prepared while persisting one order with many lines.
+ * Without batching every order_item row is its own round trip (N + 1 statements).
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class OrderRepositoryBatchInsertTest {
+
+    private static final int LINES = 30;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+    Branch branch;
+
+    @BeforeEach
+    void setup() {
+        branch = new Branch();
+        branch.setName("Downtown");
+        branch.setCreatedAt(Instant.parse("2025-01-01T00:00:00Z"));
+        entityManager.persistAndFlush(branch);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void saveOrder_cascadesItemsInBatchedStatements() {
+        Order order = new Order();
+        order.setBranch(branch);
+        order.setStatus(OrderStatus.CREATED);
+        order.setTotalAmount(new BigDecimal("300.00"));
+        order.setCreatedAt(Instant.parse("2025-01-01T00:00:00Z"));
+
+        for (int i = 0; i < LINES; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setItemName("Item " + i);
+            item.setItemType("ITEM");
+            item.setQuantity(1);
+            item.setUnitPrice(new BigDecimal("10.00"));
+            item.setTotalPrice(new BigDecimal("10.00"));
+            order.getItems().add(item);
+        }
+
+        orderRepository.save(order);
+        entityManager.flush();
+
+        // one INSERT for orders + one batched INSERT for order_item, instead of 1 + 30
+        long prepared = statistics.getPrepareStatementCount();
+        assertTrue(prepared <= 2,
+                "expected batched inserts, but " + prepared + " statements were prepared for " + LINES + " lines");
+        assertEquals(LINES + 1, statistics.getEntityInsertCount());
+
+        entityManager.clear();
+        assertEquals(LINES, orderRepository.findById(order.getId()).orElseThrow().getItems().size());
+    }
+}
@@ -0,0 +1,132 @@
+package com.tonyghouse.restaurant_service.repo;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.entity.Branch;
+import com.tonyghouse.restaurant_service.entity.Order;
+import com.tonyghouse.restaurant_service.entity.OrderItem;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The order tracking page reads order, branch and items together. Without the fetch
+ * joins this is 1 query for the order plus one lazy load each for branch and items.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class OrderRepositoryReadModelTest {
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+    Branch branch;
+    Order order;
+
+    @BeforeEach
+    void setup() {
+        branch = new Branch();
+        branch.setName("Downtown");
+        branch.setCreatedAt(Instant.parse("2025-01-01T00:00:00Z"));
+        entityManager.persist(branch);
+
+        order = new Order();
+        order.setBranch(branch);
+        order.setStatus(OrderStatus.CREATED);
+        order.setItemsTotal(new BigDecimal("30.00"));
+        order.setTaxAmount(new BigDecimal("5.40"));
+        order.setDeliveryCharge(new BigDecimal("0.00"));
+        order.setTotalAmount(new BigDecimal("35.40"));
+        order.setCreatedAt(Instant.parse("2025-01-01T00:00:00Z"));
+        for (int i = 0; i < 3; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setItemName("Item " + i);
+            item.setItemType("ITEM");
+            item.setQuantity(1);
+            item.setUnitPrice(new BigDecimal("10.00"));
+            item.setTotalPrice(new BigDecimal("10.00"));
+            order.getItems().add(item);
+        }
+        entityManager.persist(order);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findDetailedById_loadsBranchAndItemsInOneQuery() {
+        Order loaded = orderRepository.findDetailedById(order.getId()).orElseThrow();
+
+        assertEquals("Downtown", loaded.getBranch().getName());
+        assertEquals(3, loaded.getItems().size());
+        assertEquals(new BigDecimal("5.40"), loaded.getTaxAmount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void branchPages_seekPastCursorWithoutGapsOrDuplicates() {
+        Instant sameInstant = Instant.parse("2025-01-01T10:00:00Z");
+        for (int i = 0; i < 4; i++) {
+            Order o = new Order();
+            o.setBranch(branch);
+            o.setStatus(i == 3 ? OrderStatus.CANCELLED : OrderStatus.CREATED);
+            o.setTotalAmount(new BigDecimal("10.00"));
+            // two orders share a timestamp so the id tie-breaker is exercised
+            o.setCreatedAt(i < 2 ? sameInstant : sameInstant.plusSeconds(60L * i));
+            entityManager.persist(o);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        Instant to = Instant.parse("2025-01-02T00:00:00Z");
+        Set<OrderStatus> created = EnumSet.of(OrderStatus.CREATED);
+
+        List<Order> first = orderRepository.findBranchPage(
+                branch.getId(), from, to, created, PageRequest.of(0, 2));
+        Order last = first.get(first.size() - 1);
+        List<Order> second = orderRepository.findBranchPageAfter(
+                branch.getId(), from, to, created, last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+
+        List<UUID> seen = new ArrayList<>();
+        first.forEach(o -> seen.add(o.getId()));
+        second.forEach(o -> seen.add(o.getId()));
+
+        // 3 CREATED orders at 10:00, 10:00, 10:02 plus the setup order at midnight
+        assertEquals(2, first.size());
+        assertEquals(2, second.size());
+        assertEquals(4, new HashSet<>(seen).size());
+        assertEquals(Instant.parse("2025-01-01T10:02:00Z"), first.get(0).getCreatedAt());
+        assertEquals(order.getId(), second.get(1).getId());
+    }
+}
@@ -0,0 +1,68 @@
+package com.tonyghouse.restaurant_service.repo;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.entity.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The transition write is a compare-and-set on status: it succeeds only from the
+ * expected status, so the second of two racing transitions updates nothing.
+ */
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@ActiveProfiles("test")
+class OrderRepositoryTransitionTest {
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    Order order;
+
+    @BeforeEach
+    void setup() {
+        order = new Order();
+        order.setStatus(OrderStatus.CREATED);
+        order.setTotalAmount(new BigDecimal("10.00"));
+        order.setCreatedAt(Instant.parse("2025-01-01T00:00:00Z"));
+        entityManager.persistAndFlush(order);
+        entityManager.clear();
+    }
+
+    @Test
+    void transitionStatus_updatesOnlyFromExpectedStatus() {
+        int accepted = orderRepository.transitionStatus(
+                order.getId(), List.of(OrderStatus.CREATED), OrderStatus.ACCEPTED);
+        int cancelled = orderRepository.transitionStatus(
+                order.getId(), List.of(OrderStatus.CREATED), OrderStatus.CANCELLED);
+
+        assertEquals(1, accepted);
+        assertEquals(0, cancelled);
+        assertEquals(OrderStatus.ACCEPTED, entityManager.find(Order.class, order.getId()).getStatus());
+    }
+
+    @Test
+    void transitionStatus_fromSeveralSources_keepsTheStatusItReplaced() {
+        orderRepository.transitionStatus(order.getId(), List.of(OrderStatus.CREATED), OrderStatus.ACCEPTED);
+
+        int cancelled = orderRepository.transitionStatus(order.getId(),
+                List.of(OrderStatus.CREATED, OrderStatus.ACCEPTED, OrderStatus.PREPARING), OrderStatus.CANCELLED);
+
+        assertEquals(1, cancelled);
+        assertEquals(Optional.of(OrderStatus.ACCEPTED), orderRepository.findPreviousStatusById(order.getId()));
+        assertEquals(OrderStatus.CANCELLED, entityManager.find(Order.class, order.getId()).getStatus());
+    }
+}
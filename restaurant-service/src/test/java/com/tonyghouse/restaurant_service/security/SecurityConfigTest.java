@@ -3,6 +3,8 @@ package com.tonyghouse.restaurant_service.security;
 import com.tonyghouse.restaurant_service.controller.BranchController;
 import com.tonyghouse.restaurant_service.dto.BranchResponse;
 import com.tonyghouse.restaurant_service.service.BranchService;
+import com.tonyghouse.restaurant_service.service.OrderWorkflowService;
+import com.tonyghouse.restaurant_service.service.PrepTimeAnalyticsService;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
@@ -38,6 +40,12 @@ class SecurityConfigTest {
     @MockBean
     BranchService branchService;
 
+    @MockBean
+    OrderWorkflowService orderWorkflowService;
+
+    @MockBean
+    PrepTimeAnalyticsService prepTimeAnalyticsService;
+
     @MockBean
     Clock clock;
 
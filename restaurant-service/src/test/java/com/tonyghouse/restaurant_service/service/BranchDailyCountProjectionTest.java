@@ -0,0 +1,91 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.repo.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BranchDailyCountProjectionTest {
+
+    @Mock
+    OrderRepository orderRepository;
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    BranchDailyCountProjection projection;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void apply_countsPerBranchDayAndStatus() {
+        UUID branchId = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        Mockito.when(orderRepository.findBranchIdsByIdIn(anyCollection()))
+                .thenReturn(List.of(orderBranch(first, branchId), orderBranch(second, branchId)));
+
+        projection.apply(List.of(
+                event(first, OrderStatus.ACCEPTED, "2025-01-01T10:00:00Z"),
+                event(second, OrderStatus.ACCEPTED, "2025-01-01T23:59:00Z"),
+                event(first, OrderStatus.DELIVERED, "2025-01-02T00:10:00Z"),
+                event(unknown, OrderStatus.ACCEPTED, "2025-01-01T10:00:00Z")
+        ));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        Object[] accepted = rows.getValue().stream()
+                .filter(r -> r[2].equals("ACCEPTED"))
+                .findFirst().orElseThrow();
+        assertEquals(branchId, accepted[0]);
+        assertEquals(Date.valueOf("2025-01-01"), accepted[1]);
+        assertEquals(2L, accepted[3]);
+    }
+
+    @Test
+    void apply_emptyBatch_writesNothing() {
+        projection.apply(List.of());
+
+        Mockito.verifyNoInteractions(orderRepository, jdbcTemplate);
+    }
+
+    private static OrderStatusChangedEvent event(UUID orderId, OrderStatus to, String at) {
+        return new OrderStatusChangedEvent(orderId, null, to, Instant.parse(at));
+    }
+
+    private static OrderRepository.OrderBranch orderBranch(UUID orderId, UUID branchId) {
+        return new OrderRepository.OrderBranch() {
+            @Override
+            public UUID getOrderId() {
+                return orderId;
+            }
+
+            @Override
+            public UUID getBranchId() {
+                return branchId;
+            }
+        };
+    }
+}
@@ -6,11 +6,13 @@ import com.tonyghouse.restaurant_service.dto.CreateBranchRequest;
 import com.tonyghouse.restaurant_service.dto.UpdateBranchRequest;
 import com.tonyghouse.restaurant_service.entity.Branch;
 import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.CacheCodec;
+import com.tonyghouse.restaurant_service.helper.CacheCodecs;
 import com.tonyghouse.restaurant_service.repo.BranchRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.AdditionalMatchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -22,6 +24,7 @@ import org.springframework.data.domain.Pageable;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.List;
@@ -49,13 +52,13 @@ class BranchServiceImplTest {
 
 
 
-    @InjectMocks
     BranchServiceImpl branchService;
 
     @BeforeEach
     void setup() {
         Mockito.when(jedisPool.getResource()).thenReturn(jedis);
         Mockito.when(clock.instant()).thenReturn(Instant.parse("2025-01-01T00:00:00Z"));
+        branchService = new BranchServiceImpl(branchRepository, new CatalogCacheServiceImpl(jedisPool, clock), clock);
     }
 
 
@@ -76,11 +79,17 @@ class BranchServiceImplTest {
     @Test
     void getBranch_cacheHit() {
         UUID id = UUID.randomUUID();
-        Mockito.when(jedis.get("branch:" + id)).thenReturn("Cached");
+        BranchResponse cached = new BranchResponse();
+        cached.setId(id);
+        cached.setName("Cached");
+        cached.setLocation("Whitefield");
+        Mockito.when(jedis.get(bytes("branch:" + id))).thenReturn(cached(CacheCodecs.smile(BranchResponse.class), cached));
 
         BranchResponse response = branchService.getBranch(id);
 
         assertEquals("Cached", response.getName());
+        assertEquals("Whitefield", response.getLocation());
+        Mockito.verifyNoInteractions(branchRepository);
     }
 
     @Test
@@ -90,19 +99,20 @@ class BranchServiceImplTest {
         branch.setId(id);
         branch.setName("DB");
 
-        Mockito.when(jedis.get("branch:" + id)).thenReturn(null);
+        Mockito.when(jedis.get(bytes("branch:" + id))).thenReturn(null);
         Mockito.when(branchRepository.findById(id)).thenReturn(Optional.of(branch));
 
         BranchResponse response = branchService.getBranch(id);
 
         assertEquals("DB", response.getName());
-        Mockito.verify(jedis).setex("branch:" + id, 300, "DB");
+        Mockito.verify(jedis).setex(
+                AdditionalMatchers.aryEq(bytes("branch:" + id)), Mockito.longThat(ttl -> ttl >= 3_600 && ttl <= 3_960), Mockito.any(byte[].class));
     }
 
     @Test
     void getBranch_notFound() {
         UUID id = UUID.randomUUID();
-        Mockito.when(jedis.get("branch:" + id)).thenReturn(null);
+        Mockito.when(jedis.get(bytes("branch:" + id))).thenReturn(null);
         Mockito.when(branchRepository.findById(id)).thenReturn(Optional.empty());
 
         assertThrows(RestoRestaurantException.class, () -> branchService.getBranch(id));
@@ -142,7 +152,7 @@ class BranchServiceImplTest {
         BranchResponse res = branchService.updateBranch(id, req);
 
         assertEquals("N", res.getName());
-        Mockito.verify(jedis).del("branch:" + id);
+        Mockito.verify(jedis).del(new String[]{"branch:" + id});
     }
 
     @Test
@@ -162,7 +172,7 @@ class BranchServiceImplTest {
         branchService.deleteBranch(id);
 
         Mockito.verify(branchRepository).deleteById(id);
-        Mockito.verify(jedis).del("branch:" + id);
+        Mockito.verify(jedis).del(new String[]{"branch:" + id});
     }
 
     @Test
@@ -172,4 +182,14 @@ class BranchServiceImplTest {
 
         assertThrows(RestoRestaurantException.class, () -> branchService.deleteBranch(id));
     }
+
+    // a Redis value written by another instance, still fresh at the mocked clock
+    private static <T> byte[] cached(CacheCodec<T> codec, T value) {
+        Instant written = Instant.parse("2025-01-01T00:00:00Z");
+        return CatalogCacheServiceImpl.envelope(codec, value, written.plusSeconds(300), written.plusSeconds(3_600));
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
 }
@@ -0,0 +1,418 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.CacheStatsResponse;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.CacheCodecs;
+import com.tonyghouse.restaurant_service.helper.CacheRegion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.params.SetParams;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CatalogCacheServiceImplTest {
+
+    // fresh for a minute, kept for ten
+    static final CacheRegion<String> REGION = new CacheRegion<>("test", 60, 600, 2, CacheCodecs.json(String.class));
+    static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Mock
+    JedisPool jedisPool;
+
+    @Mock
+    Jedis jedis;
+
+    @Mock
+    Clock clock;
+
+    @InjectMocks
+    CatalogCacheServiceImpl cache;
+
+    final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setup() {
+        lenient().when(jedisPool.getResource()).thenReturn(jedis);
+        lenient().when(clock.instant()).thenReturn(NOW);
+        // exact TTLs unless a test turns jitter back on
+        ReflectionTestUtils.setField(cache, "ttlJitter", 0.0);
+    }
+
+    @Test
+    void miss_loadsWritesRedisAndServesNextReadLocally() {
+        assertEquals("loaded", cache.get(REGION.key("a"), this::load));
+        assertEquals("loaded", cache.get(REGION.key("a"), this::load));
+
+        assertEquals(1, loads.get());
+        Mockito.verify(jedis, Mockito.times(1)).get(bytes("test:a"));
+        Mockito.verify(jedis).setex(bytes("test:a"), 600L, written("loaded"));
+    }
+
+    @Test
+    void redisHit_isDecodedOnceThenLocal() {
+        Mockito.when(jedis.get(bytes("test:a"))).thenReturn(written("from-redis"));
+
+        assertEquals("from-redis", cache.get(REGION.key("a"), this::load));
+        assertEquals("from-redis", cache.get(REGION.key("a"), this::load));
+
+        assertEquals(0, loads.get());
+        Mockito.verify(jedis, Mockito.times(1)).get(bytes("test:a"));
+    }
+
+    @Test
+    void unreadableRedisValue_isTreatedAsMiss() {
+        // written before values carried their fresh/expiry envelope
+        Mockito.when(jedis.get(bytes("test:a"))).thenReturn(bytes("old-format"));
+
+        assertEquals("loaded", cache.get(REGION.key("a"), this::load));
+        Mockito.verify(jedis).setex(bytes("test:a"), 600L, written("loaded"));
+    }
+
+    @Test
+    void valueFromOtherCodec_isTreatedAsMiss() {
+        // left by an instance that still wrote the region in another format
+        Mockito.when(jedis.get(bytes("test:a"))).thenReturn(CatalogCacheServiceImpl.envelope(
+                CacheCodecs.smile(String.class), "other-codec", NOW.plusSeconds(60), NOW.plusSeconds(600)));
+
+        assertEquals("loaded", cache.get(REGION.key("a"), this::load));
+        Mockito.verify(jedis).setex(bytes("test:a"), 600L, written("loaded"));
+    }
+
+    @Test
+    void localEntry_pastHardTtl_blocksOnLoad() {
+        cache.get(REGION.key("a"), this::load);
+        Mockito.when(clock.instant()).thenReturn(NOW.plusSeconds(600));
+
+        cache.get(REGION.key("a"), this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.stats().get(0).getStaleHits());
+    }
+
+    @Test
+    void staleLocalEntry_isServedWhileRefreshedInBackground() {
+        cache.get(REGION.key("a"), this::load);
+        Mockito.when(clock.instant()).thenReturn(NOW.plusSeconds(90));
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> slowReload = () -> {
+            awaitQuietly(release);
+            loads.incrementAndGet();
+            return "reloaded";
+        };
+
+        // both return while the reload is still blocked; the second joins the running refresh
+        assertEquals("loaded", cache.get(REGION.key("a"), slowReload));
+        assertEquals("loaded", cache.get(REGION.key("a"), slowReload));
+        release.countDown();
+
+        Mockito.verify(jedis, Mockito.timeout(1_000))
+                .setex(bytes("test:a"), 600L, CatalogCacheServiceImpl.envelope(REGION.codec(),
+                        "reloaded", NOW.plusSeconds(150), NOW.plusSeconds(690)));
+        CacheStatsResponse stats = cache.stats().get(0);
+        assertEquals(2, stats.getStaleHits());
+        assertEquals(1, stats.getRefreshes());
+        assertEquals(2.0 / 3, stats.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    void staleRedisValue_isServedAndRefreshed() {
+        Mockito.when(jedis.get(bytes("test:a"))).thenReturn(CatalogCacheServiceImpl.envelope(
+                REGION.codec(), "old", NOW.minusSeconds(1), NOW.plusSeconds(300)), (byte[]) null);
+
+        assertEquals("old", cache.get(REGION.key("a"), this::load));
+
+        Mockito.verify(jedis, Mockito.timeout(1_000)).setex(bytes("test:a"), 600L, written("loaded"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void failedRefresh_keepsServingStaleValue() {
+        cache.get(REGION.key("a"), this::load);
+        Mockito.when(clock.instant()).thenReturn(NOW.plusSeconds(90));
+        CountDownLatch failed = new CountDownLatch(1);
+
+        assertEquals("loaded", cache.get(REGION.key("a"), () -> {
+            failed.countDown();
+            throw new IllegalStateException("database down");
+        }));
+
+        awaitQuietly(failed);
+        assertEquals("loaded", cache.get(REGION.key("a"), this::load));
+        assertEquals(1, cache.stats().get(0).getLocalEntries());
+    }
+
+    @Test
+    void ttls_getJitterAboveTheRegionTtl() {
+        ReflectionTestUtils.setField(cache, "ttlJitter", 0.1);
+        ArgumentCaptor<Long> ttls = ArgumentCaptor.forClass(Long.class);
+
+        for (int i = 0; i < 50; i++) {
+            cache.get(REGION.key("k" + i), this::load);
+        }
+
+        Mockito.verify(jedis, Mockito.times(50)).setex(any(byte[].class), ttls.capture(), any(byte[].class));
+        assertTrue(ttls.getAllValues().stream().allMatch(ttl -> ttl >= 600 && ttl <= 660));
+        assertTrue(ttls.getAllValues().stream().distinct().count() > 1);
+    }
+
+    @Test
+    void localTier_dropsLeastRecentlyReadBeyondBound() {
+        cache.get(REGION.key("a"), this::load);
+        cache.get(REGION.key("b"), this::load);
+        cache.get(REGION.key("a"), this::load);
+        cache.get(REGION.key("c"), this::load);
+
+        cache.get(REGION.key("a"), this::load);
+        cache.get(REGION.key("b"), this::load);
+
+        // a stayed local; b was dropped for c and had to be fetched again
+        Mockito.verify(jedis, Mockito.times(1)).get(bytes("test:a"));
+        Mockito.verify(jedis, Mockito.times(2)).get(bytes("test:b"));
+    }
+
+    @Test
+    void evict_deletesRedisKeysAndBroadcasts() {
+        cache.get(REGION.key("a"), this::load);
+
+        cache.evict(REGION.key("a"), REGION.key("b"));
+        cache.get(REGION.key("a"), this::load);
+
+        Mockito.verify(jedis).del(new String[]{"test:a", "test:b"});
+        Mockito.verify(jedis).publish(CatalogCacheService.INVALIDATION_CHANNEL, "test a\ntest b");
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictDuringLoad_valueGoesToCallerButIsNotCached() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> caller = pool.submit(() -> cache.get(REGION.key("a"), () -> {
+                loading.countDown();
+                awaitQuietly(evicted);
+                return "read-before-write";
+            }));
+            loading.await();
+            cache.evict(REGION.key("a"));
+            evicted.countDown();
+
+            assertEquals("read-before-write", caller.get());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Mockito.verify(jedis, Mockito.never()).setex(any(byte[].class), Mockito.anyLong(), any(byte[].class));
+        assertEquals("loaded", cache.get(REGION.key("a"), this::load));
+    }
+
+    @Test
+    void evictDuringBackgroundRefresh_dropsTheRefreshedValue() {
+        cache.get(REGION.key("a"), this::load);
+        Mockito.when(clock.instant()).thenReturn(NOW.plusSeconds(90));
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        assertEquals("loaded", cache.get(REGION.key("a"), () -> {
+            refreshing.countDown();
+            awaitQuietly(evicted);
+            refreshed.countDown();
+            return "read-before-write";
+        }));
+        awaitQuietly(refreshing);
+        cache.evict(REGION.key("a"));
+        evicted.countDown();
+        awaitQuietly(refreshed);
+
+        // the eviction wins: the next read loads again rather than serving the refresh's value
+        Mockito.verify(jedis, Mockito.after(200).never()).setex(bytes("test:a"), 600L,
+                CatalogCacheServiceImpl.envelope(REGION.codec(), "read-before-write",
+                        NOW.plusSeconds(150), NOW.plusSeconds(690)));
+        assertEquals("loaded", cache.get(REGION.key("a"), this::load));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void applyInvalidation_dropsLocalCopyFromOtherInstance() {
+        cache.get(REGION.key("a"), this::load);
+        Mockito.when(jedis.get(bytes("test:a"))).thenReturn(written("updated"));
+
+        cache.applyInvalidation("test a\nunknown-region x\nmalformed");
+
+        assertEquals("updated", cache.get(REGION.key("a"), this::load));
+        Mockito.verify(jedis, Mockito.never()).publish(anyString(), anyString());
+    }
+
+    @Test
+    void stats_reportHitRatioPerTier() {
+        Mockito.when(jedis.get(bytes("test:b"))).thenReturn(written("from-redis"));
+        cache.get(REGION.key("a"), this::load);
+        cache.get(REGION.key("a"), this::load);
+        cache.get(REGION.key("a"), this::load);
+        cache.get(REGION.key("b"), this::load);
+
+        CacheStatsResponse stats = cache.stats().get(0);
+
+        assertEquals("test", stats.getRegion());
+        assertEquals(2, stats.getLocalHits());
+        assertEquals(1, stats.getRedisHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.75, stats.getHitRatio(), 1e-9);
+        assertEquals(0.5, stats.getLocalHitRatio(), 1e-9);
+        assertEquals(2, stats.getLocalEntries());
+    }
+
+    @Test
+    void concurrentMisses_runOneLoad() throws Exception {
+        int callers = 16;
+        CountDownLatch arrived = new CountDownLatch(callers);
+
+        List<String> results = concurrently(callers, arrived, () -> {
+            awaitQuietly(arrived);
+            return load();
+        });
+
+        assertEquals(1, loads.get());
+        assertTrue(results.stream().allMatch("loaded"::equals));
+        Mockito.verify(jedis, Mockito.times(1)).setex(bytes("test:a"), 600L, written("loaded"));
+    }
+
+    @Test
+    void concurrentMisses_shareTheLoaderFailure() throws Exception {
+        int callers = 8;
+        CountDownLatch arrived = new CountDownLatch(callers);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () ->
+                concurrently(callers, arrived, () -> {
+                    awaitQuietly(arrived);
+                    loads.incrementAndGet();
+                    throw new RestoRestaurantException("Menu not found", HttpStatus.NOT_FOUND);
+                }));
+
+        assertInstanceOf(RestoRestaurantException.class, failure.getCause());
+        assertEquals(1, loads.get());
+        // nothing is left in flight: the next miss loads again
+        assertEquals("loaded", cache.get(REGION.key("a"), this::load));
+    }
+
+    @Test
+    void redisLockHeldElsewhere_waitsForThatInstancesValue() {
+        ReflectionTestUtils.setField(cache, "redisLockEnabled", true);
+        ReflectionTestUtils.setField(cache, "redisLockMillis", 1_000L);
+        Mockito.when(jedis.set(eq("test:a:lock"), anyString(), any(SetParams.class))).thenReturn(null);
+        Mockito.when(jedis.exists("test:a:lock")).thenReturn(true);
+        Mockito.when(jedis.get(bytes("test:a"))).thenReturn(null, null, written("from-other-instance"));
+
+        assertEquals("from-other-instance", cache.get(REGION.key("a"), this::load));
+
+        assertEquals(0, loads.get());
+        Mockito.verify(jedis, Mockito.never()).setex(any(byte[].class), Mockito.anyLong(), any(byte[].class));
+    }
+
+    @Test
+    void redisLockReleasedWithoutValue_takesTheLockAndLoadsWithoutWaitingOutTheTtl() {
+        ReflectionTestUtils.setField(cache, "redisLockEnabled", true);
+        ReflectionTestUtils.setField(cache, "redisLockMillis", 3_000L);
+        // the other instance's loader failed: its lock is gone and nothing was written
+        Mockito.when(jedis.set(eq("test:a:lock"), anyString(), any(SetParams.class))).thenReturn(null, "OK");
+        Mockito.when(jedis.exists("test:a:lock")).thenReturn(false);
+
+        long started = System.nanoTime();
+        assertEquals("loaded", cache.get(REGION.key("a"), this::load));
+
+        assertTrue(System.nanoTime() - started < 1_000_000_000L);
+        assertEquals(1, loads.get());
+        Mockito.verify(jedis, Mockito.times(2)).set(eq("test:a:lock"), anyString(), any(SetParams.class));
+        Mockito.verify(jedis).eval(anyString(), eq(List.of("test:a:lock")), anyList());
+    }
+
+    @Test
+    void redisLockAcquired_loadsAndReleasesOwnLock() {
+        ReflectionTestUtils.setField(cache, "redisLockEnabled", true);
+        Mockito.when(jedis.set(eq("test:a:lock"), anyString(), any(SetParams.class))).thenReturn("OK");
+
+        assertEquals("loaded", cache.get(REGION.key("a"), this::load));
+
+        Mockito.verify(jedis).setex(bytes("test:a"), 600L, written("loaded"));
+        Mockito.verify(jedis).eval(anyString(), eq(List.of("test:a:lock")), anyList());
+    }
+
+    // every caller misses on key "a" at once; the loader can wait until all have arrived
+    private List<String> concurrently(int callers, CountDownLatch arrived, Supplier<String> loader)
+            throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> {
+                    arrived.countDown();
+                    return cache.get(REGION.key("a"), loader);
+                }));
+            }
+            List<String> results = new ArrayList<>();
+            for (Future<String> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // all callers counted down right before get(); the pause lets them reach the flight
+    private static void awaitQuietly(CountDownLatch arrived) {
+        try {
+            arrived.await();
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // as written at NOW with no jitter
+    private static byte[] written(String value) {
+        return CatalogCacheServiceImpl.envelope(REGION.codec(), value, NOW.plusSeconds(60), NOW.plusSeconds(600));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String load() {
+        loads.incrementAndGet();
+        return "loaded";
+    }
+}
@@ -7,13 +7,14 @@ import com.tonyghouse.restaurant_service.entity.Branch;
 import com.tonyghouse.restaurant_service.entity.Combo;
 import com.tonyghouse.restaurant_service.entity.MenuItem;
 import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.CacheCodec;
+import com.tonyghouse.restaurant_service.helper.CacheCodecs;
 import com.tonyghouse.restaurant_service.repo.BranchRepository;
 import com.tonyghouse.restaurant_service.repo.ComboRepository;
 import com.tonyghouse.restaurant_service.repo.MenuItemRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -23,6 +24,7 @@ import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.Optional;
@@ -50,16 +52,20 @@ class ComboServiceImplTest {
     @Mock
     Jedis jedis;
 
+    @Mock
+    PriceCatalogService priceCatalogService;
+
     @Mock
     Clock clock;
 
-    @InjectMocks
     ComboServiceImpl comboService;
 
     @BeforeEach
     void setup() {
         lenient().when(jedisPool.getResource()).thenReturn(jedis);
         lenient().when(clock.instant()).thenReturn(Instant.parse("2025-01-01T00:00:00Z"));
+        comboService = new ComboServiceImpl(comboRepository, branchRepository, menuItemRepository,
+                new CatalogCacheServiceImpl(jedisPool, clock), priceCatalogService, clock);
     }
 
     @Test
@@ -98,8 +104,8 @@ class ComboServiceImplTest {
     @Test
     void get_Combo_cacheHit() {
         UUID id = UUID.randomUUID();
-        Mockito.when(jedis.get("combo:" + id))
-                .thenReturn("{\"id\":\"" + id + "\",\"name\":\"C\"}");
+        Mockito.when(jedis.get(bytes("combo:" + id)))
+                .thenReturn(cached(CacheCodecs.smile(ComboResponse.class), combo(id, "C")));
 
         ComboResponse res = comboService.getCombo(id);
 
@@ -110,8 +116,8 @@ class ComboServiceImplTest {
     @Test
     void get_Combo_notFound() {
         UUID id = UUID.randomUUID();
-        Mockito.when(jedis.get("combo:" + id)).thenReturn(null);
-        Mockito.when(comboRepository.findById(id)).thenReturn(Optional.empty());
+        Mockito.when(jedis.get(bytes("combo:" + id))).thenReturn(null);
+        Mockito.when(comboRepository.findWithItemsById(id)).thenReturn(Optional.empty());
 
         assertThrows(RestoRestaurantException.class, () -> comboService.getCombo(id));
     }
@@ -134,7 +140,7 @@ class ComboServiceImplTest {
         ComboResponse res = comboService.updateCombo(id, req);
 
         assertEquals("N", res.getName());
-        Mockito.verify(jedis).del("combo:" + id);
+        Mockito.verify(jedis).del(new String[]{"combo:" + id});
     }
 
     @Test
@@ -158,7 +164,7 @@ class ComboServiceImplTest {
         ComboResponse res = comboService.updateComboStatus(id, true);
 
         assertTrue(res.isActive());
-        Mockito.verify(jedis).del("combo:" + id);
+        Mockito.verify(jedis).del(new String[]{"combo:" + id});
     }
 
     @Test
@@ -175,7 +181,7 @@ class ComboServiceImplTest {
         comboService.addItemToCombo(comboId, itemId);
 
         Mockito.verify(comboRepository).save(combo);
-        Mockito.verify(jedis).del("combo:" + comboId);
+        Mockito.verify(jedis).del(new String[]{"combo:" + comboId});
     }
 
     @Test
@@ -193,6 +199,23 @@ class ComboServiceImplTest {
         comboService.removeItemFromCombo(comboId, itemId);
 
         Mockito.verify(comboRepository).save(combo);
-        Mockito.verify(jedis).del("combo:" + comboId);
+        Mockito.verify(jedis).del(new String[]{"combo:" + comboId});
+    }
+
+    // a Redis value written by another instance, still fresh at the mocked clock
+    private static <T> byte[] cached(CacheCodec<T> codec, T value) {
+        Instant written = Instant.parse("2025-01-01T00:00:00Z");
+        return CatalogCacheServiceImpl.envelope(codec, value, written.plusSeconds(300), written.plusSeconds(3_600));
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ComboResponse combo(UUID id, String name) {
+        ComboResponse combo = new ComboResponse();
+        combo.setId(id);
+        combo.setName(name);
+        return combo;
     }
 }
@@ -6,6 +6,7 @@ import com.tonyghouse.restaurant_service.dto.MenuWithItemsResponse;
 import com.tonyghouse.restaurant_service.entity.Combo;
 import com.tonyghouse.restaurant_service.entity.Menu;
 import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.MenuSchedule;
 import com.tonyghouse.restaurant_service.repo.ComboRepository;
 import com.tonyghouse.restaurant_service.repo.MenuRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -38,6 +39,9 @@ class CustomerMenuServiceImplTest {
     @Mock
     ComboRepository comboRepository;
 
+    @Mock
+    MenuScheduleService menuScheduleService;
+
     @Mock
     Clock clock;
 
@@ -54,29 +58,35 @@ class CustomerMenuServiceImplTest {
     void getActiveMenu_success() {
         UUID branchId = UUID.randomUUID();
 
-        Menu menu = new Menu();
-        menu.setValidFrom(LocalTime.of(9, 0));
-        menu.setValidTo(LocalTime.of(11, 0));
-
-        Mockito.when(menuRepository.findByBranchIdAndActiveTrue(branchId))
-                .thenReturn(List.of(menu));
+        Mockito.when(menuScheduleService.forBranch(branchId))
+                .thenReturn(MenuSchedule.of(List.of(window(9, 11))));
 
         MenuWithItemsResponse res =
                 service.getActiveMenu(branchId, ZoneOffset.UTC.getId());
 
         assertNotNull(res);
+        Mockito.verifyNoInteractions(menuRepository);
     }
 
     @Test
-    void getActiveMenu_notFound() {
+    void getActiveMenu_usesCallersZone() {
         UUID branchId = UUID.randomUUID();
 
-        Menu menu = new Menu();
-        menu.setValidFrom(LocalTime.of(11, 0));
-        menu.setValidTo(LocalTime.of(12, 0));
+        // 10:00 UTC is 15:30 in Kolkata
+        Mockito.when(menuScheduleService.forBranch(branchId))
+                .thenReturn(MenuSchedule.of(List.of(window(9, 11), window(15, 16))));
 
-        Mockito.when(menuRepository.findByBranchIdAndActiveTrue(branchId))
-                .thenReturn(List.of(menu));
+        MenuWithItemsResponse res = service.getActiveMenu(branchId, "Asia/Kolkata");
+
+        assertEquals(LocalTime.of(15, 0), res.getValidFrom());
+    }
+
+    @Test
+    void getActiveMenu_notFound() {
+        UUID branchId = UUID.randomUUID();
+
+        Mockito.when(menuScheduleService.forBranch(branchId))
+                .thenReturn(MenuSchedule.of(List.of(window(11, 12))));
 
         assertThrows(RestoRestaurantException.class,
                 () -> service.getActiveMenu(branchId, ZoneOffset.UTC.getId()));
@@ -125,4 +135,12 @@ class CustomerMenuServiceImplTest {
 
         assertEquals(1, res.size());
     }
+
+    private static MenuWithItemsResponse window(int fromHour, int toHour) {
+        MenuWithItemsResponse menu = new MenuWithItemsResponse();
+        menu.setValidFrom(LocalTime.of(fromHour, 0));
+        menu.setValidTo(LocalTime.of(toHour, 0));
+        menu.setItems(List.of());
+        return menu;
+    }
 }
@@ -0,0 +1,258 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.KitchenQueueResponse;
+import com.tonyghouse.restaurant_service.dto.KitchenTicketResponse;
+import com.tonyghouse.restaurant_service.entity.Branch;
+import com.tonyghouse.restaurant_service.entity.Order;
+import com.tonyghouse.restaurant_service.entity.OrderItem;
+import com.tonyghouse.restaurant_service.repo.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class KitchenQueueServiceImplTest {
+
+    @Mock
+    OrderRepository orderRepository;
+
+    @InjectMocks
+    KitchenQueueServiceImpl service;
+
+    final Branch branch = branch();
+    final Instant createdAt = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Test
+    void orderCreated_appearsUnderCreated() {
+        Order order = order(OrderStatus.CREATED);
+
+        service.orderCreated(order);
+
+        KitchenQueueResponse queue = service.getQueue(branch.getId());
+        List<KitchenTicketResponse> created = queue.getTickets().get(OrderStatus.CREATED);
+        assertEquals(1, created.size());
+        assertEquals(order.getId(), created.get(0).getOrderId());
+        assertEquals(1, created.get(0).getItems().size());
+        assertTrue(queue.getTickets().get(OrderStatus.READY).isEmpty());
+    }
+
+    @Test
+    void statusChanged_movesTicketBetweenBuckets() {
+        Order order = order(OrderStatus.CREATED);
+        service.orderCreated(order);
+
+        Instant acceptedAt = createdAt.plusSeconds(30);
+        order.setStatus(OrderStatus.ACCEPTED);
+        service.statusChanged(order.getId(), OrderStatus.CREATED, OrderStatus.ACCEPTED, acceptedAt);
+
+        KitchenQueueResponse queue = service.getQueue(branch.getId());
+        assertTrue(queue.getTickets().get(OrderStatus.CREATED).isEmpty());
+        KitchenTicketResponse ticket = queue.getTickets().get(OrderStatus.ACCEPTED).get(0);
+        assertEquals(OrderStatus.ACCEPTED, ticket.getStatus());
+        assertEquals(acceptedAt, ticket.getStatusChangedAt());
+        assertEquals(createdAt, ticket.getCreatedAt());
+    }
+
+    @Test
+    void statusChanged_terminalStatusLeavesQueue() {
+        Order order = order(OrderStatus.READY);
+        service.orderCreated(order);
+
+        service.statusChanged(order.getId(), OrderStatus.READY, OrderStatus.DELIVERED, createdAt.plusSeconds(60));
+
+        service.getQueue(branch.getId()).getTickets()
+                .values()
+                .forEach(tickets -> assertTrue(tickets.isEmpty()));
+    }
+
+    @Test
+    void statusChanged_unknownOrder_isLoadedOnce() {
+        Order order = order(OrderStatus.PREPARING);
+        Mockito.when(orderRepository.findDetailedById(order.getId())).thenReturn(Optional.of(order));
+
+        service.statusChanged(order.getId(), OrderStatus.ACCEPTED, OrderStatus.PREPARING, createdAt.plusSeconds(90));
+
+        assertEquals(1, service.getQueue(branch.getId()).getTickets().get(OrderStatus.PREPARING).size());
+
+        service.statusChanged(order.getId(), OrderStatus.PREPARING, OrderStatus.READY, createdAt.plusSeconds(120));
+
+        assertEquals(1, service.getQueue(branch.getId()).getTickets().get(OrderStatus.READY).size());
+        Mockito.verify(orderRepository, Mockito.times(1)).findDetailedById(order.getId());
+    }
+
+    @Test
+    void statusChanged_knownOrder_doesNotQuery() {
+        Order order = order(OrderStatus.CREATED);
+        service.orderCreated(order);
+
+        service.statusChanged(order.getId(), OrderStatus.CREATED, OrderStatus.ACCEPTED, createdAt.plusSeconds(30));
+
+        Mockito.verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void statusChanged_lateEvent_doesNotMoveTicketBack() {
+        Order order = order(OrderStatus.CREATED);
+        service.orderCreated(order);
+        service.statusChanged(order.getId(), OrderStatus.ACCEPTED, OrderStatus.PREPARING, createdAt.plusSeconds(60));
+
+        service.statusChanged(order.getId(), OrderStatus.CREATED, OrderStatus.ACCEPTED, createdAt.plusSeconds(30));
+
+        KitchenQueueResponse queue = service.getQueue(branch.getId());
+        assertTrue(queue.getTickets().get(OrderStatus.ACCEPTED).isEmpty());
+        assertEquals(1, queue.getTickets().get(OrderStatus.PREPARING).size());
+    }
+
+    @Test
+    void getQueue_returnsSnapshot() {
+        service.orderCreated(order(OrderStatus.CREATED));
+        KitchenQueueResponse before = service.getQueue(branch.getId());
+
+        service.orderCreated(order(OrderStatus.CREATED));
+
+        assertEquals(1, before.getTickets().get(OrderStatus.CREATED).size());
+        assertEquals(2, service.getQueue(branch.getId()).getTickets().get(OrderStatus.CREATED).size());
+    }
+
+    @Test
+    void rebuild_replacesIndexFromDatabase() {
+        service.orderCreated(order(OrderStatus.CREATED));
+        Order open = order(OrderStatus.READY);
+
+        Mockito.when(orderRepository.findAllWithItemsByStatusIn(KitchenQueueServiceImpl.OPEN_STATUSES))
+                .thenReturn(List.of(open));
+
+        service.rebuild();
+
+        KitchenQueueResponse queue = service.getQueue(branch.getId());
+        assertTrue(queue.getTickets().get(OrderStatus.CREATED).isEmpty());
+        assertEquals(open.getId(), queue.getTickets().get(OrderStatus.READY).get(0).getOrderId());
+    }
+
+    @Test
+    void rebuild_picksUpOrdersFromOtherInstancesAndKeepsTransitionTimes() {
+        Order local = order(OrderStatus.CREATED);
+        service.orderCreated(local);
+        Instant acceptedAt = createdAt.plusSeconds(30);
+        service.statusChanged(local.getId(), OrderStatus.CREATED, OrderStatus.ACCEPTED, acceptedAt);
+        local.setStatus(OrderStatus.ACCEPTED);
+        Order placedElsewhere = order(OrderStatus.CREATED);
+
+        Mockito.when(orderRepository.findAllWithItemsByStatusIn(KitchenQueueServiceImpl.OPEN_STATUSES))
+                .thenReturn(List.of(local, placedElsewhere));
+
+        service.rebuild();
+
+        KitchenQueueResponse queue = service.getQueue(branch.getId());
+        assertEquals(placedElsewhere.getId(), queue.getTickets().get(OrderStatus.CREATED).get(0).getOrderId());
+        assertEquals(acceptedAt, queue.getTickets().get(OrderStatus.ACCEPTED).get(0).getStatusChangedAt());
+        assertEquals(Optional.of(branch.getId()), service.branchOf(placedElsewhere.getId()));
+    }
+
+    @Test
+    void rebuild_keepsTransitionAppliedWhileQuerying() {
+        Order order = order(OrderStatus.CREATED);
+        service.orderCreated(order);
+        Instant preparingAt = createdAt.plusSeconds(60);
+
+        // the query saw the order as CREATED, the PREPARING event landed before the merge
+        Mockito.when(orderRepository.findAllWithItemsByStatusIn(KitchenQueueServiceImpl.OPEN_STATUSES))
+                .thenAnswer(inv -> {
+                    service.statusChanged(order.getId(), OrderStatus.CREATED, OrderStatus.PREPARING, preparingAt);
+                    return List.of(order(order.getId(), OrderStatus.CREATED));
+                });
+
+        service.rebuild();
+
+        KitchenQueueResponse queue = service.getQueue(branch.getId());
+        assertTrue(queue.getTickets().get(OrderStatus.CREATED).isEmpty());
+        assertEquals(preparingAt, queue.getTickets().get(OrderStatus.PREPARING).get(0).getStatusChangedAt());
+    }
+
+    @Test
+    void rebuild_doesNotReopenOrderClosedWhileQuerying() {
+        Order order = order(OrderStatus.READY);
+        service.orderCreated(order);
+
+        Mockito.when(orderRepository.findAllWithItemsByStatusIn(KitchenQueueServiceImpl.OPEN_STATUSES))
+                .thenAnswer(inv -> {
+                    service.statusChanged(order.getId(), OrderStatus.READY, OrderStatus.DELIVERED,
+                            createdAt.plusSeconds(90));
+                    return List.of(order(order.getId(), OrderStatus.READY));
+                });
+
+        service.rebuild();
+
+        assertTrue(service.getQueue(branch.getId()).getTickets().get(OrderStatus.READY).isEmpty());
+        assertEquals(Optional.empty(), service.branchOf(order.getId()));
+    }
+
+    @Test
+    void rebuild_createdWhileQuerying_isKept() {
+        Order placed = order(OrderStatus.CREATED);
+
+        Mockito.when(orderRepository.findAllWithItemsByStatusIn(KitchenQueueServiceImpl.OPEN_STATUSES))
+                .thenAnswer(inv -> {
+                    service.orderCreated(placed);
+                    return List.of();
+                });
+
+        service.rebuild();
+
+        assertEquals(placed.getId(),
+                service.getQueue(branch.getId()).getTickets().get(OrderStatus.CREATED).get(0).getOrderId());
+        assertEquals(Optional.of(branch.getId()), service.branchOf(placed.getId()));
+    }
+
+    @Test
+    void getQueue_unknownBranch_isEmpty() {
+        KitchenQueueResponse queue = service.getQueue(UUID.randomUUID());
+
+        assertEquals(4, queue.getTickets().size());
+        queue.getTickets().values().forEach(tickets -> assertTrue(tickets.isEmpty()));
+    }
+
+    private Order order(OrderStatus status) {
+        return order(UUID.randomUUID(), status);
+    }
+
+    private Order order(UUID id, OrderStatus status) {
+        Order order = new Order();
+        order.setId(id);
+        order.setBranch(branch);
+        order.setStatus(status);
+        order.setCustomerName("Asha");
+        order.setCreatedAt(createdAt);
+
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setItemName("Burger");
+        item.setItemType("ITEM");
+        item.setQuantity(1);
+        item.setUnitPrice(new BigDecimal("100"));
+        item.setTotalPrice(new BigDecimal("100"));
+        order.getItems().add(item);
+        return order;
+    }
+
+    private static Branch branch() {
+        Branch b = new Branch();
+        b.setId(UUID.randomUUID());
+        return b;
+    }
+}
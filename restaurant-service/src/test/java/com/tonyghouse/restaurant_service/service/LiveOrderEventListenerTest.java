@@ -0,0 +1,54 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.helper.OrderEventCodec;
+import com.tonyghouse.restaurant_service.publisher.OrderEventPublisher;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LiveOrderEventListenerTest {
+
+    @Mock
+    OrderStatusStreamService statusStreamService;
+
+    @Mock
+    KitchenQueueService kitchenQueueService;
+
+    @InjectMocks
+    LiveOrderEventListener listener;
+
+    @Test
+    void onEvents_appliesEachReadableEvent() {
+        OrderStatusChangedEvent event = new OrderStatusChangedEvent(
+                UUID.randomUUID(), OrderStatus.ACCEPTED, OrderStatus.PREPARING, Instant.parse("2025-01-01T12:00:00Z"));
+
+        listener.onEvents(List.of(binary(0, new byte[]{1, 2, 3}), binary(1, OrderEventCodec.encode(event))));
+
+        Mockito.verify(kitchenQueueService).statusChanged(
+                event.orderId(), OrderStatus.ACCEPTED, OrderStatus.PREPARING, event.changedAt());
+        Mockito.verify(statusStreamService).statusChanged(event);
+        Mockito.verifyNoMoreInteractions(statusStreamService, kitchenQueueService);
+    }
+
+    private static ConsumerRecord<String, byte[]> binary(long offset, byte[] value) {
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(OrderEventPublisher.TOPIC, 0, offset, "key", value);
+        record.headers().add(OrderEventPublisher.CONTENT_TYPE_HEADER,
+                OrderEventCodec.contentType(OrderEventCodec.CURRENT_VERSION).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
@@ -38,6 +38,9 @@ class MenuItemMappingServiceImplTest {
     @Mock
     MenuItemRepository menuItemRepository;
 
+    @Mock
+    MenuScheduleService menuScheduleService;
+
     @InjectMocks
     MenuItemMappingServiceImpl service;
 
@@ -47,6 +50,7 @@ class MenuItemMappingServiceImplTest {
         UUID itemId = UUID.randomUUID();
 
         Menu menu = new Menu();
+        menu.setBranch(branch());
         MenuItem item = new MenuItem();
 
         Mockito.when(menuRepository.findById(menuId)).thenReturn(Optional.of(menu));
@@ -56,6 +60,7 @@ class MenuItemMappingServiceImplTest {
 
         assertTrue(menu.getItems().contains(item));
         Mockito.verify(menuRepository).save(menu);
+        Mockito.verify(menuScheduleService).refreshBranch(menu.getBranch().getId());
     }
 
     @Test
@@ -73,6 +78,7 @@ class MenuItemMappingServiceImplTest {
         service.addItemToMenu(menuId, itemId);
 
         Mockito.verify(menuRepository, Mockito.never()).save(menu);
+        Mockito.verifyNoInteractions(menuScheduleService);
     }
 
     @Test
@@ -81,6 +87,7 @@ class MenuItemMappingServiceImplTest {
         UUID itemId = UUID.randomUUID();
 
         Menu menu = new Menu();
+        menu.setBranch(branch());
         MenuItem item = new MenuItem();
         menu.getItems().add(item);
 
@@ -91,6 +98,7 @@ class MenuItemMappingServiceImplTest {
 
         assertFalse(menu.getItems().contains(item));
         Mockito.verify(menuRepository).save(menu);
+        Mockito.verify(menuScheduleService).refreshBranch(menu.getBranch().getId());
     }
 
     @Test
@@ -153,4 +161,9 @@ class MenuItemMappingServiceImplTest {
         assertEquals("Menu not found", ex.getMessage());
     }
 
+    private static Branch branch() {
+        Branch branch = new Branch();
+        branch.setId(UUID.randomUUID());
+        return branch;
+    }
 }
@@ -38,6 +38,12 @@ class MenuItemServiceImplTest {
     @Mock
     MenuItemRepository repository;
 
+    @Mock
+    PriceCatalogService priceCatalogService;
+
+    @Mock
+    MenuScheduleService menuScheduleService;
+
     @Mock
     Clock clock;
 
@@ -188,6 +194,7 @@ class MenuItemServiceImplTest {
         MenuItemResponse res = service.updateMenuItemAvailability(id, false);
         assertFalse(item.getAvailable());
         Mockito.verify(repository).save(item);
+        Mockito.verify(menuScheduleService).refreshItems(List.of(id));
         assertFalse(res.getAvailable());
     }
 
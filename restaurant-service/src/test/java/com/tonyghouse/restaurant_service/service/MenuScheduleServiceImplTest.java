@@ -0,0 +1,142 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.tonyghouse.restaurant_service.constants.MenuType;
+import com.tonyghouse.restaurant_service.dto.MenuWithItemsResponse;
+import com.tonyghouse.restaurant_service.entity.Menu;
+import com.tonyghouse.restaurant_service.entity.MenuItem;
+import com.tonyghouse.restaurant_service.helper.CacheCodecs;
+import com.tonyghouse.restaurant_service.helper.MenuSchedule;
+import com.tonyghouse.restaurant_service.mapper.CustomerMenuMapper;
+import com.tonyghouse.restaurant_service.repo.MenuRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MenuScheduleServiceImplTest {
+
+    @Mock
+    MenuRepository menuRepository;
+
+    @Mock
+    JedisPool jedisPool;
+
+    @Mock
+    Jedis jedis;
+
+    @Mock
+    Clock clock;
+
+    MenuScheduleServiceImpl service;
+
+    final UUID branchId = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        lenient().when(jedisPool.getResource()).thenReturn(jedis);
+        lenient().when(clock.instant()).thenReturn(Instant.parse("2025-01-01T00:00:00Z"));
+        service = new MenuScheduleServiceImpl(menuRepository, new CatalogCacheServiceImpl(jedisPool, clock));
+    }
+
+    @Test
+    void forBranch_buildsOnceThenServesWithoutDb() {
+        Mockito.when(menuRepository.findActiveWithItemsByBranchId(branchId))
+                .thenReturn(List.of(menu(MenuType.LUNCH, 11, 15, item("Thali", true), item("Soup", false))));
+
+        MenuSchedule first = service.forBranch(branchId);
+        MenuSchedule second = service.forBranch(branchId);
+
+        Optional<MenuWithItemsResponse> lunch = second.activeAt(LocalTime.of(12, 0));
+        assertSame(first, second);
+        assertTrue(lunch.isPresent());
+        // unavailable items are left out when the schedule is built
+        assertEquals(1, lunch.get().getItems().size());
+        Mockito.verify(menuRepository, Mockito.times(1)).findActiveWithItemsByBranchId(branchId);
+        Mockito.verify(jedis).setex(aryEq(bytes("menu:schedule:" + branchId)), Mockito.anyLong(), any(byte[].class));
+    }
+
+    @Test
+    void forBranch_readsScheduleWrittenByAnotherInstance() {
+        List<MenuWithItemsResponse> stored = List.of(
+                CustomerMenuMapper.toMenuResponse(menu(MenuType.DINNER, 18, 23), Set.of()));
+        Instant written = Instant.parse("2025-01-01T00:00:00Z");
+        Mockito.when(jedis.get(bytes("menu:schedule:" + branchId))).thenReturn(CatalogCacheServiceImpl.envelope(
+                CacheCodecs.smile(new TypeReference<List<MenuWithItemsResponse>>() {}),
+                stored, written.plusSeconds(300), written.plusSeconds(3_600)));
+
+        MenuSchedule schedule = service.forBranch(branchId);
+
+        assertEquals(MenuType.DINNER, schedule.activeAt(LocalTime.of(19, 0)).orElseThrow().getMenuType());
+        assertTrue(schedule.activeAt(LocalTime.of(12, 0)).isEmpty());
+        Mockito.verifyNoInteractions(menuRepository);
+    }
+
+    @Test
+    void refreshItems_dropsSchedulesOfBranchesServingThem() {
+        UUID itemId = UUID.randomUUID();
+        UUID otherBranchId = UUID.randomUUID();
+        Mockito.when(menuRepository.findBranchIdsByItemIdIn(List.of(itemId)))
+                .thenReturn(List.of(branchId, otherBranchId));
+
+        service.refreshItems(List.of(itemId));
+
+        Mockito.verify(jedis).del(new String[]{"menu:schedule:" + branchId, "menu:schedule:" + otherBranchId});
+    }
+
+    @Test
+    void refreshItems_itemOnNoMenu_evictsNothing() {
+        UUID itemId = UUID.randomUUID();
+        Mockito.when(menuRepository.findBranchIdsByItemIdIn(List.of(itemId))).thenReturn(List.of());
+
+        service.refreshItems(List.of(itemId));
+
+        Mockito.verifyNoInteractions(jedisPool);
+    }
+
+    private static Menu menu(MenuType type, int fromHour, int toHour, MenuItem... items) {
+        Menu menu = new Menu();
+        menu.setId(UUID.randomUUID());
+        menu.setMenuType(type);
+        menu.setValidFrom(LocalTime.of(fromHour, 0));
+        menu.setValidTo(LocalTime.of(toHour, 0));
+        menu.getItems().addAll(List.of(items));
+        return menu;
+    }
+
+    private static MenuItem item(String name, boolean available) {
+        MenuItem item = new MenuItem();
+        item.setId(UUID.randomUUID());
+        item.setName(name);
+        item.setPrice(new BigDecimal("150.00"));
+        item.setAvailable(available);
+        return item;
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
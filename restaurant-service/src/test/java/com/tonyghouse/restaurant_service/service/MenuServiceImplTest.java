@@ -1,18 +1,19 @@
 package com.tonyghouse.restaurant_service.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.tonyghouse.restaurant_service.constants.MenuType;
 import com.tonyghouse.restaurant_service.dto.CreateMenuRequest;
 import com.tonyghouse.restaurant_service.dto.MenuResponse;
 import com.tonyghouse.restaurant_service.entity.Branch;
 import com.tonyghouse.restaurant_service.entity.Menu;
 import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
-import com.tonyghouse.restaurant_service.mapper.MenuMapper;
+import com.tonyghouse.restaurant_service.helper.CacheCodec;
+import com.tonyghouse.restaurant_service.helper.CacheCodecs;
 import com.tonyghouse.restaurant_service.repo.BranchRepository;
 import com.tonyghouse.restaurant_service.repo.MenuRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -21,15 +22,22 @@ import org.mockito.quality.Strictness;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.longThat;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 
@@ -49,16 +57,20 @@ class MenuServiceImplTest {
     @Mock
     Jedis jedis;
 
+    @Mock
+    MenuScheduleService menuScheduleService;
+
     @Mock
     Clock clock;
 
-    @InjectMocks
     MenuServiceImpl service;
 
     @BeforeEach
     void setup() {
         lenient().when(jedisPool.getResource()).thenReturn(jedis);
         lenient().when(clock.instant()).thenReturn(Instant.parse("2025-01-01T00:00:00Z"));
+        service = new MenuServiceImpl(menuRepository, branchRepository,
+                new CatalogCacheServiceImpl(jedisPool, clock), menuScheduleService, clock);
     }
 
     @Test
@@ -79,7 +91,7 @@ class MenuServiceImplTest {
         MenuResponse res = service.createMenu(branchId, req);
 
         assertEquals(MenuType.BREAKFAST, res.getMenuType());
-        verify(jedis).del("menus:branch:" + branchId);
+        verify(jedis).del(new String[]{"menus:branch:" + branchId});
     }
 
     @Test
@@ -142,6 +154,7 @@ class MenuServiceImplTest {
                 "menu:" + branchId + ":" + MenuType.BREAKFAST,
                 "menus:branch:" + branchId
         );
+        verify(menuScheduleService).refreshBranch(branchId);
     }
 
     @Test
@@ -154,8 +167,8 @@ class MenuServiceImplTest {
         MenuResponse cached = new MenuResponse();
         cached.setMenuType(type);
 
-        Mockito.when(jedis.get(key))
-                .thenReturn(MenuMapper.toJson(cached));
+        Mockito.when(jedis.get(bytes(key)))
+                .thenReturn(cached(CacheCodecs.smile(MenuResponse.class), cached));
 
         MenuResponse res = service.getMenuByType(branchId, type);
 
@@ -181,7 +194,7 @@ class MenuServiceImplTest {
         menu.setMenuType(type);
         menu.setActive(true);
 
-        Mockito.when(jedis.get(key)).thenReturn(null);
+        Mockito.when(jedis.get(bytes(key))).thenReturn(null);
 
         Mockito.when(menuRepository
                         .findByBranch_IdAndMenuTypeAndActiveTrue(branchId, type))
@@ -192,11 +205,55 @@ class MenuServiceImplTest {
         assertEquals(type, res.getMenuType());
 
         verify(jedis)
-                .setex(eq(key), eq(300L), anyString());
+                .setex(aryEq(bytes(key)), longThat(ttl -> ttl >= 3_600 && ttl <= 3_960), any(byte[].class));
 
     }
 
 
+    @Test
+    void getMenuByType_concurrentMisses_queryDbOnce() throws Exception {
+        UUID branchId = UUID.randomUUID();
+        MenuType type = MenuType.LUNCH;
+        int callers = 20;
+
+        Branch branch = new Branch();
+        branch.setId(branchId);
+
+        Menu menu = new Menu();
+        menu.setBranch(branch);
+        menu.setMenuType(type);
+
+        CountDownLatch arrived = new CountDownLatch(callers);
+        Mockito.when(menuRepository
+                        .findByBranch_IdAndMenuTypeAndActiveTrue(branchId, type))
+                .thenAnswer(i -> {
+                    // hold the query until every caller has missed
+                    arrived.await();
+                    Thread.sleep(100);
+                    return Optional.of(menu);
+                });
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<MenuResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> {
+                    arrived.countDown();
+                    return service.getMenuByType(branchId, type);
+                }));
+            }
+            for (Future<MenuResponse> future : futures) {
+                assertEquals(type, future.get().getMenuType());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(menuRepository, Mockito.times(1))
+                .findByBranch_IdAndMenuTypeAndActiveTrue(branchId, type);
+    }
+
+
     @Test
     void getMenuByType_notFound_throwsException() {
         UUID branchId = UUID.randomUUID();
@@ -204,7 +261,7 @@ class MenuServiceImplTest {
 
         String key = "menu:" + branchId + ":" + type;
 
-        Mockito.when(jedis.get(key)).thenReturn(null);
+        Mockito.when(jedis.get(bytes(key))).thenReturn(null);
 
         Mockito.when(menuRepository
                         .findByBranch_IdAndMenuTypeAndActiveTrue(branchId, type))
@@ -225,8 +282,8 @@ class MenuServiceImplTest {
 
         List<MenuResponse> cachedMenus = List.of(new MenuResponse(), new MenuResponse());
 
-        Mockito.when(jedis.get(key))
-                .thenReturn(MenuMapper.listToJson(cachedMenus));
+        Mockito.when(jedis.get(bytes(key)))
+                .thenReturn(cached(CacheCodecs.smile(new TypeReference<List<MenuResponse>>() {}), cachedMenus));
 
         List<MenuResponse> result = service.getMenusByBranch(branchId);
 
@@ -249,7 +306,7 @@ class MenuServiceImplTest {
         Menu m2 = new Menu();
         m2.setBranch(branch);
 
-        Mockito.when(jedis.get(key)).thenReturn(null);
+        Mockito.when(jedis.get(bytes(key))).thenReturn(null);
 
         Mockito.when(menuRepository.findAllByBranch_Id(branchId))
                 .thenReturn(List.of(m1, m2));
@@ -262,7 +319,7 @@ class MenuServiceImplTest {
                 .findAllByBranch_Id(branchId);
 
         Mockito.verify(jedis)
-                .setex(Mockito.eq(key), Mockito.eq(300L), Mockito.anyString());
+                .setex(aryEq(bytes(key)), longThat(ttl -> ttl >= 3_600 && ttl <= 3_960), any(byte[].class));
     }
 
 
@@ -281,8 +338,13 @@ class MenuServiceImplTest {
         Mockito.verify(jedisPool, Mockito.never()).getResource();
     }
 
+    // a Redis value written by another instance, still fresh at the mocked clock
+    private static <T> byte[] cached(CacheCodec<T> codec, T value) {
+        Instant written = Instant.parse("2025-01-01T00:00:00Z");
+        return CatalogCacheServiceImpl.envelope(codec, value, written.plusSeconds(300), written.plusSeconds(3_600));
+    }
 
-
-
-
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
 }
@@ -0,0 +1,247 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.CreateOrderRequest;
+import com.tonyghouse.restaurant_service.dto.OrderItemRequest;
+import com.tonyghouse.restaurant_service.dto.ResolvedCart;
+import com.tonyghouse.restaurant_service.dto.ResolvedOrderLine;
+import com.tonyghouse.restaurant_service.entity.Branch;
+import com.tonyghouse.restaurant_service.entity.Combo;
+import com.tonyghouse.restaurant_service.entity.MenuItem;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.PriceCatalog;
+import com.tonyghouse.restaurant_service.repo.ComboRepository;
+import com.tonyghouse.restaurant_service.repo.MenuItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderCatalogServiceImplTest {
+
+    @Mock
+    MenuItemRepository menuItemRepository;
+
+    @Mock
+    ComboRepository comboRepository;
+
+    @Mock
+    PriceCatalogService priceCatalogService;
+
+    @InjectMocks
+    OrderCatalogServiceImpl service;
+
+    final UUID branchId = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        Mockito.when(priceCatalogService.forBranch(branchId))
+                .thenReturn(PriceCatalog.empty());
+    }
+
+    @Test
+    void resolve_largeCart_usesOneQueryPerType() {
+        List<MenuItem> menuItems = new ArrayList<>();
+        List<Combo> combos = new ArrayList<>();
+        List<OrderItemRequest> cart = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            MenuItem mi = new MenuItem();
+            mi.setId(UUID.randomUUID());
+            mi.setName("Item " + i);
+            mi.setPrice(new BigDecimal("10"));
+            menuItems.add(mi);
+            cart.add(request(mi.getId(), "ITEM", 1));
+        }
+        for (int i = 0; i < 10; i++) {
+            Combo combo = new Combo();
+            combo.setId(UUID.randomUUID());
+            combo.setName("Combo " + i);
+            combo.setComboPrice(new BigDecimal("50"));
+            combos.add(combo);
+            cart.add(request(combo.getId(), "COMBO", 2));
+        }
+
+        Mockito.when(menuItemRepository.findAllById(Mockito.any()))
+                .thenReturn(menuItems);
+        Mockito.when(comboRepository.findAllById(Mockito.any()))
+                .thenReturn(combos);
+
+        List<ResolvedOrderLine> lines = service.resolve(branchId, cart);
+
+        assertEquals(30, lines.size());
+        assertEquals("Item 0", lines.get(0).itemName());
+        assertEquals(new BigDecimal("50"), lines.get(29).unitPrice());
+        assertEquals(2, lines.get(29).quantity());
+
+        Mockito.verify(menuItemRepository, Mockito.times(1)).findAllById(Mockito.any());
+        Mockito.verify(comboRepository, Mockito.times(1)).findAllById(Mockito.any());
+        Mockito.verify(menuItemRepository, Mockito.never()).findById(Mockito.any());
+        Mockito.verify(comboRepository, Mockito.never()).findById(Mockito.any());
+    }
+
+    @Test
+    void resolve_onlyItems_skipsComboQuery() {
+        MenuItem mi = new MenuItem();
+        mi.setId(UUID.randomUUID());
+        mi.setName("Burger");
+        mi.setPrice(new BigDecimal("100"));
+
+        Mockito.when(menuItemRepository.findAllById(Mockito.any()))
+                .thenReturn(List.of(mi));
+
+        List<ResolvedOrderLine> lines = service.resolve(branchId, List.of(request(mi.getId(), "ITEM", 2)));
+
+        assertEquals(1, lines.size());
+        assertEquals("Burger", lines.get(0).itemName());
+        Mockito.verifyNoInteractions(comboRepository);
+    }
+
+    @Test
+    void resolve_missingItem() {
+        Mockito.when(menuItemRepository.findAllById(Mockito.any()))
+                .thenReturn(List.of());
+
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.resolve(branchId, List.of(request(UUID.randomUUID(), "ITEM", 1))));
+
+        assertEquals("Item not found", ex.getMessage());
+    }
+
+    @Test
+    void resolve_missingCombo() {
+        Mockito.when(comboRepository.findAllById(Mockito.any()))
+                .thenReturn(List.of());
+
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.resolve(branchId, List.of(request(UUID.randomUUID(), "COMBO", 1))));
+
+        assertEquals("Combo not found", ex.getMessage());
+    }
+
+    @Test
+    void resolve_invalidItemType() {
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.resolve(branchId, List.of(request(UUID.randomUUID(), "INVALID", 1))));
+
+        assertEquals("Invalid item type", ex.getMessage());
+        Mockito.verifyNoInteractions(menuItemRepository, comboRepository);
+    }
+
+    @Test
+    void resolve_servedFromBranchSnapshot_withoutDatabase() {
+        MenuItem mi = new MenuItem();
+        mi.setId(UUID.randomUUID());
+        mi.setName("Burger");
+        mi.setPrice(new BigDecimal("100"));
+        mi.setAvailable(true);
+
+        Branch branch = new Branch();
+        branch.setId(branchId);
+        Combo combo = new Combo();
+        combo.setId(UUID.randomUUID());
+        combo.setName("Family Combo");
+        combo.setComboPrice(new BigDecimal("500"));
+        combo.setBranch(branch);
+
+        Mockito.when(priceCatalogService.forBranch(branchId))
+                .thenReturn(PriceCatalog.of(List.of(mi), List.of(combo)));
+
+        List<ResolvedOrderLine> lines = service.resolve(branchId, List.of(
+                request(mi.getId(), "ITEM", 2),
+                request(combo.getId(), "COMBO", 1)
+        ));
+
+        assertEquals(new BigDecimal("100"), lines.get(0).unitPrice());
+        assertEquals("Family Combo", lines.get(1).itemName());
+        Mockito.verifyNoInteractions(menuItemRepository, comboRepository);
+    }
+
+    @Test
+    void resolve_snapshotMiss_fallsBackToBatchedQuery() {
+        MenuItem known = new MenuItem();
+        known.setId(UUID.randomUUID());
+        known.setName("Burger");
+        known.setPrice(new BigDecimal("100"));
+
+        MenuItem unknown = new MenuItem();
+        unknown.setId(UUID.randomUUID());
+        unknown.setName("Fries");
+        unknown.setPrice(new BigDecimal("40"));
+
+        Mockito.when(priceCatalogService.forBranch(branchId))
+                .thenReturn(PriceCatalog.of(List.of(known), List.of()));
+        Mockito.when(menuItemRepository.findAllById(Set.of(unknown.getId())))
+                .thenReturn(List.of(unknown));
+
+        List<ResolvedOrderLine> lines = service.resolve(branchId, List.of(
+                request(known.getId(), "ITEM", 1),
+                request(unknown.getId(), "ITEM", 1)
+        ));
+
+        assertEquals("Fries", lines.get(1).itemName());
+        Mockito.verify(menuItemRepository, Mockito.times(1)).findAllById(Set.of(unknown.getId()));
+    }
+
+    @Test
+    void resolveAll_batchSharesOneQueryPerType_andIsolatesFailures() {
+        MenuItem burger = new MenuItem();
+        burger.setId(UUID.randomUUID());
+        burger.setName("Burger");
+        burger.setPrice(new BigDecimal("100"));
+
+        MenuItem fries = new MenuItem();
+        fries.setId(UUID.randomUUID());
+        fries.setName("Fries");
+        fries.setPrice(new BigDecimal("40"));
+
+        Mockito.when(menuItemRepository.findAllById(Mockito.any()))
+                .thenReturn(List.of(burger, fries));
+
+        List<ResolvedCart> carts = service.resolveAll(List.of(
+                order(request(burger.getId(), "ITEM", 1)),
+                order(request(fries.getId(), "ITEM", 2), request(burger.getId(), "ITEM", 1)),
+                order(request(UUID.randomUUID(), "INVALID", 1)),
+                order(request(UUID.randomUUID(), "ITEM", 1))
+        ));
+
+        assertEquals(4, carts.size());
+        assertEquals("Burger", carts.get(0).lines().get(0).itemName());
+        assertEquals(2, carts.get(1).lines().size());
+        assertEquals("Invalid item type", carts.get(2).error().getMessage());
+        assertEquals("Item not found", carts.get(3).error().getMessage());
+
+        Mockito.verify(menuItemRepository, Mockito.times(1)).findAllById(Mockito.any());
+        Mockito.verify(priceCatalogService, Mockito.times(1)).forBranch(branchId);
+        Mockito.verifyNoInteractions(comboRepository);
+    }
+
+    private CreateOrderRequest order(OrderItemRequest... items) {
+        CreateOrderRequest r = new CreateOrderRequest();
+        r.setBranchId(branchId);
+        r.setItems(List.of(items));
+        return r;
+    }
+
+    private static OrderItemRequest request(UUID id, String type, int qty) {
+        OrderItemRequest r = new OrderItemRequest();
+        r.setItemId(id);
+        r.setItemType(type);
+        r.setQuantity(qty);
+        return r;
+    }
+}
@@ -0,0 +1,186 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.config.KafkaConsumerConfig;
+import com.tonyghouse.restaurant_service.config.KafkaProducerConfig;
+import com.tonyghouse.restaurant_service.constants.OrderEventEncoding;
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.EventReplayRequest;
+import com.tonyghouse.restaurant_service.dto.EventReplayResponse;
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.publisher.OrderEventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Replays order.events from an embedded broker into an in-memory projection. The
+ * checkpoint store is a map, standing in for order_event_checkpoint.
+ */
+@SpringJUnitConfig({KafkaProducerConfig.class, KafkaConsumerConfig.class})
+@EmbeddedKafka(
+        partitions = 12,
+        topics = "order.events",
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers"
+)
+class OrderEventReplayServiceImplTest {
+
+    private static final int ORDERS = 300;
+    private static final List<OrderStatus> LIFECYCLE = List.of(
+            OrderStatus.ACCEPTED, OrderStatus.PREPARING, OrderStatus.READY, OrderStatus.DELIVERED);
+
+    @Autowired
+    KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    ConsumerFactory<String, byte[]> replayConsumerFactory;
+
+    final RecordingProjection projection = new RecordingProjection();
+    final Map<Integer, Long> checkpoints = new ConcurrentHashMap<>();
+    OrderEventCheckpointService checkpointService;
+    OrderEventReplayServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        checkpointService = Mockito.mock(OrderEventCheckpointService.class);
+        Mockito.when(checkpointService.load(anyString())).thenAnswer(inv -> new HashMap<>(checkpoints));
+        Mockito.doAnswer(inv -> {
+            projection.reset();
+            checkpoints.clear();
+            return null;
+        }).when(checkpointService).reset(any());
+        Mockito.doAnswer(inv -> {
+            projection.apply(inv.getArgument(2));
+            checkpoints.put(inv.getArgument(1), inv.getArgument(3));
+            return null;
+        }).when(checkpointService).applyAndCheckpoint(any(), anyInt(), anyList(), anyLong());
+
+        service = new OrderEventReplayServiceImpl(
+                replayConsumerFactory, checkpointService, Clock.systemUTC(), List.of(projection));
+    }
+
+    @Test
+    void shouldRebuildFromScratchThenResumeFromCheckpoints() throws Exception {
+        List<UUID> firstBatch = publishLifecycles(OrderEventEncoding.JSON);
+
+        EventReplayResponse done = await(service.start(request(true)));
+
+        assertThat(done.getState()).isEqualTo("COMPLETED");
+        assertThat(done.getPartitions()).isEqualTo(12);
+        for (UUID orderId : firstBatch) {
+            assertThat(projection.statuses(orderId)).containsExactlyElementsOf(LIFECYCLE);
+        }
+
+        // binary records after a resume: only the new ones are applied
+        List<UUID> secondBatch = publishLifecycles(OrderEventEncoding.BINARY);
+        EventReplayResponse resumed = await(service.start(request(false)));
+
+        assertThat(resumed.getState()).isEqualTo("COMPLETED");
+        assertThat(resumed.getEventsApplied()).isEqualTo((long) ORDERS * LIFECYCLE.size());
+        for (UUID orderId : firstBatch) {
+            assertThat(projection.statuses(orderId)).hasSize(LIFECYCLE.size());
+        }
+        for (UUID orderId : secondBatch) {
+            assertThat(projection.statuses(orderId)).containsExactlyElementsOf(LIFECYCLE);
+        }
+    }
+
+    @Test
+    void shouldRejectUnknownProjection() {
+        EventReplayRequest request = request(true);
+        request.setProjection("nope");
+
+        assertThatThrownBy(() -> service.start(request))
+                .isInstanceOf(RestoRestaurantException.class);
+    }
+
+    private List<UUID> publishLifecycles(OrderEventEncoding encoding) throws Exception {
+        OrderEventPublisher publisher = new OrderEventPublisher(kafkaTemplate);
+        ReflectionTestUtils.setField(publisher, "encoding", encoding);
+
+        List<UUID> orderIds = new ArrayList<>(ORDERS);
+        List<CompletableFuture<?>> sends = new ArrayList<>();
+        Instant at = Instant.parse("2025-01-01T12:00:00Z");
+        for (int i = 0; i < ORDERS; i++) {
+            UUID orderId = UUID.randomUUID();
+            orderIds.add(orderId);
+            OrderStatus from = OrderStatus.CREATED;
+            for (OrderStatus to : LIFECYCLE) {
+                sends.add(publisher.publish(new OrderStatusChangedEvent(orderId, from, to, at)));
+                from = to;
+            }
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        return orderIds;
+    }
+
+    private EventReplayResponse await(EventReplayResponse started) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        EventReplayResponse current = started;
+        while ("RUNNING".equals(current.getState()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            current = service.status(started.getReplayId());
+        }
+        return current;
+    }
+
+    private static EventReplayRequest request(boolean fromScratch) {
+        EventReplayRequest request = new EventReplayRequest();
+        request.setProjection(RecordingProjection.NAME);
+        request.setFromScratch(fromScratch);
+        return request;
+    }
+
+    static class RecordingProjection implements OrderEventProjection {
+
+        static final String NAME = "recording";
+
+        private final Map<UUID, List<OrderStatus>> byOrder = new ConcurrentHashMap<>();
+
+        @Override
+        public String name() {
+            return NAME;
+        }
+
+        @Override
+        public void reset() {
+            byOrder.clear();
+        }
+
+        @Override
+        public void apply(List<OrderStatusChangedEvent> events) {
+            for (OrderStatusChangedEvent event : events) {
+                byOrder.computeIfAbsent(event.orderId(), id -> new ArrayList<>()).add(event.newStatus());
+            }
+        }
+
+        List<OrderStatus> statuses(UUID orderId) {
+            return byOrder.getOrDefault(orderId, List.of());
+        }
+    }
+}
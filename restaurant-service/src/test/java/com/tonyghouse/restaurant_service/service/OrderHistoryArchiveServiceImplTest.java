@@ -0,0 +1,198 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusHistoryResponse;
+import com.tonyghouse.restaurant_service.entity.OrderStatusHistoryArchive;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.OrderHistoryArchiveFile;
+import com.tonyghouse.restaurant_service.repo.OrderStatusHistoryArchiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderHistoryArchiveServiceImplTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    OrderStatusHistoryArchiveRepository archiveRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    Clock clock;
+
+    @InjectMocks
+    OrderHistoryArchiveServiceImpl service;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setup() {
+        Mockito.when(clock.instant()).thenReturn(Instant.parse("2025-06-15T00:00:00Z"));
+        Mockito.when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+    }
+
+    @Test
+    void ensurePartitions_createsCurrentAndNextMonths() {
+        service.ensurePartitions();
+
+        ArgumentCaptor<String> ddl = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(jdbcTemplate, Mockito.times(OrderHistoryArchiveServiceImpl.MONTHS_AHEAD + 1))
+                .execute(ddl.capture());
+        assertTrue(ddl.getAllValues().get(0).contains(
+                "order_status_history_p202506 PARTITION OF order_status_history FOR VALUES FROM ('2025-06-01') TO ('2025-07-01')"));
+        assertTrue(ddl.getAllValues().get(2).contains("order_status_history_p202508"));
+    }
+
+    @Test
+    void expiredPartitions_onlyMonthsPastRetention() {
+        Mockito.when(jdbcTemplate.queryForList(anyString(), eq(String.class), any()))
+                .thenReturn(List.of(
+                        "order_status_history_p202406",
+                        "order_status_history_p202405",
+                        "order_status_history_p202506",
+                        "order_status_history_default"
+                ));
+
+        List<YearMonth> expired = service.expiredPartitions();
+
+        // retention 12 months from June 2025: June 2024 is the oldest month kept
+        assertEquals(List.of(YearMonth.of(2024, 5)), expired);
+    }
+
+    @Test
+    void archivePartition_exportsBeforeDetachingAndDropping() {
+        ReflectionTestUtils.setField(service, "archiveDir", dir.toString());
+
+        service.archivePartition(YearMonth.of(2024, 5));
+
+        InOrder order = Mockito.inOrder(jdbcTemplate, archiveRepository);
+        order.verify(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        order.verify(jdbcTemplate).execute("ALTER TABLE order_status_history DETACH PARTITION order_status_history_p202405");
+        order.verify(archiveRepository).save(any(OrderStatusHistoryArchive.class));
+        order.verify(jdbcTemplate).execute("DROP TABLE order_status_history_p202405");
+        assertTrue(dir.resolve("order_status_history_p202405.csv.gz").toFile().isFile());
+        ArgumentCaptor<OrderStatusHistoryArchive> saved = ArgumentCaptor.forClass(OrderStatusHistoryArchive.class);
+        Mockito.verify(archiveRepository).save(saved.capture());
+        assertEquals("order_status_history_p202405.csv.gz", saved.getValue().getFilePath());
+        // export and detach commit separately, so the detach transaction stays short
+        Mockito.verify(transactionManager, Mockito.times(2)).commit(any());
+    }
+
+    @Test
+    void archivePartition_withoutSharedArchiveDir_touchesNothing() {
+        ReflectionTestUtils.setField(service, "archiveDir", "history-archive");
+
+        assertThrows(IllegalStateException.class, () -> service.archivePartition(YearMonth.of(2024, 5)));
+
+        Mockito.verifyNoInteractions(jdbcTemplate, archiveRepository);
+    }
+
+    @Test
+    void runExclusively_lockHeldElsewhere_skipsWork() throws Exception {
+        Connection con = Mockito.mock(Connection.class);
+        Statement st = Mockito.mock(Statement.class);
+        ResultSet rs = Mockito.mock(ResultSet.class);
+        Mockito.when(con.createStatement()).thenReturn(st);
+        Mockito.when(st.executeQuery("select pg_try_advisory_lock(" + OrderHistoryArchiveServiceImpl.ARCHIVAL_LOCK_KEY + ")"))
+                .thenReturn(rs);
+        Mockito.when(rs.next()).thenReturn(true);
+        Mockito.when(rs.getBoolean(1)).thenReturn(false);
+        Mockito.when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(inv -> inv.<ConnectionCallback<?>>getArgument(0).doInConnection(con));
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertFalse(service.runExclusively(() -> ran.set(true)));
+        assertFalse(ran.get());
+        Mockito.verify(st, Mockito.never()).execute(anyString());
+    }
+
+    @Test
+    void archivedThrough_isReadOncePerRefreshInterval() {
+        Instant end = Instant.parse("2024-06-01T00:00:00Z");
+        Mockito.when(archiveRepository.findLatestPeriodEnd()).thenReturn(Optional.of(end));
+
+        assertEquals(Optional.of(end), service.archivedThrough());
+        assertEquals(Optional.of(end), service.archivedThrough());
+
+        Mockito.verify(archiveRepository, Mockito.times(1)).findLatestPeriodEnd();
+    }
+
+    @Test
+    void findArchived_missingExport_isUnavailable() {
+        ReflectionTestUtils.setField(service, "archiveDir", dir.toString());
+        OrderStatusHistoryArchive archive = new OrderStatusHistoryArchive();
+        archive.setFilePath("order_status_history_p202401.csv.gz");
+        Mockito.when(archiveRepository.findOverlapping(any(), any())).thenReturn(List.of(archive));
+
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.findArchived(UUID.randomUUID(), Instant.parse("2024-01-10T00:00:00Z")));
+
+        assertEquals("503", ex.getErrorCode());
+    }
+
+    @Test
+    void findArchived_readsOverlappingExports() throws Exception {
+        ReflectionTestUtils.setField(service, "archiveDir", dir.toString());
+        UUID orderId = UUID.randomUUID();
+        Instant createdAt = Instant.parse("2024-01-31T23:50:00Z");
+        Path january = dir.resolve("order_status_history_p202401.csv.gz");
+        try (OrderHistoryArchiveFile.ArchiveWriter writer = OrderHistoryArchiveFile.open(january)) {
+            writer.write(UUID.randomUUID(), orderId, OrderStatus.CREATED, OrderStatus.ACCEPTED, createdAt.plusSeconds(60));
+            writer.commit();
+        }
+        OrderStatusHistoryArchive archive = new OrderStatusHistoryArchive();
+        archive.setFilePath("order_status_history_p202401.csv.gz");
+        Mockito.when(archiveRepository.findOverlapping(eq(createdAt), any())).thenReturn(List.of(archive));
+
+        List<OrderStatusHistoryResponse> rows = service.findArchived(orderId, createdAt);
+
+        assertEquals(1, rows.size());
+        assertEquals(OrderStatus.ACCEPTED, rows.get(0).getNewStatus());
+    }
+
+    @Test
+    void partitionName_isMonthSuffixed() {
+        assertEquals("order_status_history_p202412",
+                OrderHistoryArchiveServiceImpl.partitionName(YearMonth.of(2024, 12)));
+    }
+}
@@ -0,0 +1,242 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.CreateOrderRequest;
+import com.tonyghouse.restaurant_service.dto.OrderItemRequest;
+import com.tonyghouse.restaurant_service.dto.OrderResponse;
+import com.tonyghouse.restaurant_service.entity.OrderIdempotencyKey;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.mapper.OrderMapper;
+import com.tonyghouse.restaurant_service.repo.OrderIdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderIdempotencyServiceImplTest {
+
+    @Mock
+    OrderService orderService;
+
+    @Mock
+    OrderIdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    JedisPool jedisPool;
+
+    @Mock
+    Jedis jedis;
+
+    @InjectMocks
+    OrderIdempotencyServiceImpl service;
+
+    static final String KEY = "retry-123";
+    static final String OWNER = "alice";
+    static final UUID BRANCH_ID = new UUID(7L, 7L);
+
+    @BeforeEach
+    void setup() {
+        lenient().when(jedisPool.getResource()).thenReturn(jedis);
+    }
+
+    @Test
+    void create_cacheHit_replaysWithoutTouchingDb() {
+        CreateOrderRequest req = request(2);
+        OrderResponse stored = response();
+        Mockito.when(jedis.get(cacheKey(req))).thenReturn(OrderMapper.toJson(stored));
+
+        OrderResponse res = service.create(req, OWNER, KEY);
+
+        assertEquals(stored.getOrderId(), res.getOrderId());
+        Mockito.verifyNoInteractions(orderService, idempotencyKeyRepository);
+    }
+
+    @Test
+    void create_dbHit_replaysAndWarmsCache() {
+        CreateOrderRequest req = request(2);
+        OrderResponse stored = response();
+        String json = OrderMapper.toJson(stored);
+        Mockito.when(idempotencyKeyRepository.findByOwnerAndBranchIdAndIdempotencyKey(OWNER, BRANCH_ID, KEY))
+                .thenReturn(Optional.of(stored(req, json)));
+
+        OrderResponse res = service.create(req, OWNER, KEY);
+
+        assertEquals(stored.getOrderId(), res.getOrderId());
+        Mockito.verify(jedis).setex(eq(cacheKey(req)), eq(86_400L), eq(json));
+        Mockito.verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void create_keyReusedWithDifferentRequest_unprocessable() {
+        Mockito.when(idempotencyKeyRepository.findByOwnerAndBranchIdAndIdempotencyKey(OWNER, BRANCH_ID, KEY))
+                .thenReturn(Optional.of(stored(request(2), OrderMapper.toJson(response()))));
+
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.create(request(3), OWNER, KEY));
+
+        assertEquals("422", ex.getErrorCode());
+        Mockito.verifyNoInteractions(orderService);
+        Mockito.verify(jedis, Mockito.never()).setex(anyString(), Mockito.anyLong(), anyString());
+    }
+
+    @Test
+    void create_newKey_claimsKeyInCallersScopeAndCachesResponse() {
+        CreateOrderRequest req = request(2);
+        OrderResponse created = response();
+
+        Mockito.when(idempotencyKeyRepository.findByOwnerAndBranchIdAndIdempotencyKey(OWNER, BRANCH_ID, KEY))
+                .thenReturn(Optional.empty());
+        Mockito.when(orderService.create(eq(req), any(OrderIdempotencyKey.class))).thenReturn(created);
+
+        OrderResponse res = service.create(req, OWNER, KEY);
+
+        assertSame(created, res);
+        ArgumentCaptor<OrderIdempotencyKey> claim = ArgumentCaptor.forClass(OrderIdempotencyKey.class);
+        Mockito.verify(orderService).create(eq(req), claim.capture());
+        assertEquals(OWNER, claim.getValue().getOwner());
+        assertEquals(BRANCH_ID, claim.getValue().getBranchId());
+        assertEquals(KEY, claim.getValue().getIdempotencyKey());
+        assertEquals(OrderIdempotencyServiceImpl.fingerprint(req), claim.getValue().getRequestHash());
+        Mockito.verify(jedis).setex(eq(cacheKey(req)), eq(86_400L), anyString());
+    }
+
+    @Test
+    void create_sameKeyFromAnotherUser_isAnotherOrder() {
+        CreateOrderRequest req = request(2);
+        Mockito.when(idempotencyKeyRepository.findByOwnerAndBranchIdAndIdempotencyKey(OWNER, BRANCH_ID, KEY))
+                .thenReturn(Optional.of(stored(req, OrderMapper.toJson(response()))));
+        Mockito.when(orderService.create(eq(req), any(OrderIdempotencyKey.class))).thenReturn(response());
+
+        service.create(req, "bob", KEY);
+
+        Mockito.verify(idempotencyKeyRepository).findByOwnerAndBranchIdAndIdempotencyKey("bob", BRANCH_ID, KEY);
+        Mockito.verify(orderService).create(eq(req), any(OrderIdempotencyKey.class));
+    }
+
+    @Test
+    void create_concurrentDuplicate_returnsWinnerResponse() {
+        CreateOrderRequest req = request(2);
+        OrderResponse winner = response();
+
+        Mockito.when(idempotencyKeyRepository.findByOwnerAndBranchIdAndIdempotencyKey(OWNER, BRANCH_ID, KEY))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored(req, OrderMapper.toJson(winner))));
+        Mockito.when(orderService.create(eq(req), any(OrderIdempotencyKey.class)))
+                .thenThrow(new DataIntegrityViolationException("uq_order_idempotency_key"));
+
+        OrderResponse res = service.create(req, OWNER, KEY);
+
+        assertEquals(winner.getOrderId(), res.getOrderId());
+        Mockito.verify(orderService, Mockito.times(1)).create(eq(req), any(OrderIdempotencyKey.class));
+    }
+
+    @Test
+    void create_concurrentDuplicateWithDifferentRequest_unprocessable() {
+        Mockito.when(idempotencyKeyRepository.findByOwnerAndBranchIdAndIdempotencyKey(OWNER, BRANCH_ID, KEY))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored(request(2), OrderMapper.toJson(response()))));
+        Mockito.when(orderService.create(any(), any(OrderIdempotencyKey.class)))
+                .thenThrow(new DataIntegrityViolationException("uq_order_idempotency_key"));
+
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.create(request(3), OWNER, KEY));
+
+        assertEquals("422", ex.getErrorCode());
+    }
+
+    @Test
+    void create_redisDown_claimsThroughTheDb() {
+        CreateOrderRequest req = request(2);
+        OrderResponse created = response();
+        Mockito.when(jedisPool.getResource()).thenThrow(new JedisConnectionException("Connection refused"));
+        Mockito.when(idempotencyKeyRepository.findByOwnerAndBranchIdAndIdempotencyKey(OWNER, BRANCH_ID, KEY))
+                .thenReturn(Optional.empty());
+        Mockito.when(orderService.create(eq(req), any(OrderIdempotencyKey.class))).thenReturn(created);
+
+        assertSame(created, service.create(req, OWNER, KEY));
+    }
+
+    @Test
+    void create_redisDown_replaysFromTheDb() {
+        CreateOrderRequest req = request(2);
+        OrderResponse stored = response();
+        Mockito.when(jedisPool.getResource()).thenThrow(new JedisConnectionException("Connection refused"));
+        Mockito.when(idempotencyKeyRepository.findByOwnerAndBranchIdAndIdempotencyKey(OWNER, BRANCH_ID, KEY))
+                .thenReturn(Optional.of(stored(req, OrderMapper.toJson(stored))));
+
+        assertEquals(stored.getOrderId(), service.create(req, OWNER, KEY).getOrderId());
+        Mockito.verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void create_blankKey_badRequest() {
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.create(request(1), OWNER, " "));
+
+        assertEquals("400", ex.getErrorCode());
+        Mockito.verify(orderService, Mockito.never()).create(any(), any(OrderIdempotencyKey.class));
+    }
+
+    @Test
+    void create_withoutBranch_badRequest() {
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.create(new CreateOrderRequest(), OWNER, KEY));
+
+        assertEquals("400", ex.getErrorCode());
+        Mockito.verifyNoInteractions(orderService, idempotencyKeyRepository);
+    }
+
+    private static String cacheKey(CreateOrderRequest req) {
+        return "order:idempotency:" + OWNER + ":" + BRANCH_ID + ":" + KEY + ":"
+                + OrderIdempotencyServiceImpl.fingerprint(req);
+    }
+
+    private static CreateOrderRequest request(int quantity) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setItemId(new UUID(1L, 1L));
+        item.setItemType("ITEM");
+        item.setQuantity(quantity);
+        CreateOrderRequest req = new CreateOrderRequest();
+        req.setBranchId(BRANCH_ID);
+        req.setItems(List.of(item));
+        return req;
+    }
+
+    private static OrderIdempotencyKey stored(CreateOrderRequest req, String response) {
+        OrderIdempotencyKey key = new OrderIdempotencyKey();
+        key.setOwner(OWNER);
+        key.setBranchId(BRANCH_ID);
+        key.setIdempotencyKey(KEY);
+        key.setRequestHash(OrderIdempotencyServiceImpl.fingerprint(req));
+        key.setResponse(response);
+        return key;
+    }
+
+    private static OrderResponse response() {
+        OrderResponse r = new OrderResponse();
+        r.setOrderId(UUID.randomUUID());
+        r.setStatus("CREATED");
+        return r;
+    }
+}
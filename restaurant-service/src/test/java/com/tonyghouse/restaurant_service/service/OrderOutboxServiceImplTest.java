@@ -0,0 +1,143 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.entity.OrderOutboxEvent;
+import com.tonyghouse.restaurant_service.publisher.OrderEventPublisher;
+import com.tonyghouse.restaurant_service.repo.OrderOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderOutboxServiceImplTest {
+
+    @Mock
+    OrderOutboxRepository outboxRepository;
+
+    @Mock
+    OrderEventPublisher orderEventPublisher;
+
+    @Mock
+    Clock clock;
+
+    @InjectMocks
+    OrderOutboxServiceImpl service;
+
+    final Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    @BeforeEach
+    void setup() {
+        Mockito.when(clock.instant()).thenReturn(now);
+        Mockito.when(outboxRepository.tryRelayLock(anyLong())).thenReturn(true);
+    }
+
+    @Test
+    void enqueue_storesEventRow() {
+        UUID orderId = UUID.randomUUID();
+
+        service.enqueue(new OrderStatusChangedEvent(orderId, OrderStatus.CREATED, OrderStatus.ACCEPTED, now));
+
+        ArgumentCaptor<OrderOutboxEvent> captor = ArgumentCaptor.forClass(OrderOutboxEvent.class);
+        Mockito.verify(outboxRepository).save(captor.capture());
+        assertEquals(orderId, captor.getValue().getOrderId());
+        assertEquals(OrderStatus.ACCEPTED, captor.getValue().getNewStatus());
+        assertEquals(now, captor.getValue().getCreatedAt());
+        Mockito.verifyNoInteractions(orderEventPublisher);
+    }
+
+    @Test
+    void relayBatch_deletesAckedRows() {
+        UUID orderId = UUID.randomUUID();
+        Mockito.when(outboxRepository.findPending(any()))
+                .thenReturn(List.of(row(1L, orderId, OrderStatus.ACCEPTED), row(2L, orderId, OrderStatus.PREPARING)));
+        Mockito.when(orderEventPublisher.publish(any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        int delivered = service.relayBatch();
+
+        assertEquals(2, delivered);
+        Mockito.verify(orderEventPublisher, Mockito.times(2)).publish(any());
+        Mockito.verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void relayBatch_failedSend_holdsBackLaterEventsOfSameOrder() {
+        UUID slowOrder = UUID.randomUUID();
+        UUID otherOrder = UUID.randomUUID();
+        Mockito.when(outboxRepository.findPending(any()))
+                .thenReturn(List.of(
+                        row(1L, slowOrder, OrderStatus.ACCEPTED),
+                        row(2L, otherOrder, OrderStatus.ACCEPTED),
+                        row(3L, slowOrder, OrderStatus.PREPARING)
+                ));
+        Mockito.when(orderEventPublisher.publish(any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        int delivered = service.relayBatch();
+
+        assertEquals(1, delivered);
+        Mockito.verify(orderEventPublisher, Mockito.times(2)).publish(any());
+        Mockito.verify(orderEventPublisher, Mockito.never())
+                .publish(Mockito.argThat(event -> event.newStatus() == OrderStatus.PREPARING));
+        Mockito.verify(outboxRepository).deleteAllByIdInBatch(List.of(2L));
+    }
+
+    @Test
+    void relayBatch_sendsNextEventOfOrderOnlyAfterAck() {
+        UUID orderId = UUID.randomUUID();
+        Mockito.when(outboxRepository.findPending(any()))
+                .thenReturn(List.of(row(1L, orderId, OrderStatus.ACCEPTED), row(2L, orderId, OrderStatus.PREPARING)));
+        CompletableFuture<SendResult<String, byte[]>> firstAck = new CompletableFuture<>();
+        Mockito.when(orderEventPublisher.publish(any()))
+                .thenReturn(firstAck)
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        CompletableFuture<Integer> relay = CompletableFuture.supplyAsync(service::relayBatch);
+
+        Mockito.verify(orderEventPublisher, Mockito.timeout(1_000)).publish(any());
+        Mockito.verifyNoMoreInteractions(orderEventPublisher);
+        firstAck.complete(null);
+        assertEquals(2, relay.join());
+        Mockito.verify(orderEventPublisher, Mockito.times(2)).publish(any());
+    }
+
+    @Test
+    void relayBatch_lockHeldElsewhere_sendsNothing() {
+        Mockito.when(outboxRepository.tryRelayLock(anyLong())).thenReturn(false);
+
+        assertEquals(0, service.relayBatch());
+        Mockito.verify(outboxRepository, Mockito.never()).findPending(any());
+        Mockito.verifyNoInteractions(orderEventPublisher);
+    }
+
+    private OrderOutboxEvent row(long id, UUID orderId, OrderStatus newStatus) {
+        OrderOutboxEvent row = new OrderOutboxEvent();
+        row.setId(id);
+        row.setOrderId(orderId);
+        row.setNewStatus(newStatus);
+        row.setChangedAt(now);
+        row.setCreatedAt(now);
+        return row;
+    }
+}
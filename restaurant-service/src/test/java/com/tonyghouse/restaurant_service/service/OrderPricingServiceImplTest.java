@@ -2,13 +2,10 @@ package com.tonyghouse.restaurant_service.service;
 
 import com.tonyghouse.restaurant_service.dto.OrderItemRequest;
 import com.tonyghouse.restaurant_service.dto.PriceBreakdown;
-import com.tonyghouse.restaurant_service.entity.Combo;
-import com.tonyghouse.restaurant_service.entity.MenuItem;
+import com.tonyghouse.restaurant_service.dto.ResolvedOrderLine;
 import com.tonyghouse.restaurant_service.entity.Order;
 import com.tonyghouse.restaurant_service.entity.OrderItem;
 import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
-import com.tonyghouse.restaurant_service.repo.ComboRepository;
-import com.tonyghouse.restaurant_service.repo.MenuItemRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -17,10 +14,10 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,30 +27,18 @@ import static org.junit.jupiter.api.Assertions.*;
 class OrderPricingServiceImplTest {
 
     @Mock
-    MenuItemRepository menuItemRepository;
-
-    @Mock
-    ComboRepository comboRepository;
+    OrderCatalogService catalogService;
 
     @InjectMocks
     OrderPricingServiceImpl service;
 
+    static final UUID BRANCH_ID = UUID.randomUUID();
+
     @Test
     void calculate_itemAndCombo_success() {
         UUID itemId = UUID.randomUUID();
         UUID comboId = UUID.randomUUID();
 
-        MenuItem item = new MenuItem();
-        item.setPrice(new BigDecimal("100"));
-
-        Combo combo = new Combo();
-        combo.setComboPrice(new BigDecimal("200"));
-
-        Mockito.when(menuItemRepository.findById(itemId))
-                .thenReturn(Optional.of(item));
-        Mockito.when(comboRepository.findById(comboId))
-                .thenReturn(Optional.of(combo));
-
         OrderItemRequest r1 = new OrderItemRequest();
         r1.setItemId(itemId);
         r1.setItemType("ITEM");
@@ -64,21 +49,54 @@ class OrderPricingServiceImplTest {
         r2.setItemType("COMBO");
         r2.setQuantity(1);
 
-        PriceBreakdown res = service.calculate(List.of(r1, r2));
+        Mockito.when(catalogService.resolve(BRANCH_ID, List.of(r1, r2)))
+                .thenReturn(List.of(
+                        new ResolvedOrderLine(itemId, "ITEM", "Burger", new BigDecimal("100"), 2, null),
+                        new ResolvedOrderLine(comboId, "COMBO", "Family Combo", new BigDecimal("200"), 1, null)
+                ));
 
-        assertEquals(new BigDecimal("400"), res.getItemsTotal());
+        PriceBreakdown res = service.calculate(BRANCH_ID, List.of(r1, r2));
+
+        assertEquals(new BigDecimal("400.00"), res.getItemsTotal());
         assertEquals(new BigDecimal("72.00"), res.getTax());
         assertEquals(new BigDecimal("472.00"), res.getGrandTotal());
     }
 
     @Test
-    void calculate_invalidItemType() {
+    void calculate_catalogFailurePropagates() {
         OrderItemRequest req = new OrderItemRequest();
         req.setItemType("INVALID");
         req.setQuantity(1);
 
+        Mockito.when(catalogService.resolve(BRANCH_ID, List.of(req)))
+                .thenThrow(new RestoRestaurantException("Invalid item type", HttpStatus.BAD_REQUEST));
+
         assertThrows(RestoRestaurantException.class,
-                () -> service.calculate(List.of(req)));
+                () -> service.calculate(BRANCH_ID, List.of(req)));
+    }
+
+    @Test
+    void calculateResolved_doesNotTouchCatalog() {
+        PriceBreakdown res = service.calculateResolved(List.of(
+                new ResolvedOrderLine(UUID.randomUUID(), "ITEM", "Tea", new BigDecimal("50"), 3, null)
+        ));
+
+        assertEquals(new BigDecimal("150.00"), res.getItemsTotal());
+        Mockito.verifyNoInteractions(catalogService);
+    }
+
+    @Test
+    void calculateResolved_roundsTaxToTwoDecimalsHalfEven() {
+        PriceBreakdown res = service.calculateResolved(List.of(
+                new ResolvedOrderLine(UUID.randomUUID(), "ITEM", "Coffee", new BigDecimal("0.25"), 1, null),
+                new ResolvedOrderLine(UUID.randomUUID(), "ITEM", "Cookie", new BigDecimal("99.99"), 3, null)
+        ));
+
+        // 300.22 * 0.18 = 54.0396
+        assertEquals(new BigDecimal("300.22"), res.getItemsTotal());
+        assertEquals(new BigDecimal("54.04"), res.getTax());
+        assertEquals(new BigDecimal("0.00"), res.getDeliveryCharge());
+        assertEquals(new BigDecimal("354.26"), res.getGrandTotal());
     }
 
     @Test
@@ -97,7 +115,7 @@ class OrderPricingServiceImplTest {
 
         PriceBreakdown res = service.recalculateFromOrder(order);
 
-        assertEquals(new BigDecimal("250"), res.getItemsTotal());
+        assertEquals(new BigDecimal("250.00"), res.getItemsTotal());
         assertEquals(new BigDecimal("45.00"), res.getTax());
         assertEquals(new BigDecimal("295.00"), res.getGrandTotal());
     }
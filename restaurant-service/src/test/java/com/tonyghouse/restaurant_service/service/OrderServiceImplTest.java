@@ -4,6 +4,7 @@ import com.tonyghouse.restaurant_service.constants.OrderStatus;
 import com.tonyghouse.restaurant_service.dto.*;
 import com.tonyghouse.restaurant_service.entity.*;
 import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.OrderCursor;
 import com.tonyghouse.restaurant_service.repo.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,13 +13,19 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,16 +38,18 @@ class OrderServiceImplTest {
     @Mock
     OrderRepository orderRepository;
     @Mock
-    OrderItemRepository orderItemRepository;
+    OrderIdempotencyKeyRepository idempotencyKeyRepository;
     @Mock
     OrderPricingService pricingService;
     @Mock
-    MenuItemRepository menuItemRepository;
-    @Mock
-    ComboRepository comboRepository;
+    OrderCatalogService catalogService;
     @Mock
     BranchRepository branchRepository;
     @Mock
+    PricePreviewCacheService previewCacheService;
+    @Mock
+    KitchenQueueService kitchenQueueService;
+    @Mock
     Clock clock;
 
     @InjectMocks
@@ -51,6 +60,7 @@ class OrderServiceImplTest {
     @BeforeEach
     void setup() {
         when(clock.instant()).thenReturn(fixedInstant);
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
     }
 
     @Test
@@ -67,7 +77,9 @@ class OrderServiceImplTest {
         breakdown.setItemsTotal(BigDecimal.ZERO);
         breakdown.setTax(BigDecimal.ZERO);
 
-        when(pricingService.calculate(any()))
+        when(catalogService.resolve(any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(pricingService.calculateResolved(any()))
                 .thenReturn(breakdown);
 
         when(branchRepository.findById(branchId))
@@ -104,13 +116,17 @@ class OrderServiceImplTest {
         req.setItems(List.of(itemReq));
 
         PriceBreakdown breakdown = new PriceBreakdown();
-        breakdown.setGrandTotal(new BigDecimal("200"));
+        breakdown.setItemsTotal(new BigDecimal("200"));
+        breakdown.setTax(new BigDecimal("36.00"));
+        breakdown.setDeliveryCharge(new BigDecimal("0.00"));
+        breakdown.setGrandTotal(new BigDecimal("236.00"));
 
         when(branchRepository.findById(branchId))
                 .thenReturn(Optional.of(branch));
-        when(menuItemRepository.findById(itemId))
-                .thenReturn(Optional.of(menuItem));
-        when(pricingService.calculate(any()))
+        when(catalogService.resolve(branchId, req.getItems()))
+                .thenReturn(List.of(new ResolvedOrderLine(
+                        itemId, "ITEM", menuItem.getName(), menuItem.getPrice(), 2, null)));
+        when(pricingService.calculateResolved(any()))
                 .thenReturn(breakdown);
         when(orderRepository.save(any()))
                 .thenAnswer(inv -> inv.getArgument(0));
@@ -118,7 +134,20 @@ class OrderServiceImplTest {
         OrderResponse res = service.create(req);
 
         assertEquals(OrderStatus.CREATED.toString(), res.getStatus());
-        verify(orderItemRepository, times(1)).save(any());
+        verify(catalogService, times(1)).resolve(branchId, req.getItems());
+        verify(pricingService, never()).calculate(any(), any());
+
+        ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository, times(1)).save(orderCaptor.capture());
+        List<OrderItem> items = orderCaptor.getValue().getItems();
+        assertEquals(1, items.size());
+        assertEquals("Burger", items.get(0).getItemName());
+        assertEquals(new BigDecimal("200"), items.get(0).getTotalPrice());
+        assertEquals(new BigDecimal("200"), orderCaptor.getValue().getItemsTotal());
+        assertEquals(new BigDecimal("36.00"), orderCaptor.getValue().getTaxAmount());
+        assertEquals(new BigDecimal("236.00"), orderCaptor.getValue().getTotalAmount());
+        assertEquals(1, res.getItems().size());
+        verify(kitchenQueueService).orderCreated(orderCaptor.getValue());
     }
 
     @Test
@@ -149,16 +178,128 @@ class OrderServiceImplTest {
 
         when(branchRepository.findById(branchId))
                 .thenReturn(Optional.of(branch));
-        when(comboRepository.findById(comboId))
-                .thenReturn(Optional.of(combo));
-        when(pricingService.calculate(any()))
+        when(catalogService.resolve(branchId, req.getItems()))
+                .thenReturn(List.of(new ResolvedOrderLine(
+                        comboId, "COMBO", combo.getName(), combo.getComboPrice(), 1, null)));
+        when(pricingService.calculateResolved(any()))
                 .thenReturn(breakdown);
         when(orderRepository.save(any()))
                 .thenAnswer(inv -> inv.getArgument(0));
 
         service.create(req);
 
-        verify(orderItemRepository).save(any());
+        ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(orderCaptor.capture());
+        assertEquals(1, orderCaptor.getValue().getItems().size());
+        assertSame(orderCaptor.getValue(), orderCaptor.getValue().getItems().get(0).getOrder());
+    }
+
+    @Test
+    void create_withIdempotencyKey_claimsKeyAndStoresResponse() {
+
+        UUID branchId = UUID.randomUUID();
+        Branch branch = new Branch();
+        branch.setId(branchId);
+
+        CreateOrderRequest req = new CreateOrderRequest();
+        req.setBranchId(branchId);
+        req.setItems(Collections.emptyList());
+
+        PriceBreakdown breakdown = new PriceBreakdown();
+        breakdown.setGrandTotal(new BigDecimal("200.00"));
+
+        OrderIdempotencyKey claim = new OrderIdempotencyKey();
+        claim.setIdempotencyKey("key-1");
+
+        when(idempotencyKeyRepository.claim(claim, fixedInstant))
+                .thenReturn(claim);
+        when(branchRepository.findById(branchId))
+                .thenReturn(Optional.of(branch));
+        when(catalogService.resolve(any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(pricingService.calculateResolved(any()))
+                .thenReturn(breakdown);
+        when(orderRepository.save(any()))
+                .thenAnswer(inv -> {
+                    Order o = inv.getArgument(0);
+                    o.setId(UUID.randomUUID());
+                    return o;
+                });
+
+        OrderResponse res = service.create(req, claim);
+
+        InOrder inOrder = inOrder(idempotencyKeyRepository, catalogService);
+        inOrder.verify(idempotencyKeyRepository).claim(claim, fixedInstant);
+        inOrder.verify(catalogService).resolve(branchId, req.getItems());
+
+        assertEquals(res.getOrderId(), claim.getOrderId());
+        assertNotNull(claim.getResponse());
+        assertTrue(claim.getResponse().contains(res.getOrderId().toString()));
+    }
+
+    @Test
+    void createBulk_partialFailure_savesValidOrdersInOneCall() {
+
+        UUID branchId = UUID.randomUUID();
+        Branch branch = new Branch();
+        branch.setId(branchId);
+
+        CreateOrderRequest ok1 = new CreateOrderRequest();
+        ok1.setBranchId(branchId);
+        CreateOrderRequest badItem = new CreateOrderRequest();
+        badItem.setBranchId(branchId);
+        CreateOrderRequest unknownBranch = new CreateOrderRequest();
+        unknownBranch.setBranchId(UUID.randomUUID());
+        CreateOrderRequest ok2 = new CreateOrderRequest();
+        ok2.setBranchId(branchId);
+
+        ResolvedOrderLine line = new ResolvedOrderLine(
+                UUID.randomUUID(), "ITEM", "Burger", new BigDecimal("100"), 1, null);
+
+        PriceBreakdown breakdown = new PriceBreakdown();
+        breakdown.setGrandTotal(new BigDecimal("118.00"));
+
+        when(catalogService.resolveAll(any()))
+                .thenReturn(List.of(
+                        ResolvedCart.resolved(List.of(line)),
+                        ResolvedCart.failed(new RestoRestaurantException("Item not found", HttpStatus.NOT_FOUND)),
+                        ResolvedCart.resolved(List.of(line)),
+                        ResolvedCart.resolved(List.of(line))
+                ));
+        when(branchRepository.findAllById(any()))
+                .thenReturn(List.of(branch));
+        when(pricingService.calculateResolved(any()))
+                .thenReturn(breakdown);
+        when(orderRepository.saveAll(any()))
+                .thenAnswer(inv -> {
+                    List<Order> orders = inv.getArgument(0);
+                    orders.forEach(o -> o.setId(UUID.randomUUID()));
+                    return orders;
+                });
+
+        BulkOrderResponse res = service.createBulk(List.of(ok1, badItem, unknownBranch, ok2));
+
+        assertEquals(2, res.getCreated());
+        assertEquals(2, res.getFailed());
+        assertEquals("CREATED", res.getResults().get(0).getStatus());
+        assertNotNull(res.getResults().get(0).getOrderId());
+        assertEquals("Item not found", res.getResults().get(1).getError());
+        assertEquals("Branch not found", res.getResults().get(2).getError());
+        assertNotNull(res.getResults().get(3).getOrderId());
+
+        verify(catalogService, times(1)).resolveAll(any());
+        verify(orderRepository, times(1)).saveAll(any());
+        verify(orderRepository, never()).save(any());
+        verify(kitchenQueueService, times(2)).orderCreated(any());
+    }
+
+    @Test
+    void createBulk_tooManyOrders() {
+        List<CreateOrderRequest> requests = Collections.nCopies(501, new CreateOrderRequest());
+
+        assertThrows(RestoRestaurantException.class,
+                () -> service.createBulk(requests));
+        verifyNoInteractions(catalogService, orderRepository);
     }
 
     @Test
@@ -166,36 +307,132 @@ class OrderServiceImplTest {
 
         UUID orderId = UUID.randomUUID();
 
+        Branch branch = new Branch();
+        branch.setId(UUID.randomUUID());
+        branch.setName("Downtown");
+
         Order order = new Order();
         order.setId(orderId);
-        order.setTotalAmount(new BigDecimal("300"));
+        order.setBranch(branch);
+        order.setItemsTotal(new BigDecimal("250.00"));
+        order.setTaxAmount(new BigDecimal("45.00"));
+        order.setDeliveryCharge(new BigDecimal("0.00"));
+        order.setTotalAmount(new BigDecimal("295.00"));
         order.setStatus(OrderStatus.ACCEPTED);
 
-        when(orderRepository.findById(orderId))
+        OrderItem item = new OrderItem();
+        item.setItemName("Burger");
+        item.setQuantity(2);
+        item.setUnitPrice(new BigDecimal("125.00"));
+        item.setTotalPrice(new BigDecimal("250.00"));
+        order.getItems().add(item);
+
+        when(orderRepository.findDetailedById(orderId))
                 .thenReturn(Optional.of(order));
 
         OrderResponse res = service.get(orderId);
 
         assertEquals(orderId, res.getOrderId());
+        assertEquals("Downtown", res.getBranchName());
+        assertEquals(1, res.getItems().size());
+        assertEquals("Burger", res.getItems().get(0).getItemName());
+        assertEquals(new BigDecimal("250.00"), res.getBreakdown().getItemsTotal());
+        assertEquals(new BigDecimal("45.00"), res.getBreakdown().getTax());
+        assertEquals(new BigDecimal("295.00"), res.getBreakdown().getGrandTotal());
+        verify(orderRepository, never()).findById(any());
+        verifyNoInteractions(pricingService, catalogService);
     }
 
     @Test
     void get_notFound() {
 
-        when(orderRepository.findById(any()))
+        when(orderRepository.findDetailedById(any()))
                 .thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class,
                 () -> service.get(UUID.randomUUID()));
     }
 
+    @Test
+    void listByBranch_firstPage_returnsCursorWhenMoreRowsExist() {
+
+        UUID branchId = UUID.randomUUID();
+        List<Order> rows = List.of(
+                listedOrder("2025-01-01T12:00:00Z"),
+                listedOrder("2025-01-01T11:00:00Z"),
+                listedOrder("2025-01-01T10:00:00Z"));
+
+        when(orderRepository.findBranchPage(eq(branchId), any(), any(), any(), any()))
+                .thenReturn(rows);
+
+        OrderPageResponse res = service.listByBranch(branchId, null, null, null, 2);
+
+        assertEquals(2, res.getOrders().size());
+        assertNotNull(res.getNextCursor());
+
+        ArgumentCaptor<Instant> from = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> to = ArgumentCaptor.forClass(Instant.class);
+        verify(orderRepository).findBranchPage(eq(branchId), from.capture(), to.capture(),
+                eq(EnumSet.allOf(OrderStatus.class)), eq(PageRequest.of(0, 3)));
+        assertEquals(Instant.parse("2025-01-01T00:00:00Z"), from.getValue());
+        assertEquals(Instant.parse("2025-01-02T00:00:00Z"), to.getValue());
+
+        OrderCursor cursor = OrderCursor.decode(res.getNextCursor());
+        assertEquals(rows.get(1).getId(), cursor.id());
+        assertEquals(rows.get(1).getCreatedAt(), cursor.createdAt());
+    }
+
+    @Test
+    void listByBranch_nextPage_seeksPastCursor() {
+
+        UUID branchId = UUID.randomUUID();
+        OrderCursor cursor = new OrderCursor(Instant.parse("2025-01-01T11:00:00Z"), UUID.randomUUID());
+        Set<OrderStatus> statuses = Set.of(OrderStatus.CREATED);
+
+        when(orderRepository.findBranchPageAfter(any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(listedOrder("2025-01-01T10:00:00Z")));
+
+        OrderPageResponse res = service.listByBranch(
+                branchId, LocalDate.parse("2025-01-01"), statuses, cursor.encode(), 2);
+
+        assertEquals(1, res.getOrders().size());
+        assertNull(res.getNextCursor());
+        verify(orderRepository).findBranchPageAfter(eq(branchId), any(), any(), eq(statuses),
+                eq(cursor.createdAt()), eq(cursor.id()), any());
+        verify(orderRepository, never()).findBranchPage(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void listByBranch_invalidCursor() {
+
+        assertThrows(RestoRestaurantException.class,
+                () -> service.listByBranch(UUID.randomUUID(), null, null, "not-a-cursor", 10));
+    }
+
+    @Test
+    void listByBranch_pageSizeTooLarge() {
+
+        assertThrows(RestoRestaurantException.class,
+                () -> service.listByBranch(UUID.randomUUID(), null, null, null, 101));
+        verifyNoInteractions(orderRepository);
+    }
+
+    private static Order listedOrder(String createdAt) {
+        Order o = new Order();
+        o.setId(UUID.randomUUID());
+        o.setStatus(OrderStatus.CREATED);
+        o.setTotalAmount(new BigDecimal("100.00"));
+        o.setCreatedAt(Instant.parse(createdAt));
+        return o;
+    }
+
     @Test
     void preview_success() {
 
         PriceBreakdown breakdown = new PriceBreakdown();
         breakdown.setGrandTotal(new BigDecimal("300"));
 
-        when(pricingService.calculate(any()))
+        when(pricingService.calculate(any(), any()))
                 .thenReturn(breakdown);
 
         PricePreviewResponse res =
@@ -204,4 +441,39 @@ class OrderServiceImplTest {
         assertEquals(new BigDecimal("300"),
                 res.getBreakdown().getGrandTotal());
     }
+
+    @Test
+    void preview_cacheHit_skipsPricing() {
+
+        PricePreviewResponse cached = new PricePreviewResponse();
+        cached.setBreakdown(new PriceBreakdown());
+        CreateOrderRequest req = new CreateOrderRequest();
+
+        when(previewCacheService.get(req))
+                .thenReturn(Optional.of(cached));
+
+        assertSame(cached, service.preview(req));
+        verify(pricingService, never()).calculate(any(), any());
+        verify(previewCacheService, never()).put(any(), any(), anyLong());
+    }
+
+    @Test
+    void preview_cacheMiss_storesResult() {
+
+        CreateOrderRequest req = new CreateOrderRequest();
+        when(previewCacheService.get(req))
+                .thenReturn(Optional.empty());
+        when(previewCacheService.stamp(req))
+                .thenReturn(7L);
+        when(pricingService.calculate(any(), any()))
+                .thenReturn(new PriceBreakdown());
+
+        PricePreviewResponse res = service.preview(req);
+
+        // the stamp is read before pricing, so a price change during it is caught by put
+        InOrder inOrder = inOrder(previewCacheService, pricingService);
+        inOrder.verify(previewCacheService).stamp(req);
+        inOrder.verify(pricingService).calculate(any(), any());
+        inOrder.verify(previewCacheService).put(req, res, 7L);
+    }
 }
@@ -1,16 +1,22 @@
 package com.tonyghouse.restaurant_service.service;
 
 import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.constants.OrderTransitionGuard;
+import com.tonyghouse.restaurant_service.dto.BulkTransitionResponse;
 import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.dto.OrderStatusHistoryResponse;
+import com.tonyghouse.restaurant_service.entity.Branch;
 import com.tonyghouse.restaurant_service.entity.Order;
 import com.tonyghouse.restaurant_service.entity.OrderStatusHistory;
 import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
-import com.tonyghouse.restaurant_service.publisher.OrderEventPublisher;
+import com.tonyghouse.restaurant_service.helper.OrderStateRules;
+import com.tonyghouse.restaurant_service.helper.OrderWorkflow;
 import com.tonyghouse.restaurant_service.repo.OrderRepository;
 import com.tonyghouse.restaurant_service.repo.OrderStatusHistoryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -20,6 +26,7 @@ import org.mockito.quality.Strictness;
 
 import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -37,11 +44,19 @@ class OrderStateServiceImplTest {
     OrderStatusHistoryRepository historyRepository;
 
     @Mock
-    OrderEventPublisher orderEventPublisher;
+    OrderOutboxService outboxService;
 
     @Mock
     Clock clock;
 
+
+
+    @Mock
+    OrderHistoryArchiveService archiveService;
+
+    @Mock
+    OrderWorkflowService workflowService;
+
     @InjectMocks
     OrderStateServiceImpl service;
 
@@ -49,27 +64,65 @@ class OrderStateServiceImplTest {
     void setup() {
         Mockito.when(clock.instant())
                 .thenReturn(Instant.parse("2025-01-01T00:00:00Z"));
+        Mockito.when(workflowService.forOrder(Mockito.any()))
+                .thenReturn(OrderStateRules.DEFAULT);
+        Mockito.when(workflowService.forBranch(Mockito.any()))
+                .thenReturn(OrderStateRules.DEFAULT);
     }
 
     @Test
     void accept_success() {
         UUID orderId = UUID.randomUUID();
 
-        Order order = new Order();
-        order.setId(orderId);
-        order.setStatus(OrderStatus.CREATED);
+        Mockito.when(orderRepository.transitionStatus(orderId, List.of(OrderStatus.CREATED), OrderStatus.ACCEPTED))
+                .thenReturn(1);
 
+        service.accept(orderId);
+
+        Mockito.verify(orderRepository, Mockito.never()).findById(Mockito.any());
+        Mockito.verify(orderRepository, Mockito.never()).findPreviousStatusById(Mockito.any());
+        Mockito.verify(orderRepository, Mockito.never()).save(Mockito.any());
+        Mockito.verify(historyRepository).save(Mockito.any(OrderStatusHistory.class));
+        Mockito.verify(outboxService)
+                .enqueue(Mockito.any(OrderStatusChangedEvent.class));
+    }
+
+    @Test
+    void cancel_oneUpdateFromEveryAllowedSource_thenReadsWhereItCameFrom() {
+        UUID orderId = UUID.randomUUID();
+        List<OrderStatus> sources = OrderStateRules.DEFAULT.sourcesOf(OrderStatus.CANCELLED);
+
+        Mockito.when(orderRepository.transitionStatus(orderId, sources, OrderStatus.CANCELLED))
+                .thenReturn(1);
+        Mockito.when(orderRepository.findPreviousStatusById(orderId))
+                .thenReturn(Optional.of(OrderStatus.ACCEPTED));
+
+        service.cancel(orderId);
+
+        ArgumentCaptor<OrderStatusChangedEvent> event = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+        Mockito.verify(outboxService).enqueue(event.capture());
+        assertEquals(OrderStatus.ACCEPTED, event.getValue().oldStatus());
+        assertTrue(sources.size() > 1);
+        Mockito.verify(orderRepository, Mockito.times(1))
+                .transitionStatus(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void transition_lostRace_rejectedWithoutSideEffects() {
+        UUID orderId = UUID.randomUUID();
+
+        // a concurrent cancel committed first: the conditional update matches no row
+        Order order = new Order();
+        order.setStatus(OrderStatus.CANCELLED);
         Mockito.when(orderRepository.findById(orderId))
                 .thenReturn(Optional.of(order));
-        Mockito.when(orderRepository.save(order))
-                .thenReturn(order);
 
-        service.accept(orderId);
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.accept(orderId));
 
-        assertEquals(OrderStatus.ACCEPTED, order.getStatus());
-        Mockito.verify(historyRepository).save(Mockito.any(OrderStatusHistory.class));
-        Mockito.verify(orderEventPublisher)
-                .publish(Mockito.any(OrderStatusChangedEvent.class));
+        assertEquals("400", ex.getErrorCode());
+        Mockito.verify(historyRepository, Mockito.never()).save(Mockito.any());
+        Mockito.verify(outboxService, Mockito.never()).enqueue(Mockito.any());
     }
 
     @Test
@@ -86,7 +139,7 @@ class OrderStateServiceImplTest {
 
         Mockito.verify(orderRepository, Mockito.never()).save(Mockito.any());
         Mockito.verify(historyRepository, Mockito.never()).save(Mockito.any());
-        Mockito.verify(orderEventPublisher, Mockito.never()).publish(Mockito.any());
+        Mockito.verify(outboxService, Mockito.never()).enqueue(Mockito.any());
     }
 
     @Test
@@ -103,6 +156,147 @@ class OrderStateServiceImplTest {
                 () -> service.markDelivered(orderId));
     }
 
+    @Test
+    void transition_orderNotFound() {
+        UUID orderId = UUID.randomUUID();
+
+        Mockito.when(orderRepository.findById(orderId))
+                .thenReturn(Optional.empty());
+
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.accept(orderId));
+
+        assertEquals("404", ex.getErrorCode());
+    }
+
+    @Test
+    void transitionAll_reportsPerOrderOutcomes() {
+        Order created = order(OrderStatus.CREATED);
+        Order accepted = order(OrderStatus.ACCEPTED);
+        Order delivered = order(OrderStatus.DELIVERED);
+        UUID missing = UUID.randomUUID();
+
+        Mockito.when(orderRepository.lockAllById(Mockito.anyCollection()))
+                .thenReturn(List.of(created, accepted, delivered));
+
+        BulkTransitionResponse res = service.transitionAll(
+                List.of(created.getId(), accepted.getId(), delivered.getId(), missing),
+                OrderStatus.ACCEPTED);
+
+        assertEquals(1, res.getUpdated());
+        assertEquals(1, res.getUnchanged());
+        assertEquals(2, res.getFailed());
+        assertEquals("UPDATED", res.getResults().get(0).getOutcome());
+        assertEquals("UNCHANGED", res.getResults().get(1).getOutcome());
+        assertEquals("Invalid transition: DELIVERED → ACCEPTED", res.getResults().get(2).getError());
+        assertEquals("Order not found", res.getResults().get(3).getError());
+        assertEquals(OrderStatus.ACCEPTED, created.getStatus());
+
+        ArgumentCaptor<List<OrderStatusHistory>> histories = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(historyRepository).saveAll(histories.capture());
+        assertEquals(1, histories.getValue().size());
+        Mockito.verify(outboxService, Mockito.times(1)).enqueue(Mockito.any());
+        Mockito.verify(orderRepository, Mockito.never()).transitionStatus(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void transitionAll_tooMany_badRequest() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i <= OrderStateServiceImpl.MAX_BULK_TRANSITIONS; i++) {
+            ids.add(UUID.randomUUID());
+        }
+
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.transitionAll(ids, OrderStatus.READY));
+
+        assertEquals("400", ex.getErrorCode());
+        Mockito.verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void markDelivered_branchWithoutReady_followsBranchWorkflow() {
+        UUID orderId = UUID.randomUUID();
+        Mockito.when(workflowService.forOrder(orderId)).thenReturn(DINE_IN);
+        Mockito.when(orderRepository.transitionStatus(orderId, List.of(OrderStatus.PREPARING), OrderStatus.DELIVERED))
+                .thenReturn(1);
+
+        service.markDelivered(orderId);
+
+        Mockito.verify(orderRepository, Mockito.never()).findById(Mockito.any());
+        Mockito.verify(orderRepository)
+                .transitionStatus(orderId, List.of(OrderStatus.PREPARING), OrderStatus.DELIVERED);
+        Mockito.verify(historyRepository).save(Mockito.any(OrderStatusHistory.class));
+    }
+
+    @Test
+    void markPreparing_guardNotMet_badRequest() {
+        UUID orderId = UUID.randomUUID();
+        Order order = order(OrderStatus.ACCEPTED);
+        Mockito.when(workflowService.forOrder(orderId)).thenReturn(DINE_IN);
+        Mockito.when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.markPreparing(orderId));
+
+        assertEquals("400", ex.getErrorCode());
+        Mockito.verify(orderRepository, Mockito.never())
+                .transitionStatus(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(outboxService, Mockito.never()).enqueue(Mockito.any());
+    }
+
+    @Test
+    void markPreparing_guardMet_updatesFromReadStatus() {
+        UUID orderId = UUID.randomUUID();
+        Order order = order(OrderStatus.ACCEPTED);
+        order.setPaymentId(UUID.randomUUID());
+        Mockito.when(workflowService.forOrder(orderId)).thenReturn(DINE_IN);
+        Mockito.when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        Mockito.when(orderRepository.transitionStatus(orderId, List.of(OrderStatus.ACCEPTED), OrderStatus.PREPARING))
+                .thenReturn(1);
+
+        service.markPreparing(orderId);
+
+        Mockito.verify(outboxService).enqueue(Mockito.any(OrderStatusChangedEvent.class));
+    }
+
+    @Test
+    void transitionAll_guardNotMet_failsThatOrderOnly() {
+        Order unpaid = order(OrderStatus.ACCEPTED);
+        Order paid = order(OrderStatus.ACCEPTED);
+        paid.setPaymentId(UUID.randomUUID());
+        Mockito.when(workflowService.forBranch(Mockito.any())).thenReturn(DINE_IN);
+        Mockito.when(orderRepository.lockAllById(Mockito.anyCollection()))
+                .thenReturn(List.of(unpaid, paid));
+
+        BulkTransitionResponse res = service.transitionAll(
+                List.of(unpaid.getId(), paid.getId()), OrderStatus.PREPARING);
+
+        assertEquals(1, res.getUpdated());
+        assertEquals("Transition ACCEPTED → PREPARING requires PAYMENT_INITIATED",
+                res.getResults().get(0).getError());
+        assertEquals(OrderStatus.ACCEPTED, unpaid.getStatus());
+        assertEquals(OrderStatus.PREPARING, paid.getStatus());
+    }
+
+    // dine-in: no READY step, and cooking starts only once payment was initiated
+    private static final OrderWorkflow DINE_IN = OrderWorkflow.compile(1, List.of(
+            new OrderWorkflow.Transition(OrderStatus.CREATED, OrderStatus.ACCEPTED, null),
+            new OrderWorkflow.Transition(OrderStatus.ACCEPTED, OrderStatus.PREPARING,
+                    OrderTransitionGuard.PAYMENT_INITIATED),
+            new OrderWorkflow.Transition(OrderStatus.PREPARING, OrderStatus.DELIVERED, null),
+            new OrderWorkflow.Transition(OrderStatus.ACCEPTED, OrderStatus.CANCELLED, null)
+    ));
+
+    private static Order order(OrderStatus status) {
+        Branch branch = new Branch();
+        branch.setId(UUID.randomUUID());
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setBranch(branch);
+        order.setStatus(status);
+        return order;
+    }
+
     @Test
     void history_success() {
         UUID orderId = UUID.randomUUID();
@@ -121,4 +315,76 @@ class OrderStateServiceImplTest {
         assertEquals(OrderStatus.CREATED, res.get(0).getOldStatus());
         assertEquals(OrderStatus.ACCEPTED, res.get(0).getNewStatus());
     }
+
+    @Test
+    void history_completeInDatabase_skipsArchive() {
+        UUID orderId = UUID.randomUUID();
+
+        OrderStatusHistory h1 = new OrderStatusHistory();
+        h1.setOldStatus(OrderStatus.CREATED);
+        h1.setNewStatus(OrderStatus.ACCEPTED);
+        h1.setChangedAt(Instant.parse("2025-01-01T00:00:00Z"));
+
+        Mockito.when(historyRepository.findByOrderIdOrderByChangedAtAsc(orderId))
+                .thenReturn(List.of(h1));
+
+        service.history(orderId);
+
+        Mockito.verifyNoInteractions(archiveService);
+        Mockito.verify(orderRepository, Mockito.never()).findCreatedAtById(Mockito.any());
+    }
+
+    @Test
+    void history_partlyArchived_mergesInTimeOrder() {
+        UUID orderId = UUID.randomUUID();
+        Instant createdAt = Instant.parse("2024-01-31T23:50:00Z");
+
+        // the month boundary split this order: its first transition is already archived
+        OrderStatusHistory recent = new OrderStatusHistory();
+        recent.setOldStatus(OrderStatus.ACCEPTED);
+        recent.setNewStatus(OrderStatus.PREPARING);
+        recent.setChangedAt(Instant.parse("2024-02-01T00:05:00Z"));
+
+        Mockito.when(historyRepository.findByOrderIdOrderByChangedAtAsc(orderId))
+                .thenReturn(List.of(recent));
+        Mockito.when(archiveService.archivedThrough())
+                .thenReturn(Optional.of(Instant.parse("2024-02-01T00:00:00Z")));
+        Mockito.when(orderRepository.findCreatedAtById(orderId))
+                .thenReturn(Optional.of(createdAt));
+        Mockito.when(archiveService.findArchived(orderId, createdAt))
+                .thenReturn(List.of(new OrderStatusHistoryResponse(
+                        OrderStatus.CREATED, OrderStatus.ACCEPTED, Instant.parse("2024-01-31T23:55:00Z"))));
+
+        var res = service.history(orderId);
+
+        assertEquals(2, res.size());
+        assertEquals(OrderStatus.CREATED, res.get(0).getOldStatus());
+        assertEquals(OrderStatus.PREPARING, res.get(1).getNewStatus());
+    }
+
+    @Test
+    void history_noTransitionsYet_nothingArchived_readsNothingElse() {
+        UUID orderId = UUID.randomUUID();
+        Mockito.when(historyRepository.findByOrderIdOrderByChangedAtAsc(orderId)).thenReturn(List.of());
+        Mockito.when(archiveService.archivedThrough()).thenReturn(Optional.empty());
+
+        assertTrue(service.history(orderId).isEmpty());
+
+        Mockito.verify(orderRepository, Mockito.never()).findCreatedAtById(Mockito.any());
+        Mockito.verify(archiveService, Mockito.never()).findArchived(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void history_orderNewerThanArchive_skipsArchiveFiles() {
+        UUID orderId = UUID.randomUUID();
+        Mockito.when(historyRepository.findByOrderIdOrderByChangedAtAsc(orderId)).thenReturn(List.of());
+        Mockito.when(archiveService.archivedThrough())
+                .thenReturn(Optional.of(Instant.parse("2024-06-01T00:00:00Z")));
+        Mockito.when(orderRepository.findCreatedAtById(orderId))
+                .thenReturn(Optional.of(Instant.parse("2025-06-01T12:00:00Z")));
+
+        assertTrue(service.history(orderId).isEmpty());
+
+        Mockito.verify(archiveService, Mockito.never()).findArchived(Mockito.any(), Mockito.any());
+    }
 }
@@ -0,0 +1,156 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.entity.Order;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.repo.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderStatusStreamServiceImplTest {
+
+    @Mock
+    OrderRepository orderRepository;
+
+    @Mock
+    KitchenQueueService kitchenQueueService;
+
+    @InjectMocks
+    OrderStatusStreamServiceImpl service;
+
+    final UUID orderId = UUID.randomUUID();
+    final UUID branchId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void subscribeOrder_unknownOrder_notFound() {
+        Mockito.when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.subscribeOrder(orderId));
+
+        assertEquals("404", ex.getErrorCode());
+    }
+
+    @Test
+    void subscribeOrder_returnsOpenEmitter() {
+        Order order = new Order();
+        order.setId(orderId);
+        order.setStatus(OrderStatus.PREPARING);
+        Mockito.when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        SseEmitter emitter = service.subscribeOrder(orderId);
+
+        assertEquals(OrderStatusStreamServiceImpl.TIMEOUT_MS, emitter.getTimeout());
+    }
+
+    @Test
+    void statusChanged_withoutBranchSubscribers_doesNotLookUpBranch() {
+        service.statusChanged(event());
+
+        Mockito.verifyNoInteractions(kitchenQueueService, orderRepository);
+    }
+
+    @Test
+    void statusChanged_withBranchSubscriber_resolvesBranchFromKitchenQueue() {
+        Mockito.when(kitchenQueueService.branchOf(orderId)).thenReturn(Optional.of(branchId));
+        service.subscribeBranch(branchId);
+
+        service.statusChanged(event());
+
+        Mockito.verify(kitchenQueueService).branchOf(orderId);
+        Mockito.verify(orderRepository, Mockito.never()).findBranchIdById(Mockito.any());
+    }
+
+    @Test
+    void statusChanged_unindexedOrder_fallsBackToBranchQuery() {
+        Mockito.when(kitchenQueueService.branchOf(orderId)).thenReturn(Optional.empty());
+        Mockito.when(orderRepository.findBranchIdById(orderId)).thenReturn(Optional.of(branchId));
+        service.subscribeBranch(branchId);
+
+        service.statusChanged(event());
+
+        Mockito.verify(orderRepository).findBranchIdById(orderId);
+    }
+
+    @Test
+    void subscriber_sendsQueuedEventsInOrderOnOneDrain() {
+        List<Runnable> tasks = new ArrayList<>();
+        RecordingEmitter emitter = new RecordingEmitter();
+        OrderStatusStreamServiceImpl.Subscriber subscriber =
+                new OrderStatusStreamServiceImpl.Subscriber(emitter, tasks::add);
+        SseEmitter.SseEventBuilder accepted = SseEmitter.event().data(OrderStatus.ACCEPTED);
+        SseEmitter.SseEventBuilder preparing = SseEmitter.event().data(OrderStatus.PREPARING);
+
+        subscriber.send(accepted);
+        subscriber.send(preparing);
+
+        // the second send joins the queue of the drain already scheduled
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        assertEquals(List.of(accepted, preparing), emitter.sent);
+    }
+
+    @Test
+    void subscriber_failedSend_dropsTheRestAndIgnoresLaterEvents() {
+        List<Runnable> tasks = new ArrayList<>();
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.failing = true;
+        OrderStatusStreamServiceImpl.Subscriber subscriber =
+                new OrderStatusStreamServiceImpl.Subscriber(emitter, tasks::add);
+
+        subscriber.send(SseEmitter.event().data(OrderStatus.ACCEPTED));
+        subscriber.send(SseEmitter.event().data(OrderStatus.PREPARING));
+        tasks.get(0).run();
+        subscriber.send(SseEmitter.event().data(OrderStatus.READY));
+
+        assertEquals(1, emitter.attempts);
+        assertEquals(1, tasks.size());
+    }
+
+    private OrderStatusChangedEvent event() {
+        return new OrderStatusChangedEvent(orderId, OrderStatus.PREPARING, OrderStatus.READY,
+                Instant.parse("2025-01-01T00:00:00Z"));
+    }
+
+    // records what would have been written to the client
+    static class RecordingEmitter extends SseEmitter {
+
+        final List<SseEventBuilder> sent = new ArrayList<>();
+        boolean failing;
+        int attempts;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            attempts++;
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(builder);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderWorkflowRequest;
+import com.tonyghouse.restaurant_service.dto.OrderWorkflowResponse;
+import com.tonyghouse.restaurant_service.dto.WorkflowTransitionDto;
+import com.tonyghouse.restaurant_service.entity.BranchWorkflow;
+import com.tonyghouse.restaurant_service.entity.BranchWorkflowTransition;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.OrderStateRules;
+import com.tonyghouse.restaurant_service.helper.OrderWorkflow;
+import com.tonyghouse.restaurant_service.repo.BranchRepository;
+import com.tonyghouse.restaurant_service.repo.BranchWorkflowRepository;
+import com.tonyghouse.restaurant_service.repo.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderWorkflowServiceImplTest {
+
+    @Mock
+    BranchWorkflowRepository workflowRepository;
+
+    @Mock
+    BranchRepository branchRepository;
+
+    @Mock
+    OrderRepository orderRepository;
+
+    @Mock
+    KitchenQueueService kitchenQueueService;
+
+    @Mock
+    Clock clock;
+
+    @InjectMocks
+    OrderWorkflowServiceImpl service;
+
+    final UUID branchId = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        Mockito.when(clock.instant()).thenReturn(Instant.parse("2025-01-01T00:00:00Z"));
+        Mockito.when(branchRepository.existsById(branchId)).thenReturn(true);
+    }
+
+    @Test
+    void forBranch_withoutWorkflow_usesDefaultAndCachesIt() {
+        Mockito.when(workflowRepository.findWithTransitionsByBranchId(branchId)).thenReturn(Optional.empty());
+
+        assertSame(OrderStateRules.DEFAULT, service.forBranch(branchId));
+        assertSame(OrderStateRules.DEFAULT, service.forBranch(branchId));
+
+        Mockito.verify(workflowRepository, Mockito.times(1)).findWithTransitionsByBranchId(branchId);
+    }
+
+    @Test
+    void forBranch_compilesStoredWorkflow() {
+        Mockito.when(workflowRepository.findWithTransitionsByBranchId(branchId))
+                .thenReturn(Optional.of(stored(2, OrderStatus.PREPARING, OrderStatus.DELIVERED)));
+
+        OrderWorkflow workflow = service.forBranch(branchId);
+
+        assertEquals(2, workflow.version());
+        assertTrue(workflow.canTransition(OrderStatus.PREPARING, OrderStatus.DELIVERED));
+        assertFalse(workflow.canTransition(OrderStatus.PREPARING, OrderStatus.READY));
+    }
+
+    @Test
+    void forBranch_updateCommittedDuringLoad_keepsTheUpdate() {
+        BranchWorkflow stored = stored(2, OrderStatus.PREPARING, OrderStatus.DELIVERED);
+        Mockito.when(workflowRepository.bumpVersion(Mockito.eq(stored.getId()), Mockito.eq(2L), Mockito.any()))
+                .thenReturn(1);
+        Mockito.when(workflowRepository.findWithTransitionsByBranchId(branchId))
+                .thenAnswer(inv -> {
+                    // the first read is forBranch's; an update commits before it is cached
+                    service.update(branchId, request(OrderStatus.PREPARING, OrderStatus.READY));
+                    return Optional.of(stored(2, OrderStatus.PREPARING, OrderStatus.DELIVERED));
+                })
+                .thenReturn(Optional.of(stored));
+
+        OrderWorkflow workflow = service.forBranch(branchId);
+
+        assertEquals(3, workflow.version());
+        assertSame(workflow, service.forBranch(branchId));
+    }
+
+    @Test
+    void forOrder_resolvesBranchFromKitchenQueueFirst() {
+        UUID orderId = UUID.randomUUID();
+        Mockito.when(kitchenQueueService.branchOf(orderId)).thenReturn(Optional.of(branchId));
+        Mockito.when(workflowRepository.findWithTransitionsByBranchId(branchId)).thenReturn(Optional.empty());
+
+        service.forOrder(orderId);
+
+        Mockito.verify(orderRepository, Mockito.never()).findBranchIdById(Mockito.any());
+    }
+
+    @Test
+    void forOrder_unknownOrder_usesDefault() {
+        UUID orderId = UUID.randomUUID();
+        Mockito.when(kitchenQueueService.branchOf(orderId)).thenReturn(Optional.empty());
+        Mockito.when(orderRepository.findBranchIdById(orderId)).thenReturn(Optional.empty());
+
+        assertSame(OrderStateRules.DEFAULT, service.forOrder(orderId));
+    }
+
+    @Test
+    void update_swapsCompiledWorkflow() {
+        BranchWorkflow stored = stored(2, OrderStatus.PREPARING, OrderStatus.DELIVERED);
+        Mockito.when(workflowRepository.findWithTransitionsByBranchId(branchId)).thenReturn(Optional.of(stored));
+        Mockito.when(workflowRepository.bumpVersion(Mockito.eq(stored.getId()), Mockito.eq(2L), Mockito.any()))
+                .thenReturn(1);
+
+        OrderWorkflowResponse res = service.update(branchId, request(OrderStatus.PREPARING, OrderStatus.READY));
+
+        assertEquals(3, res.getVersion());
+        assertEquals(3, stored.getVersion());
+        assertTrue(service.forBranch(branchId).canTransition(OrderStatus.PREPARING, OrderStatus.READY));
+        Mockito.verify(workflowRepository).saveAndFlush(Mockito.any(BranchWorkflow.class));
+        Mockito.verify(workflowRepository).save(Mockito.any(BranchWorkflow.class));
+    }
+
+    @Test
+    void update_versionChangedConcurrently_conflictAndNothingSaved() {
+        BranchWorkflow stored = stored(2, OrderStatus.PREPARING, OrderStatus.DELIVERED);
+        Mockito.when(workflowRepository.findWithTransitionsByBranchId(branchId)).thenReturn(Optional.of(stored));
+        Mockito.when(workflowRepository.bumpVersion(Mockito.any(), Mockito.anyLong(), Mockito.any())).thenReturn(0);
+
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.update(branchId, request(OrderStatus.PREPARING, OrderStatus.READY)));
+
+        assertEquals("409", ex.getErrorCode());
+        Mockito.verify(workflowRepository, Mockito.never()).save(Mockito.any());
+        Mockito.verify(workflowRepository, Mockito.never()).saveAndFlush(Mockito.any());
+        assertFalse(service.forBranch(branchId).canTransition(OrderStatus.PREPARING, OrderStatus.READY));
+    }
+
+    @Test
+    void update_concurrentFirstCreation_conflict() {
+        Mockito.when(workflowRepository.findWithTransitionsByBranchId(branchId)).thenReturn(Optional.empty());
+        Mockito.when(workflowRepository.saveAndFlush(Mockito.any(BranchWorkflow.class)))
+                .thenThrow(new DataIntegrityViolationException("uq_branch_workflow_branch"));
+
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.update(branchId, request(OrderStatus.PREPARING, OrderStatus.READY)));
+
+        assertEquals("409", ex.getErrorCode());
+        Mockito.verify(workflowRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void update_firstWorkflow_startsAtVersionOne() {
+        Mockito.when(workflowRepository.findWithTransitionsByBranchId(branchId)).thenReturn(Optional.empty());
+        Mockito.when(workflowRepository.saveAndFlush(Mockito.any(BranchWorkflow.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        OrderWorkflowResponse res = service.update(branchId, request(OrderStatus.PREPARING, OrderStatus.READY));
+
+        assertEquals(1, res.getVersion());
+        Mockito.verify(workflowRepository, Mockito.never())
+                .bumpVersion(Mockito.any(), Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    void update_invalidWorkflow_badRequestAndNothingSaved() {
+        Mockito.when(workflowRepository.findWithTransitionsByBranchId(branchId)).thenReturn(Optional.empty());
+
+        OrderWorkflowRequest req = new OrderWorkflowRequest();
+        req.setTransitions(List.of(dto(OrderStatus.CREATED, OrderStatus.ACCEPTED)));
+
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.update(branchId, req));
+
+        assertEquals("400", ex.getErrorCode());
+        Mockito.verify(workflowRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void update_unknownBranch_notFound() {
+        UUID other = UUID.randomUUID();
+
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.update(other, request(OrderStatus.PREPARING, OrderStatus.READY)));
+
+        assertEquals("404", ex.getErrorCode());
+    }
+
+    @Test
+    void reloadChanged_recompilesOnlyWorkflowsWithNewVersion() {
+        UUID untouched = UUID.randomUUID();
+        Mockito.when(workflowRepository.findWithTransitionsByBranchId(branchId))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(stored(1, OrderStatus.PREPARING, OrderStatus.DELIVERED)));
+        Mockito.when(workflowRepository.findWithTransitionsByBranchId(untouched)).thenReturn(Optional.empty());
+        service.forBranch(branchId);
+        service.forBranch(untouched);
+
+        // another instance created a workflow for branchId
+        Mockito.when(workflowRepository.findAllVersions())
+                .thenReturn(List.of(version(UUID.randomUUID(), branchId, 1)));
+
+        service.reloadChanged();
+
+        assertEquals(1, service.forBranch(branchId).version());
+        assertSame(OrderStateRules.DEFAULT, service.forBranch(untouched));
+        Mockito.verify(workflowRepository, Mockito.times(1)).findWithTransitionsByBranchId(untouched);
+    }
+
+    @Test
+    void reloadChanged_workflowRecreatedAtSameVersion_isReloaded() {
+        BranchWorkflow before = stored(1, OrderStatus.PREPARING, OrderStatus.DELIVERED);
+        BranchWorkflow recreated = stored(1, OrderStatus.PREPARING, OrderStatus.READY);
+        Mockito.when(workflowRepository.findWithTransitionsByBranchId(branchId))
+                .thenReturn(Optional.of(before))
+                .thenReturn(Optional.of(recreated));
+        service.forBranch(branchId);
+
+        Mockito.when(workflowRepository.findAllVersions())
+                .thenReturn(List.of(version(recreated.getId(), branchId, 1)));
+
+        service.reloadChanged();
+
+        assertTrue(service.forBranch(branchId).canTransition(OrderStatus.PREPARING, OrderStatus.READY));
+    }
+
+    @Test
+    void reloadChanged_unchangedRow_isNotReloaded() {
+        BranchWorkflow stored = stored(2, OrderStatus.PREPARING, OrderStatus.DELIVERED);
+        Mockito.when(workflowRepository.findWithTransitionsByBranchId(branchId)).thenReturn(Optional.of(stored));
+        service.forBranch(branchId);
+
+        Mockito.when(workflowRepository.findAllVersions())
+                .thenReturn(List.of(version(stored.getId(), branchId, 2)));
+
+        service.reloadChanged();
+
+        Mockito.verify(workflowRepository, Mockito.times(1)).findWithTransitionsByBranchId(branchId);
+    }
+
+    // CREATED → ACCEPTED → PREPARING, then the given step, then on to DELIVERED
+    private BranchWorkflow stored(long version, OrderStatus from, OrderStatus to) {
+        BranchWorkflow workflow = new BranchWorkflow();
+        workflow.setId(UUID.randomUUID());
+        workflow.setBranchId(branchId);
+        workflow.setVersion(version);
+        for (WorkflowTransitionDto dto : request(from, to).getTransitions()) {
+            BranchWorkflowTransition row = new BranchWorkflowTransition();
+            row.setWorkflow(workflow);
+            row.setFromStatus(dto.getFrom());
+            row.setToStatus(dto.getTo());
+            workflow.getTransitions().add(row);
+        }
+        return workflow;
+    }
+
+    private static OrderWorkflowRequest request(OrderStatus from, OrderStatus to) {
+        OrderWorkflowRequest req = new OrderWorkflowRequest();
+        List<WorkflowTransitionDto> transitions = new ArrayList<>(List.of(
+                dto(OrderStatus.CREATED, OrderStatus.ACCEPTED),
+                dto(OrderStatus.ACCEPTED, OrderStatus.PREPARING),
+                dto(from, to)));
+        if (to != OrderStatus.DELIVERED) {
+            transitions.add(dto(to, OrderStatus.DELIVERED));
+        }
+        req.setTransitions(transitions);
+        return req;
+    }
+
+    private static WorkflowTransitionDto dto(OrderStatus from, OrderStatus to) {
+        WorkflowTransitionDto dto = new WorkflowTransitionDto();
+        dto.setFrom(from);
+        dto.setTo(to);
+        return dto;
+    }
+
+    private static BranchWorkflowRepository.WorkflowVersion version(UUID id, UUID branchId, long version) {
+        return new BranchWorkflowRepository.WorkflowVersion() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public UUID getBranchId() {
+                return branchId;
+            }
+
+            @Override
+            public long getVersion() {
+                return version;
+            }
+        };
+    }
+}
@@ -0,0 +1,207 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.constants.OrderStatus;
+import com.tonyghouse.restaurant_service.dto.OrderStatusChangedEvent;
+import com.tonyghouse.restaurant_service.dto.PrepTimeStatsResponse;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.repo.OrderRepository;
+import com.tonyghouse.restaurant_service.repo.OrderStatusHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PrepTimeAnalyticsServiceImplTest {
+
+    @Mock
+    OrderRepository orderRepository;
+
+    @Mock
+    OrderStatusHistoryRepository historyRepository;
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    Clock clock;
+
+    @InjectMocks
+    PrepTimeAnalyticsServiceImpl service;
+
+    final UUID branchId = UUID.randomUUID();
+    final UUID burgerId = UUID.randomUUID();
+    final UUID friesId = UUID.randomUUID();
+    final UUID orderId = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        Mockito.when(clock.instant()).thenReturn(Instant.parse("2025-01-01T12:30:00Z"));
+        Mockito.when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void acceptedThenReady_recordsBranchAndItemSamples() {
+        Mockito.when(orderRepository.findItemRefsByIdIn(anyCollection()))
+                .thenReturn(List.of(itemRef(orderId, burgerId), itemRef(orderId, friesId)));
+
+        service.record(List.of(
+                event(orderId, OrderStatus.CREATED, OrderStatus.ACCEPTED, "2025-01-01T12:00:00Z"),
+                event(orderId, OrderStatus.ACCEPTED, OrderStatus.PREPARING, "2025-01-01T12:01:00Z"),
+                event(orderId, OrderStatus.PREPARING, OrderStatus.READY, "2025-01-01T12:10:00Z")
+        ));
+        service.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(3, rows.getValue().size());
+        for (Object[] row : rows.getValue()) {
+            assertEquals(Timestamp.from(Instant.parse("2025-01-01T12:00:00Z")), row[0]);
+            assertEquals(branchId, row[1]);
+            // 10 minutes is bucket 40
+            assertEquals(40, row[4]);
+            assertEquals(1L, row[5]);
+        }
+        assertTrue(rows.getValue().stream().anyMatch(r -> r[2].equals("BRANCH") && r[3].equals(branchId)));
+        assertTrue(rows.getValue().stream().anyMatch(r -> r[2].equals("ITEM") && r[3].equals(friesId)));
+        Mockito.verifyNoInteractions(historyRepository);
+    }
+
+    @Test
+    void readyWithoutAcceptOnThisInstance_looksUpHistory() {
+        Mockito.when(historyRepository.findLatestEntriesByOrderIdIn(
+                        eq(Set.of(orderId)), eq(OrderStatus.ACCEPTED), any()))
+                .thenReturn(List.of(statusEntry(orderId, "2025-01-01T11:55:00Z")));
+        Mockito.when(orderRepository.findItemRefsByIdIn(anyCollection()))
+                .thenReturn(List.of(itemRef(orderId, null)));
+
+        service.record(List.of(
+                event(orderId, OrderStatus.PREPARING, OrderStatus.READY, "2025-01-01T12:10:00Z")));
+        service.flush();
+
+        Mockito.verify(jdbcTemplate).batchUpdate(anyString(), Mockito.<List<Object[]>>argThat(rows ->
+                rows.size() == 1 && rows.get(0)[2].equals("BRANCH") && rows.get(0)[4].equals(60)));
+    }
+
+    @Test
+    void cancelledOrder_isNotSampled() {
+        service.record(List.of(
+                event(orderId, OrderStatus.CREATED, OrderStatus.ACCEPTED, "2025-01-01T12:00:00Z"),
+                event(orderId, OrderStatus.ACCEPTED, OrderStatus.CANCELLED, "2025-01-01T12:02:00Z")
+        ));
+        service.flush();
+
+        Mockito.verifyNoInteractions(orderRepository, jdbcTemplate);
+    }
+
+    @Test
+    void failedFlush_keepsSamplesForNextFlush() {
+        Mockito.when(orderRepository.findItemRefsByIdIn(anyCollection()))
+                .thenReturn(List.of(itemRef(orderId, null)));
+        Mockito.when(jdbcTemplate.batchUpdate(anyString(), Mockito.<List<Object[]>>any()))
+                .thenThrow(new DataAccessResourceFailureException("db down"))
+                .thenReturn(new int[]{1});
+
+        service.record(List.of(
+                event(orderId, OrderStatus.CREATED, OrderStatus.ACCEPTED, "2025-01-01T12:00:00Z"),
+                event(orderId, OrderStatus.PREPARING, OrderStatus.READY, "2025-01-01T12:10:00Z")
+        ));
+        assertThrows(DataAccessResourceFailureException.class, () -> service.flush());
+        service.flush();
+
+        Mockito.verify(jdbcTemplate, Mockito.times(2)).batchUpdate(anyString(), Mockito.<List<Object[]>>argThat(rows ->
+                rows.size() == 1 && rows.get(0)[5].equals(1L)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stats_mergesWindowsAndSortsSlowestItemFirst() {
+        List<PrepTimeAnalyticsServiceImpl.BucketRow> rows = new ArrayList<>();
+        rows.add(new PrepTimeAnalyticsServiceImpl.BucketRow("BRANCH", branchId, 20, 9));
+        rows.add(new PrepTimeAnalyticsServiceImpl.BucketRow("BRANCH", branchId, 60, 1));
+        rows.add(new PrepTimeAnalyticsServiceImpl.BucketRow("ITEM", friesId, 20, 5));
+        rows.add(new PrepTimeAnalyticsServiceImpl.BucketRow("ITEM", burgerId, 60, 5));
+        Mockito.when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(branchId), any()))
+                .thenReturn(rows);
+
+        PrepTimeStatsResponse res = service.stats(branchId, 24);
+
+        assertEquals(Instant.parse("2024-12-31T13:00:00Z"), res.getFrom());
+        assertEquals(10, res.getBranch().getSamples());
+        assertEquals(315, res.getBranch().getP50Seconds());
+        assertEquals(915, res.getBranch().getP95Seconds());
+        assertEquals(burgerId, res.getItems().get(0).getSubjectId());
+        assertEquals(friesId, res.getItems().get(1).getSubjectId());
+    }
+
+    @Test
+    void stats_rejectsOutOfRangeHours() {
+        RestoRestaurantException ex = assertThrows(RestoRestaurantException.class,
+                () -> service.stats(branchId, 0));
+
+        assertEquals("400", ex.getErrorCode());
+    }
+
+    private static OrderStatusChangedEvent event(UUID orderId, OrderStatus from, OrderStatus to, String at) {
+        return new OrderStatusChangedEvent(orderId, from, to, Instant.parse(at));
+    }
+
+    private OrderRepository.OrderItemRef itemRef(UUID orderId, UUID itemId) {
+        return new OrderRepository.OrderItemRef() {
+            @Override
+            public UUID getOrderId() {
+                return orderId;
+            }
+
+            @Override
+            public UUID getBranchId() {
+                return branchId;
+            }
+
+            @Override
+            public UUID getItemId() {
+                return itemId;
+            }
+        };
+    }
+
+    private static OrderStatusHistoryRepository.StatusEntry statusEntry(UUID orderId, String at) {
+        return new OrderStatusHistoryRepository.StatusEntry() {
+            @Override
+            public UUID getOrderId() {
+                return orderId;
+            }
+
+            @Override
+            public Instant getChangedAt() {
+                return Instant.parse(at);
+            }
+        };
+    }
+}
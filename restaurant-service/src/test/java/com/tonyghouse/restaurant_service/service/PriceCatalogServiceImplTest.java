@@ -0,0 +1,267 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.entity.Branch;
+import com.tonyghouse.restaurant_service.entity.Combo;
+import com.tonyghouse.restaurant_service.entity.MenuItem;
+import com.tonyghouse.restaurant_service.exception.RestoRestaurantException;
+import com.tonyghouse.restaurant_service.helper.PriceCatalog;
+import com.tonyghouse.restaurant_service.repo.ComboRepository;
+import com.tonyghouse.restaurant_service.repo.MenuItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PriceCatalogServiceImplTest {
+
+    @Mock
+    MenuItemRepository menuItemRepository;
+
+    @Mock
+    ComboRepository comboRepository;
+
+    @Mock
+    PricePreviewCacheService previewCacheService;
+
+    @Mock
+    JedisPool jedisPool;
+
+    @Mock
+    Jedis jedis;
+
+    @Mock
+    Clock clock;
+
+    @InjectMocks
+    PriceCatalogServiceImpl service;
+
+    Instant now = Instant.parse("2025-01-01T12:00:00Z");
+
+    @BeforeEach
+    void setup() {
+        Mockito.when(jedisPool.getResource()).thenReturn(jedis);
+        Mockito.when(clock.instant()).thenAnswer(inv -> now);
+    }
+
+    @Test
+    void forBranch_loadsOnce_thenServesSnapshot() {
+        UUID branchId = UUID.randomUUID();
+        MenuItem mi = item("Burger", "100");
+
+        Mockito.when(menuItemRepository.findAllByBranchId(branchId)).thenReturn(List.of(mi));
+        Mockito.when(comboRepository.findByBranch_Id(branchId)).thenReturn(List.of());
+
+        PriceCatalog first = service.forBranch(branchId);
+        PriceCatalog second = service.forBranch(branchId);
+
+        assertSame(first, second);
+        assertEquals(new BigDecimal("100"), second.item(mi.getId()).price());
+        Mockito.verify(menuItemRepository, Mockito.times(1)).findAllByBranchId(branchId);
+        Mockito.verify(comboRepository, Mockito.times(1)).findByBranch_Id(branchId);
+    }
+
+    @Test
+    void refreshItems_patchesOnlyBranchesContainingItem() {
+        UUID branchA = UUID.randomUUID();
+        UUID branchB = UUID.randomUUID();
+        MenuItem mi = item("Burger", "100");
+
+        Mockito.when(menuItemRepository.findAllByBranchId(branchA)).thenReturn(List.of(mi));
+        Mockito.when(menuItemRepository.findAllByBranchId(branchB)).thenReturn(List.of());
+        Mockito.when(comboRepository.findByBranch_Id(Mockito.any())).thenReturn(List.of());
+
+        service.forBranch(branchA);
+        PriceCatalog before = service.forBranch(branchB);
+
+        mi.setPrice(new BigDecimal("120"));
+        service.refreshItems(List.of(mi));
+
+        assertEquals(new BigDecimal("120"), service.forBranch(branchA).item(mi.getId()).price());
+        assertSame(before, service.forBranch(branchB));
+        assertNull(service.forBranch(branchB).item(mi.getId()));
+        Mockito.verify(previewCacheService).evict(Set.of(mi.getId()));
+        Mockito.verify(jedis).publish(PriceCatalogService.INVALIDATION_CHANNEL, "item " + mi.getId());
+    }
+
+    @Test
+    void refreshCombo_updatesBranchSnapshot() {
+        UUID branchId = UUID.randomUUID();
+        Branch branch = new Branch();
+        branch.setId(branchId);
+
+        Combo combo = new Combo();
+        combo.setId(UUID.randomUUID());
+        combo.setName("Family Combo");
+        combo.setComboPrice(new BigDecimal("500"));
+        combo.setBranch(branch);
+
+        Mockito.when(menuItemRepository.findAllByBranchId(branchId)).thenReturn(List.of());
+        Mockito.when(comboRepository.findByBranch_Id(branchId)).thenReturn(List.of(combo));
+
+        service.forBranch(branchId);
+
+        combo.setComboPrice(new BigDecimal("450"));
+        service.refreshCombo(combo);
+
+        assertEquals(new BigDecimal("450"), service.forBranch(branchId).combo(combo.getId()).price());
+        Mockito.verify(previewCacheService).evict(List.of(combo.getId()));
+        Mockito.verify(jedis).publish(PriceCatalogService.INVALIDATION_CHANNEL,
+                "branch " + branchId + "\ncombo " + combo.getId());
+        Mockito.verify(comboRepository, Mockito.times(1)).findByBranch_Id(branchId);
+    }
+
+    @Test
+    void refresh_beforeFirstLoad_doesNotBuildSnapshot() {
+        service.refreshItems(List.of(item("Burger", "100")));
+
+        Mockito.verifyNoInteractions(menuItemRepository, comboRepository);
+    }
+
+    @Test
+    void applyInvalidation_dropsBranchesHoldingItemOrNamedBranch() {
+        UUID branchA = UUID.randomUUID();
+        UUID branchB = UUID.randomUUID();
+        UUID branchC = UUID.randomUUID();
+        MenuItem mi = item("Burger", "100");
+
+        Mockito.when(menuItemRepository.findAllByBranchId(branchA)).thenReturn(List.of(mi));
+        Mockito.when(menuItemRepository.findAllByBranchId(branchB)).thenReturn(List.of());
+        Mockito.when(menuItemRepository.findAllByBranchId(branchC)).thenReturn(List.of());
+        Mockito.when(comboRepository.findByBranch_Id(Mockito.any())).thenReturn(List.of());
+
+        PriceCatalog a = service.forBranch(branchA);
+        PriceCatalog b = service.forBranch(branchB);
+        PriceCatalog c = service.forBranch(branchC);
+
+        service.applyInvalidation("item " + mi.getId() + "\nbranch " + branchC);
+
+        assertNotSame(a, service.forBranch(branchA));
+        assertSame(b, service.forBranch(branchB));
+        assertNotSame(c, service.forBranch(branchC));
+    }
+
+    @Test
+    void applyInvalidation_evictsPreviewsOfChangedItemsAndCombos() {
+        UUID itemId = UUID.randomUUID();
+        UUID comboId = UUID.randomUUID();
+
+        service.applyInvalidation("item " + itemId + "\nbranch " + UUID.randomUUID() + "\ncombo " + comboId);
+
+        Mockito.verify(previewCacheService).evict(List.of(itemId, comboId));
+    }
+
+    @Test
+    void forBranch_snapshotOlderThanMaxAge_isRebuilt() {
+        UUID branchId = UUID.randomUUID();
+        Mockito.when(menuItemRepository.findAllByBranchId(branchId)).thenReturn(List.of());
+        Mockito.when(comboRepository.findByBranch_Id(branchId)).thenReturn(List.of());
+
+        PriceCatalog first = service.forBranch(branchId);
+        now = now.plusSeconds(301);
+
+        assertNotSame(first, service.forBranch(branchId));
+        Mockito.verify(menuItemRepository, Mockito.times(2)).findAllByBranchId(branchId);
+    }
+
+    @Test
+    void forBranch_refreshDuringLoad_readsAgainInsteadOfCachingOldPrices() {
+        UUID branchId = UUID.randomUUID();
+        MenuItem old = item("Burger", "100");
+        MenuItem updated = item("Burger", "120");
+        updated.setId(old.getId());
+
+        Mockito.when(menuItemRepository.findAllByBranchId(branchId))
+                .thenAnswer(inv -> {
+                    // the price change commits while the first query is running
+                    service.refreshItems(List.of(updated));
+                    return List.of(old);
+                })
+                .thenReturn(List.of(updated));
+        Mockito.when(comboRepository.findByBranch_Id(branchId)).thenReturn(List.of());
+
+        PriceCatalog catalog = service.forBranch(branchId);
+
+        assertEquals(new BigDecimal("120"), catalog.item(old.getId()).price());
+        assertSame(catalog, service.forBranch(branchId));
+        Mockito.verify(menuItemRepository, Mockito.times(2)).findAllByBranchId(branchId);
+    }
+
+    @Test
+    void forBranch_pricesChangingDuringEveryLoad_givesUpAndServesUncached() {
+        UUID branchId = UUID.randomUUID();
+        MenuItem elsewhere = item("Tea", "20");
+
+        Mockito.when(menuItemRepository.findAllByBranchId(branchId))
+                .thenAnswer(inv -> {
+                    // another branch's prices keep changing
+                    service.refreshItems(List.of(elsewhere));
+                    return List.of();
+                });
+        Mockito.when(comboRepository.findByBranch_Id(branchId)).thenReturn(List.of());
+
+        PriceCatalog first = service.forBranch(branchId);
+
+        assertNotNull(first);
+        Mockito.verify(menuItemRepository, Mockito.times(PriceCatalogServiceImpl.MAX_LOAD_ATTEMPTS))
+                .findAllByBranchId(branchId);
+        assertNotSame(first, service.forBranch(branchId));
+    }
+
+    @Test
+    void forBranch_waiterGetsTheLoadersExceptionUnwrapped() throws Exception {
+        UUID branchId = UUID.randomUUID();
+        AtomicReference<Throwable> waiterFailure = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                service.forBranch(branchId);
+            } catch (Throwable e) {
+                waiterFailure.set(e);
+            }
+        });
+
+        Mockito.when(menuItemRepository.findAllByBranchId(branchId))
+                .thenAnswer(inv -> {
+                    waiter.start();
+                    // the waiter parks on this load's future
+                    while (waiter.getState() != Thread.State.WAITING) {
+                        Thread.onSpinWait();
+                    }
+                    throw new RestoRestaurantException("Branch not found", HttpStatus.NOT_FOUND);
+                });
+
+        assertThrows(RestoRestaurantException.class, () -> service.forBranch(branchId));
+        waiter.join(5_000);
+
+        RestoRestaurantException ex = assertInstanceOf(RestoRestaurantException.class, waiterFailure.get());
+        assertEquals("404", ex.getErrorCode());
+    }
+
+    private static MenuItem item(String name, String price) {
+        MenuItem mi = new MenuItem();
+        mi.setId(UUID.randomUUID());
+        mi.setName(name);
+        mi.setPrice(new BigDecimal(price));
+        mi.setAvailable(true);
+        return mi;
+    }
+}
@@ -0,0 +1,162 @@
+package com.tonyghouse.restaurant_service.service;
+
+import com.tonyghouse.restaurant_service.dto.CreateOrderRequest;
+import com.tonyghouse.restaurant_service.dto.OrderItemRequest;
+import com.tonyghouse.restaurant_service.dto.PriceBreakdown;
+import com.tonyghouse.restaurant_service.dto.PricePreviewResponse;
+import com.tonyghouse.restaurant_service.mapper.OrderMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PricePreviewCacheServiceImplTest {
+
+    @Mock
+    JedisPool jedisPool;
+
+    @Mock
+    Jedis jedis;
+
+    @InjectMocks
+    PricePreviewCacheServiceImpl service;
+
+    final UUID branchId = UUID.randomUUID();
+    final UUID burgerId = UUID.randomUUID();
+    final UUID comboId = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        lenient().when(jedisPool.getResource()).thenReturn(jedis);
+    }
+
+    @Test
+    void fingerprint_ignoresLineOrderAndSplitLines() {
+        CreateOrderRequest a = cart(line("ITEM", burgerId, 2), line("COMBO", comboId, 1));
+        CreateOrderRequest b = cart(line("COMBO", comboId, 1), line("ITEM", burgerId, 1), line("ITEM", burgerId, 1));
+        CreateOrderRequest c = cart(line("ITEM", burgerId, 3), line("COMBO", comboId, 1));
+
+        assertEquals(PricePreviewCacheServiceImpl.fingerprint(a), PricePreviewCacheServiceImpl.fingerprint(b));
+        assertNotEquals(PricePreviewCacheServiceImpl.fingerprint(a), PricePreviewCacheServiceImpl.fingerprint(c));
+    }
+
+    @Test
+    void fingerprint_differsPerBranch() {
+        CreateOrderRequest a = cart(line("ITEM", burgerId, 1));
+        CreateOrderRequest b = cart(line("ITEM", burgerId, 1));
+        b.setBranchId(UUID.randomUUID());
+
+        assertNotEquals(PricePreviewCacheServiceImpl.fingerprint(a), PricePreviewCacheServiceImpl.fingerprint(b));
+    }
+
+    @Test
+    void get_hit() {
+        CreateOrderRequest req = cart(line("ITEM", burgerId, 1));
+        PricePreviewResponse stored = preview("118.00");
+        Mockito.when(jedis.get("preview:" + PricePreviewCacheServiceImpl.fingerprint(req)))
+                .thenReturn(OrderMapper.previewToJson(stored));
+
+        Optional<PricePreviewResponse> res = service.get(req);
+
+        assertTrue(res.isPresent());
+        assertEquals(new BigDecimal("118.00"), res.get().getBreakdown().getGrandTotal());
+    }
+
+    @Test
+    void get_emptyCart_isNotLookedUp() {
+        CreateOrderRequest req = new CreateOrderRequest();
+        req.setBranchId(branchId);
+
+        assertTrue(service.get(req).isEmpty());
+        Mockito.verifyNoInteractions(jedisPool);
+    }
+
+    @Test
+    void stamp_sumsTheItemGenerations() {
+        CreateOrderRequest req = cart(line("ITEM", burgerId, 1), line("COMBO", comboId, 1), line("ITEM", burgerId, 1));
+        Mockito.when(jedis.mget("preview:gen:" + burgerId, "preview:gen:" + comboId))
+                .thenReturn(Arrays.asList("3", null));
+
+        assertEquals(3L, service.stamp(req));
+    }
+
+    @Test
+    void put_storesPreviewAndIndexesEveryItemIfStampStillHolds() {
+        CreateOrderRequest req = cart(line("ITEM", burgerId, 1), line("COMBO", comboId, 1));
+        String key = "preview:" + PricePreviewCacheServiceImpl.fingerprint(req);
+        Mockito.when(jedis.eval(anyString(), anyList(), anyList())).thenReturn(1L);
+
+        service.put(req, preview("118.00"), 3L);
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.captor();
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.captor();
+        Mockito.verify(jedis).eval(anyString(), keys.capture(), args.capture());
+        assertEquals(List.of(
+                "preview:gen:" + burgerId, "preview:gen:" + comboId,
+                key,
+                "preview:idx:" + burgerId, "preview:idx:" + comboId), keys.getValue());
+        assertEquals("3", args.getValue().get(0));
+        assertEquals("60", args.getValue().get(1));
+        assertEquals("2", args.getValue().get(3));
+    }
+
+    @Test
+    void evict_bumpsGenerationBeforeDroppingIndexedPreviews() {
+        Mockito.when(jedis.smembers("preview:idx:" + burgerId))
+                .thenReturn(Set.of("preview:abc"));
+
+        service.evict(List.of(burgerId));
+
+        InOrder inOrder = Mockito.inOrder(jedis);
+        inOrder.verify(jedis).incr("preview:gen:" + burgerId);
+        inOrder.verify(jedis).smembers("preview:idx:" + burgerId);
+        inOrder.verify(jedis).del(new String[]{"preview:abc"});
+        inOrder.verify(jedis).del("preview:idx:" + burgerId);
+    }
+
+    private CreateOrderRequest cart(OrderItemRequest... lines) {
+        CreateOrderRequest r = new CreateOrderRequest();
+        r.setBranchId(branchId);
+        r.setItems(List.of(lines));
+        return r;
+    }
+
+    private static OrderItemRequest line(String type, UUID id, int qty) {
+        OrderItemRequest r = new OrderItemRequest();
+        r.setItemType(type);
+        r.setItemId(id);
+        r.setQuantity(qty);
+        return r;
+    }
+
+    private static PricePreviewResponse preview(String grandTotal) {
+        PriceBreakdown breakdown = new PriceBreakdown();
+        breakdown.setGrandTotal(new BigDecimal(grandTotal));
+        PricePreviewResponse r = new PricePreviewResponse();
+        r.setBreakdown(breakdown);
+        return r;
+    }
+}